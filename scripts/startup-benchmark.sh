@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+#
+# Startup time and first-request latency for each packaging variant.
+#
+#   mvn -Pfast-startup -DskipTests package            # jvm, aot, aot-cds
+#   mvn -Pnative -DskipTests native:compile           # native (optional)
+#   scripts/startup-benchmark.sh [runs]
+#
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+TARGET="$(cd "$(dirname "$0")/../target" && pwd)"
+JAR="$(ls "$TARGET"/project-bookstore-mvc-*.jar | grep -v original | head -n 1)"
+CDS_DIR="$TARGET/cds"
+NATIVE="$TARGET/project-bookstore-mvc"
+LOG="$(mktemp)"
+
+variant_command() {
+    case "$1" in
+        jvm)     echo "java -jar $JAR" ;;
+        aot)     echo "java -Dspring.aot.enabled=true -jar $JAR" ;;
+        aot-cds) echo "java -XX:SharedArchiveFile=$CDS_DIR/application.jsa -Dspring.aot.enabled=true -jar $CDS_DIR/$(basename "$JAR")" ;;
+        native)  echo "$NATIVE" ;;
+    esac
+}
+
+variant_available() {
+    case "$1" in
+        aot-cds) [[ -f "$CDS_DIR/application.jsa" ]] ;;
+        native)  [[ -x "$NATIVE" ]] ;;
+        *)       [[ -f "$JAR" ]] ;;
+    esac
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+run_once() {
+    local command="$1"
+    local start ready first_request
+
+    start=$(now_ms)
+    $command --server.port="$PORT" > "$LOG" 2>&1 &
+    local pid=$!
+
+    until grep -q "Started ProjectBookstoreMvcApplication" "$LOG"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "process exited before startup, see $LOG" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    ready=$(now_ms)
+
+    first_request=$(curl -s -o /dev/null -w '%{time_total}' "http://localhost:$PORT/books?page=0&size=10")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    echo "$((ready - start)) $(awk -v t="$first_request" 'BEGIN { printf "%.1f", t * 1000 }')"
+}
+
+printf "%-8s %6s %14s %18s\n" "variant" "runs" "startup (ms)" "first req (ms)"
+for variant in jvm aot aot-cds native; do
+    if ! variant_available "$variant"; then
+        printf "%-8s %6s\n" "$variant" "skip"
+        continue
+    fi
+
+    command="$(variant_command "$variant")"
+    total_startup=0
+    total_first=0
+    for _ in $(seq "$RUNS"); do
+        read -r startup first < <(run_once "$command")
+        total_startup=$((total_startup + startup))
+        total_first=$(awk -v a="$total_first" -v b="$first" 'BEGIN { print a + b }')
+    done
+
+    printf "%-8s %6d %14d %18.1f\n" "$variant" "$RUNS" \
+        "$((total_startup / RUNS))" \
+        "$(awk -v t="$total_first" -v n="$RUNS" 'BEGIN { print t / n }')"
+done
+
+rm -f "$LOG"
@@ -0,0 +1,13 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+/**
+ * Published by the services for every mutation of the catalog. {@code data} is the rendered output DTO of the
+ * entity after the change, or {@code null} for deletions.
+ */
+public record CatalogChangeEvent(
+        ChangeEntity entity,
+        ChangeType type,
+        Long id,
+        Object data
+) {
+}
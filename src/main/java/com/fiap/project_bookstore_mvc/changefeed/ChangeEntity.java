@@ -0,0 +1,6 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+public enum ChangeEntity {
+    AUTHOR,
+    BOOK
+}
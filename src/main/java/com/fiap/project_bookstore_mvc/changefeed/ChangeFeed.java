@@ -0,0 +1,130 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size ring buffer of committed catalog changes. Appends only hold the lock for an array store, so
+ * writers never wait on consumers; a consumer that falls behind by more than the capacity finds its
+ * position overwritten and has to start over from a snapshot.
+ *
+ * <p>Sequence numbers start at the epoch-microsecond of startup, which keeps them increasing across
+ * restarts as long as the feed averages less than one change per microsecond.
+ */
+public class ChangeFeed {
+
+    private final ChangeRecord[] ring;
+    private final Clock clock;
+    private final long origin;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = this.lock.newCondition();
+    private final List<Consumer<ChangeRecord>> listeners = new CopyOnWriteArrayList<>();
+    private long head;
+
+    public ChangeFeed(int capacity, Clock clock) {
+        this.ring = new ChangeRecord[capacity];
+        this.clock = clock;
+        this.origin = TimeUnit.MILLISECONDS.toMicros(clock.millis());
+        this.head = this.origin;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(CatalogChangeEvent event) {
+        append(event);
+    }
+
+    public ChangeRecord append(CatalogChangeEvent event) {
+        ChangeRecord record;
+        this.lock.lock();
+        try {
+            long seq = ++this.head;
+            record = new ChangeRecord(seq, this.clock.instant(), event.entity(), event.type(), event.id(), event.data());
+            this.ring[slot(seq)] = record;
+            this.appended.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        this.listeners.forEach(listener -> listener.accept(record));
+        return record;
+    }
+
+    /**
+     * Registers a callback invoked on the writer's thread, outside the lock, after each append. Records from
+     * concurrent writers may reach listeners out of sequence order.
+     */
+    public void addListener(Consumer<ChangeRecord> listener) {
+        this.listeners.add(listener);
+    }
+
+    public long head() {
+        this.lock.lock();
+        try {
+            return this.head;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code max} records following {@code since}, or {@code null} when {@code since} is no
+     * longer (or was never) covered by the buffer.
+     */
+    public List<ChangeRecord> readAfter(long since, int max) {
+        this.lock.lock();
+        try {
+            if (!canResumeFrom(since)) {
+                return null;
+            }
+            int count = (int) Math.min(max, this.head - since);
+            List<ChangeRecord> records = new ArrayList<>(count);
+            for (long seq = since + 1; seq <= since + count; seq++) {
+                records.add(this.ring[slot(seq)]);
+            }
+            return records;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public boolean canResumeFrom(long since) {
+        this.lock.lock();
+        try {
+            long oldest = Math.max(this.origin, this.head - this.ring.length);
+            return since >= oldest && since <= this.head;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until a record after {@code since} is available or the timeout elapses.
+     */
+    public boolean awaitAfter(long since, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        this.lock.lock();
+        try {
+            while (this.head <= since) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = this.appended.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) Math.floorMod(seq, (long) this.ring.length);
+    }
+}
@@ -0,0 +1,31 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfig {
+
+    @Bean
+    public ChangeFeed changeFeed(ChangeFeedProperties properties) {
+        return new ChangeFeed(properties.capacity(), Clock.systemUTC());
+    }
+
+    @Bean
+    public ChangeFeedSnapshot changeFeedSnapshot(ChangeFeedProperties properties,
+                                                 AuthorRepository authorRepository, BookRepository bookRepository) {
+        return new ChangeFeedSnapshot(authorRepository, bookRepository, properties.snapshotPageSize());
+    }
+
+    @Bean
+    public ChangeStreamer changeStreamer(ChangeFeed changeFeed, ChangeFeedSnapshot changeFeedSnapshot,
+                                         ChangeFeedProperties properties) {
+        return new ChangeStreamer(changeFeed, changeFeedSnapshot, properties);
+    }
+}
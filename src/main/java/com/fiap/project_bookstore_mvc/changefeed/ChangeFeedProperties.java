@@ -0,0 +1,16 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.change-feed")
+public record ChangeFeedProperties(
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("256") int batchSize,
+        @DefaultValue("500") int snapshotPageSize,
+        @DefaultValue("15s") Duration heartbeat,
+        @DefaultValue("30m") Duration maxConnectionAge
+) {
+}
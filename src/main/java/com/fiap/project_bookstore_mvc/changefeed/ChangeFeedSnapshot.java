@@ -0,0 +1,62 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streams the current state of the catalog in ID order, one entry per live author and book, for consumers
+ * that can no longer resume from the ring buffer. Pages are keyed on the last ID seen, so rows deleted
+ * meanwhile cannot shift an unchanged row out of the snapshot.
+ */
+public class ChangeFeedSnapshot {
+
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final int pageSize;
+
+    public ChangeFeedSnapshot(AuthorRepository authorRepository, BookRepository bookRepository, int pageSize) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.pageSize = pageSize;
+    }
+
+    public void forEach(EntryConsumer consumer) throws IOException {
+        long lastId = Long.MIN_VALUE;
+        List<Author> authors;
+        do {
+            authors = firstPage(this.authorRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(this.pageSize)));
+            for (Author author : authors) {
+                consumer.accept(new SnapshotEntry(ChangeEntity.AUTHOR, author.getId(), AuthorMapper.toOutDTO(author)));
+                lastId = author.getId();
+            }
+        } while (authors.size() == this.pageSize);
+
+        lastId = Long.MIN_VALUE;
+        List<Book> books;
+        do {
+            books = firstPage(this.bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(this.pageSize)));
+            for (Book book : books) {
+                consumer.accept(new SnapshotEntry(ChangeEntity.BOOK, book.getId(), BookMapper.toOutDTO(book)));
+                lastId = book.getId();
+            }
+        } while (books.size() == this.pageSize);
+    }
+
+    // when sharded, every shard answers with a full page; only the lowest IDs are safe to consume
+    private <T> List<T> firstPage(List<T> rows) {
+        return rows.size() > this.pageSize ? rows.subList(0, this.pageSize) : rows;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(SnapshotEntry entry) throws IOException;
+    }
+}
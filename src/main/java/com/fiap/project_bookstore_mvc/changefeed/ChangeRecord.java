@@ -0,0 +1,13 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+import java.time.Instant;
+
+public record ChangeRecord(
+        long seq,
+        Instant at,
+        ChangeEntity entity,
+        ChangeType type,
+        Long id,
+        Object data
+) {
+}
@@ -0,0 +1,89 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Serves each subscriber from its own virtual thread, which reads the ring buffer at its own pace. Events:
+ * {@code change} for every record (SSE id = sequence), and {@code reset}, {@code snapshot}...,
+ * {@code snapshot-end} (SSE id = sequence the snapshot is consistent with) when the requested position
+ * cannot be resumed.
+ */
+public class ChangeStreamer implements DisposableBean {
+
+    private final ChangeFeed feed;
+    private final ChangeFeedSnapshot snapshot;
+    private final ChangeFeedProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChangeStreamer(ChangeFeed feed, ChangeFeedSnapshot snapshot, ChangeFeedProperties properties) {
+        this.feed = feed;
+        this.snapshot = snapshot;
+        this.properties = properties;
+    }
+
+    public SseEmitter open(Long since) {
+        SseEmitter emitter = new SseEmitter(this.properties.maxConnectionAge().toMillis());
+        long start = since == null ? this.feed.head() : since;
+
+        Future<?> task = this.executor.submit(() -> stream(emitter, start));
+        emitter.onCompletion(() -> task.cancel(true));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> task.cancel(true));
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, long start) {
+        long cursor = start;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ChangeRecord> records = this.feed.readAfter(cursor, this.properties.batchSize());
+                if (records == null) {
+                    cursor = sendSnapshot(emitter);
+                } else if (records.isEmpty()) {
+                    if (!this.feed.awaitAfter(cursor, this.properties.heartbeat())) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } else {
+                    for (ChangeRecord record : records) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(record.seq()))
+                                .name("change")
+                                .data(record, MediaType.APPLICATION_JSON));
+                        cursor = record.seq();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private long sendSnapshot(SseEmitter emitter) throws IOException {
+        long head = this.feed.head();
+        emitter.send(SseEmitter.event().name("reset").data(Map.of("seq", head), MediaType.APPLICATION_JSON));
+        this.snapshot.forEach(entry -> emitter.send(SseEmitter.event()
+                .name("snapshot")
+                .data(entry, MediaType.APPLICATION_JSON)));
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(head))
+                .name("snapshot-end")
+                .data(Map.of("seq", head), MediaType.APPLICATION_JSON));
+        return head;
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+}
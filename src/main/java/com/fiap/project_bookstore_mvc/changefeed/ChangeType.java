@@ -0,0 +1,7 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,8 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+public record SnapshotEntry(
+        ChangeEntity entity,
+        Long id,
+        Object data
+) {
+}
@@ -0,0 +1,44 @@
+package com.fiap.project_bookstore_mvc.configs;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.function.Consumer;
+
+public class BookstoreRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String BASE_PACKAGE = "com.fiap.project_bookstore_mvc";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+        forEachClassIn(BASE_PACKAGE + ".dto", classLoader,
+                dto -> bindings.registerReflectionHints(hints.reflection(), dto));
+
+        forEachClassIn(BASE_PACKAGE + ".entities", classLoader,
+                entity -> hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS));
+
+        forEachClassIn(BASE_PACKAGE + ".mappers", classLoader,
+                mapper -> hints.reflection().registerType(mapper,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS));
+    }
+
+    private static void forEachClassIn(String basePackage, ClassLoader classLoader, Consumer<Class<?>> action) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+
+        for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+            action.accept(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+        }
+    }
+}
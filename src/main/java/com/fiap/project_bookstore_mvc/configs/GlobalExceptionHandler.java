@@ -1,28 +1,98 @@
 package com.fiap.project_bookstore_mvc.configs;
 
+import com.fiap.project_bookstore_mvc.errors.ErrorReporter;
 import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.util.HashMap;
+import java.sql.SQLException;
 import java.util.Map;
+import java.util.Set;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    // the standard state for a referential integrity violation, and H2's for a missing parent row
+    private static final Set<String> FOREIGN_KEY_STATES = Set.of("23503", "23506");
+
+    private final ErrorReporter errorReporter;
+
+    public GlobalExceptionHandler(ObjectProvider<ErrorReporter> errorReporter) {
+        this.errorReporter = errorReporter.getIfAvailable();
+    }
+
     @ExceptionHandler(EntityNotFound.class)
     public ResponseEntity<Map<String, String>> handleEntityNotFound(EntityNotFound e) {
+        if (errorReporter != null) {
+            errorReporter.count(HttpStatus.NOT_FOUND, e);
+        }
         return ResponseEntity.notFound().build();
     }
 
+    @ExceptionHandler(InvalidRequest.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequest(InvalidRequest e) {
+        if (errorReporter != null) {
+            errorReporter.count(HttpStatus.BAD_REQUEST, e);
+        }
+        Map<String, String> errorResult = Map.of("error", e.getMessage());
+        return ResponseEntity.badRequest().body(errorResult);
+    }
+
+    // a stale version or a lock that could not be taken
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(ConcurrencyFailureException e) {
+        return conflict(e);
+    }
+
+    // only a missing or still referenced row (a book written for an author deleted meanwhile) can pass on a
+    // retry; a value too long, a missing one or a duplicate fails the same way every time
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleIntegrityViolation(DataIntegrityViolationException e) {
+        if (isForeignKeyViolation(e)) {
+            return conflict(e);
+        }
+        if (errorReporter != null) {
+            errorReporter.count(HttpStatus.BAD_REQUEST, e);
+        }
+        Map<String, String> errorResult = Map.of("error", "dados inválidos: valor longo demais, ausente ou duplicado");
+        return ResponseEntity.badRequest().body(errorResult);
+    }
+
+    private ResponseEntity<Map<String, String>> conflict(RuntimeException e) {
+        if (errorReporter != null) {
+            errorReporter.count(HttpStatus.CONFLICT, e);
+        }
+        Map<String, String> errorResult = Map.of("error", "o registro foi alterado por outra requisição; recarregue e tente novamente");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResult);
+    }
+
+    private static boolean isForeignKeyViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && FOREIGN_KEY_STATES.contains(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, String>> handleException(Exception e) {
-        e.printStackTrace();
+    public ResponseEntity<Map<String, String>> handleException(Exception e, HttpServletRequest request) {
+        if (errorReporter != null) {
+            errorReporter.report(e, request.getMethod(), request.getRequestURI());
+        } else {
+            log.error("Unexpected error on {} {}", request.getMethod(), request.getRequestURI(), e);
+        }
         Map<String, String> errorResult = Map.of("error", "ops... ocorreu um erro inesperado");
         return ResponseEntity.internalServerError().body(errorResult);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.fiap.project_bookstore_mvc.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(BookstoreRuntimeHints.class)
+public class NativeConfig {
+}
@@ -1,59 +1,187 @@
 package com.fiap.project_bookstore_mvc.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.detail.AuthorDetail;
+import com.fiap.project_bookstore_mvc.detail.AuthorDetailLoader;
+import com.fiap.project_bookstore_mvc.detail.AuthorInclude;
 import com.fiap.project_bookstore_mvc.dto.In.AuthorInDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorDetailOutDTO;
 import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
 import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.NormalizedBooksOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.PageOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.SuggestionOutDTO;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.fieldset.AuthorFieldSet;
 import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
 import com.fiap.project_bookstore_mvc.mappers.BookMapper;
+import com.fiap.project_bookstore_mvc.mappers.PageMapper;
+import com.fiap.project_bookstore_mvc.mappers.SuggestionMapper;
 import com.fiap.project_bookstore_mvc.services.AuthorService;
-import org.springframework.data.domain.Page;
+import com.fiap.project_bookstore_mvc.suggest.CatalogSuggester;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/authors")
 public class AuthorController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthorController.class);
+
     private final AuthorService authorService;
+    private final CatalogSuggester catalogSuggester;
+    private final AuthorDetailLoader authorDetailLoader;
+    private final ObjectMapper objectMapper;
 
-    public AuthorController(AuthorService authorService) {
+    public AuthorController(AuthorService authorService, ObjectProvider<CatalogSuggester> catalogSuggester,
+                            AuthorDetailLoader authorDetailLoader, ObjectMapper objectMapper) {
         this.authorService = authorService;
+        this.catalogSuggester = catalogSuggester.getIfAvailable();
+        this.authorDetailLoader = authorDetailLoader;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<Page<AuthorOutDTO>> findAll(
+    public ResponseEntity<PageOutDTO<?>> findAll(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String count,
+            @RequestParam(required = false) String fields
     ) {
-        Page<Author> authors = authorService.findAll(page, size);
-        Page<AuthorOutDTO> outDTO = authors.map(AuthorMapper::toOutDTO);
+        if (fields != null) {
+            AuthorFieldSet fieldSet = AuthorFieldSet.parse(fields);
+            CountedPage<Author> authors = authorService.findAll(page, size, CountStrategy.parse(count), fieldSet);
+            return ResponseEntity.ok(PageMapper.toOutDTO(authors, fieldSet::toOutMap));
+        }
+        CountedPage<Author> authors = authorService.findAll(page, size, CountStrategy.parse(count));
+        PageOutDTO<AuthorOutDTO> outDTO = PageMapper.toOutDTO(authors, AuthorMapper::toOutDTO);
+
+        return ResponseEntity.ok(outDTO);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionOutDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = "10") int limit
+    ) {
+        // without bookstore.suggest.enabled there is no index to answer from
+        if (catalogSuggester == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<SuggestionOutDTO> outDTO = catalogSuggester.suggestAuthors(prefix, limit).stream()
+                .map(SuggestionMapper::toOutDTO)
+                .toList();
 
         return ResponseEntity.ok(outDTO);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<AuthorOutDTO> findById(@PathVariable Long id) {
-        Author author = authorService.findById(id);
+        return authorService.findOptionalById(id)
+                .map(author -> ResponseEntity.ok(AuthorMapper.toOutDTO(author)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        AuthorOutDTO outDTO = AuthorMapper.toOutDTO(author);
-        return ResponseEntity.ok(outDTO);
+    @GetMapping(value = "/{id}", params = "include")
+    public ResponseEntity<AuthorDetailOutDTO> findDetailById(@PathVariable Long id, @RequestParam String include) {
+        return authorDetailLoader.load(id, AuthorInclude.parse(include))
+                .map(detail -> ResponseEntity.ok(AuthorMapper.toDetailOutDTO(detail)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<AuthorOutDTO> create(@RequestBody AuthorInDTO author) {
+    public ResponseEntity<?> create(@RequestBody AuthorInDTO author) {
+        if (author.books() != null) {
+            AuthorDetail graph = AuthorMapper.toDetail(author);
+            AuthorDetail created = authorService.createWithBooks(graph.author(), graph.books());
+            return ResponseEntity.status(HttpStatus.CREATED).body(AuthorMapper.toDetailOutDTO(created));
+        }
         Author entity = AuthorMapper.toEntity(author);
         Author savedAuthor = authorService.saveOrUpdate(entity);
         AuthorOutDTO outDTO = AuthorMapper.toOutDTO(savedAuthor);
         return ResponseEntity.status(HttpStatus.CREATED).body(outDTO);
     }
 
+    // one author per line, each with its books; answers with one line per created author, in the same order,
+    // written as its chunk commits
+    @PostMapping(consumes = "application/x-ndjson")
+    public void createAll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<AuthorDetail> authors = new ArrayList<>();
+        try (MappingIterator<AuthorInDTO> lines = objectMapper.readerFor(AuthorInDTO.class)
+                .readValues(request.getInputStream())) {
+            while (lines.hasNextValue()) {
+                authors.add(AuthorMapper.toDetail(lines.nextValue()));
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequest(e.getLocation() == null
+                    ? "Invalid author"
+                    : "Invalid author on line " + e.getLocation().getLineNr());
+        }
+
+        // the status and content type wait for the first commit, so a rejected batch still answers as JSON
+        int[] committed = new int[1];
+        try {
+            authorService.createAllWithBooks(authors, created -> {
+                try {
+                    if (committed[0] == 0) {
+                        startNdjson(response);
+                    }
+                    writeLine(response, AuthorMapper.toDetailOutDTO(created));
+                    committed[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (committed[0] == 0) {
+                throw e;
+            }
+            // the 201 has gone out with the chunks already committed, so the failure becomes the last line
+            log.warn("NDJSON author creation stopped after {} authors", committed[0], e);
+            writeLine(response, Map.of("error", "falha ao gravar os autores seguintes; os anteriores estão gravados",
+                    "committed", committed[0]));
+            return;
+        }
+        if (committed[0] == 0) {
+            startNdjson(response);
+        }
+    }
+
+    private void writeLine(HttpServletResponse response, Object value) throws IOException {
+        OutputStream out = response.getOutputStream();
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
+    private static void startNdjson(HttpServletResponse response) {
+        response.setStatus(HttpStatus.CREATED.value());
+        response.setContentType("application/x-ndjson");
+    }
+
     @PutMapping
     public ResponseEntity<AuthorOutDTO> update(@RequestBody AuthorInDTO author) {
+        if (author.books() != null) {
+            throw new InvalidRequest("Books can only be given when creating an author; use /books to change them");
+        }
         Author entity = AuthorMapper.toEntity(author);
         Author updatedAuthor = authorService.saveOrUpdate(entity);
         AuthorOutDTO outDTO = AuthorMapper.toOutDTO(updatedAuthor);
@@ -68,10 +196,17 @@ public class AuthorController {
 
     @GetMapping("/{id}/books")
     public ResponseEntity<List<BookOutDTO>> findBooksByAuthorId(@PathVariable Long id) {
-        List<Book> books = authorService.findBooksByAuthorId(id);
-
-        List<BookOutDTO> outDTO = books.stream().map(BookMapper::toOutDTO).toList();
+        return authorService.findOptionalBooksByAuthorId(id)
+                .map(books -> ResponseEntity.ok(books.stream().map(BookMapper::toOutDTO).toList()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        return ResponseEntity.ok(outDTO);
+    @GetMapping(value = "/{id}/books", params = "normalized=true")
+    public ResponseEntity<NormalizedBooksOutDTO> findNormalizedBooksByAuthorId(@PathVariable Long id) {
+        return authorService.findOptionalBooksByAuthorId(id)
+                .map(books -> ResponseEntity.ok(new NormalizedBooksOutDTO(
+                        books.stream().map(BookMapper::toRefOutDTO).toList(),
+                        AuthorMapper.toDictionary(books.stream().map(Book::getAuthor).toList()))))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -1,44 +1,153 @@
 package com.fiap.project_bookstore_mvc.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.dto.In.BookFilterInDTO;
 import com.fiap.project_bookstore_mvc.dto.In.BookInDTO;
+import com.fiap.project_bookstore_mvc.dto.In.BookReassignInDTO;
 import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BulkOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.PageOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.SuggestionOutDTO;
+import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.fieldset.BookFieldSet;
+import com.fiap.project_bookstore_mvc.index.LongIntHashMap;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
 import com.fiap.project_bookstore_mvc.mappers.BookMapper;
+import com.fiap.project_bookstore_mvc.mappers.PageMapper;
+import com.fiap.project_bookstore_mvc.mappers.SuggestionMapper;
+import com.fiap.project_bookstore_mvc.services.AuthorService;
 import com.fiap.project_bookstore_mvc.services.BookService;
-import org.springframework.data.domain.Page;
+import com.fiap.project_bookstore_mvc.suggest.CatalogSuggester;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/books")
 public class BookController {
 
     private final BookService bookService;
+    private final AuthorService authorService;
+    private final ObjectMapper objectMapper;
+    private final CatalogSuggester catalogSuggester;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, AuthorService authorService, ObjectMapper objectMapper,
+                          ObjectProvider<CatalogSuggester> catalogSuggester) {
         this.bookService = bookService;
+        this.authorService = authorService;
+        this.objectMapper = objectMapper;
+        this.catalogSuggester = catalogSuggester.getIfAvailable();
     }
 
     @GetMapping
-    public ResponseEntity<Page<BookOutDTO>> findAll(
+    public ResponseEntity<?> findAll(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String titleContains,
+            @RequestParam(required = false) String isbnPrefix,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String count,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false, defaultValue = "false") boolean normalized
     ) {
-        Page<Book> books = bookService.findAll(page, size);
-        Page<BookOutDTO> outDTO = books.map(BookMapper::toOutDTO);
+        BookFilterInDTO filter = new BookFilterInDTO(authorId, titleContains, isbnPrefix);
+        if (normalized) {
+            if (fields != null) {
+                throw new InvalidRequest("fields and normalized cannot be combined");
+            }
+            // books carry only the author ID; the page's distinct authors come back in one IN query
+            CountedPage<Book> books = bookService.findAll(filter, page, size, sort, CountStrategy.parse(count), BookFieldSet.NORMALIZED);
+            List<Author> authors = authorService.findAllById(BookMapper.authorIdsOf(books.content()));
+            return ResponseEntity.ok(PageMapper.toOutDTO(books, BookMapper::toRefOutDTO, AuthorMapper.toDictionary(authors)));
+        }
+        if (fields != null) {
+            BookFieldSet fieldSet = BookFieldSet.parse(fields);
+            CountedPage<Book> books = bookService.findAll(filter, page, size, sort, CountStrategy.parse(count), fieldSet);
+            return ResponseEntity.ok(PageMapper.toOutDTO(books, fieldSet::toOutMap));
+        }
+        CountedPage<Book> books = bookService.findAll(filter, page, size, sort, CountStrategy.parse(count));
+        PageOutDTO<BookOutDTO> outDTO = PageMapper.toOutDTO(books, BookMapper::toOutDTO);
 
         return ResponseEntity.ok(outDTO);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<BookOutDTO> findById(@PathVariable Long id) {
-        Book book = bookService.findById(id);
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(required = false, defaultValue = "false") boolean normalized,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType("application/x-ndjson");
+        OutputStream out = response.getOutputStream();
+        if (normalized) {
+            exportNormalized(out);
+            return;
+        }
+
+        bookService.exportAll(book -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(BookMapper.toOutDTO(book)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // each author goes out once, on its own line, ahead of the first book referencing it
+    private void exportNormalized(OutputStream out) {
+        LongIntHashMap written = new LongIntHashMap();
+        bookService.exportAll(book -> {
+            try {
+                Author author = book.getAuthor();
+                if (!written.containsKey(author.getId())) {
+                    written.put(author.getId(), 1);
+                    out.write(objectMapper.writeValueAsBytes(Map.of("author", AuthorMapper.toOutDTO(author))));
+                    out.write('\n');
+                }
+                out.write(objectMapper.writeValueAsBytes(Map.of("book", BookMapper.toRefOutDTO(book))));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionOutDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = "10") int limit
+    ) {
+        // without bookstore.suggest.enabled there is no index to answer from
+        if (catalogSuggester == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<SuggestionOutDTO> outDTO = catalogSuggester.suggestBooks(prefix, limit).stream()
+                .map(SuggestionMapper::toOutDTO)
+                .toList();
 
-        BookOutDTO outDTO = BookMapper.toOutDTO(book);
         return ResponseEntity.ok(outDTO);
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<BookOutDTO> findById(@PathVariable Long id) {
+        return bookService.findOptionalById(id)
+                .map(book -> ResponseEntity.ok(BookMapper.toOutDTO(book)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<BookOutDTO> create(@RequestBody BookInDTO bookInDTO) {
         Book book = BookMapper.toEntity(bookInDTO);
@@ -56,10 +165,20 @@ public class BookController {
         return ResponseEntity.ok(outDTO);
     }
 
+    @PostMapping("/reassign")
+    public ResponseEntity<BulkOutDTO> reassign(@RequestBody BookReassignInDTO reassignInDTO) {
+        return ResponseEntity.ok(new BulkOutDTO(bookService.reassign(reassignInDTO)));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         bookService.delete(id);
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping
+    public ResponseEntity<BulkOutDTO> deleteAll(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(new BulkOutDTO(bookService.deleteAll(ids)));
+    }
+
 }
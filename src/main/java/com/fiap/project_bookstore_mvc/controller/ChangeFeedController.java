@@ -0,0 +1,34 @@
+package com.fiap.project_bookstore_mvc.controller;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeStreamer;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/changes")
+public class ChangeFeedController {
+
+    private final ChangeStreamer changeStreamer;
+
+    public ChangeFeedController(ChangeStreamer changeStreamer) {
+        this.changeStreamer = changeStreamer;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        Long position = since;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                position = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidRequest("Invalid Last-Event-ID");
+            }
+        }
+        return changeStreamer.open(position);
+    }
+}
@@ -0,0 +1,68 @@
+package com.fiap.project_bookstore_mvc.controller;
+
+import com.fiap.project_bookstore_mvc.dto.Out.PopularBookOutDTO;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.popularity.BookViews;
+import com.fiap.project_bookstore_mvc.popularity.PopularityTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/books/popular")
+@ConditionalOnProperty(prefix = "bookstore.popularity", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PopularBookController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final PopularityTracker popularityTracker;
+
+    public PopularBookController(PopularityTracker popularityTracker) {
+        this.popularityTracker = popularityTracker;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PopularBookOutDTO>> findPopular(
+            @RequestParam(required = false, defaultValue = "24h") String window,
+            @RequestParam(required = false, defaultValue = "10") int limit
+    ) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequest("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<BookViews> views = "all".equals(window)
+                ? popularityTracker.topAllTime(limit)
+                : popularityTracker.top(parseWindow(window), limit);
+        if (views == null) {
+            throw new InvalidRequest("Unknown window: " + window + ", expected all or one of "
+                    + popularityTracker.windows().stream().map(PopularBookController::format).toList());
+        }
+
+        Map<Long, String> titles = popularityTracker.titles(views);
+        List<PopularBookOutDTO> outDTO = views.stream()
+                .filter(book -> titles.containsKey(book.bookId()))
+                .map(book -> new PopularBookOutDTO(book.bookId(), titles.get(book.bookId()), book.views()))
+                .toList();
+        return ResponseEntity.ok(outDTO);
+    }
+
+    private static String format(Duration window) {
+        long minutes = window.toMinutes();
+        if (minutes % (24 * 60) == 0) {
+            return minutes / (24 * 60) + "d";
+        }
+        return minutes % 60 == 0 ? minutes / 60 + "h" : minutes + "m";
+    }
+
+    private static Duration parseWindow(String window) {
+        try {
+            return DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest("Invalid window: " + window);
+        }
+    }
+}
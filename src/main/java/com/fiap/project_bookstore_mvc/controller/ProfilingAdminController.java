@@ -0,0 +1,77 @@
+package com.fiap.project_bookstore_mvc.controller;
+
+import com.fiap.project_bookstore_mvc.dto.Out.RecordingOutDTO;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.profiling.FlightRecorderControl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/profiling/recordings")
+@ConditionalOnProperty(prefix = "bookstore.profiling", name = "enabled", havingValue = "true")
+public class ProfilingAdminController {
+
+    private final FlightRecorderControl flightRecorderControl;
+
+    public ProfilingAdminController(FlightRecorderControl flightRecorderControl) {
+        this.flightRecorderControl = flightRecorderControl;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecordingOutDTO>> findAll() {
+        return ResponseEntity.ok(flightRecorderControl.findAll());
+    }
+
+    @PostMapping
+    public ResponseEntity<RecordingOutDTO> start(@RequestParam(defaultValue = "default") String profile,
+                                                 @RequestParam(defaultValue = "1ms") String threshold,
+                                                 @RequestParam(required = false) String duration) {
+        RecordingOutDTO outDTO = flightRecorderControl.start(profile, parse(threshold),
+                duration == null ? null : parse(duration));
+        return ResponseEntity.status(HttpStatus.CREATED).body(outDTO);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecordingOutDTO> findById(@PathVariable long id) {
+        return ResponseEntity.ok(flightRecorderControl.find(id));
+    }
+
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<RecordingOutDTO> stop(@PathVariable long id) {
+        return ResponseEntity.ok(flightRecorderControl.stop(id));
+    }
+
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> download(@PathVariable long id) {
+        Path file = flightRecorderControl.file(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    private static Duration parse(String value) {
+        try {
+            Duration duration = DurationStyle.detectAndParse(value);
+            if (duration.isNegative()) {
+                throw new InvalidRequest("Invalid duration: " + value);
+            }
+            return duration;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest("Invalid duration: " + value);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.fiap.project_bookstore_mvc.controller;
+
+import com.fiap.project_bookstore_mvc.dto.Out.ShardMoveOutDTO;
+import com.fiap.project_bookstore_mvc.sharding.ShardRebalancer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/shards")
+@ConditionalOnProperty(prefix = "bookstore.sharding", name = "enabled", havingValue = "true")
+public class ShardAdminController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardAdminController(ShardRebalancer shardRebalancer) {
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @PostMapping("/authors/{id}/move")
+    public ResponseEntity<ShardMoveOutDTO> moveAuthor(@PathVariable Long id, @RequestParam int target) {
+        ShardMoveOutDTO outDTO = shardRebalancer.moveAuthor(id, target);
+        return ResponseEntity.ok(outDTO);
+    }
+}
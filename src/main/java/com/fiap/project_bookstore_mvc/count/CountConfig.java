@@ -0,0 +1,41 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.sharding.ShardDataSources;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+@Configuration
+@EnableConfigurationProperties(CountProperties.class)
+public class CountConfig {
+
+    @Bean
+    public RowCountEstimator rowCountEstimator(DataSource dataSource, ObjectProvider<ShardDataSources> shards) {
+        ShardDataSources shardDataSources = shards.getIfAvailable();
+        List<JdbcTemplate> databases = shardDataSources == null
+                ? List.of(new JdbcTemplate(dataSource))
+                : IntStream.range(0, shardDataSources.count()).mapToObj(shardDataSources::jdbc).toList();
+        return new RowCountEstimator(databases);
+    }
+
+    @Bean
+    public PageCounter pageCounter(CountProperties properties, ChangeFeed changeFeed,
+                                   RowCountEstimator rowCountEstimator, MeterRegistry meterRegistry) {
+        PageCounter counter = new PageCounter(properties, changeFeed, rowCountEstimator,
+                Executors.newVirtualThreadPerTaskExecutor(), Clock.systemUTC());
+        Gauge.builder("bookstore.count.cached.size", counter, PageCounter::cachedSize)
+                .register(meterRegistry);
+        return counter;
+    }
+}
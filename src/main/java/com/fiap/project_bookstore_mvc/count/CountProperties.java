@@ -0,0 +1,14 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.count")
+public record CountProperties(
+        @DefaultValue("exact") CountStrategy defaultStrategy,
+        @DefaultValue("30s") Duration cacheTtl,
+        @DefaultValue("1024") int maxCachedCounts
+) {
+}
@@ -0,0 +1,35 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+
+import java.util.Locale;
+
+/**
+ * How a paginated listing works out its total.
+ */
+public enum CountStrategy {
+
+    /** A {@code COUNT(*)} per request. */
+    EXACT,
+    /** The last count for the same query, refreshed in the background and marked stale by writes. */
+    CACHED,
+    /** The row count the database keeps in its table statistics; only for unfiltered listings. */
+    ESTIMATED,
+    /** No total at all, only whether a next page exists. */
+    NONE;
+
+    public static CountStrategy parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest("Invalid count strategy: " + value);
+        }
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
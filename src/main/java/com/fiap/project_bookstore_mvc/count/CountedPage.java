@@ -0,0 +1,45 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a listing with the total as far as {@code strategy} could tell; {@code total} is {@code null}
+ * for {@link CountStrategy#NONE}.
+ */
+public record CountedPage<T>(
+        List<T> content,
+        Pageable pageable,
+        boolean hasNext,
+        Long total,
+        CountStrategy strategy
+) {
+
+    public CountedPage(List<T> content, int number, int size, boolean hasNext, Long total, CountStrategy strategy) {
+        this(content, PageRequest.of(number, size), hasNext, total, strategy);
+    }
+
+    public int number() {
+        return this.pageable.getPageNumber();
+    }
+
+    public int size() {
+        return this.pageable.getPageSize();
+    }
+
+    public Integer totalPages() {
+        if (this.total == null) {
+            return null;
+        }
+        int size = size();
+        return (int) ((this.total + size - 1) / size);
+    }
+
+    public <R> CountedPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CountedPage<>(this.content.stream().<R>map(mapper).toList(),
+                this.pageable, this.hasNext, this.total, this.strategy);
+    }
+}
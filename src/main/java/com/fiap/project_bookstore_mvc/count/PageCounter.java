@@ -0,0 +1,176 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Slice;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Works out the total of a listing page with the requested {@link CountStrategy}. Cached totals are kept
+ * per entity and filter, marked stale by every committed change to that entity and recounted in the
+ * background, so a request never waits for a {@code COUNT(*)} once the first one is in. Past
+ * {@code max-cached-counts} the least recently used query is dropped to make room.
+ */
+public class PageCounter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PageCounter.class);
+
+    private final RowCountEstimator estimator;
+    private final ExecutorService executor;
+    private final Clock clock;
+    private final CountStrategy defaultStrategy;
+    private final long ttlMillis;
+    // access-ordered; guarded by itself
+    private final Map<Key, CachedCount> cache;
+
+    public PageCounter(CountProperties properties, ChangeFeed feed, RowCountEstimator estimator,
+                       ExecutorService executor, Clock clock) {
+        this.estimator = estimator;
+        this.executor = executor;
+        this.clock = clock;
+        this.defaultStrategy = properties.defaultStrategy();
+        this.ttlMillis = properties.cacheTtl().toMillis();
+        int maxEntries = properties.maxCachedCounts();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedCount> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        feed.addListener(this::apply);
+    }
+
+    public CountStrategy defaultStrategy() {
+        return this.defaultStrategy;
+    }
+
+    public int cachedSize() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    /**
+     * Pairs {@code slice} with a total. {@code filter} identifies the query among those on {@code entity} and
+     * is {@code null} for the unfiltered listing; {@code exact} runs the {@code COUNT(*)}. A {@code null}
+     * strategy means the configured default. The strategy on the result is the one that actually produced
+     * the total, which is {@link CountStrategy#EXACT} whenever the page itself gives the total away.
+     */
+    public <T> CountedPage<T> count(ChangeEntity entity, Object filter, CountStrategy strategy, Slice<T> slice,
+                                    LongSupplier exact) {
+        CountStrategy requested = strategy == null ? this.defaultStrategy : strategy;
+        long seen = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+        if (requested == CountStrategy.NONE) {
+            return page(slice, null, CountStrategy.NONE);
+        }
+        if (!slice.hasNext() && (slice.hasContent() || slice.getNumber() == 0)) {
+            return page(slice, seen, CountStrategy.EXACT);
+        }
+        long lowerBound = slice.hasNext() ? seen + 1 : seen;
+        return switch (requested) {
+            case ESTIMATED -> {
+                OptionalLong estimate = filter == null ? this.estimator.estimate(tableOf(entity)) : OptionalLong.empty();
+                yield estimate.isPresent()
+                        ? page(slice, Math.max(estimate.getAsLong(), lowerBound), CountStrategy.ESTIMATED)
+                        : cached(entity, filter, slice, exact, lowerBound);
+            }
+            case CACHED -> cached(entity, filter, slice, exact, lowerBound);
+            default -> page(slice, exact.getAsLong(), CountStrategy.EXACT);
+        };
+    }
+
+    private <T> CountedPage<T> cached(ChangeEntity entity, Object filter, Slice<T> slice, LongSupplier exact,
+                                      long lowerBound) {
+        Key key = new Key(entity, filter);
+        CachedCount cached;
+        synchronized (this.cache) {
+            cached = this.cache.get(key);
+        }
+        if (cached == null) {
+            long total = exact.getAsLong();
+            synchronized (this.cache) {
+                this.cache.putIfAbsent(key, new CachedCount(total, this.clock.millis()));
+            }
+            return page(slice, total, CountStrategy.EXACT);
+        }
+        if (cached.stale || this.clock.millis() - cached.countedAt >= this.ttlMillis) {
+            refresh(cached, exact);
+        }
+        return page(slice, Math.max(cached.total, lowerBound), CountStrategy.CACHED);
+    }
+
+    private void refresh(CachedCount cached, LongSupplier exact) {
+        if (!cached.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    // cleared first, so a write that lands while counting leaves the entry stale again
+                    cached.stale = false;
+                    long total = exact.getAsLong();
+                    cached.total = total;
+                    cached.countedAt = this.clock.millis();
+                } catch (RuntimeException e) {
+                    cached.stale = true;
+                    log.warn("Background recount failed; serving the previous total", e);
+                } finally {
+                    cached.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cached.refreshing.set(false);
+        }
+    }
+
+    private void apply(ChangeRecord record) {
+        synchronized (this.cache) {
+            this.cache.forEach((key, cached) -> {
+                if (key.entity() == record.entity()) {
+                    cached.stale = true;
+                }
+            });
+        }
+    }
+
+    private static String tableOf(ChangeEntity entity) {
+        return entity.name().toLowerCase(Locale.ROOT) + "s";
+    }
+
+    private static <T> CountedPage<T> page(Slice<T> slice, Long total, CountStrategy strategy) {
+        return new CountedPage<>(slice.getContent(), slice.getPageable(), slice.hasNext(), total, strategy);
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    private record Key(ChangeEntity entity, Object filter) {
+    }
+
+    private static final class CachedCount {
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long total;
+        private volatile long countedAt;
+        private volatile boolean stale;
+
+        private CachedCount(long total, long countedAt) {
+            this.total = total;
+            this.countedAt = countedAt;
+        }
+    }
+}
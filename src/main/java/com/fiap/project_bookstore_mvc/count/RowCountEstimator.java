@@ -0,0 +1,71 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalLong;
+
+/**
+ * Reads table row counts from the statistics the database already keeps, summed over every database the
+ * table lives in (one per shard). Which statistics view to read is decided once per database, when the
+ * estimator is built; databases without a known view, or that could not be reached then, yield no estimate.
+ */
+public class RowCountEstimator {
+
+    private static final Logger log = LoggerFactory.getLogger(RowCountEstimator.class);
+
+    private final List<Database> databases;
+
+    public RowCountEstimator(List<JdbcTemplate> databases) {
+        this.databases = databases.stream()
+                .map(database -> new Database(database, statisticsQuery(database)))
+                .toList();
+    }
+
+    public OptionalLong estimate(String table) {
+        long total = 0;
+        for (Database database : this.databases) {
+            if (database.statisticsQuery() == null) {
+                return OptionalLong.empty();
+            }
+            try {
+                Long rows = database.jdbc().queryForObject(database.statisticsQuery(), Long.class, table);
+                if (rows == null || rows < 0) {
+                    return OptionalLong.empty();
+                }
+                total += rows;
+            } catch (DataAccessException e) {
+                log.debug("No row count estimate for {}", table, e);
+                return OptionalLong.empty();
+            }
+        }
+        return OptionalLong.of(total);
+    }
+
+    private static String statisticsQuery(JdbcTemplate database) {
+        String product;
+        try {
+            product = JdbcUtils.extractDatabaseMetaData(database.getDataSource(),
+                    metaData -> metaData.getDatabaseProductName());
+        } catch (Exception e) {
+            log.warn("Could not identify the database; row count estimates are off", e);
+            return null;
+        }
+        return switch (product.toLowerCase(Locale.ROOT)) {
+            case "h2" -> "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES"
+                    + " WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = UPPER(?)";
+            case "postgresql" -> "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+            case "mysql", "mariadb" -> "SELECT TABLE_ROWS FROM information_schema.TABLES"
+                    + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+            default -> null;
+        };
+    }
+
+    private record Database(JdbcTemplate jdbc, String statisticsQuery) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.fiap.project_bookstore_mvc.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
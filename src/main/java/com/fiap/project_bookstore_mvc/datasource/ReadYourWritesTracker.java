@@ -0,0 +1,81 @@
+package com.fiap.project_bookstore_mvc.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+public class ReadYourWritesTracker {
+
+    public static final String COOKIE_NAME = "bookstore-last-write";
+
+    private static final String WROTE_ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".WROTE";
+
+    private final Duration stickiness;
+
+    public ReadYourWritesTracker(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    public void recordWrite() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null) {
+            return;
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(WROTE_ATTRIBUTE) != null) {
+            return;
+        }
+        request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE);
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, this.stickiness.toSeconds()));
+            response.addCookie(cookie);
+        }
+    }
+
+    public boolean isSticky() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null) {
+            return false;
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(WROTE_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return isWithinStickiness(cookie.getValue());
+            }
+        }
+        return false;
+    }
+
+    private boolean isWithinStickiness(String lastWrite) {
+        try {
+            return System.currentTimeMillis() - Long.parseLong(lastWrite) < this.stickiness.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes : null;
+    }
+}
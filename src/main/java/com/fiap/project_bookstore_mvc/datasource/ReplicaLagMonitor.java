@@ -0,0 +1,101 @@
+package com.fiap.project_bookstore_mvc.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replica lag on a background thread every {@code lag-check-interval}; request threads only read
+ * the last verdict, so a slow or unreachable replica never holds up a request. Until the first measurement
+ * finishes, reads go to the primary.
+ */
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final Duration UNREACHABLE = Duration.ofSeconds(Long.MAX_VALUE);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final long checkIntervalMillis;
+
+    private volatile boolean healthy;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaProperties properties) {
+        this.replica = replica;
+        this.lagQuery = properties.lagQuery();
+        this.maxLag = properties.maxLag();
+        this.checkIntervalMillis = Math.max(1, properties.lagCheckInterval().toMillis());
+        this.healthy = !StringUtils.hasText(this.lagQuery);
+    }
+
+    public boolean isReplicaUsable() {
+        return this.healthy;
+    }
+
+    /**
+     * Measures the lag now and updates the verdict; called by the scheduler, and by tests that cannot wait
+     * for it.
+     */
+    public void check() {
+        this.healthy = measureLag().compareTo(this.maxLag) <= 0;
+    }
+
+    private void checkQuietly() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            this.healthy = false;
+            log.warn("Replica lag check failed, routing reads to the primary", e);
+        }
+    }
+
+    private Duration measureLag() {
+        try (Connection connection = this.replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(this.lagQuery)) {
+            if (!resultSet.next()) {
+                return Duration.ZERO;
+            }
+            return Duration.ofMillis(Math.round(resultSet.getDouble(1) * 1000));
+        } catch (SQLException e) {
+            log.warn("Could not measure replica lag, routing reads to the primary: {}", e.getMessage());
+            return UNREACHABLE;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!StringUtils.hasText(this.lagQuery)) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-lag").daemon().factory());
+        this.scheduler.scheduleWithFixedDelay(this::checkQuietly, 0, this.checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+}
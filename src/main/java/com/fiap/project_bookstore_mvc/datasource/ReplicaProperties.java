@@ -0,0 +1,19 @@
+package com.fiap.project_bookstore_mvc.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.datasource.replica")
+public record ReplicaProperties(
+        boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("5s") Duration maxLag,
+        String lagQuery,
+        @DefaultValue("1s") Duration lagCheckInterval,
+        @DefaultValue("5s") Duration stickiness
+) {
+}
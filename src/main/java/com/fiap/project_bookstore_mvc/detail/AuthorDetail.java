@@ -0,0 +1,12 @@
+package com.fiap.project_bookstore_mvc.detail;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+
+import java.util.List;
+
+/**
+ * An author with the parts that were asked for; {@code books} and {@code bookCount} are {@code null} when not.
+ */
+public record AuthorDetail(Author author, List<Book> books, Long bookCount) {
+}
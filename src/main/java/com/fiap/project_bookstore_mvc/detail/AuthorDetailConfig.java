@@ -0,0 +1,20 @@
+package com.fiap.project_bookstore_mvc.detail;
+
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(AuthorDetailProperties.class)
+public class AuthorDetailConfig {
+
+    @Bean
+    public AuthorDetailLoader authorDetailLoader(AuthorDetailProperties properties, AuthorRepository authorRepository,
+                                                 BookRepository bookRepository,
+                                                 PlatformTransactionManager transactionManager) {
+        return new AuthorDetailLoader(properties, authorRepository, bookRepository, transactionManager);
+    }
+}
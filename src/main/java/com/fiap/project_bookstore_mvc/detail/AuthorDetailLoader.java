@@ -0,0 +1,124 @@
+package com.fiap.project_bookstore_mvc.detail;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookSpecifications;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Loads an author, the first page of their books and their book count at the same time, each on its own
+ * virtual thread in its own read-only transaction, so the request waits for the slowest query rather than
+ * the sum of them. All parts share one deadline, which also bounds their transactions; when the author is
+ * missing, a part fails or the deadline passes, the parts still running are cancelled before returning.
+ */
+public class AuthorDetailLoader implements DisposableBean {
+
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnly;
+    private final int booksPageSize;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AuthorDetailLoader(AuthorDetailProperties properties, AuthorRepository authorRepository,
+                              BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.booksPageSize = properties.booksPageSize();
+        this.timeout = properties.timeout();
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout((int) Math.max(1, (this.timeout.toMillis() + 999) / 1000));
+    }
+
+    public Optional<AuthorDetail> load(Long id, Set<AuthorInclude> include) {
+        long deadline = System.nanoTime() + this.timeout.toNanos();
+        Future<Optional<Author>> author = submit(() -> this.authorRepository.findById(id));
+        Future<List<Book>> books = include.contains(AuthorInclude.BOOKS) ? submit(() -> firstPage(id)) : null;
+        Future<Long> bookCount = include.contains(AuthorInclude.BOOK_COUNT)
+                ? submit(() -> this.bookRepository.countMatching(BookSpecifications.hasAuthor(id)))
+                : null;
+        try {
+            Optional<Author> found = await(author, id, deadline);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new AuthorDetail(found.get(), await(books, id, deadline), await(bookCount, id, deadline)));
+        } finally {
+            cancel(author, books, bookCount);
+        }
+    }
+
+    private List<Book> firstPage(Long authorId) {
+        PageRequest page = PageRequest.of(0, this.booksPageSize, Sort.by("id"));
+        return this.bookRepository.findSlice(BookSpecifications.hasAuthor(authorId), page).getContent();
+    }
+
+    // the parts see the request's attributes, so read-your-writes stickiness routes them as it would the request
+    private <T> Future<T> submit(Supplier<T> query) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return this.executor.submit(() -> {
+            RequestContextHolder.setRequestAttributes(request);
+            try {
+                return this.readOnly.execute(status -> query.get());
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+    }
+
+    private <T> T await(Future<T> part, Long id, long deadline) {
+        if (part == null) {
+            return null;
+        }
+        try {
+            return part.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Author " + id + " did not load within " + this.timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading author " + id, e);
+        }
+    }
+
+    private static void cancel(Future<?>... parts) {
+        for (Future<?> part : parts) {
+            if (part != null) {
+                part.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+}
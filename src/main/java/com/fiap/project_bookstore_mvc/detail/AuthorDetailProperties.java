@@ -0,0 +1,13 @@
+package com.fiap.project_bookstore_mvc.detail;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.author-detail")
+public record AuthorDetailProperties(
+        @DefaultValue("10") int booksPageSize,
+        @DefaultValue("2s") Duration timeout
+) {
+}
@@ -0,0 +1,47 @@
+package com.fiap.project_bookstore_mvc.detail;
+
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parts of {@code GET /authors/{id}?include=...} loaded alongside the author.
+ */
+public enum AuthorInclude {
+
+    /** The first page of the author's books, in ID order. */
+    BOOKS("books"),
+    /** How many books the author has. */
+    BOOK_COUNT("bookCount");
+
+    private final String label;
+
+    AuthorInclude(String label) {
+        this.label = label;
+    }
+
+    public static Set<AuthorInclude> parse(String value) {
+        Set<AuthorInclude> include = EnumSet.noneOf(AuthorInclude.class);
+        if (value == null || value.isBlank()) {
+            return include;
+        }
+        for (String part : value.split(",")) {
+            include.add(fromLabel(part.trim()));
+        }
+        return include;
+    }
+
+    private static AuthorInclude fromLabel(String label) {
+        for (AuthorInclude include : values()) {
+            if (include.label.equals(label)) {
+                return include;
+            }
+        }
+        throw new InvalidRequest("Unknown include: " + label + ", expected books or bookCount");
+    }
+
+    public String label() {
+        return this.label;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fiap.project_bookstore_mvc.dto.In;
+
+public record AuthorBookInDTO(
+        String title,
+        String isbn
+) {
+}
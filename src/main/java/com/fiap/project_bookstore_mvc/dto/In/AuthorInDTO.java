@@ -1,8 +1,12 @@
 package com.fiap.project_bookstore_mvc.dto.In;
 
+import java.util.List;
+
 public record AuthorInDTO(
     Long id,
     String name,
-    String email
+    String email,
+    Long version,
+    List<AuthorBookInDTO> books
 ) {
 }
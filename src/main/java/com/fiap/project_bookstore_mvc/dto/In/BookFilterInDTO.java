@@ -0,0 +1,8 @@
+package com.fiap.project_bookstore_mvc.dto.In;
+
+public record BookFilterInDTO(
+        Long authorId,
+        String titleContains,
+        String isbnPrefix
+) {
+}
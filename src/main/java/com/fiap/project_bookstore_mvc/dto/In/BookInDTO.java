@@ -4,6 +4,7 @@ public record BookInDTO(
         Long id,
         String title,
         String isbn,
-        Long authorId
+        Long authorId,
+        Long version
 ) {
 }
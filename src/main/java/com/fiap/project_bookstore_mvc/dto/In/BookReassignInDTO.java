@@ -0,0 +1,10 @@
+package com.fiap.project_bookstore_mvc.dto.In;
+
+import java.util.List;
+
+public record BookReassignInDTO(
+        Long fromAuthorId,
+        List<Long> bookIds,
+        Long toAuthorId
+) {
+}
@@ -0,0 +1,15 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record AuthorDetailOutDTO(
+    Long id,
+    String name,
+    String email,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long version,
+    List<BookOutDTO> books,
+    Long bookCount
+) {
+}
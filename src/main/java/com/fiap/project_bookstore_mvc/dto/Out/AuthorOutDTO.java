@@ -1,8 +1,11 @@
 package com.fiap.project_bookstore_mvc.dto.Out;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record AuthorOutDTO(
     Long id,
     String name,
-    String email
+    String email,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long version
 ) {
 }
@@ -1,9 +1,12 @@
 package com.fiap.project_bookstore_mvc.dto.Out;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record BookOutDTO(
     Long id,
     String title,
     String isbn,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long version,
     AuthorOutDTO author
 ) {
 }
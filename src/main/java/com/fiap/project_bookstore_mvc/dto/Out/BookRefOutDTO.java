@@ -0,0 +1,9 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+public record BookRefOutDTO(
+    Long id,
+    String title,
+    String isbn,
+    Long authorId
+) {
+}
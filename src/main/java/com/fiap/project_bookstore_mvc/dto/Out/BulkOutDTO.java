@@ -0,0 +1,6 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+public record BulkOutDTO(
+    long affected
+) {
+}
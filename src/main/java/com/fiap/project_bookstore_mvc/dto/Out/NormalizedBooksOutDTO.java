@@ -0,0 +1,10 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+import java.util.List;
+import java.util.Map;
+
+public record NormalizedBooksOutDTO(
+    List<BookRefOutDTO> books,
+    Map<Long, AuthorOutDTO> authors
+) {
+}
@@ -0,0 +1,16 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+import java.util.List;
+import java.util.Map;
+
+public record NormalizedPageOutDTO<T>(
+    List<T> content,
+    Map<Long, AuthorOutDTO> authors,
+    int number,
+    int size,
+    boolean hasNext,
+    Long totalElements,
+    Integer totalPages,
+    String countStrategy
+) {
+}
@@ -0,0 +1,27 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * The fields a serialized Spring {@code Page} always had, so existing clients keep working, plus
+ * {@code hasNext} and {@code countStrategy}. With {@code count=none} the totals are {@code null}.
+ */
+public record PageOutDTO<T>(
+    List<T> content,
+    Pageable pageable,
+    boolean last,
+    Long totalElements,
+    Integer totalPages,
+    int size,
+    int number,
+    Sort sort,
+    boolean first,
+    int numberOfElements,
+    boolean empty,
+    boolean hasNext,
+    String countStrategy
+) {
+}
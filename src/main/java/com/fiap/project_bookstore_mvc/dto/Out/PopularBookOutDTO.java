@@ -0,0 +1,8 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+public record PopularBookOutDTO(
+    Long id,
+    String title,
+    long views
+) {
+}
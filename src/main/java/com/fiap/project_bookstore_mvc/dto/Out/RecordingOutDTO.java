@@ -0,0 +1,14 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+import java.time.Instant;
+
+public record RecordingOutDTO(
+    long id,
+    String name,
+    String profile,
+    String state,
+    Instant startedAt,
+    Instant stoppedAt,
+    Long bytes
+) {
+}
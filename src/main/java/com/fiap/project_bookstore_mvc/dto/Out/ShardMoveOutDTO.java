@@ -0,0 +1,9 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+public record ShardMoveOutDTO(
+    Long authorId,
+    int fromShard,
+    int toShard,
+    int booksMoved
+) {
+}
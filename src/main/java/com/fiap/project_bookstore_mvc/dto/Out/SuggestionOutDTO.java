@@ -0,0 +1,7 @@
+package com.fiap.project_bookstore_mvc.dto.Out;
+
+public record SuggestionOutDTO(
+    Long id,
+    String label
+) {
+}
@@ -14,6 +14,10 @@ public class Author {
     private String name;
     private String email;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     @OneToMany(
             mappedBy = "author",
             cascade = {CascadeType.PERSIST, CascadeType.REMOVE},
@@ -58,6 +62,14 @@ public class Author {
         this.email = email;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Book> getBooks() {
         return books;
     }
@@ -3,7 +3,12 @@ package com.fiap.project_bookstore_mvc.entities;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_author_title", columnList = "author_id, title, id"),
+        @Index(name = "idx_books_title", columnList = "title, id"),
+        @Index(name = "idx_books_isbn", columnList = "isbn, id"),
+        @Index(name = "idx_books_views", columnList = "views, id")
+})
 public class Book {
 
     @Id
@@ -18,6 +23,14 @@ public class Book {
     @JoinColumn(name = "author_id", nullable = false)
     private Author author;
 
+    // maintained by PopularityStore in batched updates, never written through the entity
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint default 0 not null")
+    private long views;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     public Book() {
     }
 
@@ -59,4 +72,16 @@ public class Book {
     public void setAuthor(Author author) {
         this.author = author;
     }
+
+    public long getViews() {
+        return views;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,4 @@
+package com.fiap.project_bookstore_mvc.errors;
+
+public record ErrorReport(Throwable error, String method, String path, long timestamp) {
+}
@@ -0,0 +1,172 @@
+package com.fiap.project_bookstore_mvc.errors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs unexpected errors off the request thread. Requests only count the error and offer it to a bounded
+ * queue, dropping it when the queue is full; one background thread writes a structured line per error and
+ * the full stack trace only for the first occurrence of a signature (exception type and throwing frame) in
+ * every interval, under a global cap per minute, so a burst of one failure costs one stack trace.
+ */
+public class ErrorReporter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ErrorReporter.class);
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final BlockingQueue<ErrorReport> queue;
+    private final long stackTraceIntervalMillis;
+    private final int maxStackTracesPerMinute;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final LongAdder dropped = new LongAdder();
+    // only touched by the worker thread
+    private final Map<String, Signature> signatures;
+    private long minuteStartedAt = Long.MIN_VALUE;
+    private int stackTracesThisMinute;
+    private volatile Thread worker;
+
+    public ErrorReporter(ErrorReportingProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.stackTraceIntervalMillis = properties.stackTraceInterval().toMillis();
+        this.maxStackTracesPerMinute = properties.maxStackTracesPerMinute();
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        int maxSignatures = properties.maxSignatures();
+        this.signatures = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Signature> eldest) {
+                return size() > maxSignatures;
+            }
+        };
+    }
+
+    /**
+     * Counts an error answered with {@code status} that needs no logging, such as a missing entity.
+     */
+    public void count(HttpStatus status, Throwable error) {
+        this.meterRegistry.counter("bookstore.errors",
+                "status", String.valueOf(status.value()),
+                "exception", error.getClass().getSimpleName()).increment();
+    }
+
+    /**
+     * Counts an unexpected error and hands it to the background thread for logging; never blocks.
+     */
+    public void report(Throwable error, String method, String path) {
+        count(HttpStatus.INTERNAL_SERVER_ERROR, error);
+        if (!this.queue.offer(new ErrorReport(error, method, path, this.clock.millis()))) {
+            this.dropped.increment();
+        }
+    }
+
+    public int queued() {
+        return this.queue.size();
+    }
+
+    public long dropped() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Logs one report, returning whether its stack trace was written.
+     */
+    boolean log(ErrorReport report) {
+        Throwable error = report.error();
+        String signature = signatureOf(error);
+        Signature seen = this.signatures.computeIfAbsent(signature, key -> new Signature());
+        long now = report.timestamp();
+        boolean withStackTrace = (seen.stackTraceAt == Long.MIN_VALUE || now - seen.stackTraceAt >= this.stackTraceIntervalMillis)
+                && takeStackTrace(now);
+
+        if (withStackTrace) {
+            log.error("unexpected error method={} path={} type={} message=\"{}\" signature={} suppressed={}",
+                    report.method(), report.path(), error.getClass().getName(), error.getMessage(), signature,
+                    seen.suppressed, error);
+            seen.stackTraceAt = now;
+            seen.suppressed = 0;
+        } else {
+            log.error("unexpected error method={} path={} type={} message=\"{}\" signature={}",
+                    report.method(), report.path(), error.getClass().getName(), error.getMessage(), signature);
+            seen.suppressed++;
+        }
+        return withStackTrace;
+    }
+
+    private boolean takeStackTrace(long now) {
+        if (this.minuteStartedAt == Long.MIN_VALUE || now - this.minuteStartedAt >= MINUTE_MILLIS) {
+            this.minuteStartedAt = now;
+            this.stackTracesThisMinute = 0;
+        }
+        if (this.stackTracesThisMinute >= this.maxStackTracesPerMinute) {
+            return false;
+        }
+        this.stackTracesThisMinute++;
+        return true;
+    }
+
+    static String signatureOf(Throwable error) {
+        StackTraceElement[] frames = error.getStackTrace();
+        if (frames.length == 0) {
+            return error.getClass().getName();
+        }
+        StackTraceElement top = frames[0];
+        return error.getClass().getName() + "@" + top.getClassName() + "." + top.getMethodName() + ":" + top.getLineNumber();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                log(this.queue.take());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not log an error report", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        this.worker = Thread.ofPlatform().name("error-reporter").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = this.worker;
+        this.worker = null;
+        thread.interrupt();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (!thread.isAlive()) {
+            ErrorReport report;
+            while ((report = this.queue.poll()) != null) {
+                log(report);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.worker != null;
+    }
+
+    private static final class Signature {
+        private long stackTraceAt = Long.MIN_VALUE;
+        private long suppressed;
+    }
+}
@@ -0,0 +1,28 @@
+package com.fiap.project_bookstore_mvc.errors;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ErrorReportingProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.errors", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ErrorReportingConfig {
+
+    @Bean
+    public ErrorReporter errorReporter(ErrorReportingProperties properties, MeterRegistry meterRegistry) {
+        ErrorReporter reporter = new ErrorReporter(properties, meterRegistry, Clock.systemUTC());
+
+        Gauge.builder("bookstore.errors.queued", reporter, ErrorReporter::queued)
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.errors.dropped", reporter, ErrorReporter::dropped)
+                .register(meterRegistry);
+        return reporter;
+    }
+}
@@ -0,0 +1,16 @@
+package com.fiap.project_bookstore_mvc.errors;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.errors")
+public record ErrorReportingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1024") int queueCapacity,
+        @DefaultValue("1m") Duration stackTraceInterval,
+        @DefaultValue("10") int maxStackTracesPerMinute,
+        @DefaultValue("1000") int maxSignatures
+) {
+}
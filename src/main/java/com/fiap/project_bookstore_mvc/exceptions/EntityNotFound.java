@@ -1,8 +1,12 @@
 package com.fiap.project_bookstore_mvc.exceptions;
 
+/**
+ * A missing entity is an expected outcome, not a bug, so this exception skips stack trace capture: under a
+ * burst of lookups for unknown IDs filling in the trace would cost more than the lookup itself.
+ */
 public class EntityNotFound extends RuntimeException {
 
     public EntityNotFound(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
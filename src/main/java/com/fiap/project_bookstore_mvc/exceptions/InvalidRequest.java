@@ -0,0 +1,8 @@
+package com.fiap.project_bookstore_mvc.exceptions;
+
+public class InvalidRequest extends RuntimeException {
+
+    public InvalidRequest(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.fiap.project_bookstore_mvc.fieldset;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+
+import java.util.function.Function;
+
+/**
+ * Fields an author listing can be narrowed to, with the column each one reads.
+ */
+public enum AuthorField {
+
+    ID("id", "a.id", Author::getId),
+    NAME("name", "a.name", Author::getName),
+    EMAIL("email", "a.email", Author::getEmail);
+
+    private final String label;
+    private final String column;
+    private final Function<Author, Object> value;
+
+    AuthorField(String label, String column, Function<Author, Object> value) {
+        this.label = label;
+        this.column = column;
+        this.value = value;
+    }
+
+    public String label() {
+        return this.label;
+    }
+
+    String column() {
+        return this.column;
+    }
+
+    Object valueOf(Author author) {
+        return this.value.apply(author);
+    }
+}
@@ -0,0 +1,99 @@
+package com.fiap.project_bookstore_mvc.fieldset;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields an author listing returns, from {@code fields=id,name}. {@code id} is always part of the set.
+ * Every possible set is built once with the query that pages through its columns in ID order.
+ */
+public final class AuthorFieldSet {
+
+    private static final AuthorField[] FIELDS = AuthorField.values();
+    private static final AuthorFieldSet[] SETS = new AuthorFieldSet[1 << FIELDS.length];
+
+    static {
+        int id = 1 << AuthorField.ID.ordinal();
+        for (int mask = 0; mask < SETS.length; mask++) {
+            SETS[mask] = (mask & id) == 0 ? null : new AuthorFieldSet(mask);
+        }
+        for (int mask = 0; mask < SETS.length; mask++) {
+            if (SETS[mask] == null) {
+                SETS[mask] = SETS[mask | id];
+            }
+        }
+    }
+
+    public static final AuthorFieldSet ALL = SETS[SETS.length - 1];
+
+    private final Set<AuthorField> fields;
+    private final String pageQuery;
+    private final int nameColumn;
+    private final int emailColumn;
+
+    private AuthorFieldSet(int mask) {
+        this.fields = EnumSet.noneOf(AuthorField.class);
+        List<String> columns = new ArrayList<>();
+        int name = -1;
+        int email = -1;
+        for (AuthorField field : FIELDS) {
+            if ((mask & 1 << field.ordinal()) == 0) {
+                continue;
+            }
+            this.fields.add(field);
+            if (field == AuthorField.NAME) {
+                name = columns.size();
+            } else if (field == AuthorField.EMAIL) {
+                email = columns.size();
+            }
+            columns.add(field.column());
+        }
+        this.nameColumn = name;
+        this.emailColumn = email;
+        this.pageQuery = "select " + String.join(", ", columns) + " from Author a order by a.id";
+    }
+
+    /**
+     * Returns the set named by {@code value}, or {@link #ALL} when it is blank.
+     */
+    public static AuthorFieldSet parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        return SETS[FieldSets.mask(value, FIELDS, AuthorField::label, "author")];
+    }
+
+    /**
+     * The JPQL selecting this set's columns for every author in ID order, with the ID first.
+     */
+    public String pageQuery() {
+        return this.pageQuery;
+    }
+
+    /**
+     * Builds a detached author from a row of {@link #pageQuery()}, leaving the fields outside the set
+     * {@code null}.
+     */
+    public Author toAuthor(Object[] row) {
+        return new Author((Long) row[0],
+                this.nameColumn >= 0 ? (String) row[this.nameColumn] : null,
+                this.emailColumn >= 0 ? (String) row[this.emailColumn] : null);
+    }
+
+    /**
+     * The JSON object for {@code author}: the fields of this set, in declaration order.
+     */
+    public Map<String, Object> toOutMap(Author author) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (AuthorField field : this.fields) {
+            out.put(field.label(), field.valueOf(author));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,41 @@
+package com.fiap.project_bookstore_mvc.fieldset;
+
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
+
+import java.util.function.Function;
+
+/**
+ * Fields a book listing can be narrowed to, with the columns each one reads. {@code author} is the nested
+ * author and the only one that needs the join; {@code authorId} reads the foreign key alone.
+ */
+public enum BookField {
+
+    ID("id", "b.id", Book::getId),
+    TITLE("title", "b.title", Book::getTitle),
+    ISBN("isbn", "b.isbn", Book::getIsbn),
+    AUTHOR("author", "a.id, a.name, a.email", book -> AuthorMapper.toOutDTO(book.getAuthor())),
+    AUTHOR_ID("authorId", "b.author.id", book -> book.getAuthor().getId());
+
+    private final String label;
+    private final String columns;
+    private final Function<Book, Object> value;
+
+    BookField(String label, String columns, Function<Book, Object> value) {
+        this.label = label;
+        this.columns = columns;
+        this.value = value;
+    }
+
+    public String label() {
+        return this.label;
+    }
+
+    String columns() {
+        return this.columns;
+    }
+
+    Object valueOf(Book book) {
+        return this.value.apply(book);
+    }
+}
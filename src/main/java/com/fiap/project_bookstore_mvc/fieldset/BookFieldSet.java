@@ -0,0 +1,151 @@
+package com.fiap.project_bookstore_mvc.fieldset;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields a book listing returns, from {@code fields=id,title}. {@code id} is always part of the set.
+ * Every possible set is built once, with the query that reads its rows and where each field sits in them,
+ * so a request only looks its set up by bitmask.
+ */
+public final class BookFieldSet {
+
+    private static final BookField[] FIELDS = BookField.values();
+    private static final BookFieldSet[] SETS = new BookFieldSet[1 << FIELDS.length];
+
+    static {
+        int id = 1 << BookField.ID.ordinal();
+        for (int mask = 0; mask < SETS.length; mask++) {
+            SETS[mask] = (mask & id) == 0 ? null : new BookFieldSet(mask);
+        }
+        for (int mask = 0; mask < SETS.length; mask++) {
+            if (SETS[mask] == null) {
+                SETS[mask] = SETS[mask | id];
+            }
+        }
+    }
+
+    /** What a listing returns without {@code fields}: everything but {@code authorId}, which the author holds. */
+    public static final BookFieldSet ALL = of(BookField.ID, BookField.TITLE, BookField.ISBN, BookField.AUTHOR);
+    /** Books referencing their author by ID, for payloads that list each author once on the side. */
+    public static final BookFieldSet NORMALIZED = of(BookField.ID, BookField.TITLE, BookField.ISBN, BookField.AUTHOR_ID);
+
+    private final int mask;
+    private final Set<BookField> fields;
+    private final String rowQuery;
+    private final int titleColumn;
+    private final int isbnColumn;
+    private final int authorColumn;
+    private final int authorIdColumn;
+
+    private BookFieldSet(int mask) {
+        this.mask = mask;
+        this.fields = EnumSet.noneOf(BookField.class);
+        List<String> columns = new ArrayList<>();
+        int title = -1;
+        int isbn = -1;
+        int author = -1;
+        int authorId = -1;
+        for (BookField field : FIELDS) {
+            if ((mask & 1 << field.ordinal()) == 0) {
+                continue;
+            }
+            this.fields.add(field);
+            switch (field) {
+                case TITLE -> title = columns.size();
+                case ISBN -> isbn = columns.size();
+                case AUTHOR -> author = columns.size();
+                case AUTHOR_ID -> authorId = columns.size();
+                default -> {
+                }
+            }
+            columns.add(field.columns());
+        }
+        this.titleColumn = title;
+        this.isbnColumn = isbn;
+        this.authorColumn = author;
+        this.authorIdColumn = authorId;
+        // the page's IDs come from a query of their own, so a set of just the ID needs no second one
+        this.rowQuery = columns.size() == 1 ? null : "select " + String.join(", ", columns) + " from Book b"
+                + (author >= 0 ? " join b.author a" : "") + " where b.id in :ids";
+    }
+
+    private static BookFieldSet of(BookField... fields) {
+        int mask = 0;
+        for (BookField field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        return SETS[mask];
+    }
+
+    /**
+     * Returns the set named by {@code value}, or {@link #ALL} when it is blank.
+     */
+    public static BookFieldSet parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        return SETS[FieldSets.mask(value, FIELDS, BookField::label, "book")];
+    }
+
+    /**
+     * This set plus the fields {@code sort} orders by: merging pages from several shards compares them.
+     */
+    public BookFieldSet including(Sort sort) {
+        int mask = this.mask;
+        for (Sort.Order order : sort) {
+            for (BookField field : FIELDS) {
+                if (field != BookField.AUTHOR && field.label().equals(order.getProperty())) {
+                    mask |= 1 << field.ordinal();
+                }
+            }
+        }
+        return SETS[mask];
+    }
+
+    /**
+     * The JPQL selecting this set's columns for the books whose IDs are bound to {@code :ids}, with the ID
+     * first; {@code null} when the set holds the ID alone.
+     */
+    public String rowQuery() {
+        return this.rowQuery;
+    }
+
+    /**
+     * Builds a detached book from a row of {@link #rowQuery()}, leaving the fields outside the set
+     * {@code null}; with {@code authorId} but not {@code author} the book gets an author holding only the ID.
+     * {@code authors} shares one instance per author across the page.
+     */
+    public Book toBook(Object[] row, Map<Long, Author> authors) {
+        Author author = null;
+        if (this.authorColumn >= 0) {
+            author = authors.computeIfAbsent((Long) row[this.authorColumn], id -> new Author(id,
+                    (String) row[this.authorColumn + 1], (String) row[this.authorColumn + 2]));
+        } else if (this.authorIdColumn >= 0) {
+            author = authors.computeIfAbsent((Long) row[this.authorIdColumn], Author::new);
+        }
+        return new Book((Long) row[0],
+                this.titleColumn >= 0 ? (String) row[this.titleColumn] : null,
+                this.isbnColumn >= 0 ? (String) row[this.isbnColumn] : null,
+                author);
+    }
+
+    /**
+     * The JSON object for {@code book}: the fields of this set, in declaration order.
+     */
+    public Map<String, Object> toOutMap(Book book) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (BookField field : this.fields) {
+            out.put(field.label(), field.valueOf(book));
+        }
+        return out;
+    }
+}
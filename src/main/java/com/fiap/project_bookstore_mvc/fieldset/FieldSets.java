@@ -0,0 +1,27 @@
+package com.fiap.project_bookstore_mvc.fieldset;
+
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+final class FieldSets {
+
+    private FieldSets() {
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter into a bitmask over the ordinals of {@code fields}.
+     */
+    static <F extends Enum<F>> int mask(String value, F[] fields, Function<F, String> label, String entity) {
+        int mask = 0;
+        for (String part : value.split(",")) {
+            String name = part.trim();
+            F field = Arrays.stream(fields).filter(candidate -> label.apply(candidate).equals(name)).findFirst()
+                    .orElseThrow(() -> new InvalidRequest("Unknown " + entity + " field: " + name + ", expected some of "
+                            + Arrays.stream(fields).map(label).toList()));
+            mask |= 1 << field.ordinal();
+        }
+        return mask;
+    }
+}
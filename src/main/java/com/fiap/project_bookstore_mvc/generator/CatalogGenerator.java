@@ -0,0 +1,153 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import com.fiap.project_bookstore_mvc.suggest.TextNormalizer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Produces a synthetic catalog that looks like a real one to the database and the indexes: a Zipf-distributed
+ * number of books per author (most authors have one or two, a few have hundreds), titles built from word
+ * lists where common words are drawn far more often than rare ones, and valid, distinct ISBN-13s. The same
+ * seed and settings always produce the same rows in the same order.
+ */
+public final class CatalogGenerator {
+
+    /**
+     * Receives the catalog as it is generated. Every author comes before its books.
+     */
+    public interface Sink {
+
+        void author(long id, String name, String email);
+
+        void book(String title, String isbn, long authorId);
+    }
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Maria", "José", "Ana", "James", "Mary", "Carlos", "Paulo", "Robert", "Patricia", "Luís",
+            "Fernanda", "Michael", "Jennifer", "João", "Beatriz", "William", "Elizabeth", "Pedro", "Clarice",
+            "David", "Linda", "Jorge", "Cecília", "Richard", "Susan", "Antônio", "Lúcia", "Thomas", "Margaret",
+            "Rafael", "Helena", "Charles", "Dorothy", "Gabriel", "Isabel", "Daniel", "Agatha", "Mário", "Raquel",
+            "George", "Virginia", "Francisco", "Conceição", "Henry", "Emily", "Miguel", "Lygia", "Arthur", "Jane"};
+    private static final String[] LAST_NAMES = {
+            "Silva", "Smith", "Santos", "Johnson", "Oliveira", "Williams", "Souza", "Brown", "Pereira", "Jones",
+            "Costa", "Miller", "Rodrigues", "Davis", "Almeida", "García", "Nascimento", "Wilson", "Lima", "Taylor",
+            "Araújo", "Anderson", "Fernandes", "Thomas", "Carvalho", "Moore", "Gomes", "Martin", "Martins",
+            "Jackson", "Rocha", "White", "Ribeiro", "Harris", "Alves", "Clark", "Monteiro", "Lewis", "Mendes",
+            "Walker", "Barros", "Hall", "Freitas", "Young", "Barbosa", "King", "Pinto", "Wright", "Moura", "Scott",
+            "Cavalcanti", "Green", "Dias", "Baker", "Castro", "Adams", "Campos", "Nelson", "Cardoso", "Hill",
+            "Teixeira", "Ramírez", "Correia", "Campbell", "Machado", "Mitchell", "Assis", "Roberts", "Lispector",
+            "Carter", "Amado", "Phillips", "Ramos", "Evans", "Veríssimo", "Turner", "Queiroz", "Torres", "Meireles"};
+    private static final String[] ADJECTIVES = {
+            "Last", "Lost", "Dark", "Silent", "Hidden", "Secret", "Broken", "Golden", "Little", "Final", "Long",
+            "Red", "Wild", "Forgotten", "Burning", "Black", "Quiet", "Invisible", "Distant", "Endless", "Cold",
+            "White", "Bitter", "Crimson", "Hollow", "Shining", "Electric", "Ancient", "Sleeping", "Wandering"};
+    private static final String[] NOUNS = {
+            "House", "Night", "Road", "River", "Garden", "Sea", "Wind", "Shadow", "Light", "Time", "Girl", "King",
+            "Town", "Heart", "War", "Island", "Storm", "Queen", "Mountain", "Forest", "Fire", "Door", "Stranger",
+            "Dream", "Star", "Widow", "Mirror", "Promise", "Letter", "Winter", "Ghost", "Empire", "Song", "Clock",
+            "Bridge", "Lighthouse", "Orchard", "Labyrinth", "Alchemist", "Cartographer"};
+    private static final String[] PLACES = {
+            "the North", "Nowhere", "the Sea", "Lisbon", "the World", "Paris", "Babel", "the Valley", "Rio",
+            "Summer", "London", "the Sertão", "Bahia", "the Moon", "Macondo", "Vienna", "the Amazon", "Ouro Preto"};
+    private static final String[] PORTUGUESE_NOUNS = {
+            "A Casa", "O Tempo", "A Noite", "O Rio", "A Hora", "O Mar", "A Cidade", "O Vento", "A Estrela",
+            "O Cortiço", "A Paixão", "O Quinze", "A Rosa", "O Sertão", "A Menina", "O Avesso", "A Ilha", "O Jardim"};
+    private static final String[] PORTUGUESE_PLACES = {
+            "Lisboa", "Pasárgada", "Itabira", "Copacabana", "São Paulo", "Ouro Preto", "Olinda", "Paraty",
+            "Salvador", "Minas", "Recife", "Porto"};
+
+    private static final String[] FOLDED_FIRST_NAMES = fold(FIRST_NAMES);
+    private static final String[] FOLDED_LAST_NAMES = fold(LAST_NAMES);
+
+    private final long seed;
+    private final ZipfDistribution booksPerAuthor;
+    private final ZipfDistribution firstNames = new ZipfDistribution(FIRST_NAMES.length, 0.8);
+    private final ZipfDistribution lastNames = new ZipfDistribution(LAST_NAMES.length, 0.8);
+    private final ZipfDistribution adjectives = new ZipfDistribution(ADJECTIVES.length, 1.0);
+    private final ZipfDistribution nouns = new ZipfDistribution(NOUNS.length, 1.0);
+    private final ZipfDistribution places = new ZipfDistribution(PLACES.length, 1.0);
+    private final ZipfDistribution portugueseNouns = new ZipfDistribution(PORTUGUESE_NOUNS.length, 1.0);
+    private final ZipfDistribution portuguesePlaces = new ZipfDistribution(PORTUGUESE_PLACES.length, 1.0);
+
+    /**
+     * @param exponent          Zipf exponent of the books-per-author distribution; 2.0 gives about five books
+     *                          per author on average with a long tail
+     * @param maxBooksPerAuthor the most books any single author gets
+     */
+    public CatalogGenerator(long seed, double exponent, int maxBooksPerAuthor) {
+        this.seed = seed;
+        this.booksPerAuthor = new ZipfDistribution(maxBooksPerAuthor, exponent);
+    }
+
+    public double meanBooksPerAuthor() {
+        return this.booksPerAuthor.mean();
+    }
+
+    /**
+     * Emits {@code authors} authors numbered from {@code firstAuthorId}, each followed by its books. ISBNs are
+     * distinct within one call.
+     */
+    public void generate(long firstAuthorId, int authors, Sink sink) {
+        SplittableRandom random = new SplittableRandom(this.seed);
+        IsbnSequence isbns = new IsbnSequence(random.nextLong());
+        for (int ordinal = 0; ordinal < authors; ordinal++) {
+            long authorId = firstAuthorId + ordinal;
+            int first = this.firstNames.sample(random) - 1;
+            int last = this.lastNames.sample(random) - 1;
+            boolean initial = random.nextInt(5) == 0;
+            String name = FIRST_NAMES[first] + (initial ? " " + (char) ('A' + random.nextInt(26)) + ". " : " ")
+                    + LAST_NAMES[last];
+            sink.author(authorId, name,
+                    FOLDED_FIRST_NAMES[first] + "." + FOLDED_LAST_NAMES[last] + (ordinal + 1) + "@example.com");
+
+            int books = this.booksPerAuthor.sample(random);
+            for (int book = 0; book < books; book++) {
+                sink.book(title(random), isbns.next(random), authorId);
+            }
+        }
+    }
+
+    private String title(SplittableRandom random) {
+        int shape = random.nextInt(100);
+        String title;
+        if (shape < 10) {
+            title = pick(NOUNS, this.nouns, random);
+        } else if (shape < 25) {
+            title = "The " + pick(NOUNS, this.nouns, random);
+        } else if (shape < 45) {
+            title = "The " + pick(ADJECTIVES, this.adjectives, random) + " " + pick(NOUNS, this.nouns, random);
+        } else if (shape < 60) {
+            title = "The " + pick(NOUNS, this.nouns, random) + " of " + pick(PLACES, this.places, random);
+        } else if (shape < 70) {
+            title = pick(ADJECTIVES, this.adjectives, random) + " " + pick(NOUNS, this.nouns, random) + "s";
+        } else if (shape < 78) {
+            title = pick(NOUNS, this.nouns, random) + " and " + pick(NOUNS, this.nouns, random);
+        } else if (shape < 88) {
+            title = pick(PORTUGUESE_NOUNS, this.portugueseNouns, random);
+        } else {
+            title = pick(PORTUGUESE_NOUNS, this.portugueseNouns, random) + " de "
+                    + pick(PORTUGUESE_PLACES, this.portuguesePlaces, random);
+        }
+
+        int suffix = random.nextInt(100);
+        if (suffix < 8) {
+            return title + ", Vol. " + (2 + random.nextInt(6));
+        }
+        if (suffix < 12) {
+            return title + ": A Novel";
+        }
+        return title;
+    }
+
+    private static String pick(String[] words, ZipfDistribution distribution, SplittableRandom random) {
+        return words[distribution.sample(random) - 1];
+    }
+
+    private static String[] fold(String[] names) {
+        String[] folded = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            folded[i] = TextNormalizer.normalize(names[i]).replace(' ', '.');
+        }
+        return folded;
+    }
+}
@@ -0,0 +1,71 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import com.fiap.project_bookstore_mvc.snapshot.CatalogSnapshotStore;
+import com.fiap.project_bookstore_mvc.suggest.CatalogSuggester;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Seeds the catalog once the application has started, then either keeps serving it or, with
+ * {@code bookstore.generator.exit=true}, shuts down; exiting only makes sense with a file-backed database.
+ * The rows go in over JDBC, past the change feed, so before serving them the snapshot and the suggest index,
+ * when enabled, are rebuilt rather than left to their next scheduled rebuild.
+ */
+public class CatalogGeneratorRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogGeneratorRunner.class);
+
+    private final GeneratorProperties properties;
+    private final CatalogLoader loader;
+    private final ConfigurableApplicationContext context;
+    private final CatalogSnapshotStore snapshotStore;
+    private final CatalogSuggester suggester;
+
+    public CatalogGeneratorRunner(GeneratorProperties properties, CatalogLoader loader,
+                                  ConfigurableApplicationContext context, CatalogSnapshotStore snapshotStore,
+                                  CatalogSuggester suggester) {
+        this.properties = properties;
+        this.loader = loader;
+        this.context = context;
+        this.snapshotStore = snapshotStore;
+        this.suggester = suggester;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        CatalogGenerator generator = new CatalogGenerator(this.properties.seed(), this.properties.exponent(),
+                this.properties.maxBooksPerAuthor());
+        log.info("Generating {} authors with about {} books each (seed {})", this.properties.authors(),
+                String.format(Locale.ROOT, "%.1f", generator.meanBooksPerAuthor()), this.properties.seed());
+
+        CatalogLoad load = this.loader.load(generator, this.properties.authors(), this.properties.mode());
+        log.info("Loaded {} authors (IDs from {}) and {} books through {} in {} ms, {} rows/s", load.authors(),
+                load.firstAuthorId(), load.books(), load.mode(), load.elapsed().toMillis(),
+                String.format(Locale.ROOT, "%.0f", load.rowsPerSecond()));
+
+        if (this.properties.exit()) {
+            System.exit(SpringApplication.exit(this.context));
+        }
+        rebuildIndexes();
+    }
+
+    private void rebuildIndexes() {
+        try {
+            if (this.snapshotStore != null) {
+                this.snapshotStore.rebuild();
+            }
+            if (this.suggester != null) {
+                this.suggester.rebuild();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not rebuild the indexes after the load; they catch up on their next scheduled rebuild", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import java.time.Duration;
+
+/**
+ * What one {@link CatalogLoader#load} run inserted. Authors got consecutive IDs from {@code firstAuthorId}.
+ */
+public record CatalogLoad(long firstAuthorId, int authors, long books, LoadMode mode, Duration elapsed) {
+
+    public long rows() {
+        return this.authors + this.books;
+    }
+
+    public double rowsPerSecond() {
+        return rows() / Math.max(this.elapsed.toNanos() / 1e9, 1e-9);
+    }
+}
@@ -0,0 +1,256 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Loads a generated catalog straight into the {@code authors} and {@code books} tables, bypassing JPA. Authors
+ * are appended after the highest existing author ID and the identity column is moved past them afterwards;
+ * books take their IDs from the identity column. Both paths stream, so memory does not grow with the catalog.
+ */
+public class CatalogLoader {
+
+    private static final String INSERT_AUTHOR = "INSERT INTO authors (id, name, email) VALUES (?, ?, ?)";
+    private static final String INSERT_BOOK = "INSERT INTO books (title, isbn, author_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final int batchSize;
+
+    public CatalogLoader(DataSource dataSource, int batchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    public CatalogLoad load(CatalogGenerator generator, int authors, LoadMode mode) {
+        long start = System.nanoTime();
+        Long maxId = this.jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM authors", Long.class);
+        long firstAuthorId = (maxId == null ? 0 : maxId) + 1;
+        if (mode == LoadMode.CSV && !isH2()) {
+            throw new IllegalArgumentException("CSV loading needs H2's CSVREAD; use the batch mode");
+        }
+
+        long books = mode == LoadMode.CSV
+                ? loadThroughCsv(generator, firstAuthorId, authors)
+                : loadInBatches(generator, firstAuthorId, authors);
+        this.jdbc.execute("ALTER TABLE authors ALTER COLUMN id RESTART WITH " + (firstAuthorId + authors));
+        return new CatalogLoad(firstAuthorId, authors, books, mode, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private long loadInBatches(CatalogGenerator generator, long firstAuthorId, int authors) {
+        Long books = this.jdbc.execute((ConnectionCallback<Long>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement authorInsert = connection.prepareStatement(INSERT_AUTHOR);
+                 PreparedStatement bookInsert = connection.prepareStatement(INSERT_BOOK)) {
+                BatchSink sink = new BatchSink(connection, authorInsert, bookInsert);
+                generator.generate(firstAuthorId, authors, sink);
+                sink.flush();
+                return sink.books;
+            } catch (BatchFailure e) {
+                connection.rollback();
+                throw e.getCause();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+        return books == null ? 0 : books;
+    }
+
+    private long loadThroughCsv(CatalogGenerator generator, long firstAuthorId, int authors) {
+        Path authorFile = null;
+        Path bookFile = null;
+        try {
+            authorFile = Files.createTempFile("catalog-authors", ".csv");
+            bookFile = Files.createTempFile("catalog-books", ".csv");
+            long books;
+            try (BufferedWriter authorOut = Files.newBufferedWriter(authorFile, StandardCharsets.UTF_8);
+                 BufferedWriter bookOut = Files.newBufferedWriter(bookFile, StandardCharsets.UTF_8)) {
+                CsvSink sink = new CsvSink(authorOut, bookOut);
+                generator.generate(firstAuthorId, authors, sink);
+                books = sink.bookCount;
+            }
+            // authors first: every book row references one
+            this.jdbc.execute("INSERT INTO authors (id, name, email) DIRECT SELECT CAST(ID AS BIGINT), NAME, EMAIL"
+                    + " FROM CSVREAD(" + literal(authorFile) + ", NULL, 'charset=UTF-8')");
+            this.jdbc.execute("INSERT INTO books (title, isbn, author_id) DIRECT SELECT TITLE, ISBN,"
+                    + " CAST(AUTHOR_ID AS BIGINT) FROM CSVREAD(" + literal(bookFile) + ", NULL, 'charset=UTF-8')");
+            return books;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(authorFile);
+            deleteQuietly(bookFile);
+        }
+    }
+
+    private boolean isH2() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(this.jdbc.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "H2".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    private static String literal(Path file) {
+        return "'" + file.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // a leftover temp file is not worth failing a finished load
+            }
+        }
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private final class BatchSink implements CatalogGenerator.Sink {
+
+        private final Connection connection;
+        private final PreparedStatement authorInsert;
+        private final PreparedStatement bookInsert;
+        private int pending;
+        private boolean pendingAuthors;
+        private boolean pendingBooks;
+        private long books;
+
+        BatchSink(Connection connection, PreparedStatement authorInsert, PreparedStatement bookInsert) {
+            this.connection = connection;
+            this.authorInsert = authorInsert;
+            this.bookInsert = bookInsert;
+        }
+
+        @Override
+        public void author(long id, String name, String email) {
+            try {
+                this.authorInsert.setLong(1, id);
+                this.authorInsert.setString(2, name);
+                this.authorInsert.setString(3, email);
+                this.authorInsert.addBatch();
+                this.pendingAuthors = true;
+                added();
+            } catch (SQLException e) {
+                throw new BatchFailure(e);
+            }
+        }
+
+        @Override
+        public void book(String title, String isbn, long authorId) {
+            try {
+                this.bookInsert.setString(1, title);
+                this.bookInsert.setString(2, isbn);
+                this.bookInsert.setLong(3, authorId);
+                this.bookInsert.addBatch();
+                this.pendingBooks = true;
+                this.books++;
+                added();
+            } catch (SQLException e) {
+                throw new BatchFailure(e);
+            }
+        }
+
+        private void added() throws SQLException {
+            if (++this.pending >= CatalogLoader.this.batchSize) {
+                flush();
+            }
+        }
+
+        // authors before books, so every book in the batch finds its author
+        void flush() throws SQLException {
+            if (this.pendingAuthors) {
+                this.authorInsert.executeBatch();
+            }
+            if (this.pendingBooks) {
+                this.bookInsert.executeBatch();
+            }
+            this.connection.commit();
+            this.pending = 0;
+            this.pendingAuthors = false;
+            this.pendingBooks = false;
+        }
+    }
+
+    private static final class CsvSink implements CatalogGenerator.Sink {
+
+        private final Writer authors;
+        private final Writer books;
+        private long bookCount;
+
+        CsvSink(Writer authors, Writer books) throws IOException {
+            this.authors = authors;
+            this.books = books;
+            authors.write("ID,NAME,EMAIL\n");
+            books.write("TITLE,ISBN,AUTHOR_ID\n");
+        }
+
+        @Override
+        public void author(long id, String name, String email) {
+            try {
+                this.authors.write(Long.toString(id));
+                this.authors.write(',');
+                writeField(this.authors, name);
+                this.authors.write(',');
+                writeField(this.authors, email);
+                this.authors.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void book(String title, String isbn, long authorId) {
+            try {
+                writeField(this.books, title);
+                this.books.write(',');
+                this.books.write(isbn);
+                this.books.write(',');
+                this.books.write(Long.toString(authorId));
+                this.books.write('\n');
+                this.bookCount++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // carries a SQLException out of the sink callbacks, which cannot throw checked exceptions
+    private static final class BatchFailure extends RuntimeException {
+
+        BatchFailure(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import com.fiap.project_bookstore_mvc.snapshot.CatalogSnapshotStore;
+import com.fiap.project_bookstore_mvc.suggest.CatalogSuggester;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Only active when {@code bookstore.generator.authors} is set, which turns a normal start into a seeding run.
+ */
+@Configuration
+@EnableConfigurationProperties(GeneratorProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.generator", name = "authors")
+public class GeneratorConfig {
+
+    @Bean
+    public ApplicationRunner catalogGeneratorRunner(GeneratorProperties properties, DataSource dataSource,
+                                                    ConfigurableApplicationContext context,
+                                                    ObjectProvider<CatalogSnapshotStore> snapshotStore,
+                                                    ObjectProvider<CatalogSuggester> suggester) {
+        return new CatalogGeneratorRunner(properties, new CatalogLoader(dataSource, properties.batchSize()), context,
+                snapshotStore.getIfAvailable(), suggester.getIfAvailable());
+    }
+}
@@ -0,0 +1,16 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("bookstore.generator")
+public record GeneratorProperties(
+        int authors,
+        @DefaultValue("42") long seed,
+        @DefaultValue("2.0") double exponent,
+        @DefaultValue("1000") int maxBooksPerAuthor,
+        @DefaultValue("batch") LoadMode mode,
+        @DefaultValue("10000") int batchSize,
+        @DefaultValue("false") boolean exit
+) {
+}
@@ -0,0 +1,74 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Hands out distinct, valid ISBN-13s spread over registration groups in roughly the proportions a mixed
+ * English, European and Brazilian catalog has. Each group numbers its books through a seeded permutation of
+ * its remaining digits, so consecutive books do not get consecutive ISBNs and no ISBN repeats within a run.
+ */
+final class IsbnSequence {
+
+    // 12-digit ISBN prefixes up to the end of the registration group, and their weights
+    private static final String[] GROUPS = {
+            "9780", "9781", "9782", "9783", "9784", "97885", "97884", "97888", "978972", "9787", "9798"};
+    private static final int[] WEIGHTS = {25, 25, 8, 8, 4, 12, 5, 4, 3, 3, 3};
+
+    private final int[] cumulativeWeights = new int[GROUPS.length];
+    private final long[] issued = new long[GROUPS.length];
+    private final long[] spaces = new long[GROUPS.length];
+    private final long[] multipliers = new long[GROUPS.length];
+    private final long[] offsets = new long[GROUPS.length];
+
+    IsbnSequence(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int total = 0;
+        for (int group = 0; group < GROUPS.length; group++) {
+            total += WEIGHTS[group];
+            this.cumulativeWeights[group] = total;
+            this.spaces[group] = pow10(12 - GROUPS[group].length());
+            this.multipliers[group] = coprimeWithTen(random.nextLong(this.spaces[group]));
+            this.offsets[group] = random.nextLong(this.spaces[group]);
+        }
+    }
+
+    String next(SplittableRandom random) {
+        int draw = random.nextInt(this.cumulativeWeights[GROUPS.length - 1]);
+        int group = 0;
+        while (draw >= this.cumulativeWeights[group]) {
+            group++;
+        }
+        long space = this.spaces[group];
+        if (this.issued[group] == space) {
+            throw new IllegalStateException("ISBN group " + GROUPS[group] + " exhausted after " + space + " books");
+        }
+        // affine map with a multiplier coprime to the space size: a bijection over [0, space)
+        long number = (this.multipliers[group] * this.issued[group]++ + this.offsets[group]) % space;
+
+        StringBuilder isbn = new StringBuilder(13).append(GROUPS[group]);
+        String digits = Long.toString(number);
+        isbn.repeat('0', 12 - GROUPS[group].length() - digits.length()).append(digits);
+        return isbn.append(checkDigit(isbn)).toString();
+    }
+
+    static int checkDigit(CharSequence first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static long coprimeWithTen(long candidate) {
+        long value = candidate | 1;
+        return value % 5 == 0 ? value + 2 : value;
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+/**
+ * How {@link CatalogLoader} gets generated rows into the database.
+ */
+public enum LoadMode {
+
+    /** JDBC batches of prepared inserts, committed batch by batch. */
+    BATCH,
+    /**
+     * Rows written to CSV files first, then read by one {@code INSERT ... DIRECT SELECT ... FROM CSVREAD} per
+     * table; H2 only. Keeps each table load in one statement, but on H2 it is no faster than batches: most of
+     * the time goes into maintaining the indexes on {@code books}, which both paths pay alike.
+     */
+    CSV
+}
@@ -0,0 +1,44 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 1..n with probability proportional to 1 / rank^exponent, by binary search over a precomputed
+ * cumulative table.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        this.cumulative = new double[n];
+        double total = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            total += 1 / Math.pow(rank, exponent);
+            this.cumulative[rank - 1] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            this.cumulative[i] /= total;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int position = Arrays.binarySearch(this.cumulative, random.nextDouble());
+        int index = position >= 0 ? position : -position - 1;
+        return Math.min(index, this.cumulative.length - 1) + 1;
+    }
+
+    double mean() {
+        double mean = 0;
+        double previous = 0;
+        for (int i = 0; i < this.cumulative.length; i++) {
+            mean += (i + 1) * (this.cumulative[i] - previous);
+            previous = this.cumulative[i];
+        }
+        return mean;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+import com.fiap.project_bookstore_mvc.sharding.ShardDataSources;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    // with sharding the keys live on the first shard, next to the shard directory
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, DataSource dataSource,
+                                             ObjectProvider<ShardDataSources> shards, MeterRegistry meterRegistry) {
+        IdempotencyStore store;
+        if (properties.store() == IdempotencyProperties.Store.JDBC) {
+            ShardDataSources shardDataSources = shards.getIfAvailable();
+            JdbcTemplate jdbc = shardDataSources == null ? new JdbcTemplate(dataSource) : shardDataSources.jdbc(0);
+            store = new JdbcIdempotencyStore(jdbc, properties, Clock.systemUTC());
+        } else {
+            store = new InMemoryIdempotencyStore(properties, Clock.systemUTC());
+        }
+        Gauge.builder("bookstore.idempotency.keys", store, IdempotencyStore::size)
+                .register(meterRegistry);
+        return store;
+    }
+
+    @Bean
+    public IdempotencyGuard idempotencyGuard(IdempotencyStore store, IdempotencyProperties properties,
+                                             MeterRegistry meterRegistry) {
+        IdempotencyGuard guard = new IdempotencyGuard(store, properties.inFlightWait());
+        Gauge.builder("bookstore.idempotency.in-flight", guard, IdempotencyGuard::inFlight)
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.idempotency.requests", guard, IdempotencyGuard::executed)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.idempotency.requests", guard, IdempotencyGuard::replayed)
+                .tag("result", "replayed")
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.idempotency.requests", guard, IdempotencyGuard::rejected)
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        return guard;
+    }
+
+    // ahead of the concurrency limiter: a replayed or waiting duplicate should not hold a write permit
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyGuard guard, IdempotencyProperties properties) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(
+                guard, Math.toIntExact(properties.maxRequestBytes().toBytes()),
+                Math.toIntExact(properties.maxResponseBytes().toBytes()), Clock.systemUTC()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 6);
+        return registration;
+    }
+}
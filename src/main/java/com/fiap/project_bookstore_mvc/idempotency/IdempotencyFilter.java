@@ -0,0 +1,297 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
+
+/**
+ * Makes {@code POST} and {@code PUT} on books and authors safe to retry: a request carrying an
+ * {@code Idempotency-Key} header goes through {@link IdempotencyGuard}, keyed by the header and fingerprinted
+ * by method, path, query and body. Responses below 500 are kept and replayed with an
+ * {@code Idempotent-Replayed} header; server errors and 409 conflicts are not, so a retry runs again.
+ * The body is read into memory to fingerprint it, so a keyed request above {@code maxRequestBytes} is refused
+ * with 413; the response streams to the client as it is written, and is only kept while it fits in
+ * {@code maxResponseBytes}.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final String INVALID_KEY_BODY = "{\"error\":\"Idempotency-Key deve ter entre 1 e 255 caracteres\"}";
+    private static final String KEY_REUSED_BODY = "{\"error\":\"Idempotency-Key já usada com outra requisição\"}";
+    private static final String IN_FLIGHT_BODY = "{\"error\":\"requisição com a mesma Idempotency-Key ainda em andamento\"}";
+    private static final String TOO_LARGE_BODY = "{\"error\":\"corpo grande demais para uma requisição com Idempotency-Key\"}";
+
+    private final IdempotencyGuard guard;
+    private final int maxRequestBytes;
+    private final int maxResponseBytes;
+    private final Clock clock;
+
+    public IdempotencyFilter(IdempotencyGuard guard, int maxRequestBytes, int maxResponseBytes, Clock clock) {
+        this.guard = guard;
+        this.maxRequestBytes = maxRequestBytes;
+        this.maxResponseBytes = maxResponseBytes;
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.POST.matches(method) && !HttpMethod.PUT.matches(method) || request.getHeader(KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/books") || path.startsWith("/authors"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, INVALID_KEY_BODY);
+            return;
+        }
+
+        // one byte past the limit tells a body of exactly maxRequestBytes from a longer one
+        byte[] body = request.getContentLengthLong() > this.maxRequestBytes
+                ? null
+                : request.getInputStream().readNBytes(this.maxRequestBytes + 1);
+        if (body == null || body.length > this.maxRequestBytes) {
+            writeError(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, TOO_LARGE_BODY);
+            return;
+        }
+
+        HttpServletRequest cached = new CachedBodyRequest(request, body);
+        String fingerprint = fingerprint(request, body);
+        IdempotencyGuard.Outcome outcome = this.guard.run(key, fingerprint, () -> {
+            RecordingResponse recording = new RecordingResponse(response, this.maxResponseBytes);
+            filterChain.doFilter(cached, recording);
+            recording.flushWriter();
+            byte[] recorded = recording.recorded();
+            if (recording.getStatus() >= 500 || recording.getStatus() == HttpServletResponse.SC_CONFLICT
+                    || recorded == null) {
+                return null;
+            }
+            return new IdempotentResponse(fingerprint, recording.getStatus(), recording.getContentType(),
+                    recorded, this.clock.millis());
+        });
+
+        switch (outcome.kind()) {
+            case EXECUTED -> {
+            }
+            case REPLAYED -> replay(response, outcome.response());
+            case KEY_REUSED -> writeError(response, 422, KEY_REUSED_BODY);
+            case IN_FLIGHT -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpServletResponse.SC_CONFLICT, IN_FLIGHT_BODY);
+            }
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotentResponse kept) throws IOException {
+        response.setStatus(kept.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (kept.contentType() != null) {
+            response.setContentType(kept.contentType());
+        }
+        response.setContentLength(kept.body().length);
+        response.getOutputStream().write(kept.body());
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(body);
+    }
+
+    static String fingerprint(HttpServletRequest request, byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                .getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest(body));
+    }
+
+    // the body is read once to fingerprint it and served again from memory to the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(this.body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new IllegalStateException("The body was already read to fingerprint it; read it blocking");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+
+    // passes everything written straight through, so streamed responses reach the client as they are written,
+    // and keeps a copy for the store until it outgrows the limit
+    private static final class RecordingResponse extends HttpServletResponseWrapper {
+
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        RecordingResponse(HttpServletResponse response, int limit) {
+            super(response);
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (this.outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                this.outputStream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                        record(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        target.write(buffer, offset, length);
+                        record(buffer, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target.flush();
+                    }
+                };
+            }
+            return this.outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (this.writer == null) {
+                String encoding = getCharacterEncoding();
+                this.writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                        encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+            }
+            return this.writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            this.copy = new ByteArrayOutputStream();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            this.copy = new ByteArrayOutputStream();
+        }
+
+        void flushWriter() {
+            if (this.writer != null) {
+                this.writer.flush();
+            }
+        }
+
+        // null once the body outgrew the limit
+        byte[] recorded() {
+            return this.copy == null ? null : this.copy.toByteArray();
+        }
+
+        private void record(byte[] buffer, int offset, int length) {
+            if (this.copy == null) {
+                return;
+            }
+            if (this.copy.size() + length > this.limit) {
+                this.copy = null;
+            } else {
+                this.copy.write(buffer, offset, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+import jakarta.servlet.ServletException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a request at most once per idempotency key. The first request with a key claims it and executes;
+ * duplicates arriving while it runs wait for its response instead of executing again, and later ones are
+ * answered from the store. A key presented with a different request is refused. When the first execution
+ * keeps nothing (it failed), one of the waiting duplicates claims the key and executes in its place.
+ */
+public class IdempotencyGuard {
+
+    private final IdempotencyStore store;
+    private final long inFlightWaitNanos;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public IdempotencyGuard(IdempotencyStore store, Duration inFlightWait) {
+        this.store = store;
+        this.inFlightWaitNanos = inFlightWait.toNanos();
+    }
+
+    public Outcome run(String key, String fingerprint, Execution execution) throws IOException, ServletException {
+        long deadline = System.nanoTime() + this.inFlightWaitNanos;
+        while (true) {
+            InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+            InFlight running = this.inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                return runClaimed(key, mine, execution);
+            }
+            if (!running.fingerprint().equals(fingerprint)) {
+                return reject(Outcome.KEY_REUSED);
+            }
+
+            IdempotentResponse response;
+            try {
+                response = running.response().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return reject(Outcome.IN_FLIGHT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return reject(Outcome.IN_FLIGHT);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+            if (response != null) {
+                return replay(response, fingerprint);
+            }
+        }
+    }
+
+    private Outcome runClaimed(String key, InFlight claim, Execution execution) throws IOException, ServletException {
+        IdempotentResponse response = null;
+        try {
+            response = this.store.find(key);
+            if (response != null) {
+                return replay(response, claim.fingerprint());
+            }
+            response = execution.run();
+            if (response != null) {
+                this.store.save(key, response);
+            }
+            this.executed.increment();
+            return Outcome.EXECUTED;
+        } finally {
+            this.inFlight.remove(key, claim);
+            claim.response().complete(response);
+        }
+    }
+
+    private Outcome replay(IdempotentResponse response, String fingerprint) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            return reject(Outcome.KEY_REUSED);
+        }
+        this.replayed.increment();
+        return Outcome.replayed(response);
+    }
+
+    private Outcome reject(Outcome outcome) {
+        this.rejected.increment();
+        return outcome;
+    }
+
+    public int inFlight() {
+        return this.inFlight.size();
+    }
+
+    public long executed() {
+        return this.executed.sum();
+    }
+
+    public long replayed() {
+        return this.replayed.sum();
+    }
+
+    public long rejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Executes the request, returning the response to keep under the key or {@code null} to keep nothing.
+     */
+    @FunctionalInterface
+    public interface Execution {
+        IdempotentResponse run() throws IOException, ServletException;
+    }
+
+    /**
+     * What became of a request: executed here, answered with an earlier response, or refused because the key
+     * belongs to a different request or is still running past the wait.
+     */
+    public record Outcome(Kind kind, IdempotentResponse response) {
+
+        static final Outcome EXECUTED = new Outcome(Kind.EXECUTED, null);
+        static final Outcome KEY_REUSED = new Outcome(Kind.KEY_REUSED, null);
+        static final Outcome IN_FLIGHT = new Outcome(Kind.IN_FLIGHT, null);
+
+        static Outcome replayed(IdempotentResponse response) {
+            return new Outcome(Kind.REPLAYED, response);
+        }
+
+        public enum Kind {
+            EXECUTED,
+            REPLAYED,
+            KEY_REUSED,
+            IN_FLIGHT
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<IdempotentResponse> response) {
+    }
+}
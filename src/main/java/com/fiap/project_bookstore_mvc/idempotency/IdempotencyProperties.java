@@ -0,0 +1,25 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("memory") Store store,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("1MB") DataSize maxRequestBytes,
+        @DefaultValue("64KB") DataSize maxResponseBytes,
+        @DefaultValue("10s") Duration inFlightWait,
+        @DefaultValue("1m") Duration purgeInterval
+) {
+
+    public enum Store {
+        MEMORY,
+        JDBC
+    }
+}
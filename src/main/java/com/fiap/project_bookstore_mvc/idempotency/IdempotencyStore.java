@@ -0,0 +1,21 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+/**
+ * Responses kept by idempotency key for a limited time and up to a limited number of keys.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Returns the response kept under {@code key}, or {@code null} when there is none or it has expired.
+     */
+    IdempotentResponse find(String key);
+
+    void save(String key, IdempotentResponse response);
+
+    /**
+     * Drops the expired keys, then the oldest ones beyond the limit.
+     */
+    void purge();
+
+    int size();
+}
@@ -0,0 +1,7 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+/**
+ * A response kept under an idempotency key, with the fingerprint of the request that produced it.
+ */
+public record IdempotentResponse(String fingerprint, int status, String contentType, byte[] body, long createdAt) {
+}
@@ -0,0 +1,63 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps responses in insertion order, which is also expiry order, so purging only ever looks at the head.
+ * Lost on restart.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, IdempotentResponse> responses = new LinkedHashMap<>();
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties, Clock clock) {
+        this.ttlMillis = properties.ttl().toMillis();
+        this.maxEntries = properties.maxEntries();
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized IdempotentResponse find(String key) {
+        IdempotentResponse response = this.responses.get(key);
+        if (response != null && isExpired(response, this.clock.millis())) {
+            this.responses.remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void save(String key, IdempotentResponse response) {
+        this.responses.remove(key);
+        this.responses.put(key, response);
+        purge();
+    }
+
+    @Override
+    public synchronized void purge() {
+        long now = this.clock.millis();
+        Iterator<IdempotentResponse> eldest = this.responses.values().iterator();
+        while (eldest.hasNext()) {
+            IdempotentResponse response = eldest.next();
+            if (this.responses.size() <= this.maxEntries && !isExpired(response, now)) {
+                break;
+            }
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.responses.size();
+    }
+
+    private boolean isExpired(IdempotentResponse response, long now) {
+        return now - response.createdAt() >= this.ttlMillis;
+    }
+}
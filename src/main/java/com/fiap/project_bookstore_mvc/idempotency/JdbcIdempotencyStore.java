@@ -0,0 +1,117 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps responses in the {@code idempotency_keys} table, so keys outlive a restart and are shared by every
+ * instance on the same database. Expired keys are ignored on lookup and deleted by a periodic purge, which
+ * also trims the table back to the key limit.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore, InitializingBean, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+    private static final String FIND = """
+            SELECT fingerprint, status, content_type, body, created_at FROM idempotency_keys
+            WHERE idempotency_key = ? AND created_at > ?""";
+    private static final String SAVE = """
+            MERGE INTO idempotency_keys (idempotency_key, fingerprint, status, content_type, body, created_at)
+            KEY (idempotency_key) VALUES (?, ?, ?, ?, ?, ?)""";
+    private static final String DELETE_EXPIRED = "DELETE FROM idempotency_keys WHERE created_at <= ?";
+    private static final String DELETE_OLDEST = """
+            DELETE FROM idempotency_keys WHERE created_at < (
+                SELECT created_at FROM idempotency_keys ORDER BY created_at DESC OFFSET ? ROWS FETCH FIRST 1 ROW ONLY)""";
+
+    private final JdbcTemplate jdbc;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Duration purgeInterval;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbc, IdempotencyProperties properties, Clock clock) {
+        this.jdbc = jdbc;
+        this.ttlMillis = properties.ttl().toMillis();
+        this.maxEntries = properties.maxEntries();
+        this.purgeInterval = properties.purgeInterval();
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        this.jdbc.execute("""
+                CREATE TABLE IF NOT EXISTS idempotency_keys (
+                    idempotency_key VARCHAR(255) PRIMARY KEY,
+                    fingerprint VARCHAR(64) NOT NULL,
+                    status INT NOT NULL,
+                    content_type VARCHAR(255),
+                    body BLOB NOT NULL,
+                    created_at BIGINT NOT NULL
+                )""");
+        this.jdbc.execute("CREATE INDEX IF NOT EXISTS idempotency_keys_created_at ON idempotency_keys (created_at)");
+    }
+
+    @Override
+    public IdempotentResponse find(String key) {
+        List<IdempotentResponse> rows = this.jdbc.query(FIND, (rs, row) -> new IdempotentResponse(
+                rs.getString(1), rs.getInt(2), rs.getString(3), rs.getBytes(4), rs.getLong(5)),
+                key, this.clock.millis() - this.ttlMillis);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        this.jdbc.update(SAVE, key, response.fingerprint(), response.status(), response.contentType(),
+                response.body(), response.createdAt());
+    }
+
+    @Override
+    public void purge() {
+        this.jdbc.update(DELETE_EXPIRED, this.clock.millis() - this.ttlMillis);
+        this.jdbc.update(DELETE_OLDEST, this.maxEntries - 1);
+    }
+
+    @Override
+    public int size() {
+        Integer count = this.jdbc.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (DataAccessException e) {
+            log.warn("Could not purge idempotency keys", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("idempotency-purge").daemon().factory());
+        this.scheduler.scheduleWithFixedDelay(this::purgeQuietly, this.purgeInterval.toMillis(),
+                this.purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        this.scheduler.shutdownNow();
+        this.scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.fiap.project_bookstore_mvc.index;
+
+import java.util.Arrays;
+
+/**
+ * Author ID to book IDs adjacency in compressed sparse row form: the books of the author in row {@code r}
+ * are {@code bookIds[offsets[r] .. offsets[r + 1])}, sorted ascending. Costs 8 bytes per book and a few
+ * dozen per author, with no per-entry objects. Immutable once built.
+ */
+public final class AuthorBooksIndex {
+
+    private static final int ABSENT = -1;
+
+    private final LongIntHashMap rows;
+    private final int[] offsets;
+    private final long[] bookIds;
+
+    private AuthorBooksIndex(LongIntHashMap rows, int[] offsets, long[] bookIds) {
+        this.rows = rows;
+        this.offsets = offsets;
+        this.bookIds = bookIds;
+    }
+
+    /**
+     * Builds the index with a counting sort over the authors' rows. Books whose author is not listed are left
+     * out.
+     */
+    public static AuthorBooksIndex build(long[] authorIds, int authorCount,
+                                         long[] bookIds, long[] bookAuthorIds, int bookCount) {
+        LongIntHashMap rows = new LongIntHashMap(authorCount);
+        for (int row = 0; row < authorCount; row++) {
+            rows.put(authorIds[row], row);
+        }
+
+        int[] offsets = new int[authorCount + 1];
+        for (int i = 0; i < bookCount; i++) {
+            int row = rows.get(bookAuthorIds[i], ABSENT);
+            if (row != ABSENT) {
+                offsets[row + 1]++;
+            }
+        }
+        for (int row = 0; row < authorCount; row++) {
+            offsets[row + 1] += offsets[row];
+        }
+
+        long[] adjacency = new long[offsets[authorCount]];
+        int[] next = Arrays.copyOf(offsets, authorCount);
+        boolean sorted = true;
+        for (int i = 0; i < bookCount; i++) {
+            int row = rows.get(bookAuthorIds[i], ABSENT);
+            if (row != ABSENT) {
+                int position = next[row]++;
+                adjacency[position] = bookIds[i];
+                sorted &= position == offsets[row] || adjacency[position - 1] < bookIds[i];
+            }
+        }
+        if (!sorted) {
+            for (int row = 0; row < authorCount; row++) {
+                Arrays.sort(adjacency, offsets[row], offsets[row + 1]);
+            }
+        }
+        return new AuthorBooksIndex(rows, offsets, adjacency);
+    }
+
+    public boolean containsAuthor(long authorId) {
+        return this.rows.containsKey(authorId);
+    }
+
+    public int count(long authorId) {
+        int row = this.rows.get(authorId, ABSENT);
+        return row == ABSENT ? 0 : this.offsets[row + 1] - this.offsets[row];
+    }
+
+    /**
+     * Position of the author's first book in {@link #bookIdAt(int)}, or -1 for unknown authors.
+     */
+    public int from(long authorId) {
+        int row = this.rows.get(authorId, ABSENT);
+        return row == ABSENT ? ABSENT : this.offsets[row];
+    }
+
+    public long bookIdAt(int position) {
+        return this.bookIds[position];
+    }
+
+    public long[] bookIds(long authorId) {
+        int row = this.rows.get(authorId, ABSENT);
+        return row == ABSENT ? new long[0] : Arrays.copyOfRange(this.bookIds, this.offsets[row], this.offsets[row + 1]);
+    }
+
+    public int authorCount() {
+        return this.offsets.length - 1;
+    }
+
+    public int bookCount() {
+        return this.bookIds.length;
+    }
+
+    /**
+     * Bytes held by the backing arrays, excluding object headers.
+     */
+    public long footprint() {
+        return this.rows.footprint() + (long) this.offsets.length * Integer.BYTES + (long) this.bookIds.length * Long.BYTES;
+    }
+}
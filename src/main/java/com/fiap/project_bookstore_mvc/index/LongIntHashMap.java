@@ -0,0 +1,133 @@
+package com.fiap.project_bookstore_mvc.index;
+
+/**
+ * Open-addressing hash map from {@code long} to {@code int} with linear probing over two parallel arrays:
+ * 12 bytes per slot and no boxing, against roughly 50 bytes per entry for {@code HashMap<Long, Integer>}.
+ * Key 0 marks a free slot and is kept aside. Not thread-safe; build it once, then share it read-only.
+ */
+public final class LongIntHashMap {
+
+    private static final long FREE = 0L;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private int[] values;
+    private int shift;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int get(long key, int missingValue) {
+        if (key == FREE) {
+            return this.hasFreeKey ? this.freeKeyValue : missingValue;
+        }
+        int slot = slot(key);
+        long candidate;
+        while ((candidate = this.keys[slot]) != FREE) {
+            if (candidate == key) {
+                return this.values[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == FREE) {
+            return this.hasFreeKey;
+        }
+        int slot = slot(key);
+        long candidate;
+        while ((candidate = this.keys[slot]) != FREE) {
+            if (candidate == key) {
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return false;
+    }
+
+    public void put(long key, int value) {
+        if (key == FREE) {
+            if (!this.hasFreeKey) {
+                this.size++;
+            }
+            this.hasFreeKey = true;
+            this.freeKeyValue = value;
+            return;
+        }
+        int slot = slot(key);
+        long candidate;
+        while ((candidate = this.keys[slot]) != FREE) {
+            if (candidate == key) {
+                this.values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size > this.resizeAt) {
+            rehash();
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Bytes held by the backing arrays, excluding object headers.
+     */
+    public long footprint() {
+        return (long) this.keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * PHI) >>> this.shift);
+    }
+
+    private void rehash() {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int slot = slot(key);
+                while (this.keys[slot] != FREE) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = key;
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.shift = Long.numberOfLeadingZeros(capacity - 1);
+        this.resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(2, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
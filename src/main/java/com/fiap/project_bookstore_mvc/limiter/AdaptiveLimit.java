@@ -0,0 +1,59 @@
+package com.fiap.project_bookstore_mvc.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit: grows by one while requests finish under the latency target and the limit is
+ * actually being used, shrinks multiplicatively whenever a request takes longer than the target.
+ */
+public class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = this.inflight.get();
+            if (current >= (int) this.limit) {
+                return false;
+            }
+            if (this.inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inflightAtRelease = this.inflight.getAndDecrement();
+        onSample(latencyNanos, inflightAtRelease);
+    }
+
+    public int getLimit() {
+        return (int) this.limit;
+    }
+
+    public int getInflight() {
+        return this.inflight.get();
+    }
+
+    private synchronized void onSample(long latencyNanos, int inflightAtRelease) {
+        if (latencyNanos > this.latencyTargetNanos) {
+            this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+        } else if (inflightAtRelease * 2 >= this.limit) {
+            this.limit = Math.min(this.maxLimit, this.limit + 1);
+        }
+    }
+}
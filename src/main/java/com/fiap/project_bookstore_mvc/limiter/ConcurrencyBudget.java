@@ -0,0 +1,48 @@
+package com.fiap.project_bookstore_mvc.limiter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrencyBudget {
+
+    private final String name;
+    private final AdaptiveLimit limit;
+    private final int rejectStatus;
+    private final long retryAfterSeconds;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyBudget(String name, ConcurrencyLimitProperties.Budget properties) {
+        this.name = name;
+        this.limit = new AdaptiveLimit(
+                properties.initialLimit(),
+                properties.minLimit(),
+                properties.maxLimit(),
+                properties.latencyTarget().toNanos(),
+                properties.backoffRatio());
+        this.rejectStatus = properties.rejectStatus();
+        this.retryAfterSeconds = Math.max(1, properties.retryAfter().toSeconds());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public AdaptiveLimit getLimit() {
+        return limit;
+    }
+
+    public int getRejectStatus() {
+        return rejectStatus;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void recordRejection() {
+        this.rejected.increment();
+    }
+
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+}
@@ -0,0 +1,45 @@
+package com.fiap.project_bookstore_mvc.limiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                MeterRegistry meterRegistry) {
+        ConcurrencyBudget reads = new ConcurrencyBudget("reads", properties.reads());
+        ConcurrencyBudget writes = new ConcurrencyBudget("writes", properties.writes());
+        ConcurrencyBudget exports = new ConcurrencyBudget("exports", properties.exports());
+        List.of(reads, writes, exports).forEach(budget -> bindMetrics(budget, meterRegistry));
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(reads, writes, exports));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static void bindMetrics(ConcurrencyBudget budget, MeterRegistry meterRegistry) {
+        Gauge.builder("bookstore.concurrency.limit", budget, b -> b.getLimit().getLimit())
+                .tag("budget", budget.getName())
+                .register(meterRegistry);
+        Gauge.builder("bookstore.concurrency.inflight", budget, b -> b.getLimit().getInflight())
+                .tag("budget", budget.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.concurrency.rejected", budget, ConcurrencyBudget::getRejected)
+                .tag("budget", budget.getName())
+                .register(meterRegistry);
+    }
+}
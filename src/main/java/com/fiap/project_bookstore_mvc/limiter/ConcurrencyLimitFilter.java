@@ -0,0 +1,69 @@
+package com.fiap.project_bookstore_mvc.limiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String EXPORT_PATH = "/books/export";
+    private static final String REJECTION_BODY = "{\"error\":\"servidor sobrecarregado, tente novamente em instantes\"}";
+
+    private final ConcurrencyBudget reads;
+    private final ConcurrencyBudget writes;
+    private final ConcurrencyBudget exports;
+
+    public ConcurrencyLimitFilter(ConcurrencyBudget reads, ConcurrencyBudget writes, ConcurrencyBudget exports) {
+        this.reads = reads;
+        this.writes = writes;
+        this.exports = exports;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !(path.startsWith("/books") || path.startsWith("/authors"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ConcurrencyBudget budget = budgetFor(request);
+        AdaptiveLimit limit = budget.getLimit();
+
+        if (!limit.tryAcquire()) {
+            budget.recordRejection();
+            response.setStatus(budget.getRejectStatus());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(budget.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(REJECTION_BODY);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    private ConcurrencyBudget budgetFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return this.writes;
+        }
+        return EXPORT_PATH.equals(path(request)) ? this.exports : this.reads;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
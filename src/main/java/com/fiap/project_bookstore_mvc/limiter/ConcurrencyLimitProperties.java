@@ -0,0 +1,26 @@
+package com.fiap.project_bookstore_mvc.limiter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        boolean enabled,
+        @DefaultValue Budget reads,
+        @DefaultValue Budget writes,
+        @DefaultValue Budget exports
+) {
+
+    public record Budget(
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("2") int minLimit,
+            @DefaultValue("200") int maxLimit,
+            @DefaultValue("250ms") Duration latencyTarget,
+            @DefaultValue("0.9") double backoffRatio,
+            @DefaultValue("503") int rejectStatus,
+            @DefaultValue("1s") Duration retryAfter
+    ) {
+    }
+}
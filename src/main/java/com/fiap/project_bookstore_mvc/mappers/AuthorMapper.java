@@ -1,8 +1,16 @@
 package com.fiap.project_bookstore_mvc.mappers;
 
+import com.fiap.project_bookstore_mvc.detail.AuthorDetail;
 import com.fiap.project_bookstore_mvc.dto.In.AuthorInDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorDetailOutDTO;
 import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
 import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class AuthorMapper {
 
@@ -10,15 +18,43 @@ public final class AuthorMapper {
         return new AuthorOutDTO(
             author.getId(),
             author.getName(),
-            author.getEmail()
+            author.getEmail(),
+            author.getVersion()
+        );
+    }
+
+    public static Map<Long, AuthorOutDTO> toDictionary(Collection<Author> authors) {
+        Map<Long, AuthorOutDTO> dictionary = new LinkedHashMap<>();
+        authors.forEach(author -> dictionary.putIfAbsent(author.getId(), toOutDTO(author)));
+        return dictionary;
+    }
+
+    public static AuthorDetailOutDTO toDetailOutDTO(AuthorDetail detail) {
+        Author author = detail.author();
+        return new AuthorDetailOutDTO(
+            author.getId(),
+            author.getName(),
+            author.getEmail(),
+            author.getVersion(),
+            detail.books() == null ? null : detail.books().stream().map(BookMapper::toOutDTO).toList(),
+            detail.bookCount()
         );
     }
 
     public static Author toEntity(AuthorInDTO authorInDTO) {
-        return new Author(
+        Author author = new Author(
             authorInDTO.id(),
             authorInDTO.name(),
             authorInDTO.email()
         );
+        author.setVersion(authorInDTO.version());
+        return author;
+    }
+
+    public static AuthorDetail toDetail(AuthorInDTO authorInDTO) {
+        List<Book> books = authorInDTO.books() == null
+            ? List.of()
+            : authorInDTO.books().stream().map(book -> new Book(null, book.title(), book.isbn(), null)).toList();
+        return new AuthorDetail(toEntity(authorInDTO), books, null);
     }
 }
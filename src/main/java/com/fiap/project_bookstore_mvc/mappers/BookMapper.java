@@ -3,9 +3,14 @@ package com.fiap.project_bookstore_mvc.mappers;
 import com.fiap.project_bookstore_mvc.dto.In.BookInDTO;
 import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
 import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BookRefOutDTO;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 public final class BookMapper {
 
     public static BookOutDTO toOutDTO(Book book) {
@@ -15,18 +20,36 @@ public final class BookMapper {
             book.getId(),
             book.getTitle(),
             book.getIsbn(),
+            book.getVersion(),
                 author
         );
     }
 
+    public static BookRefOutDTO toRefOutDTO(Book book) {
+        return new BookRefOutDTO(
+            book.getId(),
+            book.getTitle(),
+            book.getIsbn(),
+            book.getAuthor().getId()
+        );
+    }
+
+    public static Set<Long> authorIdsOf(Collection<Book> books) {
+        Set<Long> ids = new LinkedHashSet<>();
+        books.forEach(book -> ids.add(book.getAuthor().getId()));
+        return ids;
+    }
+
     public static Book toEntity(BookInDTO bookInDTO) {
         Author author = new Author(bookInDTO.authorId());
 
-        return new Book(
+        Book book = new Book(
                 bookInDTO.id(),
                 bookInDTO.title(),
                 bookInDTO.isbn(),
                 author
         );
+        book.setVersion(bookInDTO.version());
+        return book;
     }
 }
@@ -0,0 +1,46 @@
+package com.fiap.project_bookstore_mvc.mappers;
+
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.NormalizedPageOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.PageOutDTO;
+
+import java.util.Map;
+import java.util.function.Function;
+
+public final class PageMapper {
+
+    public static <T, R> PageOutDTO<R> toOutDTO(CountedPage<T> page, Function<? super T, ? extends R> mapper) {
+        CountedPage<R> mapped = page.map(mapper);
+        return new PageOutDTO<>(
+            mapped.content(),
+            mapped.pageable(),
+            !mapped.hasNext(),
+            mapped.total(),
+            mapped.totalPages(),
+            mapped.size(),
+            mapped.number(),
+            mapped.pageable().getSort(),
+            mapped.number() == 0,
+            mapped.content().size(),
+            mapped.content().isEmpty(),
+            mapped.hasNext(),
+            mapped.strategy().label()
+        );
+    }
+
+    public static <T, R> NormalizedPageOutDTO<R> toOutDTO(CountedPage<T> page, Function<? super T, ? extends R> mapper,
+                                                          Map<Long, AuthorOutDTO> authors) {
+        CountedPage<R> mapped = page.map(mapper);
+        return new NormalizedPageOutDTO<>(
+            mapped.content(),
+            authors,
+            mapped.number(),
+            mapped.size(),
+            mapped.hasNext(),
+            mapped.total(),
+            mapped.totalPages(),
+            mapped.strategy().label()
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.fiap.project_bookstore_mvc.mappers;
+
+import com.fiap.project_bookstore_mvc.dto.Out.SuggestionOutDTO;
+import com.fiap.project_bookstore_mvc.suggest.Suggestion;
+
+public final class SuggestionMapper {
+
+    public static SuggestionOutDTO toOutDTO(Suggestion suggestion) {
+        return new SuggestionOutDTO(
+            suggestion.id(),
+            suggestion.label()
+        );
+    }
+}
@@ -0,0 +1,45 @@
+package com.fiap.project_bookstore_mvc.pagecache;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(PageCacheProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.page-cache", name = "enabled", havingValue = "true")
+public class PageCacheConfig {
+
+    @Bean
+    public PageResponseCache pageResponseCache(PageCacheProperties properties, ChangeFeed changeFeed,
+                                               MeterRegistry meterRegistry) {
+        PageResponseCache cache = new PageResponseCache(properties.maxEntries(), properties.maxBytes().toBytes(), changeFeed);
+        Gauge.builder("bookstore.page-cache.size", cache, PageResponseCache::size)
+                .register(meterRegistry);
+        Gauge.builder("bookstore.page-cache.bytes", cache, PageResponseCache::bytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.page-cache.requests", cache, PageResponseCache::hits)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.page-cache.requests", cache, PageResponseCache::misses)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    // ahead of the concurrency limiter: a hit never reaches the database, so it should not wait for a permit
+    @Bean
+    public FilterRegistrationBean<PageCacheFilter> pageCacheFilter(PageResponseCache cache, PageCacheProperties properties) {
+        FilterRegistrationBean<PageCacheFilter> registration = new FilterRegistrationBean<>(
+                new PageCacheFilter(cache, properties.maxPages(), Math.toIntExact(properties.maxEntryBytes().toBytes())));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fiap.project_bookstore_mvc.pagecache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers the first pages of {@code GET /books} and {@code GET /authors} with the bytes rendered for the same
+ * page, size and filters at the current catalog version. Misses go through the controllers and successful
+ * responses are kept for the next request.
+ */
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    private final PageResponseCache cache;
+    private final int maxPages;
+    private final int maxEntryBytes;
+
+    public PageCacheFilter(PageResponseCache cache, int maxPages, int maxEntryBytes) {
+        this.cache = cache;
+        this.maxPages = maxPages;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals("/books") && !path.equals("/authors");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = keyOf(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        PageResponseCache.Entry entry = this.cache.get(key);
+        if (entry != null) {
+            response.setContentType(entry.contentType());
+            response.setContentLength(entry.body().length);
+            response.getOutputStream().write(entry.body());
+            return;
+        }
+
+        long version = this.cache.version();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null
+                    && wrapper.getContentSize() <= this.maxEntryBytes) {
+                this.cache.put(key, version, wrapper.getContentType(), wrapper.getContentAsByteArray());
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // path plus the parameters in name order, or null for pages too deep to be worth keeping
+    private String keyOf(HttpServletRequest request) {
+        String page = request.getParameter("page");
+        if (page != null && !isWithin(page, this.maxPages)) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator)
+                        .append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+                        .append('=')
+                        .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isWithin(String page, int maxPages) {
+        if (page.isEmpty() || page.length() > 9 || !page.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return false;
+        }
+        return Integer.parseInt(page) < maxPages;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fiap.project_bookstore_mvc.pagecache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties("bookstore.page-cache")
+public record PageCacheProperties(
+        boolean enabled,
+        @DefaultValue("1000") int maxEntries,
+        @DefaultValue("32MB") DataSize maxBytes,
+        @DefaultValue("256KB") DataSize maxEntryBytes,
+        @DefaultValue("5") int maxPages
+) {
+}
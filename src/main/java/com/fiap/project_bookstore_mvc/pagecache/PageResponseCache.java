@@ -0,0 +1,90 @@
+package com.fiap.project_bookstore_mvc.pagecache;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized list pages tagged with the catalog version they were rendered at. The version moves on every
+ * committed change to any author or book, which retires every entry at once: a page is only served while
+ * nothing at all has been written since it was rendered. Least recently used pages are evicted first once
+ * the entry or byte budget is reached.
+ */
+public class PageResponseCache {
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public PageResponseCache(int maxEntries, long maxBytes, ChangeFeed feed) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        feed.addListener(record -> this.version.incrementAndGet());
+    }
+
+    /**
+     * The catalog version to tag a page with; read it before the page is queried, so a write that commits
+     * meanwhile leaves the page already outdated.
+     */
+    public long version() {
+        return this.version.get();
+    }
+
+    public synchronized Entry get(String key) {
+        Entry entry = this.entries.get(key);
+        if (entry != null && entry.version() != this.version.get()) {
+            remove(key);
+            entry = null;
+        }
+        (entry == null ? this.misses : this.hits).incrementAndGet();
+        return entry;
+    }
+
+    public synchronized void put(String key, long version, String contentType, byte[] body) {
+        if (version != this.version.get() || body.length > this.maxBytes) {
+            return;
+        }
+        remove(key);
+        this.entries.put(key, new Entry(version, contentType, body));
+        this.bytes += body.length;
+
+        Iterator<Entry> eldest = this.entries.values().iterator();
+        while (this.entries.size() > this.maxEntries || this.bytes > this.maxBytes) {
+            this.bytes -= eldest.next().body().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public synchronized long bytes() {
+        return this.bytes;
+    }
+
+    public long hits() {
+        return this.hits.get();
+    }
+
+    public long misses() {
+        return this.misses.get();
+    }
+
+    private void remove(String key) {
+        Entry removed = this.entries.remove(key);
+        if (removed != null) {
+            this.bytes -= removed.body().length;
+        }
+    }
+
+    public record Entry(long version, String contentType, byte[] body) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts every successful {@code GET /books/{id}}, whether the controller or the snapshot answered it.
+ */
+public class BookViewFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/books/";
+
+    private final PopularityTracker tracker;
+
+    public BookViewFilter(PopularityTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !request.getRequestURI().startsWith(PREFIX, request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if (response.getStatus() != HttpServletResponse.SC_OK) {
+            return;
+        }
+        long id = parseId(request.getRequestURI(), request.getContextPath().length() + PREFIX.length());
+        if (id > 0) {
+            this.tracker.record(id);
+        }
+    }
+
+    private static long parseId(String path, int start) {
+        if (start >= path.length() || path.length() - start > 18) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
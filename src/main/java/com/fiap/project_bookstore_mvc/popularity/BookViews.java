@@ -0,0 +1,4 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+public record BookViews(long bookId, long views) {
+}
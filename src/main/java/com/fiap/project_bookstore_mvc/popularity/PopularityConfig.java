@@ -0,0 +1,51 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import com.fiap.project_bookstore_mvc.sharding.ShardDataSources;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Configuration
+@EnableConfigurationProperties(PopularityProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.popularity", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PopularityConfig {
+
+    @Bean
+    public PopularityTracker popularityTracker(PopularityProperties properties, DataSource dataSource,
+                                               ObjectProvider<ShardDataSources> shards, MeterRegistry meterRegistry) {
+        ShardDataSources shardDataSources = shards.getIfAvailable();
+        List<JdbcTemplate> databases = shardDataSources == null
+                ? List.of(new JdbcTemplate(dataSource))
+                : IntStream.range(0, shardDataSources.count()).mapToObj(shardDataSources::jdbc).toList();
+        PopularityTracker tracker = new PopularityTracker(properties, new ViewCounter(),
+                new PopularityStore(databases), Clock.systemUTC());
+
+        Gauge.builder("bookstore.popularity.pending", tracker, PopularityTracker::pendingSize)
+                .register(meterRegistry);
+        Gauge.builder("bookstore.popularity.unpersisted", tracker, PopularityTracker::unpersistedSize)
+                .register(meterRegistry);
+        FunctionCounter.builder("bookstore.popularity.dropped", tracker, PopularityTracker::droppedViews)
+                .register(meterRegistry);
+        return tracker;
+    }
+
+    @Bean
+    public FilterRegistrationBean<BookViewFilter> bookViewFilter(PopularityTracker tracker) {
+        FilterRegistrationBean<BookViewFilter> registration = new FilterRegistrationBean<>(new BookViewFilter(tracker));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
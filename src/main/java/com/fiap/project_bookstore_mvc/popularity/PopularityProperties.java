@@ -0,0 +1,18 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("bookstore.popularity")
+public record PopularityProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10s") Duration flushInterval,
+        @DefaultValue("1m") Duration bucket,
+        @DefaultValue({"1h", "24h", "7d"}) List<Duration> windows,
+        @DefaultValue("100") int maxResults,
+        @DefaultValue("100000") int maxUnpersisted
+) {
+}
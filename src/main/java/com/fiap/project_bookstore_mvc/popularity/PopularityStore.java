@@ -0,0 +1,83 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import com.fiap.project_bookstore_mvc.index.LongIntHashMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists view counts in {@code books.views}. With sharding every shard gets the same batch: a book lives on
+ * exactly one of them and the update matches no row on the others.
+ */
+public class PopularityStore {
+
+    private static final String ADD_VIEWS = "UPDATE books SET views = views + ? WHERE id = ?";
+    private static final String TOP = "SELECT id, views FROM books WHERE views > 0 ORDER BY views DESC, id LIMIT ?";
+    private static final String VIEWED = "SELECT id, views FROM books WHERE views > 0";
+    private static final String TITLES = "SELECT id, title FROM books WHERE id IN (:ids)";
+
+    private final List<JdbcTemplate> databases;
+
+    public PopularityStore(List<JdbcTemplate> databases) {
+        this.databases = databases;
+    }
+
+    /**
+     * Adds the views to every book in one JDBC batch per database.
+     */
+    public void addViews(Map<Long, Long> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(views.size());
+        for (Map.Entry<Long, Long> entry : views.entrySet()) {
+            rows.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        for (JdbcTemplate database : this.databases) {
+            database.batchUpdate(ADD_VIEWS, rows);
+        }
+    }
+
+    public List<BookViews> top(int limit) {
+        List<BookViews> top = new ArrayList<>();
+        for (JdbcTemplate database : this.databases) {
+            top.addAll(database.query(TOP, (rs, row) -> new BookViews(rs.getLong(1), rs.getLong(2)), limit));
+        }
+        top.sort(Comparator.comparingLong(BookViews::views).reversed().thenComparingLong(BookViews::bookId));
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Reads the stored views of every book viewed at least once, off the views index, capped at
+     * {@link Integer#MAX_VALUE}.
+     */
+    public LongIntHashMap viewCounts() {
+        LongIntHashMap views = new LongIntHashMap();
+        for (JdbcTemplate database : this.databases) {
+            database.query(VIEWED, (RowCallbackHandler) rs ->
+                    views.put(rs.getLong(1), (int) Math.min(rs.getLong(2), Integer.MAX_VALUE)));
+        }
+        return views;
+    }
+
+    public Map<Long, String> titles(Collection<Long> bookIds) {
+        Map<Long, String> titles = new HashMap<>();
+        if (bookIds.isEmpty()) {
+            return titles;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", bookIds);
+        for (JdbcTemplate database : this.databases) {
+            new NamedParameterJdbcTemplate(database).query(TITLES, parameters,
+                    (RowCallbackHandler) rs -> titles.put(rs.getLong(1), rs.getString(2)));
+        }
+        return titles;
+    }
+}
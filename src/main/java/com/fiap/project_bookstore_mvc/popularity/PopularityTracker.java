@@ -0,0 +1,152 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import com.fiap.project_bookstore_mvc.index.LongIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts book views in memory and flushes them periodically: into the sliding windows behind
+ * {@code GET /books/popular} and, in one batched UPDATE, into {@code books.views}. A crash loses at most the
+ * views of one flush interval; a failed UPDATE keeps its views for the next flush, for up to
+ * {@code max-unpersisted} books, after which the books waiting longest are dropped.
+ */
+public class PopularityTracker implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularityTracker.class);
+
+    private final ViewCounter counter;
+    private final SlidingWindowTopK windows;
+    private final PopularityStore store;
+    private final Duration flushInterval;
+    private final Clock clock;
+    private final int maxUnpersisted;
+    // in the order books first failed to persist
+    private final Map<Long, Long> unpersisted = new LinkedHashMap<>();
+    private long droppedViews;
+    private ScheduledExecutorService scheduler;
+
+    public PopularityTracker(PopularityProperties properties, ViewCounter counter, PopularityStore store, Clock clock) {
+        this.counter = counter;
+        this.windows = new SlidingWindowTopK(properties.bucket(), properties.windows(), properties.maxResults());
+        this.store = store;
+        this.flushInterval = properties.flushInterval();
+        this.clock = clock;
+        this.maxUnpersisted = properties.maxUnpersisted();
+    }
+
+    public void record(long bookId) {
+        this.counter.record(bookId);
+    }
+
+    public synchronized void flush() {
+        Map<Long, Long> views = this.counter.drain();
+        this.windows.add(views, this.clock.millis());
+
+        views.forEach((bookId, count) -> this.unpersisted.merge(bookId, count, Long::sum));
+        dropOverflow();
+        if (this.unpersisted.isEmpty()) {
+            return;
+        }
+        this.store.addViews(this.unpersisted);
+        this.unpersisted.clear();
+    }
+
+    private void dropOverflow() {
+        int excess = this.unpersisted.size() - this.maxUnpersisted;
+        if (excess <= 0) {
+            return;
+        }
+        long views = 0;
+        Iterator<Long> oldest = this.unpersisted.values().iterator();
+        for (int i = 0; i < excess; i++) {
+            views += oldest.next();
+            oldest.remove();
+        }
+        this.droppedViews += views;
+        log.warn("Too many books waiting to be persisted; dropped {} views of the {} books waiting longest",
+                views, excess);
+    }
+
+    /**
+     * Returns the most viewed books in one of the tracked windows, or {@code null} for any other window.
+     */
+    public List<BookViews> top(Duration window, int limit) {
+        return this.windows.top(window, limit, this.clock.millis());
+    }
+
+    /**
+     * Returns the most viewed books since views were first counted, as persisted by the last flush.
+     */
+    public List<BookViews> topAllTime(int limit) {
+        return this.store.top(limit);
+    }
+
+    /**
+     * Returns the views of every viewed book, as persisted by the last flush.
+     */
+    public LongIntHashMap viewCounts() {
+        return this.store.viewCounts();
+    }
+
+    public Map<Long, String> titles(List<BookViews> views) {
+        return this.store.titles(views.stream().map(BookViews::bookId).toList());
+    }
+
+    public List<Duration> windows() {
+        return this.windows.windows();
+    }
+
+    public synchronized int unpersistedSize() {
+        return this.unpersisted.size();
+    }
+
+    /**
+     * Returns how many views were dropped because too many books were waiting to be persisted.
+     */
+    public synchronized long droppedViews() {
+        return this.droppedViews;
+    }
+
+    public int pendingSize() {
+        return this.counter.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not persist book views; keeping {} books for the next flush", unpersistedSize(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("popularity-flush").daemon().factory());
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, this.flushInterval.toMillis(),
+                this.flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        this.scheduler.shutdownNow();
+        this.scheduler = null;
+        flushQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+}
@@ -0,0 +1,149 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Views per book over a few fixed sliding windows. Views are added in time buckets; every window keeps a
+ * running total per book, adding each bucket as it comes in and subtracting it once it falls out of the
+ * window, so a window's totals cover between {@code window} and {@code window + bucket} of history. The
+ * top of each window is computed on the first query after a change and kept until the next one.
+ */
+public class SlidingWindowTopK {
+
+    private static final Comparator<BookViews> RANKING =
+            Comparator.comparingLong(BookViews::views).reversed().thenComparingLong(BookViews::bookId);
+
+    private final long bucketMillis;
+    private final List<Duration> windows;
+    private final int maxResults;
+    private final ArrayDeque<Bucket> buckets = new ArrayDeque<>();
+    private final List<Window> totals = new ArrayList<>();
+
+    public SlidingWindowTopK(Duration bucket, List<Duration> windows, int maxResults) {
+        this.bucketMillis = bucket.toMillis();
+        this.windows = List.copyOf(windows);
+        this.maxResults = maxResults;
+        for (Duration window : windows) {
+            this.totals.add(new Window(window.toMillis()));
+        }
+    }
+
+    public List<Duration> windows() {
+        return this.windows;
+    }
+
+    public synchronized void add(Map<Long, Long> views, long nowMillis) {
+        expire(nowMillis);
+        if (views.isEmpty()) {
+            return;
+        }
+        long start = nowMillis - Math.floorMod(nowMillis, this.bucketMillis);
+        Bucket bucket = this.buckets.peekLast();
+        if (bucket == null || bucket.start != start) {
+            bucket = new Bucket(start);
+            this.buckets.addLast(bucket);
+        }
+        for (Map.Entry<Long, Long> entry : views.entrySet()) {
+            bucket.views.merge(entry.getKey(), entry.getValue(), Long::sum);
+            for (Window window : this.totals) {
+                window.add(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} books with the most views in {@code window}, or {@code null} when the window
+     * is not one of the tracked ones.
+     */
+    public synchronized List<BookViews> top(Duration window, int limit, long nowMillis) {
+        int index = this.windows.indexOf(window);
+        if (index < 0) {
+            return null;
+        }
+        expire(nowMillis);
+        Window totals = this.totals.get(index);
+        if (totals.top == null) {
+            totals.top = rank(totals.views, this.maxResults);
+        }
+        return totals.top.subList(0, Math.min(limit, totals.top.size()));
+    }
+
+    public synchronized int size() {
+        return this.buckets.size();
+    }
+
+    private void expire(long nowMillis) {
+        for (Window window : this.totals) {
+            long cutoff = nowMillis - window.millis;
+            for (Bucket bucket : this.buckets) {
+                if (bucket.start + this.bucketMillis > cutoff) {
+                    break;
+                }
+                if (bucket.start >= window.expiredBefore) {
+                    for (Map.Entry<Long, Long> entry : bucket.views.entrySet()) {
+                        window.add(entry.getKey(), -entry.getValue());
+                    }
+                    window.expiredBefore = bucket.start + this.bucketMillis;
+                }
+            }
+        }
+        long keepFrom = Long.MAX_VALUE;
+        for (Window window : this.totals) {
+            keepFrom = Math.min(keepFrom, window.expiredBefore);
+        }
+        while (!this.buckets.isEmpty() && this.buckets.peekFirst().start < keepFrom) {
+            this.buckets.removeFirst();
+        }
+    }
+
+    private static List<BookViews> rank(Map<Long, long[]> views, int limit) {
+        PriorityQueue<BookViews> heap = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Map.Entry<Long, long[]> entry : views.entrySet()) {
+            heap.add(new BookViews(entry.getKey(), entry.getValue()[0]));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<BookViews> top = new ArrayList<>(heap);
+        top.sort(RANKING);
+        return top;
+    }
+
+    private static final class Bucket {
+
+        final long start;
+        final Map<Long, Long> views = new HashMap<>();
+
+        Bucket(long start) {
+            this.start = start;
+        }
+    }
+
+    private static final class Window {
+
+        final long millis;
+        final Map<Long, long[]> views = new HashMap<>();
+        long expiredBefore = Long.MIN_VALUE;
+        List<BookViews> top;
+
+        Window(long millis) {
+            this.millis = millis;
+        }
+
+        void add(long bookId, long delta) {
+            long[] total = this.views.computeIfAbsent(bookId, id -> new long[1]);
+            total[0] += delta;
+            if (total[0] <= 0) {
+                this.views.remove(bookId);
+            }
+            this.top = null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Views per book since the last drain. Recording a view is a map lookup plus a {@link LongAdder} increment,
+ * so concurrent readers of the same book spread over the adder's cells instead of contending on one word.
+ */
+public class ViewCounter {
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> retired = new HashMap<>();
+
+    public void record(long bookId) {
+        LongAdder adder = this.pending.get(bookId);
+        if (adder == null) {
+            adder = this.pending.computeIfAbsent(bookId, id -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    /**
+     * Returns the views recorded since the previous drain. A book not viewed since then loses its adder, but
+     * the adder is read once more on the next drain, so a view that looked it up just before the removal is
+     * still counted unless its thread stalls for a whole flush interval in between.
+     */
+    public synchronized Map<Long, Long> drain() {
+        Map<Long, Long> views = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : this.retired.entrySet()) {
+            add(views, entry.getKey(), entry.getValue().sumThenReset());
+        }
+        this.retired.clear();
+
+        for (Map.Entry<Long, LongAdder> entry : this.pending.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long count = adder.sumThenReset();
+            if (count == 0 && this.pending.remove(entry.getKey(), adder)) {
+                this.retired.put(entry.getKey(), adder);
+            }
+            add(views, entry.getKey(), count);
+        }
+        return views;
+    }
+
+    private static void add(Map<Long, Long> views, Long bookId, long count) {
+        if (count > 0) {
+            views.merge(bookId, count, Long::sum);
+        }
+    }
+
+    public int size() {
+        return this.pending.size();
+    }
+}
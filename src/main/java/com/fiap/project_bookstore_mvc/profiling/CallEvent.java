@@ -0,0 +1,26 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Fields shared by the service and repository call events. {@code entityId} and {@code rows} are -1 when the
+ * call has no single entity or returns no rows.
+ */
+abstract class CallEvent extends Event {
+
+    @Label("Component")
+    String component;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity ID")
+    long entityId;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,108 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Wraps every service and repository call in a JFR event. While no recording has the events enabled the
+ * only cost is one {@code isEnabled()} check per call; the arguments and result are only inspected for
+ * calls slow enough to pass the event threshold. The pointcuts are {@code execution} matches on one type
+ * each so they are resolved once per method when the proxy is built: a {@code target(A) || target(B)}
+ * pointcut leaves a reflective type test on every call, which costs more than the event itself.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CallEventAspect {
+
+    private static final int NONE = -1;
+
+    @Around("execution(* com.fiap.project_bookstore_mvc.services.BookService.*(..))")
+    public Object bookServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new ServiceCallEvent(), "BookService", joinPoint);
+    }
+
+    @Around("execution(* com.fiap.project_bookstore_mvc.services.AuthorService.*(..))")
+    public Object authorServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new ServiceCallEvent(), "AuthorService", joinPoint);
+    }
+
+    @Around("execution(* com.fiap.project_bookstore_mvc.repositories.BookRepository.*(..))")
+    public Object bookRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new RepositoryCallEvent(), "BookRepository", joinPoint);
+    }
+
+    @Around("execution(* com.fiap.project_bookstore_mvc.repositories.AuthorRepository.*(..))")
+    public Object authorRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new RepositoryCallEvent(), "AuthorRepository", joinPoint);
+    }
+
+    private static Object record(CallEvent event, String component, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.component = component;
+                event.method = joinPoint.getSignature().getName();
+                event.entityId = entityId(joinPoint.getArgs(), result);
+                event.rows = failed ? NONE : rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static long entityId(Object[] args, Object result) {
+        for (Object arg : args) {
+            if (arg instanceof Long id) {
+                return id;
+            }
+            long id = idOf(arg);
+            if (id != NONE) {
+                return id;
+            }
+        }
+        return idOf(result instanceof Optional<?> optional ? optional.orElse(null) : result);
+    }
+
+    private static long idOf(Object value) {
+        Long id = null;
+        if (value instanceof Book book) {
+            id = book.getId();
+        } else if (value instanceof Author author) {
+            id = author.getId();
+        }
+        return id == null ? NONE : id;
+    }
+
+    private static int rows(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case CountedPage<?> page -> page.content().size();
+            case Slice<?> slice -> slice.getNumberOfElements();
+            case Collection<?> collection -> collection.size();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case Book book -> 1;
+            case Author author -> 1;
+            default -> NONE;
+        };
+    }
+}
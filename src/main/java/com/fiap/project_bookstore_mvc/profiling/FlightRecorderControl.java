@@ -0,0 +1,172 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import com.fiap.project_bookstore_mvc.dto.Out.RecordingOutDTO;
+import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts and stops JFR recordings on demand, one at a time. Every recording is written to its own file when
+ * it stops, either explicitly or when its duration runs out, and the last few are kept for download.
+ */
+public class FlightRecorderControl implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderControl.class);
+
+    private final Path directory;
+    private final int retained;
+    private final Duration maxDuration;
+    private final Map<Long, Entry> recordings = new LinkedHashMap<>();
+
+    public FlightRecorderControl(ProfilingProperties properties) {
+        this.directory = properties.directory();
+        this.retained = properties.retainedRecordings();
+        this.maxDuration = properties.maxDuration();
+    }
+
+    /**
+     * Starts a recording with one of the JDK's settings ("default" for continuous use, "profile" for more
+     * detail) plus the bookstore call events at the given threshold. Runs for {@code duration}, capped at the
+     * configured maximum.
+     */
+    public synchronized RecordingOutDTO start(String profile, Duration threshold, Duration duration) {
+        for (Entry entry : this.recordings.values()) {
+            if (entry.recording().getState() == RecordingState.RUNNING) {
+                throw new InvalidRequest("Recording " + entry.recording().getId() + " is already running");
+            }
+        }
+        if (duration == null || duration.compareTo(this.maxDuration) > 0) {
+            duration = this.maxDuration;
+        }
+
+        Recording recording = new Recording(configuration(profile));
+        try {
+            Files.createDirectories(this.directory);
+            recording.setName("bookstore-" + recording.getId());
+            recording.setToDisk(true);
+            recording.setDuration(duration);
+            recording.setDestination(this.directory.resolve(recording.getName() + ".jfr"));
+            recording.enable(ServiceCallEvent.class).withThreshold(threshold);
+            recording.enable(RepositoryCallEvent.class).withThreshold(threshold);
+        } catch (IOException e) {
+            recording.close();
+            throw new IllegalStateException("Could not prepare JFR recording in " + this.directory, e);
+        }
+        recording.start();
+
+        this.recordings.put(recording.getId(), new Entry(recording, profile));
+        evictOldRecordings();
+        return toOutDTO(this.recordings.get(recording.getId()));
+    }
+
+    public synchronized RecordingOutDTO stop(long id) {
+        Entry entry = entry(id);
+        if (entry.recording().getState() == RecordingState.RUNNING) {
+            entry.recording().stop();
+        }
+        return toOutDTO(entry);
+    }
+
+    public synchronized RecordingOutDTO find(long id) {
+        return toOutDTO(entry(id));
+    }
+
+    public synchronized List<RecordingOutDTO> findAll() {
+        List<RecordingOutDTO> outDTOs = new ArrayList<>(this.recordings.size());
+        for (Entry entry : this.recordings.values()) {
+            outDTOs.add(toOutDTO(entry));
+        }
+        return outDTOs;
+    }
+
+    /**
+     * Returns the file of a recording that has stopped.
+     */
+    public synchronized Path file(long id) {
+        Entry entry = entry(id);
+        RecordingState state = entry.recording().getState();
+        if (state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING) {
+            throw new InvalidRequest("Recording " + id + " has not stopped yet");
+        }
+        Path file = entry.recording().getDestination();
+        if (file == null || !Files.isRegularFile(file)) {
+            throw new EntityNotFound("Recording file not found");
+        }
+        return file;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        for (Entry entry : this.recordings.values()) {
+            entry.recording().close();
+        }
+        this.recordings.clear();
+    }
+
+    private Entry entry(long id) {
+        Entry entry = this.recordings.get(id);
+        if (entry == null) {
+            throw new EntityNotFound("Recording not found");
+        }
+        return entry;
+    }
+
+    private void evictOldRecordings() {
+        int excess = this.recordings.size() - 1 - this.retained;
+        for (Iterator<Entry> iterator = this.recordings.values().iterator(); excess > 0 && iterator.hasNext(); excess--) {
+            Recording recording = iterator.next().recording();
+            iterator.remove();
+            Path file = recording.getDestination();
+            recording.close();
+            try {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete old JFR recording {}", file, e);
+            }
+        }
+    }
+
+    private static Configuration configuration(String profile) {
+        try {
+            return Configuration.getConfiguration(profile);
+        } catch (IOException | ParseException e) {
+            throw new InvalidRequest("Unknown JFR profile: " + profile);
+        }
+    }
+
+    private static RecordingOutDTO toOutDTO(Entry entry) {
+        Recording recording = entry.recording();
+        Path file = recording.getDestination();
+        Long bytes = null;
+        try {
+            if (file != null && Files.isRegularFile(file)) {
+                bytes = Files.size(file);
+            }
+        } catch (IOException e) {
+            // reported without a size
+        }
+        return new RecordingOutDTO(recording.getId(), recording.getName(), entry.profile(),
+                recording.getState().name().toLowerCase(), recording.getStartTime(), recording.getStopTime(), bytes);
+    }
+
+    private record Entry(Recording recording, String profile) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.profiling", name = "enabled", havingValue = "true")
+public class ProfilingConfig {
+
+    @Bean
+    public CallEventAspect callEventAspect() {
+        return new CallEventAspect();
+    }
+
+    @Bean
+    public FlightRecorderControl flightRecorderControl(ProfilingProperties properties) {
+        return new FlightRecorderControl(properties);
+    }
+}
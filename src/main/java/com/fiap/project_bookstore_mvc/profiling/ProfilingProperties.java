@@ -0,0 +1,22 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.profiling")
+public record ProfilingProperties(
+        @DefaultValue("true") boolean enabled,
+        Path directory,
+        @DefaultValue("5") int retainedRecordings,
+        @DefaultValue("10m") Duration maxDuration
+) {
+
+    public ProfilingProperties {
+        if (directory == null) {
+            directory = Path.of(System.getProperty("java.io.tmpdir"), "bookstore-jfr");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("bookstore.RepositoryCall")
+@Label("Repository Call")
+@Category({"Bookstore", "Repository"})
+@Description("A call to BookRepository or AuthorRepository, including every shard it fanned out to")
+@StackTrace(false)
+@Threshold("1 ms")
+class RepositoryCallEvent extends CallEvent {
+}
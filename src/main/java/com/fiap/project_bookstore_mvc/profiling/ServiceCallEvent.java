@@ -0,0 +1,17 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("bookstore.ServiceCall")
+@Label("Service Call")
+@Category({"Bookstore", "Service"})
+@Description("A call to BookService or AuthorService")
+@StackTrace(false)
+@Threshold("1 ms")
+class ServiceCallEvent extends CallEvent {
+}
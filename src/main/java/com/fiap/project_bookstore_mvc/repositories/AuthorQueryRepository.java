@@ -0,0 +1,16 @@
+package com.fiap.project_bookstore_mvc.repositories;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.fieldset.AuthorFieldSet;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface AuthorQueryRepository {
+
+    /**
+     * Pages through the authors in ID order reading only the columns of {@code fields}, into detached
+     * authors whose other properties are {@code null}. Reads one row past the page to tell whether there is
+     * a next one, and never counts.
+     */
+    Slice<Author> findSlice(Pageable pageable, AuthorFieldSet fields);
+}
@@ -0,0 +1,30 @@
+package com.fiap.project_bookstore_mvc.repositories;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.fieldset.AuthorFieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+class AuthorQueryRepositoryImpl implements AuthorQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Author> findSlice(Pageable pageable, AuthorFieldSet fields) {
+        List<Author> authors = this.entityManager.createQuery(fields.pageQuery(), Object[].class)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList()
+                .stream()
+                .map(fields::toAuthor)
+                .toList();
+        boolean hasNext = authors.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? authors.subList(0, pageable.getPageSize()) : authors, pageable, hasNext);
+    }
+}
@@ -1,10 +1,35 @@
 package com.fiap.project_bookstore_mvc.repositories;
 
 import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.sharding.ShardKey;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, AuthorQueryRepository {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Author> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Slice<Author> findAllBy(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Author> findByIdIn(Collection<Long> ids);
 
+    // the row lock lasts until commit: a concurrent delete of the author waits for it, or this finds nothing
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Author> findLockedById(@ShardKey Long id);
 }
@@ -0,0 +1,57 @@
+package com.fiap.project_bookstore_mvc.repositories;
+
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.fieldset.BookFieldSet;
+import com.fiap.project_bookstore_mvc.sharding.ShardKey;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface BookQueryRepository {
+
+    /**
+     * Pages through the books matching {@code spec} in two steps: the IDs of the page first, straight off the
+     * index that serves the filter and sort, then those rows with their authors, projected into detached
+     * objects rather than loaded as managed entities. Reads one ID past the page to tell whether there is a
+     * next one, and never counts.
+     */
+    Slice<Book> findSlice(Specification<Book> spec, Pageable pageable);
+
+    /**
+     * Like {@link #findSlice(Specification, Pageable)}, reading only the columns of {@code fields} and joining
+     * authors only when the set includes them; the other properties of the books are {@code null}.
+     */
+    Slice<Book> findSlice(Specification<Book> spec, Pageable pageable, BookFieldSet fields);
+
+    long countMatching(Specification<Book> spec);
+
+    /**
+     * Deletes the books with these IDs in one statement, without loading them, and returns how many there were.
+     * Under sharding every shard deletes the ones it holds, each in a transaction of its own.
+     */
+    long deleteByIds(Collection<Long> ids);
+
+    /**
+     * Points the books with these IDs at another author in one statement, without loading them, and returns
+     * how many were updated. Each book's version is bumped, so a concurrent edit of one of them conflicts.
+     * Under sharding the books first move to the new author's shard, where the statement runs.
+     */
+    long reassignAuthor(Collection<Long> ids, @ShardKey Long authorId);
+
+    /**
+     * Reads the current version of each book with these IDs that belongs to this author, keyed by book ID,
+     * without loading the books. Under sharding it reads the author's shard.
+     */
+    Map<Long, Long> findVersions(Collection<Long> ids, @ShardKey Long authorId);
+
+    /**
+     * Inserts new books, in the given order, in JDBC batches on the transaction's connection and sets their
+     * generated IDs and initial version. Each book's author must already be stored; the books do not join the
+     * persistence context. Hibernate cannot batch these inserts itself, as book IDs come from an identity column.
+     */
+    void insertAll(List<Book> books);
+}
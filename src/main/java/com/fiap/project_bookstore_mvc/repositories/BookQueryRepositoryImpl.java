@@ -0,0 +1,160 @@
+package com.fiap.project_bookstore_mvc.repositories;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.fieldset.BookFieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+class BookQueryRepositoryImpl implements BookQueryRepository {
+
+    private static final String INSERT_BOOK = "INSERT INTO books (title, isbn, author_id, version) VALUES (?, ?, ?, 0)";
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Book> findSlice(Specification<Book> spec, Pageable pageable) {
+        return findSlice(spec, pageable, BookFieldSet.ALL);
+    }
+
+    @Override
+    public Slice<Book> findSlice(Specification<Book> spec, Pageable pageable, BookFieldSet fields) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+
+        // joining authors here would let the database drive the query from the authors table and sort afterwards
+        CriteriaQuery<Long> idQuery = builder.createQuery(Long.class);
+        Root<Book> root = idQuery.from(Book.class);
+        idQuery.select(root.get("id"))
+                .where(predicates(spec, root, idQuery, builder))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        List<Long> ids = this.entityManager.createQuery(idQuery)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        if (hasNext) {
+            ids = ids.subList(0, pageable.getPageSize());
+        }
+
+        // plain columns instead of entities: the rows never enter the persistence context, and each author
+        // is built once per page however many of its books are on it
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        Book[] books = new Book[ids.size()];
+        if (fields.rowQuery() == null) {
+            for (int i = 0; i < ids.size(); i++) {
+                books[i] = new Book(ids.get(i), null, null, null);
+            }
+        } else if (!ids.isEmpty()) {
+            Map<Long, Author> authors = new HashMap<>();
+            this.entityManager
+                    .createQuery(fields.rowQuery(), Object[].class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .forEach(row -> books[positions.get((Long) row[0])] = fields.toBook(row, authors));
+        }
+
+        // a book deleted between the two queries leaves its slot empty
+        return new SliceImpl<>(Arrays.stream(books).filter(Objects::nonNull).toList(), pageable, hasNext);
+    }
+
+    @Override
+    public long countMatching(Specification<Book> spec) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
+        Root<Book> root = countQuery.from(Book.class);
+        countQuery.select(builder.count(root)).where(predicates(spec, root, countQuery, builder));
+        return this.entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    @Override
+    public long deleteByIds(Collection<Long> ids) {
+        return bulkUpdate(this.entityManager.createQuery("delete from Book b where b.id in :ids")
+                .setParameter("ids", ids));
+    }
+
+    @Override
+    public long reassignAuthor(Collection<Long> ids, Long authorId) {
+        return bulkUpdate(this.entityManager.createQuery("update versioned Book b set b.author = :author where b.id in :ids")
+                .setParameter("author", this.entityManager.getReference(Author.class, authorId))
+                .setParameter("ids", ids));
+    }
+
+    @Override
+    public Map<Long, Long> findVersions(Collection<Long> ids, Long authorId) {
+        Map<Long, Long> versions = new HashMap<>();
+        this.entityManager
+                .createQuery("select b.id, b.version from Book b where b.author.id = :authorId and b.id in :ids", Object[].class)
+                .setParameter("authorId", authorId)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(row -> versions.put((Long) row[0], (Long) row[1]));
+        return versions;
+    }
+
+    @Override
+    public void insertAll(List<Book> books) {
+        // the authors may still be pending in the persistence context
+        this.entityManager.flush();
+        this.entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_BOOK, new String[]{"id"})) {
+                for (int from = 0; from < books.size(); from += INSERT_BATCH_SIZE) {
+                    List<Book> batch = books.subList(from, Math.min(from + INSERT_BATCH_SIZE, books.size()));
+                    for (Book book : batch) {
+                        insert.setString(1, book.getTitle());
+                        insert.setString(2, book.getIsbn());
+                        insert.setLong(3, book.getAuthor().getId());
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        for (Book book : batch) {
+                            keys.next();
+                            book.setId(keys.getLong(1));
+                            book.setVersion(0L);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    // like @Modifying(flushAutomatically = true, clearAutomatically = true): bulk statements bypass the
+    // persistence context, which would otherwise keep handing out the rows as they were
+    private int bulkUpdate(Query statement) {
+        this.entityManager.flush();
+        int count = statement.executeUpdate();
+        this.entityManager.clear();
+        return count;
+    }
+
+    private static Predicate[] predicates(Specification<Book> spec, Root<Book> root, CriteriaQuery<?> query,
+                                          CriteriaBuilder builder) {
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        return predicate == null ? new Predicate[0] : new Predicate[]{predicate};
+    }
+}
@@ -2,12 +2,35 @@ package com.fiap.project_bookstore_mvc.repositories;
 
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookQueryRepository {
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Optional<Book> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Book> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Book> findByAuthor(Author author);
+
+    // export batches run without a transaction; read-only keeps Hibernate from snapshotting every row
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,40 @@
+package com.fiap.project_bookstore_mvc.repositories;
+
+import com.fiap.project_bookstore_mvc.entities.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Predicates for book queries. {@link #hasAuthor} and {@link #isbnStartsWith} are range scans on
+ * {@code idx_books_author_title} and {@code idx_books_isbn}; {@link #titleContains} cannot use an index and is
+ * only meant to filter rows one of those has already narrowed down.
+ */
+public final class BookSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> hasAuthor(Long authorId) {
+        return (root, query, builder) -> builder.equal(root.get("author").get("id"), authorId);
+    }
+
+    public static Specification<Book> hasIdIn(Collection<Long> ids) {
+        return (root, query, builder) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Book> isbnStartsWith(String prefix) {
+        return (root, query, builder) -> builder.like(root.get("isbn"), escape(prefix) + "%", ESCAPE);
+    }
+
+    public static Specification<Book> titleContains(String text) {
+        return (root, query, builder) -> builder.like(
+                builder.lower(root.get("title")), "%" + escape(text.toLowerCase()) + "%", ESCAPE);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
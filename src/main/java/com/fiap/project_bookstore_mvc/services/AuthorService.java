@@ -1,19 +1,52 @@
 package com.fiap.project_bookstore_mvc.services;
 
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.detail.AuthorDetail;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
-import org.springframework.data.domain.Page;
+import com.fiap.project_bookstore_mvc.fieldset.AuthorFieldSet;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AuthorService {
-    Page<Author> findAll(int page, int size);
+    CountedPage<Author> findAll(int page, int size, CountStrategy count);
+
+    CountedPage<Author> findAll(int page, int size, CountStrategy count, AuthorFieldSet fields);
 
     Author findById(Long id);
 
+    Optional<Author> findOptionalById(Long id);
+
+    /**
+     * Loads the author and keeps it locked until the transaction ends, so it cannot be deleted while a book
+     * is written for it.
+     */
+    Author lockById(Long id);
+
+    List<Author> findAllById(Collection<Long> ids);
+
     Author saveOrUpdate(Author author);
 
+    /**
+     * Creates a new author together with its books in one transaction, the books inserted in JDBC batches, and
+     * returns the stored author with its books.
+     */
+    AuthorDetail createWithBooks(Author author, List<Book> books);
+
+    /**
+     * Creates many new authors with their books, a chunk of authors per transaction, and hands each stored
+     * author to {@code created} once its chunk has committed, in the given order. Everything is validated
+     * before the first chunk is written; a failure later leaves the chunks before it committed.
+     */
+    void createAllWithBooks(List<AuthorDetail> authors, Consumer<AuthorDetail> created);
+
     List<Book> findBooksByAuthorId(Long authorId);
 
+    Optional<List<Book>> findOptionalBooksByAuthorId(Long authorId);
+
     void delete(Long id);
 }
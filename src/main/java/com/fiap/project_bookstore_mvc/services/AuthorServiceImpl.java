@@ -1,33 +1,84 @@
 package com.fiap.project_bookstore_mvc.services;
 
+import com.fiap.project_bookstore_mvc.changefeed.CatalogChangeEvent;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeType;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.count.PageCounter;
+import com.fiap.project_bookstore_mvc.detail.AuthorDetail;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
 import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.fieldset.AuthorFieldSet;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
 import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
 import com.fiap.project_bookstore_mvc.repositories.BookRepository;
-import org.springframework.data.domain.Page;
+import com.fiap.project_bookstore_mvc.sharding.ShardContext;
+import com.fiap.project_bookstore_mvc.sharding.ShardDirectory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class AuthorServiceImpl implements AuthorService {
 
+    private static final int MAX_BOOKS_PER_AUTHOR = 10_000;
+    private static final int MAX_AUTHORS_PER_REQUEST = 10_000;
+    // a chunk closes once it holds this many authors or books; one author's books are never split
+    private static final int CREATE_CHUNK_AUTHORS = 100;
+    private static final int CREATE_CHUNK_BOOKS = 500;
+
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PageCounter pageCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardDirectory> shardDirectory;
 
-    public AuthorServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository) {
+    public AuthorServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository,
+                             ApplicationEventPublisher eventPublisher, PageCounter pageCounter,
+                             PlatformTransactionManager transactionManager,
+                             ObjectProvider<ShardDirectory> shardDirectory) {
         this.authorRepository = authorRepository;
         this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+        this.pageCounter = pageCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CountedPage<Author> findAll(int page, int size, CountStrategy count) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        Slice<Author> authors = authorRepository.findAllBy(pageable);
+        return pageCounter.count(ChangeEntity.AUTHOR, null, count, authors, authorRepository::count);
     }
 
     @Override
-    public Page<Author> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return authorRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public CountedPage<Author> findAll(int page, int size, CountStrategy count, AuthorFieldSet fields) {
+        Slice<Author> authors = authorRepository.findSlice(PageRequest.of(page, size, Sort.by("id")), fields);
+        return pageCounter.count(ChangeEntity.AUTHOR, null, count, authors, authorRepository::count);
     }
 
     @Override
@@ -37,8 +88,122 @@ public class AuthorServiceImpl implements AuthorService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<Author> findOptionalById(Long id) {
+        return authorRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public Author lockById(Long id) {
+        return authorRepository.findLockedById(id).orElseThrow(() -> new EntityNotFound("Author not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Author> findAllById(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : authorRepository.findByIdIn(ids);
+    }
+
+    @Override
+    @Transactional
     public Author saveOrUpdate(Author author) {
-        return authorRepository.save(author);
+        ChangeType type = author.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+        if (author.getId() != null && author.getVersion() == null) {
+            // no version from the client: the update still conflicts with any write committed after this read
+            author.setVersion(findById(author.getId()).getVersion());
+        }
+        Author saved = authorRepository.save(author);
+        // the version check and increment happen on flush; do it now so the event carries the new version
+        authorRepository.flush();
+        eventPublisher.publishEvent(new CatalogChangeEvent(ChangeEntity.AUTHOR, type, saved.getId(), AuthorMapper.toOutDTO(saved)));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public AuthorDetail createWithBooks(Author author, List<Book> books) {
+        AuthorDetail graph = new AuthorDetail(author, books, null);
+        validateNew(graph);
+        return insertGraphs(List.of(graph)).get(0);
+    }
+
+    @Override
+    public void createAllWithBooks(List<AuthorDetail> authors, Consumer<AuthorDetail> created) {
+        if (authors.size() > MAX_AUTHORS_PER_REQUEST) {
+            throw new InvalidRequest("At most " + MAX_AUTHORS_PER_REQUEST + " authors per request");
+        }
+        authors.forEach(AuthorServiceImpl::validateNew);
+
+        int from = 0;
+        while (from < authors.size()) {
+            int to = from;
+            int books = 0;
+            while (to < authors.size() && to - from < CREATE_CHUNK_AUTHORS && books < CREATE_CHUNK_BOOKS) {
+                books += authors.get(to++).books().size();
+            }
+            insertChunk(authors.subList(from, to)).forEach(created);
+            from = to;
+        }
+    }
+
+    // a transaction writes to the shard its first statement went to, so under sharding every author is given
+    // the shard a POST of it alone would get, and each shard's share of the chunk commits on its own
+    private List<AuthorDetail> insertChunk(List<AuthorDetail> chunk) {
+        ShardDirectory directory = shardDirectory.getIfAvailable();
+        if (directory == null) {
+            return transactionTemplate.execute(status -> insertGraphs(chunk));
+        }
+
+        Map<Integer, List<Integer>> positionsByShard = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            positionsByShard.computeIfAbsent(directory.shardForNewAuthor(), shard -> new ArrayList<>()).add(i);
+        }
+        AuthorDetail[] stored = new AuthorDetail[chunk.size()];
+        positionsByShard.forEach((shard, positions) -> ShardContext.runOn(shard, () -> {
+            List<AuthorDetail> inserted = transactionTemplate.execute(
+                    status -> insertGraphs(positions.stream().map(chunk::get).toList()));
+            for (int i = 0; i < positions.size(); i++) {
+                stored[positions.get(i)] = inserted.get(i);
+            }
+        }));
+        return Arrays.asList(stored);
+    }
+
+    private static void validateNew(AuthorDetail graph) {
+        if (graph.author().getId() != null) {
+            throw new InvalidRequest("Books can only be given when creating an author; leave out the id");
+        }
+        if (graph.books().size() > MAX_BOOKS_PER_AUTHOR) {
+            throw new InvalidRequest("At most " + MAX_BOOKS_PER_AUTHOR + " books per author");
+        }
+    }
+
+    // authors one by one through JPA, which hands out their IDs, then all of their books in one batched insert
+    private List<AuthorDetail> insertGraphs(List<AuthorDetail> graphs) {
+        List<AuthorDetail> stored = new ArrayList<>(graphs.size());
+        List<Book> books = new ArrayList<>();
+        for (AuthorDetail graph : graphs) {
+            Author saved = authorRepository.save(graph.author());
+            // a detached copy: pointing the books at the managed author would add them to its collection,
+            // which cascades a second insert on flush
+            Author author = new Author(saved.getId(), saved.getName(), saved.getEmail());
+            author.setVersion(saved.getVersion());
+            graph.books().forEach(book -> book.setAuthor(author));
+            books.addAll(graph.books());
+            stored.add(new AuthorDetail(author, graph.books(), (long) graph.books().size()));
+        }
+        if (!books.isEmpty()) {
+            bookRepository.insertAll(books);
+        }
+
+        for (AuthorDetail detail : stored) {
+            eventPublisher.publishEvent(new CatalogChangeEvent(ChangeEntity.AUTHOR, ChangeType.CREATED,
+                    detail.author().getId(), AuthorMapper.toOutDTO(detail.author())));
+            detail.books().forEach(book -> eventPublisher.publishEvent(new CatalogChangeEvent(ChangeEntity.BOOK,
+                    ChangeType.CREATED, book.getId(), BookMapper.toOutDTO(book))));
+        }
+        return stored;
     }
 
     @Override
@@ -47,13 +212,25 @@ public class AuthorServiceImpl implements AuthorService {
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFound("Author not found"));
 
+        if (author.getBooks() != null) {
+            author.getBooks().forEach(book -> eventPublisher.publishEvent(
+                    new CatalogChangeEvent(ChangeEntity.BOOK, ChangeType.DELETED, book.getId(), null)));
+        }
         authorRepository.delete(author);
+        eventPublisher.publishEvent(new CatalogChangeEvent(ChangeEntity.AUTHOR, ChangeType.DELETED, id, null));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> findBooksByAuthorId(Long authorId) {
         Author author = authorRepository.findById(authorId).orElseThrow(() -> new EntityNotFound("Author not found"));
 
         return bookRepository.findByAuthor(author);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<Book>> findOptionalBooksByAuthorId(Long authorId) {
+        return authorRepository.findById(authorId).map(bookRepository::findByAuthor);
+    }
 }
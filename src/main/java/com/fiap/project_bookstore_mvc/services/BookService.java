@@ -1,14 +1,33 @@
 package com.fiap.project_bookstore_mvc.services;
 
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.dto.In.BookFilterInDTO;
+import com.fiap.project_bookstore_mvc.dto.In.BookReassignInDTO;
 import com.fiap.project_bookstore_mvc.entities.Book;
-import org.springframework.data.domain.Page;
+import com.fiap.project_bookstore_mvc.fieldset.BookFieldSet;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookService {
-    Page<Book> findAll(int page, int size);
+    CountedPage<Book> findAll(BookFilterInDTO filter, int page, int size, String sort, CountStrategy count);
+
+    CountedPage<Book> findAll(BookFilterInDTO filter, int page, int size, String sort, CountStrategy count,
+                              BookFieldSet fields);
 
     Book findById(Long id);
 
+    Optional<Book> findOptionalById(Long id);
+
     Book saveOrUpdate(Book book);
 
     void delete(Long id);
+
+    long deleteAll(Collection<Long> ids);
+
+    long reassign(BookReassignInDTO request);
+
+    void exportAll(Consumer<Book> consumer);
 }
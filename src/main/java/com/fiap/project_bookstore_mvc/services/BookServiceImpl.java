@@ -1,29 +1,145 @@
 package com.fiap.project_bookstore_mvc.services;
 
+import com.fiap.project_bookstore_mvc.changefeed.CatalogChangeEvent;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeType;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.count.PageCounter;
+import com.fiap.project_bookstore_mvc.dto.In.BookFilterInDTO;
+import com.fiap.project_bookstore_mvc.dto.In.BookReassignInDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
 import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.fieldset.BookFieldSet;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
 import com.fiap.project_bookstore_mvc.repositories.BookRepository;
-import org.springframework.data.domain.Page;
+import com.fiap.project_bookstore_mvc.repositories.BookSpecifications;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    private static final int EXPORT_BATCH_SIZE = 500;
+    // bulk operations commit every chunk on its own, so no statement locks more rows than this
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int MAX_BULK_IDS = 10_000;
+    private static final BookFieldSet IDS = BookFieldSet.parse("id");
+    private static final BookFieldSet TITLE_AND_ISBN = BookFieldSet.parse("title,isbn");
+    // orderings each access path can read off an index ending in id: the whole table, one author's
+    // books (author_id, title, id) or an ISBN range (isbn, id)
+    private static final Set<String> SORTABLE = Set.of("id", "title", "isbn");
+    private static final Set<String> SORTABLE_BY_AUTHOR = Set.of("id", "title");
+    private static final Set<String> SORTABLE_BY_ISBN = Set.of("isbn");
+
     private final BookRepository bookRepository;
     private final AuthorService authorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PageCounter pageCounter;
+    private final TransactionTemplate transactionTemplate;
 
-    public BookServiceImpl(BookRepository bookRepository, AuthorService authorService) {
+    public BookServiceImpl(BookRepository bookRepository, AuthorService authorService,
+                           ApplicationEventPublisher eventPublisher, PageCounter pageCounter,
+                           PlatformTransactionManager transactionManager) {
         this.bookRepository = bookRepository;
         this.authorService = authorService;
+        this.eventPublisher = eventPublisher;
+        this.pageCounter = pageCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    public Page<Book> findAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return bookRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public CountedPage<Book> findAll(BookFilterInDTO filter, int page, int size, String sort, CountStrategy count) {
+        return findAll(filter, page, size, sort, count, BookFieldSet.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CountedPage<Book> findAll(BookFilterInDTO filter, int page, int size, String sort, CountStrategy count,
+                                     BookFieldSet fields) {
+        Pageable pageable = PageRequest.of(page, size, parseSort(sort, sortableFor(filter)));
+        Specification<Book> specification = toSpecification(filter);
+        Slice<Book> books = bookRepository.findSlice(specification, pageable, fields.including(pageable.getSort()));
+        // the sort does not change the total, so every ordering of one filter shares a cached count
+        Object countKey = isUnfiltered(filter) ? null : filter;
+        return pageCounter.count(ChangeEntity.BOOK, countKey, count, books,
+                () -> bookRepository.countMatching(specification));
+    }
+
+    private static boolean isUnfiltered(BookFilterInDTO filter) {
+        return filter.authorId() == null
+                && (filter.isbnPrefix() == null || filter.isbnPrefix().isEmpty())
+                && (filter.titleContains() == null || filter.titleContains().isEmpty());
+    }
+
+    private static Specification<Book> toSpecification(BookFilterInDTO filter) {
+        List<Specification<Book>> predicates = new ArrayList<>();
+        if (filter.authorId() != null) {
+            predicates.add(BookSpecifications.hasAuthor(filter.authorId()));
+        }
+        if (filter.isbnPrefix() != null && !filter.isbnPrefix().isEmpty()) {
+            predicates.add(BookSpecifications.isbnStartsWith(filter.isbnPrefix()));
+        }
+        if (filter.titleContains() != null && !filter.titleContains().isEmpty()) {
+            if (predicates.isEmpty()) {
+                throw new InvalidRequest("titleContains needs authorId or isbnPrefix; use /books/suggest to search by title");
+            }
+            predicates.add(BookSpecifications.titleContains(filter.titleContains()));
+        }
+        return Specification.allOf(predicates);
+    }
+
+    private static Set<String> sortableFor(BookFilterInDTO filter) {
+        if (filter.isbnPrefix() != null && !filter.isbnPrefix().isEmpty()) {
+            return SORTABLE_BY_ISBN;
+        }
+        return filter.authorId() != null ? SORTABLE_BY_AUTHOR : SORTABLE;
+    }
+
+    private static Sort parseSort(String sort, Set<String> sortable) {
+        if (sort == null || sort.isBlank()) {
+            return sortable == SORTABLE_BY_ISBN ? Sort.by("isbn", "id") : Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        if (parts.length > 2) {
+            throw new InvalidRequest("Books can be sorted by one field only");
+        }
+        String property = parts[0].trim();
+        if (!sortable.contains(property)) {
+            throw new InvalidRequest("Cannot sort these books by '" + property + "'; sortable fields are " + new TreeSet<>(sortable));
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new InvalidRequest("Invalid sort direction: " + parts[1].trim()));
+        }
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by(direction, "id"));
     }
 
     @Override
@@ -34,16 +150,157 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<Book> findOptionalById(Long id) {
+        return bookRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
     public Book saveOrUpdate(Book book) {
+        ChangeType type = book.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+        // the merge below would load the stored book anyway; loading it here adds no query
+        Book current = book.getId() == null ? null : findById(book.getId());
         if (book.getAuthor() != null && book.getAuthor().getId() != null) {
-            var author = authorService.findById(book.getAuthor().getId());
-            book.setAuthor(author);
+            if (current != null && book.getAuthor().getId().equals(current.getAuthor().getId())) {
+                // the row already points at this author: a concurrent delete of the author removes the book
+                // first, so the update finds nothing and conflicts rather than leaving an orphan
+                book.getAuthor().setVersion(current.getAuthor().getVersion());
+            } else {
+                // H2 and some other databases check the foreign key without seeing an uncommitted delete of
+                // the author, so a new book, or one moving to another author, locks that author's row
+                var author = authorService.lockById(book.getAuthor().getId());
+                if (current == null) {
+                    book.setAuthor(author);
+                } else {
+                    // setting the loaded author would add this detached book to its collection; a reference
+                    // needs the version too, or it looks transient
+                    book.getAuthor().setVersion(author.getVersion());
+                }
+            }
+        }
+        if (current != null && book.getVersion() == null) {
+            // no version from the client: the update still conflicts with any write committed after this read
+            book.setVersion(current.getVersion());
         }
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        // the version check and increment happen on flush; do it now so the event carries the new version
+        bookRepository.flush();
+        eventPublisher.publishEvent(new CatalogChangeEvent(ChangeEntity.BOOK, type, saved.getId(), BookMapper.toOutDTO(saved)));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
-        bookRepository.deleteById(id);
+        if (bookRepository.deleteByIds(List.of(id)) > 0) {
+            eventPublisher.publishEvent(new CatalogChangeEvent(ChangeEntity.BOOK, ChangeType.DELETED, id, null));
+        }
+    }
+
+    @Override
+    public long deleteAll(Collection<Long> ids) {
+        List<Long> distinct = bulkIds(ids, "ids");
+        long deleted = 0;
+        for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size()));
+            deleted += transactionTemplate.execute(status -> {
+                List<Long> existing = findChunk(BookSpecifications.hasIdIn(chunk), chunk.size(), IDS).stream()
+                        .map(Book::getId)
+                        .toList();
+                if (existing.isEmpty()) {
+                    return 0L;
+                }
+                long count = bookRepository.deleteByIds(existing);
+                existing.forEach(id -> eventPublisher.publishEvent(
+                        new CatalogChangeEvent(ChangeEntity.BOOK, ChangeType.DELETED, id, null)));
+                return count;
+            });
+        }
+        return deleted;
+    }
+
+    @Override
+    public long reassign(BookReassignInDTO request) {
+        if (request.toAuthorId() == null) {
+            throw new InvalidRequest("toAuthorId is required");
+        }
+        if ((request.fromAuthorId() == null) == (request.bookIds() == null)) {
+            throw new InvalidRequest("Give either fromAuthorId or bookIds");
+        }
+        Author target = authorService.findById(request.toAuthorId());
+        Specification<Book> notYetMoved = Specification.not(BookSpecifications.hasAuthor(target.getId()));
+
+        long moved = 0;
+        if (request.fromAuthorId() != null) {
+            authorService.findById(request.fromAuthorId());
+            if (request.fromAuthorId().equals(target.getId())) {
+                return 0;
+            }
+            // every chunk moves its books away from the source author, so the next one starts from the top again
+            Specification<Book> remaining = BookSpecifications.hasAuthor(request.fromAuthorId());
+            long chunkMoved;
+            do {
+                chunkMoved = reassignChunk(remaining, BULK_CHUNK_SIZE, target);
+                moved += chunkMoved;
+            } while (chunkMoved > 0);
+        } else {
+            List<Long> distinct = bulkIds(request.bookIds(), "bookIds");
+            for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+                List<Long> chunk = distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size()));
+                moved += reassignChunk(BookSpecifications.hasIdIn(chunk).and(notYetMoved), chunk.size(), target);
+            }
+        }
+        return moved;
+    }
+
+    private long reassignChunk(Specification<Book> spec, int size, Author target) {
+        AuthorOutDTO author = AuthorMapper.toOutDTO(target);
+        return transactionTemplate.execute(status -> {
+            List<Book> books = findChunk(spec, size, TITLE_AND_ISBN);
+            if (books.isEmpty()) {
+                return 0L;
+            }
+            // as for a single book, the target cannot be deleted while books are moved onto it
+            authorService.lockById(target.getId());
+            List<Long> ids = books.stream().map(Book::getId).toList();
+            long count = bookRepository.reassignAuthor(ids, target.getId());
+            // the statement bumped the versions; a book missing here was deleted meanwhile and did not move
+            Map<Long, Long> versions = bookRepository.findVersions(ids, target.getId());
+            books.stream()
+                    .filter(book -> versions.containsKey(book.getId()))
+                    .forEach(book -> eventPublisher.publishEvent(new CatalogChangeEvent(ChangeEntity.BOOK, ChangeType.UPDATED,
+                            book.getId(), new BookOutDTO(book.getId(), book.getTitle(), book.getIsbn(),
+                                    versions.get(book.getId()), author))));
+            return count;
+        });
+    }
+
+    private List<Book> findChunk(Specification<Book> spec, int size, BookFieldSet fields) {
+        return bookRepository.findSlice(spec, PageRequest.of(0, size, Sort.by("id")), fields).getContent();
+    }
+
+    private static List<Long> bulkIds(Collection<Long> ids, String name) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequest(name + " is required");
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new InvalidRequest("At most " + MAX_BULK_IDS + " " + name + " per request");
+        }
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    @Override
+    public void exportAll(Consumer<Book> consumer) {
+        long lastId = Long.MIN_VALUE;
+        List<Book> books;
+        do {
+            books = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(EXPORT_BATCH_SIZE));
+            books = books.subList(0, Math.min(books.size(), EXPORT_BATCH_SIZE));
+            for (Book book : books) {
+                consumer.accept(book);
+                lastId = book.getId();
+            }
+        } while (books.size() == EXPORT_BATCH_SIZE);
     }
 }
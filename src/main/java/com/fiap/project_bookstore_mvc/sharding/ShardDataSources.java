@@ -0,0 +1,51 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShardDataSources implements DisposableBean {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> templates = new ArrayList<>();
+
+    public ShardDataSources(ShardingProperties properties) {
+        if (properties.shards().isEmpty()) {
+            throw new IllegalStateException("bookstore.sharding.shards must declare at least one shard");
+        }
+
+        for (ShardingProperties.Shard shard : properties.shards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .build();
+            dataSource.setPoolName("shard-" + this.dataSources.size());
+            this.dataSources.add(dataSource);
+            this.templates.add(new JdbcTemplate(dataSource));
+        }
+    }
+
+    public int count() {
+        return this.dataSources.size();
+    }
+
+    public DataSource get(int shard) {
+        return this.dataSources.get(shard);
+    }
+
+    public JdbcTemplate jdbc(int shard) {
+        return this.templates.get(shard);
+    }
+
+    @Override
+    public void destroy() {
+        this.dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,57 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShardDirectory implements InitializingBean {
+
+    private final ShardDataSources shards;
+    private final Map<Long, Integer> overrides = new ConcurrentHashMap<>();
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardDirectory(ShardDataSources shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        JdbcTemplate directory = this.shards.jdbc(0);
+        directory.execute("""
+                CREATE TABLE IF NOT EXISTS author_shard_overrides (
+                    author_id BIGINT PRIMARY KEY,
+                    shard INT NOT NULL
+                )""");
+        directory.query("SELECT author_id, shard FROM author_shard_overrides",
+                row -> {
+                    this.overrides.put(row.getLong("author_id"), row.getInt("shard"));
+                });
+    }
+
+    public int count() {
+        return this.shards.count();
+    }
+
+    public int shardOfAuthor(long authorId) {
+        Integer override = this.overrides.get(authorId);
+        return override != null ? override : ShardIds.homeShard(authorId, this.shards.count());
+    }
+
+    public int shardForNewAuthor() {
+        return Math.floorMod(this.nextShard.getAndIncrement(), this.shards.count());
+    }
+
+    public void assign(long authorId, int shard) {
+        this.shards.jdbc(0).update("MERGE INTO author_shard_overrides (author_id, shard) KEY (author_id) VALUES (?, ?)",
+                authorId, shard);
+        this.overrides.put(authorId, shard);
+    }
+
+    public void forget(long authorId) {
+        this.shards.jdbc(0).update("DELETE FROM author_shard_overrides WHERE author_id = ?", authorId);
+        this.overrides.remove(authorId);
+    }
+}
@@ -0,0 +1,142 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ShardFanOut implements DisposableBean {
+
+    private final int shardCount;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardFanOut(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public <T> List<T> onAllShards(ShardContext.ShardCall<T> call) throws Throwable {
+        List<Future<T>> futures = new ArrayList<>(this.shardCount);
+        for (int shard = 0; shard < this.shardCount; shard++) {
+            int target = shard;
+            futures.add(this.executor.submit(() -> {
+                try {
+                    return ShardContext.callOn(target, call);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+
+        List<T> results = new ArrayList<>(this.shardCount);
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+        return results;
+    }
+
+    public static Sort withIdTieBreaker(Sort sort) {
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+    }
+
+    public static <T> Comparator<T> comparatorFor(Sort sort) {
+        Comparator<T> comparator = (left, right) -> 0;
+        for (Sort.Order order : withIdTieBreaker(sort)) {
+            Comparator<T> byProperty = (left, right) -> compareValues(
+                    propertyOf(left, order.getProperty()), propertyOf(right, order.getProperty()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    public static <T> List<T> mergeSorted(List<? extends Iterable<T>> sources, Comparator<T> comparator,
+                                          long skip, int limit) {
+        PriorityQueue<Cursor<T>> heap = new PriorityQueue<>((a, b) -> comparator.compare(a.head, b.head));
+        for (Iterable<T> source : sources) {
+            Iterator<T> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heap.add(new Cursor<>(iterator));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(Math.max(0, limit));
+        long skipped = 0;
+        while (!heap.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heap.poll();
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                merged.add(cursor.head);
+            }
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    public static <T> Page<T> mergePages(List<Page<T>> pages, Pageable pageable) {
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<T> content = mergeSorted(pages, comparatorFor(pageable.getSort()),
+                pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right) {
+        if (left == right) {
+            return 0;
+        }
+        if (left == null) {
+            return -1;
+        }
+        if (right == null) {
+            return 1;
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private static Object propertyOf(Object target, String property) {
+        return new BeanWrapperImpl(target).getPropertyValue(property);
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    private static final class Cursor<T> {
+        private final Iterator<T> iterator;
+        private T head;
+
+        private Cursor(Iterator<T> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        private boolean advance() {
+            if (!this.iterator.hasNext()) {
+                return false;
+            }
+            this.head = this.iterator.next();
+            return true;
+        }
+    }
+}
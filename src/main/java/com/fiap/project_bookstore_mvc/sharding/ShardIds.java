@@ -0,0 +1,25 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+/**
+ * Each shard generates IDs from its own range, so IDs stay globally unique and the shard that created a row
+ * can be derived from its ID. Authors moved by the rebalancer keep their ID and are tracked by the directory.
+ */
+public final class ShardIds {
+
+    public static final long SPAN = 1L << 40;
+
+    private ShardIds() {
+    }
+
+    public static long firstId(int shard) {
+        return shard * SPAN + 1;
+    }
+
+    public static long lastId(int shard) {
+        return (shard + 1) * SPAN;
+    }
+
+    public static int homeShard(long id, int shardCount) {
+        return (int) Math.floorMod((id - 1) / SPAN, (long) shardCount);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import com.fiap.project_bookstore_mvc.dto.Out.ShardMoveOutDTO;
+import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class ShardRebalancer {
+
+    private final ShardDataSources shards;
+    private final ShardDirectory directory;
+
+    public ShardRebalancer(ShardDataSources shards, ShardDirectory directory) {
+        this.shards = shards;
+        this.directory = directory;
+    }
+
+    public ShardMoveOutDTO moveAuthor(long authorId, int targetShard) {
+        if (targetShard < 0 || targetShard >= this.shards.count()) {
+            throw new InvalidRequest("Shard " + targetShard + " does not exist");
+        }
+
+        int sourceShard = this.directory.shardOfAuthor(authorId);
+        JdbcTemplate source = this.shards.jdbc(sourceShard);
+
+        List<Map<String, Object>> author = source.queryForList("SELECT * FROM authors WHERE id = ?", authorId);
+        if (author.isEmpty()) {
+            throw new EntityNotFound("Author not found");
+        }
+        if (sourceShard == targetShard) {
+            return new ShardMoveOutDTO(authorId, sourceShard, targetShard, 0);
+        }
+
+        List<Map<String, Object>> books = source.queryForList("SELECT * FROM books WHERE author_id = ?", authorId);
+
+        inTransaction(targetShard, target -> {
+            insertRows(target, "authors", author);
+            insertRows(target, "books", books);
+        });
+        this.directory.assign(authorId, targetShard);
+        inTransaction(sourceShard, jdbc -> {
+            jdbc.update("DELETE FROM books WHERE author_id = ?", authorId);
+            jdbc.update("DELETE FROM authors WHERE id = ?", authorId);
+        });
+
+        return new ShardMoveOutDTO(authorId, sourceShard, targetShard, books.size());
+    }
+
+    public void ensureBookOnShard(long bookId, long authorId, int targetShard) {
+        ensureBooksOnShard(List.of(bookId), authorId, targetShard);
+    }
+
+    /**
+     * Moves those of these books that live on another shard to {@code targetShard}, pointing them at
+     * {@code authorId}, whose shard it is; books not found anywhere are left alone.
+     */
+    public void ensureBooksOnShard(Collection<Long> bookIds, long authorId, int targetShard) {
+        Set<Long> missing = new HashSet<>(bookIds);
+        if (missing.isEmpty()) {
+            return;
+        }
+        missing.removeAll(this.shards.jdbc(targetShard)
+                .queryForList("SELECT id FROM books WHERE id IN (" + placeholders(missing) + ")", Long.class,
+                        missing.toArray()));
+
+        for (int shard = 0; shard < this.shards.count() && !missing.isEmpty(); shard++) {
+            if (shard == targetShard) {
+                continue;
+            }
+            List<Map<String, Object>> books = this.shards.jdbc(shard)
+                    .queryForList("SELECT * FROM books WHERE id IN (" + placeholders(missing) + ")", missing.toArray());
+            if (books.isEmpty()) {
+                continue;
+            }
+            List<Object> found = new ArrayList<>(books.size());
+            for (Map<String, Object> book : books) {
+                book.put("author_id", authorId);
+                found.add(book.get("id"));
+                missing.remove(((Number) book.get("id")).longValue());
+            }
+            inTransaction(targetShard, target -> insertRows(target, "books", books));
+            inTransaction(shard, source -> source.update(
+                    "DELETE FROM books WHERE id IN (" + placeholders(found) + ")", found.toArray()));
+        }
+    }
+
+    private void inTransaction(int shard, Consumer<JdbcTemplate> work) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(this.shards.get(shard)));
+        transaction.executeWithoutResult(status -> work.accept(this.shards.jdbc(shard)));
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return values.stream().map(value -> "?").collect(Collectors.joining(", "));
+    }
+
+    private static void insertRows(JdbcTemplate jdbc, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<String> columns = new ArrayList<>(rows.getFirst().keySet());
+        String sql = "INSERT INTO " + table
+                + " (" + String.join(", ", columns) + ")"
+                + " VALUES (" + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+
+        List<Object[]> values = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .toList();
+        jdbc.batchUpdate(sql, values);
+    }
+}
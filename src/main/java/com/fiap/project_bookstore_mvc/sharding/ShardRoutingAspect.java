@@ -0,0 +1,240 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Routes every repository call to the shard owning the author it concerns, or fans it out to all shards
+ * when the call has no shard key (global listings, lookups of books by ID, counts). Runs inside the JFR call
+ * events so a fanned-out call is recorded once, across all shards.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ShardRoutingAspect {
+
+    private static final Set<String> ID_METHODS = Set.of("findById", "existsById", "deleteById", "getReferenceById");
+    // run on the transaction's connection as it is; insertAll writes books for the authors just saved on it
+    private static final Set<String> LOCAL_METHODS = Set.of("flush", "insertAll", "toString", "hashCode", "equals");
+    // bulk statements naming books by ID alone: every shard runs them on the books it holds, in its own transaction
+    private static final Set<String> BULK_METHODS = Set.of("deleteByIds");
+
+    private final ShardDirectory directory;
+    private final ShardFanOut fanOut;
+    private final ShardRebalancer rebalancer;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardRoutingAspect(ShardDirectory directory, ShardFanOut fanOut, ShardRebalancer rebalancer,
+                              PlatformTransactionManager transactionManager) {
+        this.directory = directory;
+        this.fanOut = fanOut;
+        this.rebalancer = rebalancer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Around("target(com.fiap.project_bookstore_mvc.repositories.AuthorRepository)"
+            + " || target(com.fiap.project_bookstore_mvc.repositories.BookRepository)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (ShardContext.current() != null || LOCAL_METHODS.contains(method.getName())) {
+            return joinPoint.proceed();
+        }
+
+        Object[] args = joinPoint.getArgs();
+        if (method.getName().equals("saveAll") && args[0] instanceof Iterable<?> entities) {
+            return saveAll(joinPoint.getTarget(), method, entities);
+        }
+
+        Integer shard = shardFor(joinPoint.getTarget(), method, args);
+        if (shard != null) {
+            if (method.getName().equals("reassignAuthor") && args[0] instanceof Collection<?> bookIds) {
+                // as for a single book saved with a new author, the books follow it to its shard first
+                this.rebalancer.ensureBooksOnShard(bookIds.stream().map(Long.class::cast).toList(), (Long) args[1], shard);
+            }
+            return ShardContext.callOn(shard, joinPoint::proceed);
+        }
+        if (BULK_METHODS.contains(method.getName())) {
+            List<Object> results = this.fanOut.onAllShards(
+                    () -> inTransaction(() -> invoke(joinPoint.getTarget(), method, args)));
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        }
+        return fanOut(joinPoint.getTarget(), method, args);
+    }
+
+    private Object inTransaction(ShardContext.ShardCall<Object> call) {
+        return this.transactionTemplate.execute(status -> {
+            try {
+                return call.call();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private Integer shardFor(Object repository, Method method, Object[] args) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < args.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey && args[i] instanceof Long authorId) {
+                    return this.directory.shardOfAuthor(authorId);
+                }
+            }
+        }
+
+        for (Object arg : args) {
+            if (arg instanceof Author author) {
+                return author.getId() == null
+                        ? this.directory.shardForNewAuthor()
+                        : this.directory.shardOfAuthor(author.getId());
+            }
+            if (arg instanceof Book book && book.getAuthor() != null && book.getAuthor().getId() != null) {
+                int shard = this.directory.shardOfAuthor(book.getAuthor().getId());
+                if (book.getId() != null) {
+                    this.rebalancer.ensureBookOnShard(book.getId(), book.getAuthor().getId(), shard);
+                }
+                return shard;
+            }
+        }
+
+        if (repository instanceof AuthorRepository && ID_METHODS.contains(method.getName())
+                && args.length == 1 && args[0] instanceof Long authorId) {
+            return this.directory.shardOfAuthor(authorId);
+        }
+        return null;
+    }
+
+    private Object saveAll(Object repository, Method method, Iterable<?> entities) throws Throwable {
+        Map<Integer, List<Object>> byShard = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            Integer shard = shardFor(repository, method, new Object[]{entity});
+            byShard.computeIfAbsent(shard == null ? 0 : shard, key -> new ArrayList<>()).add(entity);
+        }
+
+        List<Object> saved = new ArrayList<>();
+        for (Map.Entry<Integer, List<Object>> group : byShard.entrySet()) {
+            Object result = ShardContext.callOn(group.getKey(), () -> invoke(repository, method, group.getValue()));
+            ((Iterable<?>) result).forEach(saved::add);
+        }
+        return saved;
+    }
+
+    private Object fanOut(Object repository, Method method, Object[] args) throws Throwable {
+        Class<?> returnType = method.getReturnType();
+        int pageableIndex = indexOf(args, Pageable.class);
+
+        if (pageableIndex >= 0 && ((Pageable) args[pageableIndex]).isPaged() && Slice.class.isAssignableFrom(returnType)) {
+            return fanOutPaged(repository, method, args, pageableIndex, Page.class.isAssignableFrom(returnType));
+        }
+
+        List<Object> results = this.fanOut.onAllShards(() -> invoke(repository, method, args));
+
+        if (Optional.class.equals(returnType)) {
+            return results.stream()
+                    .map(Optional.class::cast)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (Slice.class.isAssignableFrom(returnType)) {
+            List<Object> content = new ArrayList<>();
+            results.forEach(result -> content.addAll(((Slice<?>) result).getContent()));
+            content.sort(ShardFanOut.comparatorFor(sortOf(args)));
+            return Page.class.isAssignableFrom(returnType)
+                    ? new PageImpl<>(content)
+                    : new SliceImpl<>(content);
+        }
+        if (Iterable.class.isAssignableFrom(returnType)) {
+            List<Object> content = new ArrayList<>();
+            results.forEach(result -> ((Iterable<?>) result).forEach(content::add));
+            content.sort(ShardFanOut.comparatorFor(sortOf(args)));
+            return content;
+        }
+        return results.stream().filter(result -> result != null).findFirst().orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object fanOutPaged(Object repository, Method method, Object[] args, int pageableIndex,
+                               boolean page) throws Throwable {
+        Pageable pageable = (Pageable) args[pageableIndex];
+        Sort sort = ShardFanOut.withIdTieBreaker(pageable.getSort());
+        int window = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+
+        Object[] shardArgs = args.clone();
+        shardArgs[pageableIndex] = PageRequest.of(0, page ? window : window + 1, sort);
+        List<Object> results = this.fanOut.onAllShards(() -> invoke(repository, method, shardArgs));
+
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        if (page) {
+            return ShardFanOut.mergePages(results.stream().map(result -> (Page<Object>) result).toList(), sorted);
+        }
+
+        List<Object> content = ShardFanOut.mergeSorted(
+                results.stream().map(result -> ((Slice<Object>) result).getContent()).toList(),
+                ShardFanOut.comparatorFor(sort), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, sorted, hasNext);
+    }
+
+    private static Object invoke(Object repository, Method method, Object... args) throws Throwable {
+        try {
+            return method.invoke(repository, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static Sort sortOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Sort sort) {
+                return sort;
+            }
+            if (arg instanceof Pageable pageable) {
+                return pageable.getSort();
+            }
+        }
+        return Sort.unsorted();
+    }
+
+    private static int indexOf(Object[] args, Class<?> type) {
+        for (int i = 0; i < args.length; i++) {
+            if (type.isInstance(args[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
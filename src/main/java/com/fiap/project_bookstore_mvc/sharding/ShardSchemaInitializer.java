@@ -0,0 +1,51 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Hibernate only generates the schema on the default shard; this replays it on the others and moves each
+ * shard's identity columns into the shard's ID range.
+ */
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private static final List<String> TABLES = List.of("authors", "books");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardDataSources shards;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardDataSources shards) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Object ddlAuto = this.entityManagerFactory.getProperties().get(AvailableSettings.HBM2DDL_AUTO);
+        boolean generated = ddlAuto != null && ddlAuto.toString().startsWith("create");
+
+        for (int shard = 0; shard < this.shards.count(); shard++) {
+            if (generated && shard > 0) {
+                ShardContext.runOn(shard, () -> this.entityManagerFactory.unwrap(SessionFactory.class)
+                        .getSchemaManager()
+                        .exportMappedObjects(true));
+            }
+            for (String table : TABLES) {
+                alignIdentity(table, shard);
+            }
+        }
+    }
+
+    private void alignIdentity(String table, int shard) {
+        JdbcTemplate jdbc = this.shards.jdbc(shard);
+        Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table + " WHERE id BETWEEN ? AND ?",
+                Long.class, ShardIds.firstId(shard), ShardIds.lastId(shard));
+        long next = Math.max(ShardIds.firstId(shard), maxId == null ? 0 : maxId + 1);
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+}
@@ -0,0 +1,68 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        return new ShardDataSources(properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shards) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardDataSources shards) {
+        return new ShardDirectory(shards);
+    }
+
+    @Bean
+    public ShardFanOut shardFanOut(ShardDataSources shards) {
+        return new ShardFanOut(shards.count());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardDataSources shards, ShardDirectory directory) {
+        return new ShardRebalancer(shards, directory);
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardDirectory directory, ShardFanOut fanOut,
+                                                 ShardRebalancer rebalancer,
+                                                 PlatformTransactionManager transactionManager) {
+        return new ShardRoutingAspect(directory, fanOut, rebalancer, transactionManager);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                         ShardDataSources shards) {
+        return new ShardSchemaInitializer(entityManagerFactory, shards);
+    }
+}
@@ -0,0 +1,20 @@
+package com.fiap.project_bookstore_mvc.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties("bookstore.sharding")
+public record ShardingProperties(
+        boolean enabled,
+        @DefaultValue List<Shard> shards
+) {
+
+    public record Shard(
+            String url,
+            String username,
+            String password
+    ) {
+    }
+}
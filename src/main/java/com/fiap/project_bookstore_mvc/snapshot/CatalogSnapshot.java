@@ -0,0 +1,147 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import com.fiap.project_bookstore_mvc.index.AuthorBooksIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view over a snapshot file. Layout (big-endian):
+ *
+ * <pre>
+ * header   magic "BKSNAP01" | version:int | authors:int | books:int | reserved:int | builtAt:long | seq:long
+ * authors  id:long | heapOffset:int | length:int                  (16 bytes, sorted by id)
+ * books    id:long | authorId:long | heapOffset:int | length:int  (24 bytes, sorted by id)
+ * heap     author JSON documents and book JSON prefixes
+ * </pre>
+ *
+ * All accessors use absolute positions, so one instance can be shared by any number of threads.
+ */
+public final class CatalogSnapshot {
+
+    static final long MAGIC = 0x424B534E41503031L;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 40;
+    static final int AUTHOR_RECORD_SIZE = 16;
+    static final int BOOK_RECORD_SIZE = 24;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int authorCount;
+    private final int bookCount;
+    private final long builtAt;
+    private final long sequence;
+    private final int bookIndex;
+    private final int heap;
+    private final AuthorBooksIndex authorBooks;
+
+    private CatalogSnapshot(Path path, MappedByteBuffer buffer) {
+        if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+            throw new IllegalStateException("Not a catalog snapshot: " + path);
+        }
+        this.path = path;
+        this.buffer = buffer;
+        this.authorCount = buffer.getInt(12);
+        this.bookCount = buffer.getInt(16);
+        this.builtAt = buffer.getLong(24);
+        this.sequence = buffer.getLong(32);
+        this.bookIndex = HEADER_SIZE + this.authorCount * AUTHOR_RECORD_SIZE;
+        this.heap = this.bookIndex + this.bookCount * BOOK_RECORD_SIZE;
+        this.authorBooks = buildAuthorBooks();
+    }
+
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CatalogSnapshot(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path path() {
+        return this.path;
+    }
+
+    public long sequence() {
+        return this.sequence;
+    }
+
+    public long builtAt() {
+        return this.builtAt;
+    }
+
+    public int authorCount() {
+        return this.authorCount;
+    }
+
+    public int bookCount() {
+        return this.bookCount;
+    }
+
+    public AuthorBooksIndex authorBooks() {
+        return this.authorBooks;
+    }
+
+    public int findAuthor(long id) {
+        return search(HEADER_SIZE, AUTHOR_RECORD_SIZE, this.authorCount, id);
+    }
+
+    public ByteBuffer authorJson(int index) {
+        int record = HEADER_SIZE + index * AUTHOR_RECORD_SIZE;
+        return slice(this.buffer.getInt(record + 8), this.buffer.getInt(record + 12));
+    }
+
+    public int findBook(long id) {
+        return search(this.bookIndex, BOOK_RECORD_SIZE, this.bookCount, id);
+    }
+
+    public long bookId(int index) {
+        return this.buffer.getLong(this.bookIndex + index * BOOK_RECORD_SIZE);
+    }
+
+    public long bookAuthorId(int index) {
+        return this.buffer.getLong(this.bookIndex + index * BOOK_RECORD_SIZE + 8);
+    }
+
+    public ByteBuffer bookPrefix(int index) {
+        int record = this.bookIndex + index * BOOK_RECORD_SIZE;
+        return slice(this.buffer.getInt(record + 16), this.buffer.getInt(record + 20));
+    }
+
+    private AuthorBooksIndex buildAuthorBooks() {
+        long[] authorIds = new long[this.authorCount];
+        for (int index = 0; index < this.authorCount; index++) {
+            authorIds[index] = this.buffer.getLong(HEADER_SIZE + index * AUTHOR_RECORD_SIZE);
+        }
+        long[] bookIds = new long[this.bookCount];
+        long[] bookAuthorIds = new long[this.bookCount];
+        for (int index = 0; index < this.bookCount; index++) {
+            bookIds[index] = bookId(index);
+            bookAuthorIds[index] = bookAuthorId(index);
+        }
+        return AuthorBooksIndex.build(authorIds, this.authorCount, bookIds, bookAuthorIds, this.bookCount);
+    }
+
+    private ByteBuffer slice(int heapOffset, int length) {
+        return this.buffer.slice(this.heap + heapOffset, length);
+    }
+
+    private int search(int start, int recordSize, int count, long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long candidate = this.buffer.getLong(start + mid * recordSize);
+            if (candidate < id) {
+                low = mid + 1;
+            } else if (candidate > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,261 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeedSnapshot;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeRecord;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import com.fiap.project_bookstore_mvc.index.AuthorBooksIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves authors and books from the current memory-mapped snapshot plus the overlay of changes committed
+ * since it was built. Rebuilds run periodically on a background thread and are swapped in atomically;
+ * readers holding the previous snapshot keep a valid mapping until they are done with it.
+ */
+public class CatalogSnapshotStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+    private static final byte[] LINE_END = {'}', '\n'};
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+    private static final byte[] SEPARATOR = {','};
+
+    private final Path directory;
+    private final Duration rebuildInterval;
+    private final ChangeFeed feed;
+    private final ChangeFeedSnapshot source;
+    private final SnapshotRenderer renderer;
+    private final Clock clock;
+    private final SnapshotOverlay overlay = new SnapshotOverlay();
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private ScheduledExecutorService scheduler;
+    private long generation;
+
+    public CatalogSnapshotStore(SnapshotProperties properties, ChangeFeed feed, ChangeFeedSnapshot source,
+                                SnapshotRenderer renderer, Clock clock) {
+        this.directory = properties.directory();
+        this.rebuildInterval = properties.rebuildInterval();
+        this.feed = feed;
+        this.source = source;
+        this.renderer = renderer;
+        this.clock = clock;
+        feed.addListener(this::apply);
+    }
+
+    public boolean isReady() {
+        return this.current.get() != null;
+    }
+
+    public CatalogSnapshot current() {
+        return this.current.get();
+    }
+
+    public int overlaySize() {
+        return this.overlay.size();
+    }
+
+    public synchronized CatalogSnapshot rebuild() throws IOException {
+        long sequence = this.feed.head();
+        CatalogSnapshot previous = this.current.get();
+
+        Files.createDirectories(this.directory);
+        Path target = this.directory.resolve("catalog-" + sequence + "-" + (++this.generation) + ".snap");
+        CatalogSnapshotWriter.write(target, sequence, this.clock.millis(), this.source, this.renderer);
+        CatalogSnapshot next = CatalogSnapshot.open(target);
+
+        this.current.set(next);
+        this.overlay.dropUpTo(sequence);
+        if (previous != null) {
+            Files.deleteIfExists(previous.path());
+        }
+        return next;
+    }
+
+    public ByteBuffer findAuthor(long id) {
+        SnapshotOverlay.Entry entry = this.overlay.author(id);
+        if (entry != null) {
+            return entry.deleted() ? null : ByteBuffer.wrap(entry.json());
+        }
+        CatalogSnapshot snapshot = this.current.get();
+        if (snapshot == null) {
+            return null;
+        }
+        int index = snapshot.findAuthor(id);
+        return index < 0 ? null : snapshot.authorJson(index);
+    }
+
+    /**
+     * Returns the book's JSON as the buffers to write in order, or {@code null} when it has to be looked up
+     * in the database instead.
+     */
+    public ByteBuffer[] findBook(long id) {
+        SnapshotOverlay.Entry entry = this.overlay.book(id);
+        if (entry != null) {
+            return entry.deleted() ? null : compose(ByteBuffer.wrap(entry.json()), entry.authorId(), SnapshotRenderer.BOOK_SUFFIX);
+        }
+        CatalogSnapshot snapshot = this.current.get();
+        if (snapshot == null) {
+            return null;
+        }
+        int index = snapshot.findBook(id);
+        return index < 0 ? null : compose(snapshot.bookPrefix(index), snapshot.bookAuthorId(index), SnapshotRenderer.BOOK_SUFFIX);
+    }
+
+    /**
+     * Returns the author's books as a JSON array, in ID order, or {@code null} when the author is unknown.
+     */
+    public List<ByteBuffer> findBooksByAuthor(long authorId) {
+        CatalogSnapshot snapshot = this.current.get();
+        if (snapshot == null || findAuthor(authorId) == null) {
+            return null;
+        }
+
+        List<ByteBuffer> parts = new ArrayList<>();
+        parts.add(ByteBuffer.wrap(ARRAY_START));
+        AuthorBooksIndex authorBooks = snapshot.authorBooks();
+        int from = authorBooks.from(authorId);
+        int to = from + authorBooks.count(authorId);
+        for (int position = Math.max(from, 0); position < to; position++) {
+            long bookId = authorBooks.bookIdAt(position);
+            SnapshotOverlay.Entry entry = this.overlay.book(bookId);
+            if (entry == null) {
+                int index = snapshot.findBook(bookId);
+                addBook(parts, compose(snapshot.bookPrefix(index), authorId, SnapshotRenderer.BOOK_SUFFIX));
+            } else if (!entry.deleted() && entry.authorId() == authorId) {
+                addBook(parts, compose(ByteBuffer.wrap(entry.json()), authorId, SnapshotRenderer.BOOK_SUFFIX));
+            }
+        }
+        for (SnapshotOverlay.Entry entry : this.overlay.books()) {
+            if (!entry.deleted() && entry.authorId() == authorId && !inSnapshotUnder(snapshot, entry.id(), authorId)) {
+                addBook(parts, compose(ByteBuffer.wrap(entry.json()), authorId, SnapshotRenderer.BOOK_SUFFIX));
+            }
+        }
+        parts.add(ByteBuffer.wrap(ARRAY_END));
+        return parts;
+    }
+
+    private static boolean inSnapshotUnder(CatalogSnapshot snapshot, long bookId, long authorId) {
+        int index = snapshot.findBook(bookId);
+        return index >= 0 && snapshot.bookAuthorId(index) == authorId;
+    }
+
+    private static void addBook(List<ByteBuffer> parts, ByteBuffer[] book) {
+        if (parts.size() > 1) {
+            parts.add(ByteBuffer.wrap(SEPARATOR));
+        }
+        parts.addAll(List.of(book));
+    }
+
+    /**
+     * Writes every book as newline-delimited JSON, in ID order for the snapshot followed by books created since.
+     */
+    public void exportBooks(WritableByteChannel out) throws IOException {
+        CatalogSnapshot snapshot = this.current.get();
+        for (int index = 0; index < snapshot.bookCount(); index++) {
+            SnapshotOverlay.Entry entry = this.overlay.book(snapshot.bookId(index));
+            if (entry == null) {
+                write(out, compose(snapshot.bookPrefix(index), snapshot.bookAuthorId(index), LINE_END));
+            } else if (!entry.deleted()) {
+                write(out, compose(ByteBuffer.wrap(entry.json()), entry.authorId(), LINE_END));
+            }
+        }
+        for (SnapshotOverlay.Entry entry : this.overlay.books()) {
+            if (!entry.deleted() && snapshot.findBook(entry.id()) < 0) {
+                write(out, compose(ByteBuffer.wrap(entry.json()), entry.authorId(), LINE_END));
+            }
+        }
+    }
+
+    private ByteBuffer[] compose(ByteBuffer prefix, long authorId, byte[] suffix) {
+        ByteBuffer author = findAuthor(authorId);
+        return author == null ? null : new ByteBuffer[]{prefix, author, ByteBuffer.wrap(suffix)};
+    }
+
+    private static void write(WritableByteChannel out, ByteBuffer[] buffers) throws IOException {
+        if (buffers == null) {
+            return;
+        }
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    private void apply(ChangeRecord record) {
+        CatalogSnapshot snapshot = this.current.get();
+        if (snapshot != null && record.seq() <= snapshot.sequence()) {
+            return;
+        }
+        if (record.entity() == ChangeEntity.AUTHOR) {
+            byte[] json = record.data() == null ? null : this.renderer.author((AuthorOutDTO) record.data());
+            this.overlay.putAuthor(new SnapshotOverlay.Entry(record.seq(), record.id(), 0, json));
+        } else {
+            BookOutDTO book = (BookOutDTO) record.data();
+            this.overlay.putBook(book == null
+                    ? new SnapshotOverlay.Entry(record.seq(), record.id(), 0, null)
+                    : new SnapshotOverlay.Entry(record.seq(), record.id(), book.author().id(), this.renderer.bookPrefix(book)));
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Catalog snapshot rebuild failed; serving the previous snapshot", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        deleteStaleFiles();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("catalog-snapshot").daemon().factory());
+        this.scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0,
+                this.rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        this.scheduler.shutdownNow();
+        this.scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+
+    // files left by a previous run cannot be used: the overlay that belonged to them is gone
+    private void deleteStaleFiles() {
+        if (!Files.isDirectory(this.directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "catalog-*.snap")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up old catalog snapshots in {}", this.directory, e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeedSnapshot;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Compiles the catalog into the format read by {@link CatalogSnapshot}. The heap is spooled to a temporary
+ * file first, since the index has to precede it and its size is only known at the end; the finished file is
+ * moved into place atomically.
+ */
+public final class CatalogSnapshotWriter {
+
+    private static final int CHUNK = 64 * 1024;
+
+    private CatalogSnapshotWriter() {
+    }
+
+    public static void write(Path target, long sequence, long builtAt, ChangeFeedSnapshot source,
+                             SnapshotRenderer renderer) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path heapFile = Files.createTempFile(directory, "heap-", ".tmp");
+        Path indexFile = Files.createTempFile(directory, "snapshot-", ".tmp");
+        try {
+            Records authors = new Records();
+            Records books = new Records();
+            long[] heapSize = {0};
+
+            try (OutputStream heap = new BufferedOutputStream(Files.newOutputStream(heapFile), CHUNK)) {
+                source.forEach(entry -> {
+                    byte[] bytes;
+                    if (entry.entity() == ChangeEntity.AUTHOR) {
+                        bytes = renderer.author((AuthorOutDTO) entry.data());
+                        authors.add(entry.id(), 0, heapSize[0], bytes.length);
+                    } else {
+                        BookOutDTO book = (BookOutDTO) entry.data();
+                        bytes = renderer.bookPrefix(book);
+                        books.add(entry.id(), book.author().id(), heapSize[0], bytes.length);
+                    }
+                    heap.write(bytes);
+                    heapSize[0] += bytes.length;
+                });
+            }
+
+            long total = CatalogSnapshot.HEADER_SIZE
+                    + (long) authors.size * CatalogSnapshot.AUTHOR_RECORD_SIZE
+                    + (long) books.size * CatalogSnapshot.BOOK_RECORD_SIZE
+                    + heapSize[0];
+            if (total > Integer.MAX_VALUE) {
+                throw new IOException("Catalog too large for a single mapped snapshot (" + total + " bytes)");
+            }
+
+            try (FileChannel out = FileChannel.open(indexFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 FileChannel heap = FileChannel.open(heapFile, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(CHUNK);
+                buffer.putLong(CatalogSnapshot.MAGIC)
+                        .putInt(CatalogSnapshot.VERSION)
+                        .putInt(authors.size)
+                        .putInt(books.size)
+                        .putInt(0)
+                        .putLong(builtAt)
+                        .putLong(sequence);
+
+                for (int i = 0; i < authors.size; i++) {
+                    ensureRoom(out, buffer, CatalogSnapshot.AUTHOR_RECORD_SIZE);
+                    buffer.putLong(authors.ids[i]).putInt((int) authors.offsets[i]).putInt(authors.lengths[i]);
+                }
+                for (int i = 0; i < books.size; i++) {
+                    ensureRoom(out, buffer, CatalogSnapshot.BOOK_RECORD_SIZE);
+                    buffer.putLong(books.ids[i]).putLong(books.authorIds[i])
+                            .putInt((int) books.offsets[i]).putInt(books.lengths[i]);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+
+                long position = out.position();
+                long copied = 0;
+                while (copied < heapSize[0]) {
+                    copied += out.transferFrom(heap, position + copied, heapSize[0] - copied);
+                }
+                out.force(true);
+            }
+            Files.move(indexFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(heapFile);
+            Files.deleteIfExists(indexFile);
+        }
+    }
+
+    private static void ensureRoom(FileChannel out, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static final class Records {
+        private long[] ids = new long[1024];
+        private long[] authorIds = new long[1024];
+        private long[] offsets = new long[1024];
+        private int[] lengths = new int[1024];
+        private int size;
+
+        private void add(long id, long authorId, long offset, int length) {
+            if (this.size == this.ids.length) {
+                int capacity = this.size * 2;
+                this.ids = Arrays.copyOf(this.ids, capacity);
+                this.authorIds = Arrays.copyOf(this.authorIds, capacity);
+                this.offsets = Arrays.copyOf(this.offsets, capacity);
+                this.lengths = Arrays.copyOf(this.lengths, capacity);
+            }
+            this.ids[this.size] = id;
+            this.authorIds[this.size] = authorId;
+            this.offsets[this.size] = offset;
+            this.lengths[this.size] = length;
+            this.size++;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeedSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(SnapshotProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotConfig {
+
+    @Bean
+    public CatalogSnapshotStore catalogSnapshotStore(SnapshotProperties properties, ChangeFeed changeFeed,
+                                                     ChangeFeedSnapshot changeFeedSnapshot, ObjectMapper objectMapper,
+                                                     MeterRegistry meterRegistry) {
+        CatalogSnapshotStore store = new CatalogSnapshotStore(properties, changeFeed, changeFeedSnapshot,
+                new SnapshotRenderer(objectMapper), Clock.systemUTC());
+
+        Gauge.builder("bookstore.snapshot.overlay.size", store, CatalogSnapshotStore::overlaySize)
+                .register(meterRegistry);
+        Gauge.builder("bookstore.snapshot.age", store,
+                        s -> s.isReady() ? (System.currentTimeMillis() - s.current().builtAt()) / 1000.0 : Double.NaN)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return store;
+    }
+
+    @Bean
+    public FilterRegistrationBean<SnapshotServingFilter> snapshotServingFilter(CatalogSnapshotStore store) {
+        FilterRegistrationBean<SnapshotServingFilter> registration =
+                new FilterRegistrationBean<>(new SnapshotServingFilter(store));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
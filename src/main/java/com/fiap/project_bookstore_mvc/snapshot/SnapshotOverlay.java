@@ -0,0 +1,55 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes committed after the current snapshot was taken, keyed by ID. A {@code null} document marks a
+ * deletion. Entries only ever move forward in sequence, so records delivered out of order are harmless.
+ */
+public class SnapshotOverlay {
+
+    private final Map<Long, Entry> authors = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> books = new ConcurrentHashMap<>();
+
+    public Entry author(long id) {
+        return this.authors.get(id);
+    }
+
+    public Entry book(long id) {
+        return this.books.get(id);
+    }
+
+    public Collection<Entry> books() {
+        return this.books.values();
+    }
+
+    public void putAuthor(Entry entry) {
+        this.authors.merge(entry.id(), entry, SnapshotOverlay::latest);
+    }
+
+    public void putBook(Entry entry) {
+        this.books.merge(entry.id(), entry, SnapshotOverlay::latest);
+    }
+
+    public void dropUpTo(long sequence) {
+        this.authors.values().removeIf(entry -> entry.seq() <= sequence);
+        this.books.values().removeIf(entry -> entry.seq() <= sequence);
+    }
+
+    public int size() {
+        return this.authors.size() + this.books.size();
+    }
+
+    private static Entry latest(Entry current, Entry candidate) {
+        return candidate.seq() > current.seq() ? candidate : current;
+    }
+
+    public record Entry(long seq, long id, long authorId, byte[] json) {
+
+        public boolean deleted() {
+            return this.json == null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.snapshot")
+public record SnapshotProperties(
+        boolean enabled,
+        Path directory,
+        @DefaultValue("1m") Duration rebuildInterval
+) {
+
+    public SnapshotProperties {
+        if (directory == null) {
+            directory = Path.of(System.getProperty("java.io.tmpdir"), "bookstore-snapshot");
+        }
+    }
+}
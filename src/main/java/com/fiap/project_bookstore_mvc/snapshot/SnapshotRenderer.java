@@ -0,0 +1,54 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Renders entities exactly as the controllers would. A book is stored as the JSON up to its
+ * {@code "author":} field, so that renaming an author does not invalidate every one of its books.
+ */
+public class SnapshotRenderer {
+
+    static final byte[] BOOK_SUFFIX = {'}'};
+
+    private final ObjectMapper objectMapper;
+
+    public SnapshotRenderer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] author(AuthorOutDTO author) {
+        try {
+            return this.objectMapper.writeValueAsBytes(author);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public byte[] bookPrefix(BookOutDTO book) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartObject();
+            generator.writeFieldName("id");
+            generator.writeNumber(book.id());
+            generator.writeStringField("title", book.title());
+            generator.writeStringField("isbn", book.isbn());
+            if (book.version() != null) {
+                generator.writeNumberField("version", book.version());
+            }
+            generator.writeFieldName("author");
+            generator.writeRaw(':');
+            generator.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
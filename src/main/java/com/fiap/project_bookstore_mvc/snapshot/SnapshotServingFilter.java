@@ -0,0 +1,102 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Answers {@code GET /books/{id}}, {@code GET /authors/{id}}, {@code GET /authors/{id}/books} and
+ * {@code GET /books/export} straight from the mapped snapshot, without loading entities or running Jackson. Anything the snapshot cannot answer
+ * (not built yet, unknown or deleted IDs) continues to the controllers.
+ */
+public class SnapshotServingFilter extends OncePerRequestFilter {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final CatalogSnapshotStore store;
+
+    public SnapshotServingFilter(CatalogSnapshotStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // normalized payloads reference authors by ID, a shape the snapshot does not store
+        return !"GET".equals(request.getMethod()) || request.getParameter("normalized") != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if (path.equals("/books/export")) {
+            if (this.store.isReady()) {
+                response.setContentType(NDJSON);
+                this.store.exportBooks(Channels.newChannel(response.getOutputStream()));
+                return;
+            }
+        } else if (path.startsWith("/books/")) {
+            long id = parseId(path, "/books/".length());
+            if (id >= 0 && write(response, this.store.findBook(id))) {
+                return;
+            }
+        } else if (path.startsWith("/authors/") && path.endsWith("/books")) {
+            long id = parseId(path.substring(0, path.length() - "/books".length()), "/authors/".length());
+            List<ByteBuffer> books = id >= 0 ? this.store.findBooksByAuthor(id) : null;
+            if (books != null && write(response, books.toArray(ByteBuffer[]::new))) {
+                return;
+            }
+        } else if (path.startsWith("/authors/") && request.getParameter("include") == null) {
+            // with include the author comes back composed with their books, which the snapshot does not hold
+            long id = parseId(path, "/authors/".length());
+            if (id >= 0 && write(response, this.store.findAuthor(id))) {
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean write(HttpServletResponse response, ByteBuffer... buffers) throws IOException {
+        if (buffers == null || buffers[0] == null) {
+            return false;
+        }
+        long length = 0;
+        for (ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLengthLong(length);
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        return true;
+    }
+
+    private static long parseId(String path, int start) {
+        if (start >= path.length() || path.length() - start > 18) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
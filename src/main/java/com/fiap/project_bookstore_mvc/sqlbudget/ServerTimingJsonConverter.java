@@ -0,0 +1,92 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Locale;
+
+/**
+ * Renders JSON into a buffer first when a {@link SqlStats} scope is open and something needs the result
+ * ({@code server-timing} or {@link SqlBudgetMode#FLAG}), so the time spent serializing is known before the
+ * headers go out; otherwise it writes straight through. Adds a {@code Server-Timing} header splitting the request into
+ * {@code db} (JDBC), {@code mapping} (everything else before rendering: services, entity to DTO mapping) and
+ * {@code serialization}, and flags responses over their statement budget in {@link SqlBudgetMode#FLAG} mode.
+ */
+public class ServerTimingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+    static final String BUDGET_EXCEEDED = "Sql-Budget-Exceeded";
+
+    private final SqlBudgetProperties properties;
+    private final boolean reporting;
+
+    public ServerTimingJsonConverter(ObjectMapper objectMapper, SqlBudgetProperties properties) {
+        super(objectMapper);
+        this.properties = properties;
+        this.reporting = properties.serverTiming() || properties.mode() == SqlBudgetMode.FLAG;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        SqlStats stats = this.reporting ? SqlStats.current() : null;
+        if (stats == null || !(outputMessage instanceof ServletServerHttpResponse response)
+                || response.getServletResponse().isCommitted() || !stats.claimTimingReport()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        long beforeSerialization = stats.elapsedNanos();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        super.writeInternal(object, type, new BufferedOutputMessage(outputMessage.getHeaders(), buffer));
+        long serialization = stats.elapsedNanos() - beforeSerialization;
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (this.properties.serverTiming()) {
+            headers.add(SERVER_TIMING, String.format(Locale.ROOT,
+                    "db;dur=%.2f;desc=\"%d statements, %d rows\", mapping;dur=%.2f, serialization;dur=%.2f",
+                    millis(stats.jdbcNanos()), stats.statements(), stats.rows(),
+                    millis(Math.max(0, beforeSerialization - stats.jdbcNanos())), millis(serialization)));
+        }
+        if (this.properties.mode() == SqlBudgetMode.FLAG) {
+            int budget = budget();
+            if (stats.statements() > budget) {
+                headers.add(BUDGET_EXCEEDED, stats.statements() + "/" + budget);
+            }
+        }
+        headers.setContentLength(buffer.size());
+        buffer.writeTo(outputMessage.getBody());
+    }
+
+    private int budget() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return SqlBudgetFilter.budgetFor(attributes.getRequest(), this.properties);
+        }
+        return this.properties.defaultMaxStatements();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record BufferedOutputMessage(HttpHeaders headers, OutputStream body) implements HttpOutputMessage {
+
+        @Override
+        public OutputStream getBody() {
+            return this.body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.sql-budget", name = "enabled", havingValue = "true")
+public class SqlBudgetConfig {
+
+    @Bean
+    public static SqlStatsDataSourcePostProcessor sqlStatsDataSourcePostProcessor() {
+        return new SqlStatsDataSourcePostProcessor();
+    }
+
+    @Bean
+    public ServerTimingJsonConverter serverTimingJsonConverter(ObjectMapper objectMapper, SqlBudgetProperties properties) {
+        return new ServerTimingJsonConverter(objectMapper, properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlBudgetProperties properties,
+                                                                  MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,80 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlStats} scope per request, records the statements it issued per route and reports
+ * requests over their budget.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the method and route pattern of the request, e.g. {@code GET /books/{id}}, once a handler has
+     * been picked; requests answered by a filter have no pattern and share {@code UNKNOWN}.
+     */
+    static String route(HttpServletRequest request) {
+        String pattern = pattern(request);
+        return request.getMethod() + " " + (pattern == null ? "UNKNOWN" : pattern);
+    }
+
+    static int budgetFor(HttpServletRequest request, SqlBudgetProperties properties) {
+        return properties.budgetFor(request.getMethod(), pattern(request));
+    }
+
+    private static String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? null : pattern.toString();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStats stats = SqlStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.stop();
+            record(route(request), budgetFor(request, this.properties), stats);
+        }
+    }
+
+    private void record(String route, int budget, SqlStats stats) {
+        DistributionSummary.builder("bookstore.sql.statements")
+                .tag("route", route)
+                .register(this.meterRegistry)
+                .record(stats.statements());
+
+        if (this.properties.mode() == SqlBudgetMode.OFF || stats.statements() <= budget) {
+            return;
+        }
+        Counter.builder("bookstore.sql.budget.exceeded")
+                .tag("route", route)
+                .register(this.meterRegistry)
+                .increment();
+        if (this.properties.mode() == SqlBudgetMode.LOG) {
+            log.warn("{} went over its SQL budget of {} statements: {}", route, budget, stats);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+/**
+ * What happens to a request that issues more statements than its budget.
+ */
+public enum SqlBudgetMode {
+    /** Budgets are not checked. */
+    OFF,
+    /** A warning is logged. */
+    LOG,
+    /** The response carries a {@code Sql-Budget-Exceeded} header, when it has not been committed yet. */
+    FLAG
+}
@@ -0,0 +1,32 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Statement budgets per endpoint, keyed by method and route pattern, e.g.
+ * {@code bookstore.sql-budget.max-statements.get[/books/{id}]=1}. Endpoints without an entry get
+ * {@code default-max-statements}.
+ */
+@ConfigurationProperties("bookstore.sql-budget")
+public record SqlBudgetProperties(
+        boolean enabled,
+        @DefaultValue("log") SqlBudgetMode mode,
+        @DefaultValue("10") int defaultMaxStatements,
+        Map<String, Map<String, Integer>> maxStatements,
+        boolean serverTiming
+) {
+
+    public SqlBudgetProperties {
+        maxStatements = maxStatements == null ? Map.of() : Map.copyOf(maxStatements);
+    }
+
+    public int budgetFor(String method, String pattern) {
+        Map<String, Integer> budgets = this.maxStatements.get(method.toLowerCase(Locale.ROOT));
+        Integer budget = budgets == null || pattern == null ? null : budgets.get(pattern);
+        return budget == null ? this.defaultMaxStatements : budget;
+    }
+}
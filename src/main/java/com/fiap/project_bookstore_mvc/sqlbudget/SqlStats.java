@@ -0,0 +1,86 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+/**
+ * Statements, rows fetched and JDBC time of the work running on the current thread between {@link #start()}
+ * and {@link #stop()}. Scopes nest: a statement counts towards every open scope of the thread. Work handed
+ * to other threads is not counted.
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private final SqlStats parent;
+    private final long startNanos = System.nanoTime();
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private boolean timingReported;
+
+    private SqlStats(SqlStats parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStats start() {
+        SqlStats stats = new SqlStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public void stop() {
+        if (this.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(this.parent);
+        }
+    }
+
+    static void statement(long nanos) {
+        for (SqlStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.statements++;
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    static void fetch(boolean row, long nanos) {
+        for (SqlStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            if (row) {
+                stats.rows++;
+            }
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    public int statements() {
+        return this.statements;
+    }
+
+    public long rows() {
+        return this.rows;
+    }
+
+    public long jdbcNanos() {
+        return this.jdbcNanos;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * Returns {@code true} the first time it is called, so the timing header is added once per request.
+     */
+    boolean claimTimingReport() {
+        boolean first = !this.timingReported;
+        this.timingReported = true;
+        return first;
+    }
+
+    @Override
+    public String toString() {
+        return this.statements + " statements, " + this.rows + " rows, " + this.jdbcNanos / 1_000 + "µs in JDBC";
+    }
+}
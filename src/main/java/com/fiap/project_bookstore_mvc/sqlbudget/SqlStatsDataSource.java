@@ -0,0 +1,106 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps connections so every statement executed and every row fetched is added to the current
+ * {@link SqlStats}. Calls made while no scope is open are passed through without timing.
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+    public SqlStatsDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        if (target == null) {
+            return null;
+        }
+        return type.cast(Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, new Handler(target)));
+    }
+
+    private record Handler(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (this.target instanceof Connection) {
+                return switch (name) {
+                    case "createStatement" -> wrap(Statement.class, (Statement) call(method, args));
+                    case "prepareStatement" -> wrap(PreparedStatement.class, (PreparedStatement) call(method, args));
+                    case "prepareCall" -> wrap(CallableStatement.class, (CallableStatement) call(method, args));
+                    default -> call(method, args);
+                };
+            }
+            if (this.target instanceof Statement) {
+                if (name.startsWith("execute")) {
+                    return execute(method, args);
+                }
+                if (name.equals("getResultSet") || name.equals("getGeneratedKeys")) {
+                    return wrap(ResultSet.class, (ResultSet) call(method, args));
+                }
+                return call(method, args);
+            }
+            if (name.equals("next") && SqlStats.current() != null) {
+                long start = System.nanoTime();
+                boolean row = (Boolean) call(method, args);
+                SqlStats.fetch(row, System.nanoTime() - start);
+                return row;
+            }
+            return call(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            if (SqlStats.current() == null) {
+                return wrapResult(call(method, args));
+            }
+            long start = System.nanoTime();
+            try {
+                return wrapResult(call(method, args));
+            } finally {
+                SqlStats.statement(System.nanoTime() - start);
+            }
+        }
+
+        private static Object wrapResult(Object result) {
+            return result instanceof ResultSet resultSet ? wrap(ResultSet.class, resultSet) : result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(this.target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
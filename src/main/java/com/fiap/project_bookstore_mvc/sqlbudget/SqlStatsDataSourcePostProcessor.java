@@ -0,0 +1,21 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@code dataSource} bean, whichever configuration built it (single database,
+ * read/write routing or shard routing), in a {@link SqlStatsDataSource}.
+ */
+public class SqlStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof SqlStatsDataSource)) {
+            return new SqlStatsDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,148 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeedSnapshot;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeRecord;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import com.fiap.project_bookstore_mvc.index.LongIntHashMap;
+import com.fiap.project_bookstore_mvc.popularity.PopularityTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead over author names and book titles. Both indexes are built from the catalog on start and on every
+ * rebuild interval, and follow committed changes in between through the change feed, so lookups never touch
+ * the database. Authors are weighted by their number of books and books by their views, as stored in
+ * {@code books.views} at the last rebuild; without popularity tracking books all weigh the same.
+ */
+public class CatalogSuggester implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSuggester.class);
+
+    private final ChangeFeed feed;
+    private final ChangeFeedSnapshot source;
+    private final PopularityTracker popularity;
+    private final Duration rebuildInterval;
+    private final int maxLimit;
+    private final LiveSuggestIndex authors = new LiveSuggestIndex();
+    private final LiveSuggestIndex books = new LiveSuggestIndex();
+    private ScheduledExecutorService scheduler;
+
+    public CatalogSuggester(ChangeFeed feed, ChangeFeedSnapshot source, PopularityTracker popularity,
+                            SuggestProperties properties) {
+        this.feed = feed;
+        this.source = source;
+        this.popularity = popularity;
+        this.rebuildInterval = properties.rebuildInterval();
+        this.maxLimit = properties.maxLimit();
+        feed.addListener(this::apply);
+    }
+
+    public List<Suggestion> suggestAuthors(String prefix, int limit) {
+        return this.authors.suggest(prefix, Math.min(limit, this.maxLimit));
+    }
+
+    public List<Suggestion> suggestBooks(String prefix, int limit) {
+        return this.books.suggest(prefix, Math.min(limit, this.maxLimit));
+    }
+
+    public int pendingSize() {
+        return this.authors.pendingSize() + this.books.pendingSize();
+    }
+
+    public synchronized void rebuild() throws IOException {
+        long sequence = this.feed.head();
+        Column authorColumn = new Column();
+        Column bookColumn = new Column();
+        LongIntHashMap booksPerAuthor = new LongIntHashMap();
+        LongIntHashMap views = this.popularity == null ? new LongIntHashMap() : this.popularity.viewCounts();
+
+        this.source.forEach(entry -> {
+            if (entry.entity() == ChangeEntity.AUTHOR) {
+                authorColumn.add(entry.id(), ((AuthorOutDTO) entry.data()).name(), 0);
+            } else {
+                BookOutDTO book = (BookOutDTO) entry.data();
+                bookColumn.add(entry.id(), book.title(), views.get(entry.id(), 0));
+                booksPerAuthor.put(book.author().id(), booksPerAuthor.get(book.author().id(), 0) + 1);
+            }
+        });
+        for (int i = 0; i < authorColumn.size; i++) {
+            authorColumn.weights[i] = booksPerAuthor.get(authorColumn.ids[i], 0);
+        }
+
+        this.authors.replace(authorColumn.index(), sequence);
+        this.books.replace(bookColumn.index(), sequence);
+    }
+
+    private void apply(ChangeRecord record) {
+        LiveSuggestIndex target = record.entity() == ChangeEntity.AUTHOR ? this.authors : this.books;
+        if (record.data() == null) {
+            target.remove(record.seq(), record.id());
+        } else if (record.data() instanceof AuthorOutDTO author) {
+            target.put(record.seq(), record.id(), author.name());
+        } else {
+            target.put(record.seq(), record.id(), ((BookOutDTO) record.data()).title());
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Suggest index rebuild failed; serving the previous index", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("catalog-suggest").daemon().factory());
+        this.scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0,
+                this.rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        this.scheduler.shutdownNow();
+        this.scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.scheduler != null;
+    }
+
+    private static final class Column {
+
+        private long[] ids = new long[1024];
+        private String[] labels = new String[1024];
+        private int[] weights = new int[1024];
+        private int size;
+
+        void add(long id, String label, int weight) {
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+                this.labels = Arrays.copyOf(this.labels, this.size * 2);
+                this.weights = Arrays.copyOf(this.weights, this.size * 2);
+            }
+            this.ids[this.size] = id;
+            this.labels[this.size] = label == null ? "" : label;
+            this.weights[this.size++] = weight;
+        }
+
+        SuggestIndex index() {
+            return SuggestIndex.build(this.ids, this.labels, this.weights, this.size);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A {@link SuggestIndex} plus the changes committed since it was built. Changed and deleted IDs are masked out
+ * of the base index, and the current labels of changed IDs are matched from a small sorted map until the
+ * next rebuild folds them in. Reads take no locks.
+ */
+public class LiveSuggestIndex {
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingInt(Suggestion::weight).reversed()
+            .thenComparing(Suggestion::label, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(Suggestion::id);
+
+    private volatile SuggestIndex base = SuggestIndex.EMPTY;
+    private long baseSeq = Long.MIN_VALUE;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Long> pendingTerms = new ConcurrentSkipListMap<>();
+
+    public SuggestIndex base() {
+        return this.base;
+    }
+
+    public int pendingSize() {
+        return this.pending.size();
+    }
+
+    public synchronized void put(long seq, long id, String label) {
+        Pending previous = this.pending.get(id);
+        if (seq <= this.baseSeq || (previous != null && previous.seq() > seq)) {
+            return;
+        }
+        unlink(previous);
+        byte[] normalized = TextNormalizer.normalize(label).getBytes(StandardCharsets.UTF_8);
+        List<String> keys = new ArrayList<>(SuggestIndex.MAX_WORD_STARTS);
+        for (int start : SuggestIndex.wordStarts(normalized)) {
+            keys.add(new String(normalized, start, normalized.length - start, StandardCharsets.UTF_8) + '\0' + id);
+        }
+        Suggestion suggestion = new Suggestion(id, label, weightOf(previous, id));
+        this.pending.put(id, new Pending(seq, suggestion, keys));
+        keys.forEach(key -> this.pendingTerms.put(key, id));
+    }
+
+    public synchronized void remove(long seq, long id) {
+        Pending previous = this.pending.get(id);
+        if (seq <= this.baseSeq || (previous != null && previous.seq() > seq)) {
+            return;
+        }
+        unlink(previous);
+        this.pending.put(id, new Pending(seq, null, List.of()));
+    }
+
+    /**
+     * Swaps in an index that already reflects every change up to {@code seq}.
+     */
+    public synchronized void replace(SuggestIndex next, long seq) {
+        this.base = next;
+        this.baseSeq = seq;
+        this.pending.values().removeIf(entry -> {
+            if (entry.seq() > seq) {
+                return false;
+            }
+            entry.keys().forEach(this.pendingTerms::remove);
+            return true;
+        });
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<Suggestion> results = new ArrayList<>(this.base.top(
+                normalized.getBytes(StandardCharsets.UTF_8), limit, this.pending::containsKey));
+        ConcurrentNavigableMap<String, Long> matches =
+                this.pendingTerms.subMap(normalized, true, normalized + Character.MAX_VALUE, false);
+        Set<Long> seen = new HashSet<>();
+        for (Long id : matches.values()) {
+            Pending entry = this.pending.get(id);
+            if (entry != null && entry.suggestion() != null && seen.add(id)) {
+                results.add(entry.suggestion());
+            }
+        }
+        results.sort(RANKING);
+        return results.size() > limit ? List.copyOf(results.subList(0, limit)) : results;
+    }
+
+    private int weightOf(Pending previous, long id) {
+        return previous != null && previous.suggestion() != null ? previous.suggestion().weight() : this.base.weightOf(id);
+    }
+
+    private void unlink(Pending previous) {
+        if (previous != null) {
+            previous.keys().forEach(this.pendingTerms::remove);
+        }
+    }
+
+    private record Pending(long seq, Suggestion suggestion, List<String> keys) {
+    }
+}
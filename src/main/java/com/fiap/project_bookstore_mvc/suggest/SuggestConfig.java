@@ -0,0 +1,30 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeedSnapshot;
+import com.fiap.project_bookstore_mvc.popularity.PopularityTracker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SuggestProperties.class)
+@ConditionalOnProperty(prefix = "bookstore.suggest", name = "enabled", havingValue = "true")
+public class SuggestConfig {
+
+    @Bean
+    public CatalogSuggester catalogSuggester(SuggestProperties properties, ChangeFeed changeFeed,
+                                             ChangeFeedSnapshot changeFeedSnapshot,
+                                             ObjectProvider<PopularityTracker> popularityTracker,
+                                             MeterRegistry meterRegistry) {
+        CatalogSuggester suggester = new CatalogSuggester(changeFeed, changeFeedSnapshot,
+                popularityTracker.getIfAvailable(), properties);
+        Gauge.builder("bookstore.suggest.pending.size", suggester, CatalogSuggester::pendingSize)
+                .register(meterRegistry);
+        return suggester;
+    }
+}
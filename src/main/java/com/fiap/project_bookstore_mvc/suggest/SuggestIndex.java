@@ -0,0 +1,281 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+import com.fiap.project_bookstore_mvc.index.LongIntHashMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable prefix index over normalized labels. Every label is indexed under the suffixes starting at its
+ * first few words, so "tolk" finds "J. R. R. Tolkien". Terms are kept sorted in one UTF-8 heap, which turns a
+ * prefix into a contiguous range found by binary search; a segment tree holding the heaviest term of every
+ * subrange then yields the top-k of that range in O(k log n), however many terms share the prefix.
+ */
+public final class SuggestIndex {
+
+    public static final SuggestIndex EMPTY = build(new long[0], new String[0], new int[0], 0);
+
+    static final int MAX_WORD_STARTS = 4;
+    private static final int ABSENT = -1;
+
+    private final long[] ids;
+    private final int[] weights;
+    private final byte[] labels;
+    private final int[] labelOffsets;
+    private final byte[] terms;
+    private final int[] termOffsets;
+    private final int[] termDocs;
+    private final int[] tree;
+    private final int leaves;
+    private final LongIntHashMap docs;
+
+    private SuggestIndex(long[] ids, int[] weights, byte[] labels, int[] labelOffsets,
+                         byte[] terms, int[] termOffsets, int[] termDocs, LongIntHashMap docs) {
+        this.ids = ids;
+        this.weights = weights;
+        this.labels = labels;
+        this.labelOffsets = labelOffsets;
+        this.terms = terms;
+        this.termOffsets = termOffsets;
+        this.termDocs = termDocs;
+        this.docs = docs;
+        this.leaves = Integer.highestOneBit(Math.max(1, termDocs.length - 1) << 1);
+        this.tree = buildTree();
+    }
+
+    /**
+     * Builds the index over the first {@code count} documents. Higher weights rank first; equal weights rank
+     * in term order.
+     */
+    public static SuggestIndex build(long[] ids, String[] labels, int[] weights, int count) {
+        byte[][] normalized = new byte[count][];
+        int[][] starts = new int[count][];
+        int entries = 0;
+        ByteHeap labelHeap = new ByteHeap(count);
+        for (int doc = 0; doc < count; doc++) {
+            labelHeap.add(labels[doc].getBytes(StandardCharsets.UTF_8));
+            normalized[doc] = TextNormalizer.normalize(labels[doc]).getBytes(StandardCharsets.UTF_8);
+            starts[doc] = wordStarts(normalized[doc]);
+            entries += starts[doc].length;
+        }
+
+        int[] entryDocs = new int[entries];
+        int[] entryStarts = new int[entries];
+        Integer[] order = new Integer[entries];
+        int entry = 0;
+        for (int doc = 0; doc < count; doc++) {
+            for (int start : starts[doc]) {
+                entryDocs[entry] = doc;
+                entryStarts[entry] = start;
+                order[entry] = entry;
+                entry++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> {
+            byte[] left = normalized[entryDocs[a]];
+            byte[] right = normalized[entryDocs[b]];
+            return Arrays.compareUnsigned(left, entryStarts[a], left.length, right, entryStarts[b], right.length);
+        });
+
+        ByteHeap termHeap = new ByteHeap(order.length);
+        int[] termDocs = new int[order.length];
+        for (int position = 0; position < order.length; position++) {
+            byte[] term = normalized[entryDocs[order[position]]];
+            termHeap.add(term, entryStarts[order[position]], term.length);
+            termDocs[position] = entryDocs[order[position]];
+        }
+
+        LongIntHashMap docs = new LongIntHashMap(count);
+        for (int doc = 0; doc < count; doc++) {
+            docs.put(ids[doc], doc);
+        }
+        return new SuggestIndex(Arrays.copyOf(ids, count), Arrays.copyOf(weights, count),
+                labelHeap.bytes(), labelHeap.offsets(), termHeap.bytes(), termHeap.offsets(), termDocs, docs);
+    }
+
+    static int[] wordStarts(byte[] normalized) {
+        if (normalized.length == 0) {
+            return new int[0];
+        }
+        int[] starts = new int[MAX_WORD_STARTS];
+        int found = 0;
+        starts[found++] = 0;
+        for (int i = 0; i < normalized.length - 1 && found < MAX_WORD_STARTS; i++) {
+            if (normalized[i] == ' ') {
+                starts[found++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(starts, found);
+    }
+
+    public int size() {
+        return this.ids.length;
+    }
+
+    public boolean contains(long id) {
+        return this.docs.containsKey(id);
+    }
+
+    public int weightOf(long id) {
+        int doc = this.docs.get(id, ABSENT);
+        return doc == ABSENT ? 0 : this.weights[doc];
+    }
+
+    /**
+     * Returns up to {@code limit} documents with a term starting with the normalized {@code prefix}, heaviest
+     * first, leaving out IDs matched by {@code skip}.
+     */
+    public List<Suggestion> top(byte[] prefix, int limit, LongPredicate skip) {
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        List<Suggestion> results = new ArrayList<>(Math.min(limit, Math.max(0, to - from)));
+        if (from >= to || limit <= 0) {
+            return results;
+        }
+
+        // each candidate is {from, to, heaviest position in between}
+        PriorityQueue<int[]> candidates = new PriorityQueue<>((a, b) -> a[2] == b[2] ? 0 : heavier(a[2], b[2]) == a[2] ? -1 : 1);
+        candidates.add(new int[]{from, to - 1, heaviest(from, to - 1)});
+        Set<Integer> seen = new HashSet<>();
+        while (!candidates.isEmpty() && results.size() < limit) {
+            int[] candidate = candidates.poll();
+            int position = candidate[2];
+            int doc = this.termDocs[position];
+            if (seen.add(doc) && !skip.test(this.ids[doc])) {
+                results.add(new Suggestion(this.ids[doc], label(doc), this.weights[doc]));
+            }
+            if (candidate[0] < position) {
+                candidates.add(new int[]{candidate[0], position - 1, heaviest(candidate[0], position - 1)});
+            }
+            if (position < candidate[1]) {
+                candidates.add(new int[]{position + 1, candidate[1], heaviest(position + 1, candidate[1])});
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Bytes held by the backing arrays, excluding object headers.
+     */
+    public long footprint() {
+        return (long) this.ids.length * Long.BYTES
+                + (long) this.weights.length * Integer.BYTES
+                + this.labels.length + (long) this.labelOffsets.length * Integer.BYTES
+                + this.terms.length + (long) this.termOffsets.length * Integer.BYTES
+                + (long) this.termDocs.length * Integer.BYTES
+                + (long) this.tree.length * Integer.BYTES
+                + this.docs.footprint();
+    }
+
+    private String label(int doc) {
+        int start = this.labelOffsets[doc];
+        return new String(this.labels, start, this.labelOffsets[doc + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    private int termCount() {
+        return this.termOffsets.length - 1;
+    }
+
+    // first term that starts with the prefix, or (after) the first one past those
+    private int bound(byte[] prefix, boolean after) {
+        int low = 0;
+        int high = termCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareToPrefix(mid, prefix);
+            if (cmp < 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareToPrefix(int position, byte[] prefix) {
+        int start = this.termOffsets[position];
+        int length = this.termOffsets[position + 1] - start;
+        int common = Math.min(length, prefix.length);
+        int cmp = Arrays.compareUnsigned(this.terms, start, start + common, prefix, 0, common);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return length >= prefix.length ? 0 : -1;
+    }
+
+    private int[] buildTree() {
+        int[] nodes = new int[this.leaves * 2];
+        Arrays.fill(nodes, ABSENT);
+        for (int position = 0; position < termCount(); position++) {
+            nodes[this.leaves + position] = position;
+        }
+        for (int node = this.leaves - 1; node > 0; node--) {
+            nodes[node] = heavier(nodes[2 * node], nodes[2 * node + 1]);
+        }
+        return nodes;
+    }
+
+    private int heaviest(int from, int to) {
+        int best = ABSENT;
+        for (int low = from + this.leaves, high = to + this.leaves + 1; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = heavier(best, this.tree[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = heavier(best, this.tree[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        if (a == ABSENT) {
+            return b;
+        }
+        if (b == ABSENT) {
+            return a;
+        }
+        int wa = this.weights[this.termDocs[a]];
+        int wb = this.weights[this.termDocs[b]];
+        return wa > wb || (wa == wb && a < b) ? a : b;
+    }
+
+    private static final class ByteHeap {
+
+        private byte[] bytes = new byte[1024];
+        private final int[] offsets;
+        private int count;
+
+        ByteHeap(int capacity) {
+            this.offsets = new int[capacity + 1];
+        }
+
+        void add(byte[] value) {
+            add(value, 0, value.length);
+        }
+
+        void add(byte[] value, int from, int to) {
+            int start = this.offsets[this.count];
+            int length = to - from;
+            if (start + length > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, start + length));
+            }
+            System.arraycopy(value, from, this.bytes, start, length);
+            this.offsets[++this.count] = start + length;
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(this.bytes, this.offsets[this.count]);
+        }
+
+        int[] offsets() {
+            return this.offsets;
+        }
+    }
+}
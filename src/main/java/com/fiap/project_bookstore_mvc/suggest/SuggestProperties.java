@@ -0,0 +1,14 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("bookstore.suggest")
+public record SuggestProperties(
+        boolean enabled,
+        @DefaultValue("10m") Duration rebuildInterval,
+        @DefaultValue("50") int maxLimit
+) {
+}
@@ -0,0 +1,8 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+public record Suggestion(
+        long id,
+        String label,
+        int weight
+) {
+}
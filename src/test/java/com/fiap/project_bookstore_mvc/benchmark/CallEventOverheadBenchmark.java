@@ -0,0 +1,146 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.detail.AuthorDetail;
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.fieldset.AuthorFieldSet;
+import com.fiap.project_bookstore_mvc.profiling.CallEventAspect;
+import com.fiap.project_bookstore_mvc.services.AuthorService;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Cost the JFR call events add to a service call that does no work of its own: with no recording, with the
+ * events enabled at the default 1 ms threshold (timed but not committed) and with every call committed.
+ */
+@Tag("benchmark")
+class CallEventOverheadBenchmark {
+
+    private static final int CALLS = Integer.getInteger("benchmark.calls", 5_000_000);
+
+    @Test
+    void serviceCall() {
+        AuthorService target = new FixedAuthorService();
+        AuthorService plain = proxy(target, false);
+        AuthorService instrumented = proxy(target, true);
+        System.out.printf("%nAuthorService.findById through a Spring proxy, %,d calls%n", CALLS);
+
+        measure("no aspect", plain);
+        measure("aspect, no recording", instrumented);
+        try (Recording recording = new Recording()) {
+            recording.enable("bookstore.ServiceCall").withThreshold(Duration.ofMillis(1));
+            recording.start();
+            measure("aspect, 1 ms threshold", instrumented);
+        }
+        try (Recording recording = new Recording()) {
+            recording.enable("bookstore.ServiceCall").withThreshold(Duration.ZERO);
+            recording.start();
+            measure("aspect, every call", instrumented);
+        }
+    }
+
+    private static AuthorService proxy(AuthorService target, boolean withAspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        if (withAspect) {
+            factory.addAspect(new CallEventAspect());
+        }
+        return factory.getProxy();
+    }
+
+    private static void measure(String name, AuthorService service) {
+        run(service);
+        long start = System.nanoTime();
+        long checksum = run(service);
+        double nanosPerCall = (System.nanoTime() - start) / (double) CALLS;
+        System.out.printf("%-24s %7.1f ns/call  [%d]%n", name, nanosPerCall, checksum & 0xF);
+    }
+
+    private static long run(AuthorService service) {
+        long sum = 0;
+        for (int i = 0; i < CALLS; i++) {
+            sum += service.findById((long) (i & 1023)).getId();
+        }
+        return sum;
+    }
+
+    private static final class FixedAuthorService implements AuthorService {
+
+        private final Author[] authors = new Author[1024];
+
+        FixedAuthorService() {
+            for (int i = 0; i < this.authors.length; i++) {
+                this.authors[i] = new Author((long) i);
+            }
+        }
+
+        @Override
+        public Author findById(Long id) {
+            return this.authors[id.intValue()];
+        }
+
+        @Override
+        public Optional<Author> findOptionalById(Long id) {
+            return Optional.of(findById(id));
+        }
+
+        @Override
+        public Author lockById(Long id) {
+            return findById(id);
+        }
+
+        @Override
+        public List<Author> findAllById(Collection<Long> ids) {
+            return ids.stream().map(this::findById).toList();
+        }
+
+        @Override
+        public CountedPage<Author> findAll(int page, int size, CountStrategy count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CountedPage<Author> findAll(int page, int size, CountStrategy count, AuthorFieldSet fields) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Author saveOrUpdate(Author author) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AuthorDetail createWithBooks(Author author, List<Book> books) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void createAllWithBooks(List<AuthorDetail> authors, Consumer<AuthorDetail> created) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Book> findBooksByAuthorId(Long authorId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<List<Book>> findOptionalBooksByAuthorId(Long authorId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(Long id) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
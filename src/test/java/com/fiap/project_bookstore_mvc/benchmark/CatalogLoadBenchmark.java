@@ -0,0 +1,68 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fiap.project_bookstore_mvc.generator.CatalogGenerator;
+import com.fiap.project_bookstore_mvc.generator.CatalogLoad;
+import com.fiap.project_bookstore_mvc.generator.CatalogLoader;
+import com.fiap.project_bookstore_mvc.generator.LoadMode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+/**
+ * Loads the synthetic catalog into the real schema, with all of its indexes, through each load path and
+ * reports rows per second and what that means for a 10M-row catalog. Raise -Dbenchmark.authors (about six
+ * rows per author) to time a full-size load directly.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:catalogload;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class CatalogLoadBenchmark {
+
+    private static final int AUTHORS = Integer.getInteger("benchmark.authors", 200_000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batch-size", 10_000);
+    private static final long TARGET_ROWS = 10_000_000;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loadPaths() {
+        CatalogGenerator generator = new CatalogGenerator(42, 2.0, 1000);
+        long start = System.nanoTime();
+        long[] rows = new long[1];
+        generator.generate(1, AUTHORS, new CatalogGenerator.Sink() {
+            @Override
+            public void author(long id, String name, String email) {
+                rows[0]++;
+            }
+
+            @Override
+            public void book(String title, String isbn, long authorId) {
+                rows[0]++;
+            }
+        });
+        double generateSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%n%,d authors, %,d rows, batches of %,d%n", AUTHORS, rows[0], BATCH_SIZE);
+        System.out.printf("%-10s %10s %12s %14s%n", "path", "seconds", "rows/s", "10M rows (s)");
+        print("generate", rows[0], generateSeconds);
+        for (LoadMode mode : new LoadMode[]{LoadMode.BATCH, LoadMode.CSV}) {
+            this.jdbcTemplate.execute("DELETE FROM books");
+            this.jdbcTemplate.execute("DELETE FROM authors");
+            CatalogLoad load = new CatalogLoader(this.dataSource, BATCH_SIZE).load(generator, AUTHORS, mode);
+            print(mode.name().toLowerCase(), load.rows(), load.elapsed().toNanos() / 1e9);
+        }
+    }
+
+    private static void print(String path, long rows, double seconds) {
+        System.out.printf("%-10s %10.1f %,12.0f %14.0f%n", path, seconds, rows / seconds, TARGET_ROWS * seconds / rows);
+    }
+}
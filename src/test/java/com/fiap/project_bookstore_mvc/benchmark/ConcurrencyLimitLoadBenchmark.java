@@ -0,0 +1,126 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fiap.project_bookstore_mvc.generator.CatalogGenerator;
+import com.fiap.project_bookstore_mvc.generator.CatalogLoader;
+import com.fiap.project_bookstore_mvc.generator.LoadMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Overloads GET /books with more concurrent clients than the server can serve and reports the latency of
+ * accepted requests and the share of requests shed. Run once more with -Dbenchmark.limiter=false to compare
+ * against an unprotected server.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "bookstore.concurrency-limit.enabled=${benchmark.limiter:true}")
+@ActiveProfiles("test")
+class ConcurrencyLimitLoadBenchmark {
+
+    // about five books per author, so roughly 20,000 books
+    private static final int AUTHORS = Integer.getInteger("benchmark.authors", 4_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 15);
+    private static final int PAGE_SIZE = 200;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    private long books;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        this.books = new CatalogLoader(this.dataSource, 10_000)
+                .load(new CatalogGenerator(42, 2.0, 1000), AUTHORS, LoadMode.BATCH)
+                .books();
+    }
+
+    @Test
+    void overloadedReads() throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ConcurrentLinkedQueue<Long> accepted = new ConcurrentLinkedQueue<>();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        int pages = (int) (this.books / PAGE_SIZE);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        URI uri = URI.create("http://localhost:" + this.port + "/books?size=" + PAGE_SIZE
+                                + "&page=" + ThreadLocalRandom.current().nextInt(pages));
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            long elapsed = System.nanoTime() - start;
+                            if (response.statusCode() == 200) {
+                                accepted.add(elapsed);
+                            } else if (response.statusCode() == 503 || response.statusCode() == 429) {
+                                shed.incrementAndGet();
+                                Thread.sleep(50);
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        List<Long> latencies = new ArrayList<>(accepted);
+        Collections.sort(latencies);
+        long total = latencies.size() + shed.get() + failed.get();
+
+        System.out.printf("%n%d clients for %ds against GET /books?size=%d, %,d books%n",
+                CLIENTS, SECONDS, PAGE_SIZE, this.books);
+        System.out.printf("accepted %d (%.0f req/s), shed %d (%.1f%%), failed %d%n",
+                latencies.size(), latencies.size() / (double) SECONDS,
+                shed.get(), total == 0 ? 0 : 100.0 * shed.get() / total, failed.get());
+        System.out.printf("latency ms  p50 %.1f  p95 %.1f  p99 %.1f  max %.1f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.95),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,242 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a small set of shared books and authors with mixed reads and writes at growing thread counts:
+ * read-modify-write increments retried on 409, book creation for authors that other threads delete, and
+ * plain reads. After every round it checks that no increment was lost, no book outlived its author, no
+ * request failed with a server error and every thread finished in time, then reports throughput and the
+ * share of writes that had to be retried.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:stress;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class ConcurrencyStressBenchmark {
+
+    private static final int[] THREADS = Arrays.stream(System.getProperty("benchmark.threads", "1,2,4,8,16,32")
+            .split(",")).mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int HOT_BOOKS = Integer.getInteger("benchmark.hot-books", 4);
+    private static final int READ_BOOKS = 200;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void mixedReadsAndWritesOnSharedIds() throws Exception {
+        System.out.printf("%n%ds per round, %d hot books%n", SECONDS, HOT_BOOKS);
+        System.out.printf("%7s %10s %10s %10s %8s %8s %8s %8s%n",
+                "threads", "ops/s", "increments", "conflicts", "retry %", "deletes", "shed", "errors");
+        for (int threads : THREADS) {
+            round(threads);
+        }
+    }
+
+    private void round(int threads) throws Exception {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        this.jdbcTemplate.update("INSERT INTO authors (name, email) VALUES ('Stress Author', 'stress@example.com')");
+        long authorId = this.jdbcTemplate.queryForObject("SELECT id FROM authors", Long.class);
+        long[] hotBooks = new long[HOT_BOOKS];
+        for (int i = 0; i < HOT_BOOKS; i++) {
+            this.jdbcTemplate.update("INSERT INTO books (title, isbn, author_id) VALUES ('0', ?, ?)", "978-hot-" + i, authorId);
+        }
+        for (int i = 0; i < READ_BOOKS; i++) {
+            this.jdbcTemplate.update("INSERT INTO books (title, isbn, author_id) VALUES (?, ?, ?)",
+                    "Book " + i, "978-" + i, authorId);
+        }
+        List<Long> ids = this.jdbcTemplate.queryForList("SELECT id FROM books ORDER BY id", Long.class);
+        for (int i = 0; i < HOT_BOOKS; i++) {
+            hotBooks[i] = ids.get(i);
+        }
+        long firstReadBook = ids.get(HOT_BOOKS);
+
+        Stats stats = new Stats(HOT_BOOKS);
+        ConcurrentLinkedDeque<Long> doomedAuthors = new ConcurrentLinkedDeque<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int dice = random.nextInt(100);
+                    if (dice < 50) {
+                        read(firstReadBook + random.nextInt(READ_BOOKS), stats);
+                    } else if (dice < 85) {
+                        int hot = random.nextInt(HOT_BOOKS);
+                        increment(hotBooks[hot], hot, authorId, stats);
+                    } else if (dice < 95) {
+                        writeForDoomedAuthor(doomedAuthors, random, stats);
+                    } else {
+                        Long doomed = doomedAuthors.pollFirst();
+                        if (doomed != null) {
+                            expect(send("DELETE", "/authors/" + doomed, null, stats), stats, 204, 404, 409);
+                            stats.deletes.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        // a deadlock would leave a worker blocked well past the end of the round
+        boolean finished = executor.awaitTermination(SECONDS + 60L, TimeUnit.SECONDS);
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.SECONDS);
+        }
+
+        System.out.printf("%7d %10.0f %10d %10d %8.1f %8d %8d %8d%n", threads,
+                stats.operations.get() / (double) SECONDS, stats.incrementsTotal(), stats.conflicts.get(),
+                100.0 * stats.conflicts.get() / Math.max(1, stats.writeAttempts.get()),
+                stats.deletes.get(), stats.shed.get(), stats.errors.get());
+
+        assertThat(finished).isTrue();
+        assertThat(stats.errors.get()).isZero();
+        for (int i = 0; i < HOT_BOOKS; i++) {
+            String title = this.jdbcTemplate.queryForObject("SELECT title FROM books WHERE id = ?", String.class, hotBooks[i]);
+            assertThat(Long.parseLong(title)).as("increments of hot book %d", i).isEqualTo(stats.increments.get(i));
+        }
+        assertThat(this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM books b LEFT JOIN authors a ON a.id = b.author_id WHERE a.id IS NULL",
+                Integer.class)).isZero();
+    }
+
+    private void read(long bookId, Stats stats) throws Exception {
+        expect(send("GET", "/books/" + bookId, null, stats), stats, 200);
+    }
+
+    private void increment(long bookId, int hot, long authorId, Stats stats) throws Exception {
+        while (true) {
+            HttpResponse<String> current = send("GET", "/books/" + bookId, null, stats);
+            if (!expect(current, stats, 200)) {
+                return;
+            }
+            JsonNode book = this.objectMapper.readTree(current.body());
+            long next = Long.parseLong(book.get("title").asText()) + 1;
+            HttpResponse<String> updated = send("PUT", "/books", """
+                    {"id": %d, "title": "%d", "isbn": "%s", "authorId": %d, "version": %d}
+                    """.formatted(bookId, next, book.get("isbn").asText(), authorId, book.get("version").asLong()), stats);
+            stats.writeAttempts.incrementAndGet();
+            if (updated.statusCode() != 409) {
+                if (expect(updated, stats, 200)) {
+                    stats.increments.incrementAndGet(hot);
+                }
+                return;
+            }
+            stats.conflicts.incrementAndGet();
+        }
+    }
+
+    // creates authors for other threads to delete, and books for authors that may be gone by then
+    private void writeForDoomedAuthor(ConcurrentLinkedDeque<Long> doomedAuthors, ThreadLocalRandom random,
+                                      Stats stats) throws Exception {
+        Long authorId = doomedAuthors.peekLast();
+        if (authorId == null || random.nextInt(4) == 0) {
+            HttpResponse<String> created = send("POST", "/authors", """
+                    {"name": "Doomed", "email": "doomed@example.com"}
+                    """, stats);
+            if (expect(created, stats, 201)) {
+                doomedAuthors.addLast(this.objectMapper.readTree(created.body()).get("id").asLong());
+            }
+            return;
+        }
+        stats.writeAttempts.incrementAndGet();
+        HttpResponse<String> book = send("POST", "/books", """
+                {"title": "Doomed Book", "isbn": "978-doomed", "authorId": %d}
+                """.formatted(authorId), stats);
+        if (book.statusCode() == 409) {
+            stats.conflicts.incrementAndGet();
+        }
+        expect(book, stats, 201, 404, 409);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, Stats stats) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        while (true) {
+            HttpResponse<String> response = this.client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 503) {
+                return response;
+            }
+            // shed by the concurrency limit before reaching the service, so safe to send again
+            stats.shed.incrementAndGet();
+            Thread.sleep(20);
+        }
+    }
+
+    private static boolean expect(HttpResponse<String> response, Stats stats, int... accepted) {
+        stats.operations.incrementAndGet();
+        for (int status : accepted) {
+            if (response.statusCode() == status) {
+                return status < 300;
+            }
+        }
+        stats.errors.incrementAndGet();
+        return false;
+    }
+
+    private static final class Stats {
+
+        final AtomicLong operations = new AtomicLong();
+        final AtomicLong writeAttempts = new AtomicLong();
+        final AtomicLong conflicts = new AtomicLong();
+        final AtomicLong deletes = new AtomicLong();
+        final AtomicLong shed = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLongArray increments;
+
+        Stats(int hotBooks) {
+            this.increments = new AtomicLongArray(hotBooks);
+        }
+
+        long incrementsTotal() {
+            long total = 0;
+            for (int i = 0; i < this.increments.length(); i++) {
+                total += this.increments.get(i);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times a flush of loaded books with a growing share of them modified. Run it once as built and once with
+ * {@code -Pno-enhance} (after {@code mvn clean}, since enhancement rewrites the compiled classes in place) to
+ * compare inline dirty tracking with Hibernate's snapshot comparison.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class FlushCostBenchmark {
+
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 20_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+    private static final double[] DIRTY_FRACTIONS = {0.0, 0.01, 0.1, 1.0};
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    AuthorRepository authorRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.bookRepository.deleteAllInBatch();
+            this.authorRepository.deleteAllInBatch();
+
+            Author author = this.authorRepository.save(new Author(null, "Bulk Author", "bulk@example.com"));
+            List<Book> books = new ArrayList<>(BOOKS);
+            for (int i = 0; i < BOOKS; i++) {
+                books.add(new Book(null, "Book " + i, "978-" + i, author));
+            }
+            this.bookRepository.saveAll(books);
+        });
+    }
+
+    @Test
+    void flushCostByDirtyFraction() {
+        System.out.printf("%nflush cost, %d loaded books, best of %d rounds, %s entities%n", BOOKS, ROUNDS,
+                ManagedEntity.class.isAssignableFrom(Book.class) ? "enhanced" : "unenhanced");
+        System.out.printf("%-10s %10s %12s%n", "dirty", "updated", "flush (ms)");
+
+        for (double fraction : DIRTY_FRACTIONS) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                best = Math.min(best, timeFlush(fraction, round));
+            }
+            System.out.printf("%-10s %10d %12.2f%n",
+                    (fraction * 100) + "%", (int) (BOOKS * fraction), best / 1_000_000.0);
+        }
+    }
+
+    private long timeFlush(double fraction, int round) {
+        Long elapsed = this.transactionTemplate.execute(status -> {
+            List<Book> books = this.entityManager
+                    .createQuery("select b from Book b", Book.class)
+                    .getResultList();
+
+            int dirty = (int) (books.size() * fraction);
+            for (int i = 0; i < dirty; i++) {
+                books.get(i).setTitle("Book " + i + " r" + round);
+            }
+
+            long start = System.nanoTime();
+            this.entityManager.flush();
+            long end = System.nanoTime();
+
+            this.entityManager.clear();
+            return end - start;
+        });
+        return elapsed == null ? 0 : elapsed;
+    }
+}
@@ -0,0 +1,141 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fiap.project_bookstore_mvc.index.AuthorBooksIndex;
+import com.fiap.project_bookstore_mvc.index.LongIntHashMap;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Heap footprint and lookup cost of the primitive ID structures against their boxed collection equivalents,
+ * at catalog scale (10M books over 1M authors by default). Needs a few GB of heap; the benchmark profile
+ * raises -Xmx.
+ */
+@Tag("benchmark")
+class IdIndexBenchmark {
+
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 10_000_000);
+    private static final int AUTHORS = Integer.getInteger("benchmark.authors", BOOKS / 10);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 5_000_000);
+    private static final long FIRST_ID = 1L << 40;
+
+    @Test
+    void idToPosition() {
+        System.out.printf("%nID -> position, %,d books%n", BOOKS);
+
+        measure("LongIntHashMap", () -> {
+            LongIntHashMap map = new LongIntHashMap(BOOKS);
+            for (int i = 0; i < BOOKS; i++) {
+                map.put(FIRST_ID + i, i);
+            }
+            return map;
+        }, map -> {
+            SplittableRandom random = new SplittableRandom(7);
+            long sum = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                sum += map.get(FIRST_ID + random.nextInt(BOOKS), -1);
+            }
+            return sum;
+        });
+
+        measure("HashMap<Long,Integer>", () -> {
+            Map<Long, Integer> map = new HashMap<>(BOOKS * 4 / 3 + 1);
+            for (int i = 0; i < BOOKS; i++) {
+                map.put(FIRST_ID + i, i);
+            }
+            return map;
+        }, map -> {
+            SplittableRandom random = new SplittableRandom(7);
+            long sum = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                sum += map.getOrDefault(FIRST_ID + random.nextInt(BOOKS), -1);
+            }
+            return sum;
+        });
+    }
+
+    @Test
+    void authorToBooks() {
+        System.out.printf("%nauthor -> book IDs, %,d books over %,d authors%n", BOOKS, AUTHORS);
+
+        measure("AuthorBooksIndex (CSR)", () -> {
+            long[] authorIds = new long[AUTHORS];
+            for (int a = 0; a < AUTHORS; a++) {
+                authorIds[a] = FIRST_ID + a;
+            }
+            long[] bookIds = new long[BOOKS];
+            long[] bookAuthorIds = new long[BOOKS];
+            SplittableRandom random = new SplittableRandom(11);
+            for (int b = 0; b < BOOKS; b++) {
+                bookIds[b] = FIRST_ID + b;
+                bookAuthorIds[b] = FIRST_ID + random.nextInt(AUTHORS);
+            }
+            return AuthorBooksIndex.build(authorIds, AUTHORS, bookIds, bookAuthorIds, BOOKS);
+        }, index -> {
+            SplittableRandom random = new SplittableRandom(13);
+            long sum = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                long authorId = FIRST_ID + random.nextInt(AUTHORS);
+                int from = index.from(authorId);
+                int to = from + index.count(authorId);
+                for (int position = from; position < to; position++) {
+                    sum += index.bookIdAt(position);
+                }
+            }
+            return sum;
+        });
+
+        measure("HashMap<Long,List<Long>>", () -> {
+            Map<Long, List<Long>> map = new HashMap<>(AUTHORS * 4 / 3 + 1);
+            SplittableRandom random = new SplittableRandom(11);
+            for (int b = 0; b < BOOKS; b++) {
+                map.computeIfAbsent(FIRST_ID + random.nextInt(AUTHORS), key -> new ArrayList<>()).add(FIRST_ID + b);
+            }
+            return map;
+        }, map -> {
+            SplittableRandom random = new SplittableRandom(13);
+            long sum = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                for (Long bookId : map.getOrDefault(FIRST_ID + random.nextInt(AUTHORS), List.of())) {
+                    sum += bookId;
+                }
+            }
+            return sum;
+        });
+    }
+
+    private static <T> void measure(String name, Supplier<T> build, Lookup<T> lookup) {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        T structure = build.get();
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long footprint = usedHeap() - before;
+
+        lookup.run(structure);
+        start = System.nanoTime();
+        long checksum = lookup.run(structure);
+        double nanosPerLookup = (System.nanoTime() - start) / (double) LOOKUPS;
+
+        System.out.printf("%-26s build %,6d ms  heap %,8.1f MB (%5.1f B/book)  lookup %6.1f ns  [%d]%n",
+                name, buildMillis, footprint / 1_048_576.0, footprint / (double) BOOKS, nanosPerLookup, checksum & 0xF);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @FunctionalInterface
+    private interface Lookup<T> {
+        long run(T structure);
+    }
+}
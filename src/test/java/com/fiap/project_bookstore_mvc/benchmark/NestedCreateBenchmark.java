@@ -0,0 +1,146 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.generator.CatalogGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Creates the same synthetic authors and books three ways: one request for the author and one per book, one
+ * nested request per author, and NDJSON requests carrying many authors each. Reports authors and books per
+ * second for each path.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:nestedcreate;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NestedCreateBenchmark {
+
+    private static final int AUTHORS = Integer.getInteger("benchmark.authors", 2_000);
+    private static final int AUTHORS_PER_NDJSON = Integer.getInteger("benchmark.authors-per-request", 1_000);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createPaths() throws Exception {
+        List<Map<String, Object>> authors = generate();
+        long books = authors.stream().mapToLong(author -> ((List<?>) author.get("books")).size()).sum();
+
+        System.out.printf("%n%,d authors, %,d books, %,d authors per NDJSON request%n", AUTHORS, books,
+                AUTHORS_PER_NDJSON);
+        System.out.printf("%-10s %10s %12s %12s%n", "path", "seconds", "authors/s", "books/s");
+        print("per-book", AUTHORS, books, timed(() -> perBook(authors)));
+        print("nested", AUTHORS, books, timed(() -> nested(authors)));
+        print("ndjson", AUTHORS, books, timed(() -> ndjson(authors)));
+    }
+
+    private void perBook(List<Map<String, Object>> authors) throws Exception {
+        for (Map<String, Object> author : authors) {
+            Map<String, Object> plain = new LinkedHashMap<>(author);
+            plain.remove("books");
+            String response = this.mockMvc.perform(post("/authors").contentType(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(plain)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            long authorId = this.objectMapper.readTree(response).get("id").asLong();
+            for (Object book : (List<?>) author.get("books")) {
+                Map<String, Object> payload = new LinkedHashMap<>(castMap(book));
+                payload.put("authorId", authorId);
+                this.mockMvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON)
+                                .content(this.objectMapper.writeValueAsString(payload)))
+                        .andExpect(status().isCreated());
+            }
+        }
+    }
+
+    private void nested(List<Map<String, Object>> authors) throws Exception {
+        for (Map<String, Object> author : authors) {
+            this.mockMvc.perform(post("/authors").contentType(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(author)))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    private void ndjson(List<Map<String, Object>> authors) throws Exception {
+        for (int from = 0; from < authors.size(); from += AUTHORS_PER_NDJSON) {
+            StringBuilder lines = new StringBuilder();
+            for (Map<String, Object> author : authors.subList(from, Math.min(from + AUTHORS_PER_NDJSON, authors.size()))) {
+                lines.append(this.objectMapper.writeValueAsString(author)).append('\n');
+            }
+            this.mockMvc.perform(post("/authors").contentType(NDJSON).content(lines.toString()))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    private double timed(Path path) throws Exception {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        long start = System.nanoTime();
+        path.run();
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    // ISBNs are only distinct within one generator run, and each path deletes the previous one's rows first
+    private static List<Map<String, Object>> generate() {
+        List<Map<String, Object>> authors = new ArrayList<>(AUTHORS);
+        new CatalogGenerator(42, 2.0, 1000).generate(1, AUTHORS, new CatalogGenerator.Sink() {
+            @Override
+            public void author(long id, String name, String email) {
+                Map<String, Object> author = new LinkedHashMap<>();
+                author.put("name", name);
+                author.put("email", email);
+                author.put("books", new ArrayList<Map<String, Object>>());
+                authors.add(author);
+            }
+
+            @Override
+            public void book(String title, String isbn, long authorId) {
+                List<Map<String, Object>> books = castList(authors.getLast().get("books"));
+                books.add(Map.of("title", title, "isbn", isbn));
+            }
+        });
+        return authors;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> castList(Object value) {
+        return (List<Map<String, Object>>) value;
+    }
+
+    private static void print(String path, long authors, long books, double seconds) {
+        System.out.printf("%-10s %10.2f %,12.0f %,12.0f%n", path, seconds, authors / seconds, books / seconds);
+    }
+
+    @FunctionalInterface
+    private interface Path {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,159 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.dto.In.BookFilterInDTO;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
+import com.fiap.project_bookstore_mvc.mappers.PageMapper;
+import com.fiap.project_bookstore_mvc.services.AuthorService;
+import com.fiap.project_bookstore_mvc.services.BookService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-request cost of the read path against the way reads used to run under open-in-view: managed entities
+ * held in a read-write persistence context, rendered from and dirty-checked at the end of the request. Reports latency percentiles and bytes allocated per request for
+ * a page of GET /books and for GET /authors/{id}/books.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadPathBenchmark {
+
+    private static final int AUTHORS = Integer.getInteger("benchmark.authors", 500);
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 50_000);
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.pageSize", 50);
+    private static final int HOT_PAGES = Integer.getInteger("benchmark.hotPages", 20);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    AuthorService authorService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        List<Object[]> authors = new ArrayList<>();
+        for (long id = 1; id <= AUTHORS; id++) {
+            authors.add(new Object[]{id, "Author " + id, "author" + id + "@example.com"});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, email) VALUES (?, ?, ?)", authors);
+
+        List<Object[]> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Object[]{"Book " + i, "978-" + i, (long) (i % AUTHORS) + 1});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO books (title, isbn, author_id) VALUES (?, ?, ?)", books);
+    }
+
+    @Test
+    void bookPage() throws Exception {
+        // the page as it was loaded before: the same ID query, then managed books with their authors
+        Request hydrating = hydrating(page -> {
+            List<Long> ids = this.entityManager
+                    .createQuery("select b.id from Book b order by b.id", Long.class)
+                    .setFirstResult(page * PAGE_SIZE)
+                    .setMaxResults(PAGE_SIZE + 1)
+                    .getResultList();
+            List<Book> books = this.entityManager
+                    .createQuery("select b from Book b join fetch b.author where b.id in :ids order by b.id", Book.class)
+                    .setParameter("ids", ids.subList(0, Math.min(ids.size(), PAGE_SIZE)))
+                    .getResultList();
+            render(books.stream().map(BookMapper::toOutDTO).toList());
+        });
+        Request readOnly = page -> render(PageMapper.toOutDTO(this.bookService.findAll(
+                new BookFilterInDTO(null, null, null), page, PAGE_SIZE, null, CountStrategy.NONE), BookMapper::toOutDTO));
+
+        compare("GET /books?size=" + PAGE_SIZE + ", first " + HOT_PAGES + " pages", hydrating, readOnly, HOT_PAGES);
+    }
+
+    @Test
+    void authorBooks() throws Exception {
+        Request readOnly = key -> render(this.authorService.findBooksByAuthorId(key + 1L).stream()
+                .map(BookMapper::toOutDTO).toList());
+
+        compare("GET /authors/{id}/books", hydrating(readOnly), readOnly, AUTHORS);
+    }
+
+    // a request run inside a read-write persistence context that is flushed at the end, as open-in-view
+    // with a non-read-only service did
+    private Request hydrating(Request request) {
+        return key -> this.transactionTemplate.executeWithoutResult(status -> {
+            try {
+                request.serve(key);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            this.entityManager.flush();
+        });
+    }
+
+    private void compare(String endpoint, Request hydrating, Request readOnly, int keys) throws Exception {
+        System.out.printf("%n%s, %,d books over %,d authors%n", endpoint, BOOKS, AUTHORS);
+        run("hydrating", hydrating, keys, REQUESTS / 10);
+        run("read-only", readOnly, keys, REQUESTS / 10);
+        run("hydrating", hydrating, keys, REQUESTS);
+        run("read-only", readOnly, keys, REQUESTS);
+    }
+
+    private void run(String name, Request request, int keys, int requests) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] latencies = new long[requests];
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+
+        for (int i = 0; i < requests; i++) {
+            int key = ThreadLocalRandom.current().nextInt(keys);
+            long start = System.nanoTime();
+            request.serve(key);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        Arrays.sort(latencies);
+        System.out.printf("%-10s %,7d requests  p50 %7.1fus  p99 %8.1fus  %,10d B/request%n",
+                name, requests, latencies[requests / 2] / 1000.0, latencies[(int) (requests * 0.99)] / 1000.0,
+                allocated / requests);
+    }
+
+    private void render(Object body) {
+        try {
+            this.objectMapper.writeValueAsBytes(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void serve(int key) throws Exception;
+    }
+}
@@ -0,0 +1,121 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Isolates the cost of the author row lock taken by book writes: every thread writes its own book, so no two
+ * requests touch the same book, but all books belong to one author. Reports updates per second (the author
+ * unchanged) and creates per second (which still lock the author) at growing thread counts.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sameauthor;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SameAuthorWriteBenchmark {
+
+    private static final int[] THREADS = Arrays.stream(System.getProperty("benchmark.threads", "1,4,16")
+            .split(",")).mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 5);
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final List<Long> books = new ArrayList<>();
+
+    @Test
+    void writesToDistinctBooksOfOneAuthor() throws Exception {
+        System.out.printf("%n%ds per round, after a warm-up round%n", SECONDS);
+        System.out.printf("%7s %12s %12s%n", "threads", "updates/s", "creates/s");
+        for (int round = -1; round < THREADS.length; round++) {
+            int threads = round < 0 ? THREADS[0] : THREADS[round];
+            long authorId = reset(threads);
+            double updates = rate(threads, (thread, i) -> this.mockMvc.perform(put("/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"id": %d, "title": "Edit %d", "isbn": "978-%d", "authorId": %d}
+                                    """.formatted(bookOf(thread), i, thread, authorId)))
+                    .andExpect(status().isOk()));
+            double creates = rate(threads, (thread, i) -> this.mockMvc.perform(post("/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"title": "New %d-%d", "isbn": "978-%d-%d", "authorId": %d}
+                                    """.formatted(thread, i, thread, i, authorId)))
+                    .andExpect(status().isCreated()));
+            if (round >= 0) {
+                System.out.printf("%7d %,12.0f %,12.0f%n", threads, updates, creates);
+            }
+        }
+    }
+
+    private long reset(int threads) {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        this.jdbcTemplate.update("INSERT INTO authors (name, email) VALUES ('Busy Author', 'busy@example.com')");
+        long authorId = this.jdbcTemplate.queryForObject("SELECT id FROM authors", Long.class);
+        for (int t = 0; t < threads; t++) {
+            this.jdbcTemplate.update("INSERT INTO books (title, isbn, author_id) VALUES ('Book', ?, ?)", "978-" + t, authorId);
+        }
+        this.books.clear();
+        this.books.addAll(this.jdbcTemplate.queryForList("SELECT id FROM books ORDER BY id", Long.class));
+        return authorId;
+    }
+
+    private long bookOf(int thread) {
+        return this.books.get(thread);
+    }
+
+    private static double rate(int threads, Write write) throws Exception {
+        AtomicLong done = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(SECONDS);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; System.nanoTime() < deadline; i++) {
+                        write.run(thread, i);
+                        done.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return done.get() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run(int thread, int i) throws Exception;
+    }
+}
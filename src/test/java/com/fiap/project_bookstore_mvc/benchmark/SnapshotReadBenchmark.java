@@ -0,0 +1,129 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
+import com.fiap.project_bookstore_mvc.services.BookService;
+import com.fiap.project_bookstore_mvc.snapshot.CatalogSnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares serving GET /books/{id} from JPA (entity + DTO + Jackson) with serving it from the mapped
+ * snapshot: latency percentiles, bytes allocated per lookup and GC activity during the run.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "bookstore.snapshot.enabled=true",
+        "bookstore.snapshot.rebuild-interval=1h"
+})
+@ActiveProfiles("test")
+class SnapshotReadBenchmark {
+
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 50_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 200_000);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    CatalogSnapshotStore store;
+
+    private long firstId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        List<Object[]> authors = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            authors.add(new Object[]{(long) i, "Author " + i, "author" + i + "@example.com"});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, email) VALUES (?, ?, ?)", authors);
+
+        List<Object[]> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Object[]{"Book " + i, "978-" + i, (long) (i % 100) + 1});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO books (title, isbn, author_id) VALUES (?, ?, ?)", books);
+        this.firstId = this.jdbcTemplate.queryForObject("SELECT MIN(id) FROM books", Long.class);
+        this.store.rebuild();
+    }
+
+    @Test
+    void findById() throws Exception {
+        WritableByteChannel sink = Channels.newChannel(OutputStream.nullOutputStream());
+
+        Lookup jpa = id -> sink.write(ByteBuffer.wrap(
+                this.objectMapper.writeValueAsBytes(BookMapper.toOutDTO(this.bookService.findById(id)))));
+        Lookup snapshot = id -> {
+            for (ByteBuffer buffer : this.store.findBook(id)) {
+                sink.write(buffer);
+            }
+        };
+
+        run("jpa", jpa, LOOKUPS / 10);
+        run("snapshot", snapshot, LOOKUPS / 10);
+        System.out.println();
+        run("jpa", jpa, LOOKUPS);
+        run("snapshot", snapshot, LOOKUPS);
+    }
+
+    private void run(String name, Lookup lookup, int lookups) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] latencies = new long[lookups];
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+
+        for (int i = 0; i < lookups; i++) {
+            long id = this.firstId + ThreadLocalRandom.current().nextInt(BOOKS);
+            long start = System.nanoTime();
+            lookup.serve(id);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %,d lookups  p50 %6.1fus  p99 %7.1fus  %,8d B/op  GCs %d (%d ms)%n",
+                name, lookups, latencies[lookups / 2] / 1000.0, latencies[(int) (lookups * 0.99)] / 1000.0,
+                allocated / lookups, gcCount() - gcCount, gcTime() - gcTime);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        void serve(long id) throws Exception;
+    }
+}
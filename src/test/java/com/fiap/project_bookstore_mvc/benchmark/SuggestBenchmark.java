@@ -0,0 +1,94 @@
+package com.fiap.project_bookstore_mvc.benchmark;
+
+import com.fiap.project_bookstore_mvc.suggest.LiveSuggestIndex;
+import com.fiap.project_bookstore_mvc.suggest.SuggestIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Build time, heap footprint and lookup latency of the suggest index over millions of generated titles, for
+ * prefixes of one to four characters typed the way a search box sends them. Needs a few GB of heap; the
+ * benchmark profile raises -Xmx.
+ */
+@Tag("benchmark")
+class SuggestBenchmark {
+
+    private static final int TITLES = Integer.getInteger("benchmark.titles", 2_000_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 200_000);
+    private static final String[] WORDS = {
+            "the", "lost", "garden", "winter", "of", "silent", "river", "night", "shadow", "crown", "empire", "ash",
+            "dragon", "memory", "city", "glass", "storm", "house", "last", "letters", "ocean", "song", "iron", "dawn",
+            "árvore", "coração", "mar", "cidade", "noite", "sertão", "memórias", "estrela", "caminho", "vidas"
+    };
+
+    @Test
+    void suggest() {
+        SplittableRandom random = new SplittableRandom(17);
+        long[] ids = new long[TITLES];
+        String[] titles = new String[TITLES];
+        int[] weights = new int[TITLES];
+        for (int i = 0; i < TITLES; i++) {
+            ids[i] = i + 1;
+            titles[i] = title(random) + " " + Integer.toString(i, 36);
+            weights[i] = random.nextInt(1000);
+        }
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        SuggestIndex index = SuggestIndex.build(ids, titles, weights, TITLES);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        titles = null;
+        long footprint = usedHeap() - before;
+
+        LiveSuggestIndex live = new LiveSuggestIndex();
+        live.replace(index, 0);
+        for (int i = 0; i < 1_000; i++) {
+            live.put(i + 1, TITLES + i + 1, title(random));
+        }
+
+        System.out.printf("%nsuggest, %,d titles: build %,d ms  heap %,.1f MB (%.1f B/title)%n",
+                TITLES, buildMillis, footprint / 1_048_576.0, footprint / (double) TITLES);
+        run(live, random, LOOKUPS / 10);
+        run(live, random, LOOKUPS);
+    }
+
+    private static void run(LiveSuggestIndex live, SplittableRandom random, int lookups) {
+        long[] latencies = new long[lookups];
+        long results = 0;
+        for (int i = 0; i < lookups; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            String prefix = word.substring(0, 1 + random.nextInt(Math.min(4, word.length())));
+            long start = System.nanoTime();
+            results += live.suggest(prefix, 10).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%,d lookups  p50 %6.1fus  p99 %6.1fus  max %7.1fus  avg results %.1f%n",
+                lookups, latencies[lookups / 2] / 1000.0, latencies[(int) (lookups * 0.99)] / 1000.0,
+                latencies[lookups - 1] / 1000.0, results / (double) lookups);
+    }
+
+    private static String title(SplittableRandom random) {
+        StringBuilder title = new StringBuilder();
+        int words = 2 + random.nextInt(4);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                title.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return title.toString();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
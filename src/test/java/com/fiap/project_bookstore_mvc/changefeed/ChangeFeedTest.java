@@ -0,0 +1,73 @@
+package com.fiap.project_bookstore_mvc.changefeed;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeFeedTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void append_assignsIncreasingSequenceNumbers() {
+        ChangeFeed feed = new ChangeFeed(4, CLOCK);
+        long start = feed.head();
+
+        ChangeRecord first = feed.append(change(1L));
+        ChangeRecord second = feed.append(change(2L));
+
+        assertThat(first.seq()).isEqualTo(start + 1);
+        assertThat(second.seq()).isEqualTo(start + 2);
+        assertThat(feed.head()).isEqualTo(second.seq());
+    }
+
+    @Test
+    void readAfter_returnsRecordsFollowingThePosition() {
+        ChangeFeed feed = new ChangeFeed(4, CLOCK);
+        long start = feed.head();
+        feed.append(change(1L));
+        feed.append(change(2L));
+        feed.append(change(3L));
+
+        List<ChangeRecord> records = feed.readAfter(start + 1, 10);
+
+        assertThat(records).extracting(ChangeRecord::id).containsExactly(2L, 3L);
+        assertThat(feed.readAfter(feed.head(), 10)).isEmpty();
+        assertThat(feed.readAfter(start, 2)).extracting(ChangeRecord::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void readAfter_returnsNullOncePositionWasOverwritten() {
+        ChangeFeed feed = new ChangeFeed(2, CLOCK);
+        long start = feed.head();
+        feed.append(change(1L));
+        feed.append(change(2L));
+        feed.append(change(3L));
+
+        assertThat(feed.readAfter(start, 10)).isNull();
+        assertThat(feed.readAfter(start + 1, 10)).extracting(ChangeRecord::id).containsExactly(2L, 3L);
+        assertThat(feed.readAfter(0, 10)).isNull();
+        assertThat(feed.readAfter(feed.head() + 1, 10)).isNull();
+    }
+
+    @Test
+    void awaitAfter_wakesUpOnAppendAndTimesOutOtherwise() throws Exception {
+        ChangeFeed feed = new ChangeFeed(4, CLOCK);
+        long start = feed.head();
+
+        assertThat(feed.awaitAfter(start, Duration.ofMillis(20))).isFalse();
+
+        Thread.ofVirtual().start(() -> feed.append(change(1L)));
+        assertThat(feed.awaitAfter(start, Duration.ofSeconds(5))).isTrue();
+    }
+
+    private static CatalogChangeEvent change(Long id) {
+        return new CatalogChangeEvent(ChangeEntity.BOOK, ChangeType.UPDATED, id, null);
+    }
+}
@@ -0,0 +1,52 @@
+package com.fiap.project_bookstore_mvc.configs;
+
+import com.fiap.project_bookstore_mvc.dto.In.AuthorInDTO;
+import com.fiap.project_bookstore_mvc.dto.In.BookInDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.AuthorOutDTO;
+import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookstoreRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        this.hints = new RuntimeHints();
+        new BookstoreRuntimeHints().registerHints(this.hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_coversDtoRecords() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(AuthorInDTO.class)).accepts(this.hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BookInDTO.class)).accepts(this.hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(AuthorOutDTO.class)).accepts(this.hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BookOutDTO.class)).accepts(this.hints);
+    }
+
+    @Test
+    void registerHints_coversEntities() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(Author.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(this.hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Book.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(this.hints);
+    }
+
+    @Test
+    void registerHints_coversMappers() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(AuthorMapper.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(this.hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BookMapper.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(this.hints);
+    }
+}
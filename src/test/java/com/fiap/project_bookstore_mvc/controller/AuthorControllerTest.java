@@ -1,23 +1,30 @@
 package com.fiap.project_bookstore_mvc.controller;
 
 import com.fiap.project_bookstore_mvc.configs.GlobalExceptionHandler;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.detail.AuthorDetail;
+import com.fiap.project_bookstore_mvc.detail.AuthorDetailLoader;
+import com.fiap.project_bookstore_mvc.detail.AuthorInclude;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
 import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
 import com.fiap.project_bookstore_mvc.services.AuthorService;
+import com.fiap.project_bookstore_mvc.suggest.CatalogSuggester;
+import com.fiap.project_bookstore_mvc.suggest.Suggestion;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -36,11 +43,17 @@ class AuthorControllerTest {
     @MockitoBean
     AuthorService authorService;
 
+    @MockitoBean
+    CatalogSuggester catalogSuggester;
+
+    @MockitoBean
+    AuthorDetailLoader authorDetailLoader;
+
     @Test
     void getById_returnAuthorWhenFound() throws Exception {
         Author author = new Author(1L, "Test Author", "test@example.com");
 
-        when(this.authorService.findById(1L)).thenReturn(author);
+        when(this.authorService.findOptionalById(1L)).thenReturn(Optional.of(author));
 
         this.mockMvc.perform(get("/authors/1"))
                 .andExpect(status().isOk())
@@ -49,19 +62,48 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$.email", is("test@example.com")));
     }
 
+    @Test
+    void getById_withInclude_returnComposedDetail() throws Exception {
+        Author author = new Author(1L, "Test Author", "test@example.com");
+        Book book = new Book(1L, "Book 1", "978-0123456789", author);
+
+        when(this.authorDetailLoader.load(1L, EnumSet.of(AuthorInclude.BOOKS, AuthorInclude.BOOK_COUNT)))
+                .thenReturn(Optional.of(new AuthorDetail(author, List.of(book), 1L)));
+
+        this.mockMvc.perform(get("/authors/1").param("include", "books,bookCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.name", is("Test Author")))
+                .andExpect(jsonPath("$.books", hasSize(1)))
+                .andExpect(jsonPath("$.books[0].title", is("Book 1")))
+                .andExpect(jsonPath("$.bookCount", is(1)));
+        verify(this.authorService, never()).findOptionalById(any());
+    }
+
+    @Test
+    void getById_withUnknownInclude_returnBadRequest() throws Exception {
+        this.mockMvc.perform(get("/authors/1").param("include", "reviews"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown include: reviews, expected books or bookCount")));
+    }
+
     @Test
     void findAll_returnPagedAuthors() throws Exception {
         Author author1 = new Author(1L, "Author 1", "author1@example.com");
         Author author2 = new Author(2L, "Author 2", "author2@example.com");
         List<Author> authors = Arrays.asList(author1, author2);
-        Page<Author> authorPage = new PageImpl<>(authors);
+        CountedPage<Author> authorPage = new CountedPage<>(authors, 0, 10, true, 1200L, CountStrategy.ESTIMATED);
 
-        when(this.authorService.findAll(0, 10)).thenReturn(authorPage);
+        when(this.authorService.findAll(0, 10, CountStrategy.ESTIMATED)).thenReturn(authorPage);
 
         this.mockMvc.perform(get("/authors")
                         .param("page", "0")
-                        .param("size", "10"))
+                        .param("size", "10")
+                        .param("count", "estimated"))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(1200)))
+                .andExpect(jsonPath("$.totalPages", is(120)))
+                .andExpect(jsonPath("$.countStrategy", is("estimated")))
                 .andExpect(jsonPath("$.content", hasSize(2)))
                 .andExpect(jsonPath("$.content[0].id", is(1)))
                 .andExpect(jsonPath("$.content[0].name", is("Author 1")))
@@ -69,6 +111,14 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$.content[1].name", is("Author 2")));
     }
 
+    @Test
+    void findAll_returnBadRequestForUnknownCountStrategy() throws Exception {
+        this.mockMvc.perform(get("/authors").param("count", "guess"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid count strategy: guess")));
+        verifyNoInteractions(this.authorService);
+    }
+
     @Test
     void create_returnCreatedAuthor() throws Exception {
         Author savedAuthor = new Author(1L, "New Author", "new@example.com");
@@ -123,7 +173,7 @@ class AuthorControllerTest {
         Book book2 = new Book(2L, "Book 2", "978-0987654321", author);
         List<Book> books = Arrays.asList(book1, book2);
 
-        when(this.authorService.findBooksByAuthorId(1L)).thenReturn(books);
+        when(this.authorService.findOptionalBooksByAuthorId(1L)).thenReturn(Optional.of(books));
 
         this.mockMvc.perform(get("/authors/1/books"))
                 .andExpect(status().isOk())
@@ -136,9 +186,27 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$[1].title", is("Book 2")));
     }
 
+    @Test
+    void findBooksByAuthorId_normalized_listsTheAuthorOnce() throws Exception {
+        Author author = new Author(1L, "Test Author", "test@example.com");
+        List<Book> books = List.of(
+                new Book(1L, "Book 1", "978-0123456789", author),
+                new Book(2L, "Book 2", "978-0987654321", author));
+
+        when(this.authorService.findOptionalBooksByAuthorId(1L)).thenReturn(Optional.of(books));
+
+        this.mockMvc.perform(get("/authors/1/books").param("normalized", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books", hasSize(2)))
+                .andExpect(jsonPath("$.books[1].authorId", is(1)))
+                .andExpect(jsonPath("$.books[1].author").doesNotExist())
+                .andExpect(jsonPath("$.authors.length()", is(1)))
+                .andExpect(jsonPath("$.authors['1'].name", is("Test Author")));
+    }
+
     @Test
     void getById_returnNotFoundWhenAuthorNotExists() throws Exception {
-        when(this.authorService.findById(999L)).thenThrow(new EntityNotFound("Author not found with id: 999"));
+        when(this.authorService.findOptionalById(999L)).thenReturn(Optional.empty());
 
         this.mockMvc.perform(get("/authors/999"))
                 .andExpect(status().isNotFound());
@@ -146,7 +214,7 @@ class AuthorControllerTest {
 
     @Test
     void findBooksByAuthorId_returnNotFoundWhenAuthorNotExists() throws Exception {
-        when(this.authorService.findBooksByAuthorId(999L)).thenThrow(new EntityNotFound("Author not found with id: 999"));
+        when(this.authorService.findOptionalBooksByAuthorId(999L)).thenReturn(Optional.empty());
 
         this.mockMvc.perform(get("/authors/999/books"))
                 .andExpect(status().isNotFound());
@@ -159,4 +227,15 @@ class AuthorControllerTest {
         this.mockMvc.perform(delete("/authors/999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void suggest_returnSuggestionsForPrefix() throws Exception {
+        when(this.catalogSuggester.suggestAuthors("tolk", 5)).thenReturn(List.of(new Suggestion(7L, "J. R. R. Tolkien", 3)));
+
+        this.mockMvc.perform(get("/authors/suggest").param("prefix", "tolk").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(7)))
+                .andExpect(jsonPath("$[0].label", is("J. R. R. Tolkien")));
+    }
 }
@@ -1,23 +1,33 @@
 package com.fiap.project_bookstore_mvc.controller;
 
 import com.fiap.project_bookstore_mvc.configs.GlobalExceptionHandler;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.dto.In.BookFilterInDTO;
+import com.fiap.project_bookstore_mvc.dto.In.BookReassignInDTO;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
 import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.fieldset.BookFieldSet;
+import com.fiap.project_bookstore_mvc.services.AuthorService;
 import com.fiap.project_bookstore_mvc.services.BookService;
+import com.fiap.project_bookstore_mvc.suggest.CatalogSuggester;
+import com.fiap.project_bookstore_mvc.suggest.Suggestion;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -36,12 +46,18 @@ class BookControllerTest {
     @MockitoBean
     BookService bookService;
 
+    @MockitoBean
+    AuthorService authorService;
+
+    @MockitoBean
+    CatalogSuggester catalogSuggester;
+
     @Test
     void getById_returnBookWhenFound() throws Exception {
         Author author = new Author(1L, "Test Author", "test@example.com");
         Book book = new Book(1L, "Test Book", "978-0123456789", author);
 
-        when(this.bookService.findById(1L)).thenReturn(book);
+        when(this.bookService.findOptionalById(1L)).thenReturn(Optional.of(book));
 
         this.mockMvc.perform(get("/books/1"))
                 .andExpect(status().isOk())
@@ -53,15 +69,61 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.author.email", is("test@example.com")));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_writesOneBookPerLine() throws Exception {
+        Author author = new Author(1L, "Test Author", "test@example.com");
+
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(new Book(1L, "Book 1", "978-0123456789", author));
+            consumer.accept(new Book(2L, "Book 2", "978-0987654321", author));
+            return null;
+        }).when(this.bookService).exportAll(any(Consumer.class));
+
+        this.mockMvc.perform(get("/books/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("""
+                        {"id":1,"title":"Book 1","isbn":"978-0123456789","author":{"id":1,"name":"Test Author","email":"test@example.com"}}
+                        {"id":2,"title":"Book 2","isbn":"978-0987654321","author":{"id":1,"name":"Test Author","email":"test@example.com"}}
+                        """));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_normalized_writesEachAuthorOnceBeforeItsFirstBook() throws Exception {
+        Author first = new Author(1L, "First Author", "first@example.com");
+        Author second = new Author(2L, "Second Author", "second@example.com");
+
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(new Book(1L, "Book 1", "978-1", first));
+            consumer.accept(new Book(2L, "Book 2", "978-2", second));
+            consumer.accept(new Book(3L, "Book 3", "978-3", first));
+            return null;
+        }).when(this.bookService).exportAll(any(Consumer.class));
+
+        this.mockMvc.perform(get("/books/export").param("normalized", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("""
+                        {"author":{"id":1,"name":"First Author","email":"first@example.com"}}
+                        {"book":{"id":1,"title":"Book 1","isbn":"978-1","authorId":1}}
+                        {"author":{"id":2,"name":"Second Author","email":"second@example.com"}}
+                        {"book":{"id":2,"title":"Book 2","isbn":"978-2","authorId":2}}
+                        {"book":{"id":3,"title":"Book 3","isbn":"978-3","authorId":1}}
+                        """));
+    }
+
     @Test
     void findAll_returnPagedBooks() throws Exception {
         Author author = new Author(1L, "Test Author", "test@example.com");
         Book book1 = new Book(1L, "Book 1", "978-0123456789", author);
         Book book2 = new Book(2L, "Book 2", "978-0987654321", author);
         List<Book> books = Arrays.asList(book1, book2);
-        Page<Book> bookPage = new PageImpl<>(books);
+        CountedPage<Book> bookPage = new CountedPage<>(books, 0, 10, false, 2L, CountStrategy.EXACT);
 
-        when(this.bookService.findAll(0, 10)).thenReturn(bookPage);
+        when(this.bookService.findAll(new BookFilterInDTO(null, null, null), 0, 10, null, null)).thenReturn(bookPage);
 
         this.mockMvc.perform(get("/books")
                         .param("page", "0")
@@ -73,7 +135,36 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.content[0].isbn", is("978-0123456789")))
                 .andExpect(jsonPath("$.content[1].id", is(2)))
                 .andExpect(jsonPath("$.content[1].title", is("Book 2")))
-                .andExpect(jsonPath("$.content[1].isbn", is("978-0987654321")));
+                .andExpect(jsonPath("$.content[1].isbn", is("978-0987654321")))
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.totalPages", is(1)))
+                .andExpect(jsonPath("$.countStrategy", is("exact")));
+    }
+
+    @Test
+    void findAll_keepsTheFieldsOfASerializedPage() throws Exception {
+        Author author = new Author(1L, "Test Author", "test@example.com");
+        List<Book> books = List.of(new Book(11L, "Book 11", "978-11", author), new Book(12L, "Book 12", "978-12", author));
+        CountedPage<Book> bookPage = new CountedPage<>(books, 1, 10, true, 45L, CountStrategy.EXACT);
+
+        when(this.bookService.findAll(new BookFilterInDTO(null, null, null), 1, 10, null, null)).thenReturn(bookPage);
+
+        this.mockMvc.perform(get("/books").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.number", is(1)))
+                .andExpect(jsonPath("$.size", is(10)))
+                .andExpect(jsonPath("$.numberOfElements", is(2)))
+                .andExpect(jsonPath("$.totalElements", is(45)))
+                .andExpect(jsonPath("$.totalPages", is(5)))
+                .andExpect(jsonPath("$.first", is(false)))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.empty", is(false)))
+                .andExpect(jsonPath("$.pageable.pageNumber", is(1)))
+                .andExpect(jsonPath("$.pageable.pageSize", is(10)))
+                .andExpect(jsonPath("$.pageable.offset", is(10)))
+                .andExpect(jsonPath("$.pageable.paged", is(true)))
+                .andExpect(jsonPath("$.sort.sorted", is(false)))
+                .andExpect(jsonPath("$.hasNext", is(true)));
     }
 
     @Test
@@ -131,9 +222,29 @@ class BookControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void deleteAll_returnDeletedCount() throws Exception {
+        when(this.bookService.deleteAll(List.of(1L, 2L, 3L))).thenReturn(2L);
+
+        this.mockMvc.perform(delete("/books").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+    }
+
+    @Test
+    void reassign_returnMovedCount() throws Exception {
+        when(this.bookService.reassign(new BookReassignInDTO(1L, null, 2L))).thenReturn(5L);
+
+        this.mockMvc.perform(post("/books/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAuthorId\": 1, \"toAuthorId\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(5)));
+    }
+
     @Test
     void getById_returnNotFoundWhenBookNotExists() throws Exception {
-        when(this.bookService.findById(999L)).thenThrow(new EntityNotFound("Book not found with id: 999"));
+        when(this.bookService.findOptionalById(999L)).thenReturn(Optional.empty());
 
         this.mockMvc.perform(get("/books/999"))
                 .andExpect(status().isNotFound());
@@ -146,4 +257,97 @@ class BookControllerTest {
         this.mockMvc.perform(delete("/books/999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void suggest_returnSuggestionsForPrefix() throws Exception {
+        when(this.catalogSuggester.suggestBooks("hob", 5)).thenReturn(List.of(new Suggestion(7L, "The Hobbit", 3)));
+
+        this.mockMvc.perform(get("/books/suggest").param("prefix", "hob").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(7)))
+                .andExpect(jsonPath("$[0].label", is("The Hobbit")));
+    }
+
+    @Test
+    void findAll_passesFiltersAndSort() throws Exception {
+        BookFilterInDTO filter = new BookFilterInDTO(3L, "ring", "978-");
+        when(this.bookService.findAll(filter, 1, 5, "title,desc", CountStrategy.NONE))
+                .thenReturn(new CountedPage<>(List.of(), 1, 5, true, null, CountStrategy.NONE));
+
+        this.mockMvc.perform(get("/books")
+                        .param("page", "1")
+                        .param("size", "5")
+                        .param("authorId", "3")
+                        .param("titleContains", "ring")
+                        .param("isbnPrefix", "978-")
+                        .param("sort", "title,desc")
+                        .param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.countStrategy", is("none")));
+    }
+
+    @Test
+    void findAll_returnBadRequestForUnsortableField() throws Exception {
+        when(this.bookService.findAll(any(), anyInt(), anyInt(), eq("author"), any()))
+                .thenThrow(new InvalidRequest("Cannot sort books by 'author'"));
+
+        this.mockMvc.perform(get("/books").param("sort", "author"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Cannot sort books by 'author'")));
+    }
+
+    @Test
+    void findAll_writesOnlyTheRequestedFields() throws Exception {
+        CountedPage<Book> bookPage = new CountedPage<>(List.of(new Book(1L, "Book 1", null, null)), 0, 10, false, 1L, CountStrategy.EXACT);
+        when(this.bookService.findAll(new BookFilterInDTO(null, null, null), 0, 10, null, null, BookFieldSet.parse("title")))
+                .thenReturn(bookPage);
+
+        this.mockMvc.perform(get("/books").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].title", is("Book 1")))
+                .andExpect(jsonPath("$.content[0].isbn").doesNotExist())
+                .andExpect(jsonPath("$.content[0].author").doesNotExist());
+    }
+
+    @Test
+    void findAll_normalized_referencesAuthorsByIdAndListsThemOnce() throws Exception {
+        List<Book> books = List.of(
+                new Book(1L, "Book 1", "978-1", new Author(1L)),
+                new Book(2L, "Book 2", "978-2", new Author(2L)),
+                new Book(3L, "Book 3", "978-3", new Author(1L)));
+        CountedPage<Book> bookPage = new CountedPage<>(books, 0, 10, false, 3L, CountStrategy.EXACT);
+        when(this.bookService.findAll(new BookFilterInDTO(null, null, null), 0, 10, null, null, BookFieldSet.NORMALIZED))
+                .thenReturn(bookPage);
+        when(this.authorService.findAllById(Set.of(1L, 2L))).thenReturn(List.of(
+                new Author(1L, "First Author", "first@example.com"),
+                new Author(2L, "Second Author", "second@example.com")));
+
+        this.mockMvc.perform(get("/books").param("normalized", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.content[2].authorId", is(1)))
+                .andExpect(jsonPath("$.content[2].author").doesNotExist())
+                .andExpect(jsonPath("$.authors['1'].name", is("First Author")))
+                .andExpect(jsonPath("$.authors['2'].email", is("second@example.com")))
+                .andExpect(jsonPath("$.totalElements", is(3)));
+    }
+
+    @Test
+    void findAll_returnBadRequestWhenNormalizedIsCombinedWithFields() throws Exception {
+        this.mockMvc.perform(get("/books").param("normalized", "true").param("fields", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("fields and normalized cannot be combined")));
+        verifyNoInteractions(this.bookService);
+    }
+
+    @Test
+    void findAll_returnBadRequestForUnknownField() throws Exception {
+        this.mockMvc.perform(get("/books").param("fields", "id,price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown book field: price, expected some of [id, title, isbn, author, authorId]")));
+        verifyNoInteractions(this.bookService);
+    }
 }
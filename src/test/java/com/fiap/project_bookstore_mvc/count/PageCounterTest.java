@@ -0,0 +1,189 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import com.fiap.project_bookstore_mvc.changefeed.CatalogChangeEvent;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PageCounterTest {
+
+    private ChangeFeed feed;
+    private RowCountEstimator estimator;
+    private QueuedExecutor executor;
+    private PageCounter counter;
+    private AtomicLong rows;
+    private AtomicInteger counts;
+    private LongSupplier exact;
+
+    @BeforeEach
+    void setUp() {
+        this.feed = new ChangeFeed(16, Clock.systemUTC());
+        this.estimator = mock(RowCountEstimator.class);
+        this.executor = new QueuedExecutor();
+        this.counter = new PageCounter(new CountProperties(CountStrategy.EXACT, Duration.ofHours(1), 16),
+                this.feed, this.estimator, this.executor, Clock.systemUTC());
+        this.rows = new AtomicLong(100);
+        this.counts = new AtomicInteger();
+        this.exact = () -> {
+            this.counts.incrementAndGet();
+            return this.rows.get();
+        };
+    }
+
+    @Test
+    void count_takesTheTotalFromTheLastPageWithoutCounting() {
+        CountedPage<String> page = this.counter.count(ChangeEntity.BOOK, null, CountStrategy.CACHED, slice(2, 10, 4, false), this.exact);
+
+        assertThat(page.total()).isEqualTo(24L);
+        assertThat(page.totalPages()).isEqualTo(3);
+        assertThat(page.strategy()).isEqualTo(CountStrategy.EXACT);
+        assertThat(this.counts).hasValue(0);
+    }
+
+    @Test
+    void count_skipsTheTotalForNone() {
+        CountedPage<String> page = this.counter.count(ChangeEntity.BOOK, null, CountStrategy.NONE, slice(0, 10, 10, true), this.exact);
+
+        assertThat(page.total()).isNull();
+        assertThat(page.totalPages()).isNull();
+        assertThat(page.hasNext()).isTrue();
+        assertThat(this.counts).hasValue(0);
+    }
+
+    @Test
+    void count_servesCachedTotalsAndRecountsInTheBackgroundAfterWrites() {
+        Slice<String> first = slice(0, 10, 10, true);
+
+        assertThat(this.counter.count(ChangeEntity.BOOK, null, CountStrategy.CACHED, first, this.exact))
+                .extracting(CountedPage::total, CountedPage::strategy).containsExactly(100L, CountStrategy.EXACT);
+        assertThat(this.counter.count(ChangeEntity.BOOK, null, CountStrategy.CACHED, first, this.exact))
+                .extracting(CountedPage::total, CountedPage::strategy).containsExactly(100L, CountStrategy.CACHED);
+        assertThat(this.counts).hasValue(1);
+
+        this.rows.set(101);
+        this.feed.append(new CatalogChangeEvent(ChangeEntity.AUTHOR, ChangeType.CREATED, 1L, null));
+        this.counter.count(ChangeEntity.BOOK, null, CountStrategy.CACHED, first, this.exact);
+        assertThat(this.executor.tasks).isEmpty();
+
+        this.feed.append(new CatalogChangeEvent(ChangeEntity.BOOK, ChangeType.CREATED, 1L, null));
+        assertThat(this.counter.count(ChangeEntity.BOOK, null, CountStrategy.CACHED, first, this.exact).total()).isEqualTo(100L);
+        this.counter.count(ChangeEntity.BOOK, null, CountStrategy.CACHED, first, this.exact);
+        assertThat(this.executor.tasks).hasSize(1);
+
+        this.executor.runAll();
+        assertThat(this.counter.count(ChangeEntity.BOOK, null, CountStrategy.CACHED, first, this.exact).total()).isEqualTo(101L);
+        assertThat(this.counts).hasValue(2);
+    }
+
+    @Test
+    void count_estimatesUnfilteredListingsOnly() {
+        when(this.estimator.estimate("authors")).thenReturn(OptionalLong.of(5));
+
+        CountedPage<String> estimated = this.counter.count(ChangeEntity.AUTHOR, null, CountStrategy.ESTIMATED, slice(1, 10, 10, true), this.exact);
+        assertThat(estimated.total()).isEqualTo(21L);
+        assertThat(estimated.strategy()).isEqualTo(CountStrategy.ESTIMATED);
+
+        CountedPage<String> filtered = this.counter.count(ChangeEntity.BOOK, "filter", CountStrategy.ESTIMATED, slice(0, 10, 10, true), this.exact);
+        assertThat(filtered.total()).isEqualTo(100L);
+        assertThat(filtered.strategy()).isEqualTo(CountStrategy.EXACT);
+        assertThat(this.counts).hasValue(1);
+    }
+
+    @Test
+    void count_usesTheDefaultStrategyWhenNoneIsRequested() {
+        this.counter.count(ChangeEntity.BOOK, null, null, slice(0, 10, 10, true), this.exact);
+
+        assertThat(this.counts).hasValue(1);
+        verifyNoInteractions(this.estimator);
+    }
+
+    @Test
+    void count_dropsTheLeastRecentlyUsedQueryWhenFull() {
+        Slice<String> first = slice(0, 10, 10, true);
+        for (int filter = 0; filter < 16; filter++) {
+            this.counter.count(ChangeEntity.BOOK, "filter-" + filter, CountStrategy.CACHED, first, this.exact);
+        }
+        this.counter.count(ChangeEntity.BOOK, "filter-0", CountStrategy.CACHED, first, this.exact);
+        this.counter.count(ChangeEntity.BOOK, "filter-16", CountStrategy.CACHED, first, this.exact);
+        this.counts.set(0);
+
+        assertThat(this.counter.cachedSize()).isEqualTo(16);
+        assertThat(this.counter.count(ChangeEntity.BOOK, "filter-16", CountStrategy.CACHED, first, this.exact).strategy())
+                .isEqualTo(CountStrategy.CACHED);
+        assertThat(this.counter.count(ChangeEntity.BOOK, "filter-0", CountStrategy.CACHED, first, this.exact).strategy())
+                .isEqualTo(CountStrategy.CACHED);
+        assertThat(this.counts).hasValue(0);
+        assertThat(this.counter.count(ChangeEntity.BOOK, "filter-1", CountStrategy.CACHED, first, this.exact).strategy())
+                .isEqualTo(CountStrategy.EXACT);
+        assertThat(this.counts).hasValue(1);
+    }
+
+    private static Slice<String> slice(int page, int size, int elements, boolean hasNext) {
+        List<String> content = new ArrayList<>();
+        for (int i = 0; i < elements; i++) {
+            content.add("item-" + i);
+        }
+        return new SliceImpl<>(content, PageRequest.of(page, size), hasNext);
+    }
+
+    private static final class QueuedExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(this.tasks);
+            this.tasks.clear();
+            pending.forEach(Runnable::run);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            this.tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.fiap.project_bookstore_mvc.count;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowCountEstimatorTest {
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:estimator;DB_CLOSE_DELAY=-1");
+        this.dataSource = new DelegatingDataSource(h2) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                connections.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+        JdbcTemplate jdbc = new JdbcTemplate(this.dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS books");
+        jdbc.execute("CREATE TABLE books (id BIGINT PRIMARY KEY)");
+        jdbc.execute("INSERT INTO books SELECT X FROM SYSTEM_RANGE(1, 20)");
+        this.connections.set(0);
+    }
+
+    @Test
+    void estimate_sumsOverDatabasesAndReadsMetadataOnlyOnce() {
+        JdbcTemplate jdbc = new JdbcTemplate(this.dataSource);
+        RowCountEstimator estimator = new RowCountEstimator(List.of(jdbc, jdbc));
+        int atConstruction = this.connections.get();
+
+        assertThat(estimator.estimate("books")).isEqualTo(OptionalLong.of(40));
+        assertThat(estimator.estimate("books")).isEqualTo(OptionalLong.of(40));
+
+        assertThat(atConstruction).isEqualTo(2);
+        // one statistics query per database per estimate, no metadata lookups
+        assertThat(this.connections.get()).isEqualTo(atConstruction + 4);
+    }
+
+    @Test
+    void estimate_isEmptyWhenTheDatabaseCouldNotBeIdentified() {
+        JdbcDataSource unreachable = new JdbcDataSource();
+        unreachable.setURL("jdbc:h2:mem:estimator-missing;IFEXISTS=TRUE");
+
+        RowCountEstimator estimator = new RowCountEstimator(List.of(new JdbcTemplate(unreachable)));
+
+        assertThat(estimator.estimate("books")).isEmpty();
+    }
+}
@@ -0,0 +1,107 @@
+package com.fiap.project_bookstore_mvc.detail;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class AuthorDetailLoaderTest {
+
+    private AuthorRepository authorRepository;
+    private BookRepository bookRepository;
+    private AuthorDetailLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        this.authorRepository = mock(AuthorRepository.class);
+        this.bookRepository = mock(BookRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        this.loader = new AuthorDetailLoader(new AuthorDetailProperties(10, Duration.ofMillis(500)),
+                this.authorRepository, this.bookRepository, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.loader.destroy();
+    }
+
+    @Test
+    void load_runsThePartsConcurrently() {
+        Author author = new Author(1L, "Author", "author@example.com");
+        Book book = new Book(2L, "Book", "111", author);
+        // every part waits for the other two, so they only finish if they all run at once
+        CountDownLatch running = new CountDownLatch(3);
+        when(this.authorRepository.findById(1L)).thenAnswer(invocation -> meet(running, Optional.of(author)));
+        when(this.bookRepository.findSlice(any(), any())).thenAnswer(invocation -> meet(running, new SliceImpl<>(List.of(book))));
+        when(this.bookRepository.countMatching(any())).thenAnswer(invocation -> meet(running, 1L));
+
+        AuthorDetail detail = this.loader.load(1L, EnumSet.allOf(AuthorInclude.class)).orElseThrow();
+
+        assertThat(detail.author()).isSameAs(author);
+        assertThat(detail.books()).containsExactly(book);
+        assertThat(detail.bookCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void load_skipsThePartsNotAskedFor() {
+        when(this.authorRepository.findById(1L)).thenReturn(Optional.of(new Author(1L, "Author", "author@example.com")));
+
+        AuthorDetail detail = this.loader.load(1L, EnumSet.of(AuthorInclude.BOOK_COUNT)).orElseThrow();
+
+        assertThat(detail.books()).isNull();
+        verify(this.bookRepository, never()).findSlice(any(), any());
+        verify(this.bookRepository).countMatching(any());
+    }
+
+    @Test
+    void load_returnsEmptyForUnknownAuthor() {
+        when(this.authorRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThat(this.loader.load(1L, EnumSet.allOf(AuthorInclude.class))).isEmpty();
+    }
+
+    @Test
+    void load_cancelsThePartsStillRunningAtTheDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(this.authorRepository.findById(1L)).thenReturn(Optional.of(new Author(1L, "Author", "author@example.com")));
+        when(this.bookRepository.countMatching(any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return 0L;
+        });
+
+        assertThatThrownBy(() -> this.loader.load(1L, EnumSet.of(AuthorInclude.BOOK_COUNT)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not load within");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static <T> T meet(CountDownLatch running, T result) throws InterruptedException {
+        running.countDown();
+        if (!running.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("parts ran one after the other");
+        }
+        return result;
+    }
+}
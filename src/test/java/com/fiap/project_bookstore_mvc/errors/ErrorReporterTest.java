@@ -0,0 +1,92 @@
+package com.fiap.project_bookstore_mvc.errors;
+
+import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorReporterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ErrorReporter reporter;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.reporter = new ErrorReporter(
+                new ErrorReportingProperties(true, 2, Duration.ofMinutes(1), 3, 100),
+                this.meterRegistry, Clock.systemUTC());
+    }
+
+    @Test
+    void log_writesOneStackTracePerSignatureAndInterval() {
+        IllegalStateException error = new IllegalStateException("boom");
+
+        assertThat(this.reporter.log(report(error, 0))).isTrue();
+        assertThat(this.reporter.log(report(error, 1_000))).isFalse();
+        assertThat(this.reporter.log(report(error, 59_999))).isFalse();
+        assertThat(this.reporter.log(report(error, 60_000))).isTrue();
+    }
+
+    @Test
+    void log_keepsSignaturesApart() {
+        assertThat(this.reporter.log(report(new IllegalStateException("a"), 0))).isTrue();
+        assertThat(this.reporter.log(report(new IllegalArgumentException("b"), 0))).isTrue();
+    }
+
+    @Test
+    void log_capsStackTracesPerMinute() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(this.reporter.log(report(distinctError(i), i))).isTrue();
+        }
+
+        assertThat(this.reporter.log(report(distinctError(3), 10))).isFalse();
+        assertThat(this.reporter.log(report(distinctError(4), 60_000))).isTrue();
+    }
+
+    @Test
+    void report_dropsWhenTheQueueIsFull() {
+        for (int i = 0; i < 5; i++) {
+            this.reporter.report(new IllegalStateException("boom"), "GET", "/books");
+        }
+
+        assertThat(this.reporter.queued()).isEqualTo(2);
+        assertThat(this.reporter.dropped()).isEqualTo(3);
+        assertThat(this.meterRegistry.counter("bookstore.errors",
+                "status", "500", "exception", "IllegalStateException").count()).isEqualTo(5);
+    }
+
+    @Test
+    void count_tagsStatusAndExceptionType() {
+        this.reporter.count(HttpStatus.NOT_FOUND, new EntityNotFound("Book not found"));
+
+        assertThat(this.meterRegistry.counter("bookstore.errors",
+                "status", "404", "exception", "EntityNotFound").count()).isEqualTo(1);
+    }
+
+    @Test
+    void entityNotFound_carriesNoStackTrace() {
+        assertThat(new EntityNotFound("Book not found").getStackTrace()).isEmpty();
+    }
+
+    private static ErrorReport report(Throwable error, long timestamp) {
+        return new ErrorReport(error, "GET", "/books/1", timestamp);
+    }
+
+    // a different throwing line gives each error its own signature
+    private static RuntimeException distinctError(int kind) {
+        return switch (kind) {
+            case 0 -> new RuntimeException("0");
+            case 1 -> new RuntimeException("1");
+            case 2 -> new RuntimeException("2");
+            case 3 -> new RuntimeException("3");
+            default -> new RuntimeException("4");
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.fiap.project_bookstore_mvc.fieldset;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookFieldSetTest {
+
+    @Test
+    void parse_alwaysKeepsTheIdAndReusesOneInstancePerSet() {
+        assertThat(BookFieldSet.parse("title")).isSameAs(BookFieldSet.parse("id, title"));
+        assertThat(BookFieldSet.parse(" ")).isSameAs(BookFieldSet.ALL);
+        assertThat(BookFieldSet.parse("id,title,isbn,author")).isSameAs(BookFieldSet.ALL);
+    }
+
+    @Test
+    void parse_rejectsUnknownFields() {
+        assertThatThrownBy(() -> BookFieldSet.parse("title,author.name"))
+                .isInstanceOf(InvalidRequest.class)
+                .hasMessage("Unknown book field: author.name, expected some of [id, title, isbn, author, authorId]");
+    }
+
+    @Test
+    void rowQuery_selectsOnlyTheSetsColumnsAndJoinsAuthorsOnlyForTheAuthor() {
+        assertThat(BookFieldSet.parse("title").rowQuery())
+                .isEqualTo("select b.id, b.title from Book b where b.id in :ids");
+        assertThat(BookFieldSet.parse("isbn,author").rowQuery())
+                .isEqualTo("select b.id, b.isbn, a.id, a.name, a.email from Book b join b.author a where b.id in :ids");
+        assertThat(BookFieldSet.parse("id").rowQuery()).isNull();
+    }
+
+    @Test
+    void normalized_readsTheAuthorIdWithoutTheJoinAndSharesOneAuthorPerId() {
+        assertThat(BookFieldSet.NORMALIZED.rowQuery())
+                .isEqualTo("select b.id, b.title, b.isbn, b.author.id from Book b where b.id in :ids");
+
+        Map<Long, Author> authors = new HashMap<>();
+        Book first = BookFieldSet.NORMALIZED.toBook(new Object[]{1L, "Book 1", "978-1", 3L}, authors);
+        Book second = BookFieldSet.NORMALIZED.toBook(new Object[]{2L, "Book 2", "978-2", 3L}, authors);
+
+        assertThat(first.getAuthor()).isSameAs(second.getAuthor());
+        assertThat(first.getAuthor().getId()).isEqualTo(3L);
+        assertThat(first.getAuthor().getName()).isNull();
+    }
+
+    @Test
+    void including_addsTheSortedFields() {
+        assertThat(BookFieldSet.parse("id").including(Sort.by("isbn", "id"))).isSameAs(BookFieldSet.parse("isbn"));
+        assertThat(BookFieldSet.parse("title").including(Sort.by("id"))).isSameAs(BookFieldSet.parse("title"));
+    }
+
+    @Test
+    void toBookAndToOutMap_roundTripTheSetsFields() {
+        BookFieldSet fields = BookFieldSet.parse("isbn,author");
+
+        Book book = fields.toBook(new Object[]{7L, "978-1", 3L, "Author", "author@example.com"}, new HashMap<>());
+
+        assertThat(book.getTitle()).isNull();
+        assertThat(book.getAuthor().getName()).isEqualTo("Author");
+        assertThat(fields.toOutMap(book)).containsOnlyKeys("id", "isbn", "author");
+        assertThat(BookFieldSet.parse("title").toOutMap(new Book(7L, "Dune", null, new Author(3L))))
+                .containsExactly(Map.entry("id", 7L), Map.entry("title", "Dune"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CatalogGeneratorTest {
+
+    @Test
+    void generate_isReproducibleFromTheSeed() {
+        List<String> first = rows(new CatalogGenerator(7, 2.0, 1000), 500);
+        List<String> second = rows(new CatalogGenerator(7, 2.0, 1000), 500);
+        List<String> other = rows(new CatalogGenerator(8, 2.0, 1000), 500);
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first).isNotEqualTo(other);
+    }
+
+    @Test
+    void generate_givesValidDistinctIsbns() {
+        Set<String> isbns = new HashSet<>();
+        new CatalogGenerator(1, 2.0, 1000).generate(1, 20_000, new CatalogGenerator.Sink() {
+            @Override
+            public void author(long id, String name, String email) {
+            }
+
+            @Override
+            public void book(String title, String isbn, long authorId) {
+                assertThat(isbn).hasSize(13).containsOnlyDigits().startsWith("97");
+                assertThat(IsbnSequence.checkDigit(isbn)).isEqualTo(isbn.charAt(12) - '0');
+                assertThat(isbns.add(isbn)).as("duplicate ISBN %s", isbn).isTrue();
+            }
+        });
+
+        assertThat(isbns).hasSizeGreaterThan(20_000);
+        assertThat(IsbnSequence.checkDigit("978030640615")).isEqualTo(7);
+    }
+
+    @Test
+    void generate_spreadsBooksPerAuthorWithALongTail() {
+        CatalogGenerator generator = new CatalogGenerator(3, 2.0, 1000);
+        Map<Long, Integer> booksPerAuthor = new HashMap<>();
+        Set<String> emails = new HashSet<>();
+        generator.generate(100, 50_000, new CatalogGenerator.Sink() {
+            @Override
+            public void author(long id, String name, String email) {
+                assertThat(emails.add(email)).isTrue();
+                booksPerAuthor.put(id, 0);
+            }
+
+            @Override
+            public void book(String title, String isbn, long authorId) {
+                booksPerAuthor.merge(authorId, 1, Integer::sum);
+            }
+        });
+
+        long single = booksPerAuthor.values().stream().filter(books -> books == 1).count();
+        int most = booksPerAuthor.values().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        double mean = booksPerAuthor.values().stream().mapToInt(Integer::intValue).average().orElseThrow();
+
+        assertThat(booksPerAuthor).hasSize(50_000).containsKeys(100L, 50_099L);
+        assertThat(booksPerAuthor.values()).allMatch(books -> books >= 1 && books <= 1000);
+        // 1 / zeta(2) of the authors have a single book
+        assertThat(single / 50_000.0).isBetween(0.58, 0.64);
+        assertThat(most).isGreaterThan(100);
+        assertThat(mean).isCloseTo(generator.meanBooksPerAuthor(), within(0.5));
+    }
+
+    private static List<String> rows(CatalogGenerator generator, int authors) {
+        List<String> rows = new ArrayList<>();
+        generator.generate(1, authors, new CatalogGenerator.Sink() {
+            @Override
+            public void author(long id, String name, String email) {
+                rows.add(id + "|" + name + "|" + email);
+            }
+
+            @Override
+            public void book(String title, String isbn, long authorId) {
+                rows.add(title + "|" + isbn + "|" + authorId);
+            }
+        });
+        return rows;
+    }
+}
@@ -0,0 +1,67 @@
+package com.fiap.project_bookstore_mvc.generator;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogLoaderTest {
+
+    private final CatalogGenerator generator = new CatalogGenerator(11, 2.0, 200);
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL("jdbc:h2:mem:generator;DB_CLOSE_DELAY=-1");
+        this.jdbc = new JdbcTemplate(this.dataSource);
+        this.jdbc.execute("DROP TABLE IF EXISTS books");
+        this.jdbc.execute("DROP TABLE IF EXISTS authors");
+        this.jdbc.execute("CREATE TABLE authors (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                + " name VARCHAR(255), email VARCHAR(255), version BIGINT DEFAULT 0 NOT NULL)");
+        this.jdbc.execute("CREATE TABLE books (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                + " title VARCHAR(255), isbn VARCHAR(255), author_id BIGINT NOT NULL REFERENCES authors (id),"
+                + " views BIGINT DEFAULT 0 NOT NULL, version BIGINT DEFAULT 0 NOT NULL)");
+    }
+
+    @Test
+    void batchAndCsv_loadTheSameCatalog() {
+        CatalogLoad batch = new CatalogLoader(this.dataSource, 100).load(this.generator, 300, LoadMode.BATCH);
+        List<Map<String, Object>> batchRows = catalog();
+
+        setUp();
+        CatalogLoad csv = new CatalogLoader(this.dataSource, 100).load(this.generator, 300, LoadMode.CSV);
+
+        assertThat(batch.mode()).isEqualTo(LoadMode.BATCH);
+        assertThat(csv.mode()).isEqualTo(LoadMode.CSV);
+        assertThat(csv.books()).isEqualTo(batch.books()).isGreaterThan(300);
+        assertThat(catalog()).isEqualTo(batchRows);
+        assertThat(this.jdbc.queryForObject("SELECT COUNT(*) FROM books", Long.class)).isEqualTo(csv.books());
+        assertThat(this.jdbc.queryForObject("SELECT MIN(version) + MIN(views) FROM books", Long.class)).isZero();
+    }
+
+    @Test
+    void load_appendsAfterExistingAuthorsAndMovesTheIdentityPastThem() {
+        this.jdbc.update("INSERT INTO authors (id, name, email) VALUES (5, 'Existing', 'existing@example.com')");
+
+        CatalogLoad load = new CatalogLoader(this.dataSource, 1000).load(this.generator, 50, LoadMode.BATCH);
+        this.jdbc.update("INSERT INTO authors (name, email) VALUES ('Next', 'next@example.com')");
+
+        assertThat(load.mode()).isEqualTo(LoadMode.BATCH);
+        assertThat(load.firstAuthorId()).isEqualTo(6);
+        assertThat(this.jdbc.queryForObject("SELECT id FROM authors WHERE name = 'Next'", Long.class)).isEqualTo(56);
+        assertThat(this.jdbc.queryForObject("SELECT MIN(author_id) FROM books", Long.class)).isEqualTo(6);
+    }
+
+    private List<Map<String, Object>> catalog() {
+        return this.jdbc.queryForList("SELECT a.id, a.name, a.email, b.title, b.isbn FROM books b"
+                + " JOIN authors a ON a.id = b.author_id ORDER BY b.isbn");
+    }
+}
@@ -0,0 +1,131 @@
+package com.fiap.project_bookstore_mvc.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyGuardTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void duplicatesWhileRunning_waitForTheFirstResponseInsteadOfExecuting() throws Exception {
+        IdempotencyGuard guard = new IdempotencyGuard(store(Duration.ofHours(1), 10), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        Future<IdempotencyGuard.Outcome> first = this.executor.submit(() -> guard.run("key", "fp", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return response("fp", "created");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<IdempotencyGuard.Outcome>> duplicates = List.of(
+                this.executor.submit(() -> guard.run("key", "fp", () -> response("fp", "again"))),
+                this.executor.submit(() -> guard.run("key", "fp", () -> response("fp", "again"))));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).kind()).isEqualTo(IdempotencyGuard.Outcome.Kind.EXECUTED);
+        for (Future<IdempotencyGuard.Outcome> duplicate : duplicates) {
+            IdempotencyGuard.Outcome outcome = duplicate.get(5, TimeUnit.SECONDS);
+            assertThat(outcome.kind()).isEqualTo(IdempotencyGuard.Outcome.Kind.REPLAYED);
+            assertThat(new String(outcome.response().body())).isEqualTo("created");
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(guard.replayed()).isEqualTo(2);
+    }
+
+    @Test
+    void laterRequests_areAnsweredFromTheStore_andADifferentRequestIsRefused() throws Exception {
+        IdempotencyGuard guard = new IdempotencyGuard(store(Duration.ofHours(1), 10), Duration.ofSeconds(5));
+        guard.run("key", "fp", () -> response("fp", "created"));
+
+        assertThat(guard.run("key", "fp", () -> response("fp", "again")).kind())
+                .isEqualTo(IdempotencyGuard.Outcome.Kind.REPLAYED);
+        assertThat(guard.run("key", "other", () -> response("other", "again")).kind())
+                .isEqualTo(IdempotencyGuard.Outcome.Kind.KEY_REUSED);
+    }
+
+    @Test
+    void aFailedFirstExecution_letsTheNextRequestExecute() throws Exception {
+        IdempotencyGuard guard = new IdempotencyGuard(store(Duration.ofHours(1), 10), Duration.ofSeconds(5));
+        guard.run("key", "fp", () -> null);
+
+        assertThat(guard.run("key", "fp", () -> response("fp", "created")).kind())
+                .isEqualTo(IdempotencyGuard.Outcome.Kind.EXECUTED);
+        assertThat(guard.executed()).isEqualTo(2);
+    }
+
+    @Test
+    void duplicates_stopWaitingAtTheDeadline() throws Exception {
+        IdempotencyGuard guard = new IdempotencyGuard(store(Duration.ofHours(1), 10), Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<IdempotencyGuard.Outcome> first = this.executor.submit(() -> guard.run("key", "fp", () -> {
+            started.countDown();
+            await(release);
+            return response("fp", "created");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(guard.run("key", "fp", () -> response("fp", "again")).kind())
+                .isEqualTo(IdempotencyGuard.Outcome.Kind.IN_FLIGHT);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void memoryStore_dropsExpiredKeysAndTheOldestBeyondTheLimit() {
+        InMemoryIdempotencyStore store = store(Duration.ofMinutes(1), 2);
+        store.save("a", new IdempotentResponse("fp", 201, null, new byte[0], CLOCK.millis() - 60_000));
+        store.save("b", response("fp", "b"));
+        store.save("c", response("fp", "c"));
+        store.save("d", response("fp", "d"));
+
+        assertThat(store.find("a")).isNull();
+        assertThat(store.find("b")).isNull();
+        assertThat(store.find("c")).isNotNull();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static InMemoryIdempotencyStore store(Duration ttl, int maxEntries) {
+        return new InMemoryIdempotencyStore(new IdempotencyProperties(true, IdempotencyProperties.Store.MEMORY, ttl,
+                maxEntries, DataSize.ofMegabytes(1), DataSize.ofKilobytes(64), Duration.ofSeconds(10), Duration.ofMinutes(1)), CLOCK);
+    }
+
+    private static IdempotentResponse response(String fingerprint, String body) {
+        return new IdempotentResponse(fingerprint, 201, "application/json", body.getBytes(), CLOCK.millis());
+    }
+}
@@ -0,0 +1,33 @@
+package com.fiap.project_bookstore_mvc.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorBooksIndexTest {
+
+    @Test
+    void build_groupsBooksByAuthorInIdOrder() {
+        long[] authorIds = {3L, 7L, 9L};
+        long[] bookIds = {30L, 10L, 11L, 20L, 12L};
+        long[] bookAuthorIds = {7L, 3L, 7L, 3L, 7L};
+
+        AuthorBooksIndex index = AuthorBooksIndex.build(authorIds, 3, bookIds, bookAuthorIds, 5);
+
+        assertThat(index.bookIds(3L)).containsExactly(10L, 20L);
+        assertThat(index.bookIds(7L)).containsExactly(11L, 12L, 30L);
+        assertThat(index.bookIds(9L)).isEmpty();
+        assertThat(index.count(7L)).isEqualTo(3);
+        assertThat(index.bookIdAt(index.from(7L))).isEqualTo(11L);
+    }
+
+    @Test
+    void build_ignoresBooksOfUnknownAuthors() {
+        AuthorBooksIndex index = AuthorBooksIndex.build(new long[]{1L}, 1, new long[]{5L, 6L}, new long[]{1L, 2L}, 2);
+
+        assertThat(index.bookCount()).isEqualTo(1);
+        assertThat(index.containsAuthor(2L)).isFalse();
+        assertThat(index.from(2L)).isEqualTo(-1);
+        assertThat(index.bookIds(2L)).isEmpty();
+    }
+}
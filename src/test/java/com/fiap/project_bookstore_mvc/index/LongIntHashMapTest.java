@@ -0,0 +1,61 @@
+package com.fiap.project_bookstore_mvc.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTest {
+
+    @Test
+    void get_returnsMissingValueForUnknownKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(42L, 7);
+
+        assertThat(map.get(42L, -1)).isEqualTo(7);
+        assertThat(map.get(43L, -1)).isEqualTo(-1);
+        assertThat(map.containsKey(43L)).isFalse();
+    }
+
+    @Test
+    void put_overwritesExistingKey() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(42L, 7);
+        map.put(42L, 8);
+
+        assertThat(map.get(42L, -1)).isEqualTo(8);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void put_supportsZeroAndNegativeKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(0L, 1);
+        map.put(-5L, 2);
+        map.put(Long.MIN_VALUE, 3);
+
+        assertThat(map.get(0L, -1)).isEqualTo(1);
+        assertThat(map.get(-5L, -1)).isEqualTo(2);
+        assertThat(map.get(Long.MIN_VALUE, -1)).isEqualTo(3);
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    void put_growsAndAgreesWithHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextBoolean() ? random.nextLong() : (1L << 40) + i;
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key, -1)).isEqualTo(value));
+    }
+}
@@ -0,0 +1,80 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// not @Transactional: the parts load on their own threads and connections, so the rows have to be committed
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:author-detail;DB_CLOSE_DELAY=-1",
+        "bookstore.author-detail.books-page-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthorDetailIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        this.author = this.authorRepository.save(new Author(null, "Ursula K. Le Guin", "ursula@example.com"));
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            books.add(new Book(null, "Book " + i, "978-000000000" + i, this.author));
+        }
+        this.bookRepository.saveAll(books);
+    }
+
+    @Test
+    void include_returnsAuthorFirstPageOfBooksAndCountInOneResponse() throws Exception {
+        this.mockMvc.perform(get("/authors/{id}", this.author.getId()).param("include", "books,bookCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Ursula K. Le Guin")))
+                .andExpect(jsonPath("$.books", hasSize(2)))
+                .andExpect(jsonPath("$.books[0].title", is("Book 0")))
+                .andExpect(jsonPath("$.books[0].author.id", is(this.author.getId().intValue())))
+                .andExpect(jsonPath("$.bookCount", is(3)));
+    }
+
+    @Test
+    void include_leavesOutThePartsNotAskedFor() throws Exception {
+        this.mockMvc.perform(get("/authors/{id}", this.author.getId()).param("include", "bookCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books", nullValue()))
+                .andExpect(jsonPath("$.bookCount", is(3)));
+    }
+
+    @Test
+    void include_returns404ForUnknownAuthor() throws Exception {
+        this.mockMvc.perform(get("/authors/{id}", 999_999).param("include", "books,bookCount"))
+                .andExpect(status().isNotFound());
+    }
+}
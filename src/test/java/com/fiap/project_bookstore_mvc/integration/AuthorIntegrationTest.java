@@ -14,6 +14,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -157,6 +160,22 @@ class AuthorIntegrationTest {
                 .andExpect(jsonPath("$[1].title", is("Book 2")));
     }
 
+    @Test
+    void authorReads_shouldStayWithinTheirSqlBudget() throws Exception {
+        Author savedAuthor = authorRepository.save(new Author(null, "Budget Author", "budget@example.com"));
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            books.add(new Book(null, "Budget Book " + i, "978-" + i, savedAuthor));
+        }
+        bookRepository.saveAll(books);
+
+        SqlBudget.atMost(1, () -> this.mockMvc.perform(get("/authors").param("size", "100")))
+                .andExpect(status().isOk());
+        SqlBudget.atMost(2, () -> this.mockMvc.perform(get("/authors/" + savedAuthor.getId() + "/books")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(50)));
+    }
+
     @Test
     void getAuthorById_shouldReturn404WhenNotFound() throws Exception {
         this.mockMvc.perform(get("/authors/999"))
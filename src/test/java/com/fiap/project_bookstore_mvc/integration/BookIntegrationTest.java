@@ -12,8 +12,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -120,6 +124,37 @@ class BookIntegrationTest {
         assert updatedBook.getIsbn().equals("978-2222222222");
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateBook_shouldCommitOutsideTestTransaction() throws Exception {
+        // Given - data committed for real, so the update is flushed by the service's own transaction
+        Author savedAuthor = authorRepository.save(new Author(null, "Committed Author", "committed@example.com"));
+        Book savedBook = bookRepository.save(new Book(null, "Committed Title", "978-4444444444", savedAuthor));
+
+        try {
+            // When - update via REST API
+            this.mockMvc.perform(put("/books")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {
+                                        "id": %d,
+                                        "title": "Committed Update",
+                                        "isbn": "978-4444444444",
+                                        "authorId": %d
+                                    }
+                                    """.formatted(savedBook.getId(), savedAuthor.getId())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title", is("Committed Update")))
+                    .andExpect(jsonPath("$.author.name", is("Committed Author")));
+
+            // Then - verify changes persisted in database
+            assert bookRepository.findById(savedBook.getId()).orElseThrow().getTitle().equals("Committed Update");
+        } finally {
+            bookRepository.deleteAll();
+            authorRepository.deleteAll();
+        }
+    }
+
     @Test
     void deleteBook_shouldRemoveFromDatabase() throws Exception {
         // Given - persist author and book
@@ -161,9 +196,33 @@ class BookIntegrationTest {
                 .andExpect(jsonPath("$.totalPages", is(2)));
     }
 
+    @Test
+    void findAllBooks_shouldStayWithinItsSqlBudget() throws Exception {
+        Author author = authorRepository.save(new Author(null, "Budget Author", "budget@example.com"));
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            books.add(new Book(null, "Budget Book " + i, "978-" + i, author));
+        }
+        bookRepository.saveAll(books);
+
+        // the IDs of the page, then the books with their authors in one query; the author is never lazy-loaded
+        SqlBudget.atMost(2, () -> this.mockMvc.perform(get("/books").param("size", "100")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(100)))
+                .andExpect(jsonPath("$.content[99].author.name", is("Budget Author")));
+        SqlBudget.atMost(1, () -> this.mockMvc.perform(get("/books/" + books.getFirst().getId())))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getBookById_shouldReturn404WhenNotFound() throws Exception {
         this.mockMvc.perform(get("/books/999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void suggest_isNotServedUnlessEnabled() throws Exception {
+        this.mockMvc.perform(get("/books/suggest").param("prefix", "hob"))
+                .andExpect(status().isNotFound());
+    }
 }
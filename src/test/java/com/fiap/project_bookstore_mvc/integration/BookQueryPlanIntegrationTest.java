@@ -0,0 +1,116 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.dto.In.BookFilterInDTO;
+import com.fiap.project_bookstore_mvc.services.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every supported filter/sort combination of GET /books and checks the H2 plan of each statement it
+ * issues: no table scans, the expected index, and no sort step where the index order can serve the page.
+ * H2 only reports index order when no equality prefix is involved, so the per-author cases check the index
+ * alone; they read one author's books.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplan;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fiap.project_bookstore_mvc.integration.RecordingStatementInspector"
+})
+@ActiveProfiles("test")
+class BookQueryPlanIntegrationTest {
+
+    private static final String ISBN_RANGE = "IDX_BOOKS_ISBN: ISBN >= '978-1'";
+    private static final String AUTHOR = "AUTHOR_ID = ?1";
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        List<Object[]> authors = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            authors.add(new Object[]{id, "Author " + id, "author" + id + "@example.com"});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, email) VALUES (?, ?, ?)", authors);
+        List<Object[]> books = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            books.add(new Object[]{"Title " + i, "978-" + i, (long) (i % 20) + 1});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO books (title, isbn, author_id) VALUES (?, ?, ?)", books);
+        this.jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> matrix() {
+        return Stream.of(
+                Arguments.of(new BookFilterInDTO(null, null, null), null, "PRIMARY_KEY", true),
+                Arguments.of(new BookFilterInDTO(null, null, null), "title,desc", "IDX_BOOKS_TITLE", true),
+                Arguments.of(new BookFilterInDTO(null, null, null), "isbn", "IDX_BOOKS_ISBN", true),
+                Arguments.of(new BookFilterInDTO(3L, null, null), null, AUTHOR, false),
+                Arguments.of(new BookFilterInDTO(3L, null, null), "title,desc", "IDX_BOOKS_AUTHOR_TITLE: " + AUTHOR, false),
+                Arguments.of(new BookFilterInDTO(3L, "title", null), "id,desc", AUTHOR, false),
+                Arguments.of(new BookFilterInDTO(null, null, "978-1"), null, ISBN_RANGE, true),
+                Arguments.of(new BookFilterInDTO(null, "title", "978-1"), "isbn,desc", ISBN_RANGE, true),
+                Arguments.of(new BookFilterInDTO(3L, null, "978-1"), "isbn", AUTHOR, false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("matrix")
+    void findAll_usesIndexesOnly(BookFilterInDTO filter, String sort, String index, boolean indexSorted) {
+        RecordingStatementInspector.clear();
+
+        this.bookService.findAll(filter, 0, 10, sort, CountStrategy.EXACT);
+
+        List<String> statements = RecordingStatementInspector.statements();
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql, filter);
+            assertThat(plan).as(sql).doesNotContain("tableScan");
+            if (sql.startsWith("select b1_0.id from")) {
+                assertThat(plan).as(sql).contains(index);
+                if (indexSorted) {
+                    assertThat(plan).as(sql).contains("/* index sorted */");
+                }
+            }
+        }
+    }
+
+    private String explain(String sql, BookFilterInDTO filter) {
+        List<Object> args = new ArrayList<>();
+        if (sql.contains(" in (")) {
+            sql.chars().filter(c -> c == '?').forEach(c -> args.add(1L));
+        } else {
+            if (filter.authorId() != null) {
+                args.add(filter.authorId());
+            }
+            if (filter.isbnPrefix() != null) {
+                args.add(filter.isbnPrefix() + "%");
+            }
+            if (filter.titleContains() != null) {
+                args.add("%" + filter.titleContains() + "%");
+            }
+            if (sql.contains(" offset ")) {
+                args.add(0);
+                args.add(10);
+            }
+        }
+        return this.jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args.toArray());
+    }
+}
@@ -0,0 +1,128 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeRecord;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeType;
+import com.fiap.project_bookstore_mvc.dto.Out.BookOutDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fiap.project_bookstore_mvc.integration.RecordingStatementInspector"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BulkBookOperationsIntegrationTest {
+
+    private static final int BOOKS = 1_200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    private final List<ChangeRecord> changes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        this.jdbcTemplate.update("INSERT INTO authors (id, name, email) VALUES (1, 'First', 'first@example.com')");
+        this.jdbcTemplate.update("INSERT INTO authors (id, name, email) VALUES (2, 'Second', 'second@example.com')");
+        List<Object[]> books = new ArrayList<>();
+        for (long id = 1; id <= BOOKS; id++) {
+            books.add(new Object[]{id, "Title " + id, "978-" + id, 1L});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO books (id, title, isbn, author_id) VALUES (?, ?, ?, ?)", books);
+        this.changeFeed.addListener(this.changes::add);
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void reassignFromAuthor_movesEveryBookInChunkedUpdates() throws Exception {
+        this.mockMvc.perform(post("/books/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAuthorId\": 1, \"toAuthorId\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(BOOKS)));
+
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books WHERE author_id = 2", Integer.class))
+                .isEqualTo(BOOKS);
+        assertThat(RecordingStatementInspector.statements())
+                .filteredOn(sql -> sql.startsWith("update books"))
+                .hasSize(3);
+        assertThat(this.changes)
+                .filteredOn(change -> change.type() == ChangeType.UPDATED)
+                .hasSize(BOOKS)
+                .allSatisfy(change -> {
+                    assertThat(((BookOutDTO) change.data()).author().id()).isEqualTo(2L);
+                    // the events carry the versions the update bumped, not the ones read before it
+                    assertThat(((BookOutDTO) change.data()).version()).isEqualTo(1L);
+                });
+    }
+
+    @Test
+    void reassignBookIds_movesOnlyThoseBooks() throws Exception {
+        this.mockMvc.perform(post("/books/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookIds\": [1, 2, 9999], \"toAuthorId\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+
+        assertThat(this.jdbcTemplate.queryForList("SELECT id FROM books WHERE author_id = 2 ORDER BY id", Long.class))
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void reassign_toAnUnknownAuthor_isNotFound() throws Exception {
+        this.mockMvc.perform(post("/books/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAuthorId\": 1, \"toAuthorId\": 99}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteByIds_deletesInOneStatementAndReportsTheExistingOnes() throws Exception {
+        this.mockMvc.perform(delete("/books").param("ids", "1,2,3,9999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(3)));
+
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class)).isEqualTo(BOOKS - 3);
+        assertThat(RecordingStatementInspector.statements())
+                .filteredOn(sql -> sql.startsWith("delete from books"))
+                .containsExactly("delete from books b1_0 where b1_0.id in (?,?,?)");
+        assertThat(this.changes)
+                .filteredOn(change -> change.type() == ChangeType.DELETED)
+                .extracting(ChangeRecord::id)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void deleteWithoutIds_isRejected() throws Exception {
+        this.mockMvc.perform(delete("/books").param("ids", ""))
+                .andExpect(status().isBadRequest());
+    }
+}
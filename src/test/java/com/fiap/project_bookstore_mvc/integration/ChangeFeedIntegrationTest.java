@@ -0,0 +1,199 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:changefeed;DB_CLOSE_DELAY=-1",
+        "bookstore.change-feed.capacity=4"
+})
+@ActiveProfiles("test")
+class ChangeFeedIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+    }
+
+    @Test
+    void committedMutations_shouldBeStreamedInOrder() throws Exception {
+        try (EventStream stream = open("?since=" + this.changeFeed.head())) {
+            long authorId = createAuthor("Streamed Author");
+            createBook(authorId, "Streamed Book");
+
+            List<String> author = stream.nextEvent();
+            assertThat(author).contains("event:change");
+            assertThat(dataOf(author)).contains("\"entity\":\"AUTHOR\"", "\"type\":\"CREATED\"", "Streamed Author");
+
+            List<String> book = stream.nextEvent();
+            assertThat(dataOf(book)).contains("\"entity\":\"BOOK\"", "\"type\":\"CREATED\"", "Streamed Book");
+            assertThat(idOf(book)).isEqualTo(idOf(author) + 1);
+        }
+    }
+
+    @Test
+    void lastEventId_shouldResumeAfterTheGivenSequence() throws Exception {
+        long before = this.changeFeed.head();
+        createAuthor("First");
+        createAuthor("Second");
+
+        try (EventStream stream = open("", "Last-Event-ID", String.valueOf(before + 1))) {
+            List<String> event = stream.nextEvent();
+
+            assertThat(idOf(event)).isEqualTo(before + 2);
+            assertThat(dataOf(event)).contains("Second").doesNotContain("First");
+        }
+    }
+
+    @Test
+    void consumerTooFarBehind_shouldReceiveCompactedSnapshot() throws Exception {
+        long before = this.changeFeed.head();
+        long authorId = createAuthor("Snapshot Author");
+        for (int i = 0; i < 5; i++) {
+            createBook(authorId, "Book " + i);
+        }
+
+        try (EventStream stream = open("?since=" + before)) {
+            assertThat(stream.nextEvent()).contains("event:reset");
+
+            List<String> snapshot = new ArrayList<>();
+            List<String> event;
+            while (!(event = stream.nextEvent()).contains("event:snapshot-end")) {
+                snapshot.add(dataOf(event));
+            }
+
+            assertThat(snapshot).hasSize(6);
+            assertThat(snapshot).filteredOn(data -> data.contains("\"entity\":\"AUTHOR\"")).hasSize(1);
+            assertThat(idOf(event)).isEqualTo(this.changeFeed.head());
+
+            createAuthor("After Snapshot");
+            assertThat(dataOf(stream.nextEvent())).contains("After Snapshot");
+        }
+    }
+
+    private long createAuthor(String name) throws Exception {
+        String body = post("/authors", """
+                {"name": "%s", "email": "author@example.com"}
+                """.formatted(name));
+        return Long.parseLong(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    private void createBook(long authorId, String title) throws Exception {
+        post("/books", """
+                {"title": "%s", "isbn": "978-0000000000", "authorId": %d}
+                """.formatted(title, authorId));
+    }
+
+    private String post(String path, String json) throws Exception {
+        HttpResponse<String> response = this.client.send(HttpRequest.newBuilder(uri(path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+        return response.body();
+    }
+
+    private EventStream open(String query, String... headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/changes" + query))
+                .header("Accept", "text/event-stream");
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return new EventStream(this.client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines()));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+
+    private static String dataOf(List<String> event) {
+        return field(event, "data:");
+    }
+
+    private static long idOf(List<String> event) {
+        return Long.parseLong(field(event, "id:"));
+    }
+
+    private static String field(List<String> event, String prefix) {
+        return event.stream().filter(line -> line.startsWith(prefix)).findFirst()
+                .map(line -> line.substring(prefix.length()))
+                .orElseThrow();
+    }
+
+    private static final class EventStream implements AutoCloseable {
+
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private final CompletableFuture<HttpResponse<Stream<String>>> response;
+        private final Thread reader;
+
+        private EventStream(CompletableFuture<HttpResponse<Stream<String>>> response) {
+            this.response = response;
+            this.reader = Thread.ofVirtual().start(() -> {
+                try {
+                    response.join().body().forEach(this.lines::add);
+                } catch (RuntimeException ignored) {
+                    // stream closed by the test
+                }
+            });
+        }
+
+        private List<String> nextEvent() throws InterruptedException {
+            List<String> event = new ArrayList<>();
+            while (true) {
+                String line = this.lines.poll(10, TimeUnit.SECONDS);
+                assertThat(line).as("next server-sent event").isNotNull();
+                if (line.isEmpty()) {
+                    if (!event.isEmpty()) {
+                        return event;
+                    }
+                } else if (!line.startsWith(":")) {
+                    event.add(line);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            this.response.thenAccept(r -> r.body().close());
+            this.response.cancel(true);
+            this.reader.interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:countstrategy;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class CountStrategyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        this.authorRepository.saveAll(IntStream.range(0, 25)
+                .mapToObj(i -> new Author(null, "Author " + i, "author" + i + "@example.com"))
+                .toList());
+        this.jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void estimated_shouldReadTheTotalFromTableStatistics() throws Exception {
+        this.mockMvc.perform(get("/authors").param("size", "10").param("count", "estimated"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countStrategy", is("estimated")))
+                .andExpect(jsonPath("$.totalElements", is(25)))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
+    @Test
+    void none_shouldOnlyTellWhetherThereIsANextPage() throws Exception {
+        this.mockMvc.perform(get("/authors").param("size", "10").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countStrategy", is("none")))
+                .andExpect(jsonPath("$.totalElements", nullValue()))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+
+        this.mockMvc.perform(get("/authors").param("page", "2").param("size", "10").param("count", "none"))
+                .andExpect(jsonPath("$.content.length()", is(5)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void cached_shouldServeTheLastCountAndCatchUpAfterAWrite() throws Exception {
+        this.mockMvc.perform(get("/authors").param("size", "10").param("count", "cached"))
+                .andExpect(jsonPath("$.totalElements", is(25)));
+        this.mockMvc.perform(get("/authors").param("size", "10").param("count", "cached"))
+                .andExpect(jsonPath("$.countStrategy", is("cached")))
+                .andExpect(jsonPath("$.totalElements", is(25)));
+
+        this.mockMvc.perform(post("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Late Author", "email": "late@example.com"}
+                                """))
+                .andExpect(status().isCreated());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body;
+        do {
+            body = this.mockMvc.perform(get("/authors").param("size", "10").param("count", "cached"))
+                    .andExpect(jsonPath("$.countStrategy", is("cached")))
+                    .andReturn().getResponse().getContentAsString();
+        } while (!body.contains("\"totalElements\":26") && System.currentTimeMillis() < deadline);
+
+        assertThat(body).contains("\"totalElements\":26");
+    }
+}
@@ -0,0 +1,131 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.idempotency.IdempotencyFilter;
+import com.fiap.project_bookstore_mvc.idempotency.IdempotencyStore;
+import com.fiap.project_bookstore_mvc.idempotency.JdbcIdempotencyStore;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1",
+        "bookstore.idempotency.store=jdbc",
+        "bookstore.idempotency.max-request-bytes=2KB",
+        "bookstore.idempotency.max-response-bytes=1KB"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        this.jdbcTemplate.execute("DELETE FROM idempotency_keys");
+    }
+
+    @Test
+    void retriedCreate_isReplayedWithoutASecondRow() throws Exception {
+        String created = createAuthor("retry-1", "First Author")
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String replayed = createAuthor("retry-1", "First Author")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(replayed).isEqualTo(created);
+        assertThat(this.authorRepository.count()).isEqualTo(1);
+        assertThat(this.store).isInstanceOf(JdbcIdempotencyStore.class);
+        this.store.purge();
+        assertThat(this.store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keyReusedForADifferentBody_isRefused() throws Exception {
+        createAuthor("retry-2", "First Author").andExpect(status().isCreated());
+
+        createAuthor("retry-2", "Second Author")
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error", is("Idempotency-Key já usada com outra requisição")));
+        assertThat(this.authorRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsWithoutAKey_runEveryTime() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            this.mockMvc.perform(post("/authors")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\": \"Author\", \"email\": \"author@example.com\"}"))
+                    .andExpect(status().isCreated());
+        }
+        assertThat(this.authorRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void bodyAboveTheLimit_isRefusedBeforeRunning() throws Exception {
+        createAuthor("too-large", "A".repeat(3000))
+                .andExpect(status().isPayloadTooLarge());
+        assertThat(this.authorRepository.count()).isZero();
+    }
+
+    @Test
+    void responseAboveTheLimit_isDeliveredButNotKept() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            lines.append("{\"name\": \"Author ").append(i).append("\", \"email\": \"a").append(i)
+                    .append("@example.com\"}\n");
+        }
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            String body = this.mockMvc.perform(post("/authors")
+                            .header(IdempotencyFilter.KEY_HEADER, "large-response")
+                            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                            .content(lines.toString()))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                    .andReturn().getResponse().getContentAsString();
+            assertThat(body.length()).isGreaterThan(1024);
+            assertThat(body.split("\n")).hasSize(20);
+        }
+        assertThat(this.authorRepository.count()).isEqualTo(40);
+    }
+
+    private ResultActions createAuthor(String key, String name) throws Exception {
+        return this.mockMvc.perform(post("/authors")
+                .header(IdempotencyFilter.KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"" + name + "\", \"email\": \"author@example.com\"}"));
+    }
+}
@@ -0,0 +1,214 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:nested;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NestedAuthorCreationIntegrationTest {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+    }
+
+    @Test
+    void create_withBooks_storesTheWholeGraph() throws Exception {
+        String body = this.mockMvc.perform(post("/authors").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name": "Machado de Assis", "email": "machado@example.com", "books": [
+                          {"title": "Dom Casmurro", "isbn": "978-8535910667"},
+                          {"title": "Quincas Borba", "isbn": "978-8535911022"},
+                          {"title": "Helena", "isbn": "978-8572326971"}
+                        ]}
+                        """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name", is("Machado de Assis")))
+                .andExpect(jsonPath("$.version", is(0)))
+                .andExpect(jsonPath("$.bookCount", is(3)))
+                .andExpect(jsonPath("$.books[*].title", contains("Dom Casmurro", "Quincas Borba", "Helena")))
+                .andExpect(jsonPath("$.books[0].version", is(0)))
+                .andExpect(jsonPath("$.books[0].author.name", is("Machado de Assis")))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode created = this.objectMapper.readTree(body);
+        long firstBook = created.get("books").get(0).get("id").asLong();
+        assertThat(created.get("books").get(2).get("id").asLong()).isEqualTo(firstBook + 2);
+
+        this.mockMvc.perform(get("/books/" + firstBook))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Dom Casmurro")))
+                .andExpect(jsonPath("$.author.id", is(created.get("id").intValue())));
+        this.mockMvc.perform(get("/authors/" + created.get("id").asLong() + "/books"))
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    void create_withManyBooks_insertsThemInOneBatch() throws Exception {
+        String books = IntStream.range(0, 200)
+                .mapToObj(i -> "{\"title\": \"Book " + i + "\", \"isbn\": \"978-" + i + "\"}")
+                .collect(Collectors.joining(","));
+
+        // the author insert and one batch for the books
+        SqlBudget.atMost(2, () -> this.mockMvc.perform(post("/authors").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Prolific\", \"email\": \"prolific@example.com\", \"books\": [" + books + "]}")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.books", hasSize(200)));
+
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class)).isEqualTo(200);
+    }
+
+    @Test
+    void create_withoutBooks_answersAsBefore() throws Exception {
+        this.mockMvc.perform(post("/authors").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name": "Plain", "email": "plain@example.com"}
+                        """))
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"name\": \"Plain\", \"version\": 0}"))
+                .andExpect(jsonPath("$.books").doesNotExist());
+    }
+
+    @Test
+    void booksAreOnlyAcceptedForNewAuthors() throws Exception {
+        long id = this.mockMvc.perform(post("/authors").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name": "Existing", "email": "existing@example.com"}
+                        """))
+                .andReturn().getResponse().getContentAsString().transform(this::idOf);
+        String withBooks = """
+                {"id": %d, "name": "Existing", "email": "existing@example.com", "books": [{"title": "T", "isbn": "I"}]}
+                """.formatted(id);
+
+        this.mockMvc.perform(post("/authors").contentType(MediaType.APPLICATION_JSON).content(withBooks))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(put("/authors").contentType(MediaType.APPLICATION_JSON).content(withBooks))
+                .andExpect(status().isBadRequest());
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class)).isZero();
+    }
+
+    @Test
+    void createAll_fromNdjson_answersOneLinePerAuthorInOrder() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int a = 0; a < 250; a++) {
+            lines.append("{\"name\": \"Author ").append(a).append("\", \"email\": \"a").append(a)
+                    .append("@example.com\", \"books\": [");
+            for (int b = 0; b < a % 4; b++) {
+                lines.append(b == 0 ? "" : ",").append("{\"title\": \"Book ").append(a).append('-').append(b)
+                        .append("\", \"isbn\": \"978-").append(a).append(b).append("\"}");
+            }
+            lines.append("]}\n");
+        }
+
+        String body = this.mockMvc.perform(post("/authors").contentType(NDJSON).content(lines.toString()))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> created = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            created.add(this.objectMapper.readTree(line));
+        }
+        assertThat(created).hasSize(250);
+        for (int a = 0; a < 250; a++) {
+            assertThat(created.get(a).get("name").asText()).isEqualTo("Author " + a);
+            assertThat(created.get(a).get("bookCount").asInt()).isEqualTo(a % 4);
+        }
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM authors", Integer.class)).isEqualTo(250);
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class)).isEqualTo(373);
+        assertThat(this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM books b JOIN authors a ON a.id = b.author_id"
+                        + " WHERE b.title NOT LIKE 'Book ' || SUBSTRING(a.name, 8) || '-%'", Integer.class)).isZero();
+    }
+
+    @Test
+    void createAll_withAnInvalidLine_writesNothing() throws Exception {
+        String lines = """
+                {"name": "Fine", "email": "fine@example.com", "books": [{"title": "T", "isbn": "I"}]}
+                {"name": "Broken", "books": [
+                """;
+
+        this.mockMvc.perform(post("/authors").contentType(NDJSON).content(lines))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(post("/authors").contentType(NDJSON).content("""
+                        {"name": "Fine", "email": "fine@example.com"}
+                        {"id": 1, "name": "Existing", "email": "existing@example.com"}
+                        """))
+                .andExpect(status().isBadRequest());
+
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM authors", Integer.class)).isZero();
+    }
+
+    @Test
+    void createAll_whenALaterChunkFails_endsWithAnErrorLine() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int a = 0; a < 150; a++) {
+            // the ISBN of author 120 is longer than the column, which only the database finds out
+            String isbn = a == 120 ? "9".repeat(300) : "978-" + a;
+            lines.append("{\"name\": \"Author ").append(a).append("\", \"email\": \"a").append(a)
+                    .append("@example.com\", \"books\": [{\"title\": \"T\", \"isbn\": \"").append(isbn).append("\"}]}\n");
+        }
+
+        String body = this.mockMvc.perform(post("/authors").contentType(NDJSON).content(lines.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] answered = body.split("\n");
+        assertThat(answered).hasSize(101);
+        JsonNode last = this.objectMapper.readTree(answered[100]);
+        assertThat(last.get("error").asText()).isNotBlank();
+        assertThat(last.get("committed").asInt()).isEqualTo(100);
+        assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM authors", Integer.class)).isEqualTo(100);
+    }
+
+    private long idOf(String json) {
+        try {
+            return this.objectMapper.readTree(json).get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
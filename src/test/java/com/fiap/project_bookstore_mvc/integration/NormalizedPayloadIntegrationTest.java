@@ -0,0 +1,91 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:normalized;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fiap.project_bookstore_mvc.integration.RecordingStatementInspector"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NormalizedPayloadIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        this.jdbcTemplate.update("INSERT INTO authors (id, name, email) VALUES (1, 'First', 'first@example.com')");
+        this.jdbcTemplate.update("INSERT INTO authors (id, name, email) VALUES (2, 'Second', 'second@example.com')");
+        List<Object[]> books = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            books.add(new Object[]{"Title " + i, "978-" + i, 1L + i % 2});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO books (title, isbn, author_id) VALUES (?, ?, ?)", books);
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void books_referenceAuthorsLoadedInOneInQuery() throws Exception {
+        this.mockMvc.perform(get("/books").param("normalized", "true").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(6)))
+                .andExpect(jsonPath("$.content[0].authorId", is(1)))
+                .andExpect(jsonPath("$.content[1].authorId", is(2)))
+                .andExpect(jsonPath("$.content[0].author").doesNotExist())
+                .andExpect(jsonPath("$.authors.length()", is(2)))
+                .andExpect(jsonPath("$.authors['2'].name", is("Second")));
+
+        // background jobs (suggestions, change feed) read too, so look only at the statements serving the page
+        assertThat(RecordingStatementInspector.statements())
+                .filteredOn(sql -> sql.contains("where b1_0.id in"))
+                .singleElement()
+                .satisfies(sql -> assertThat(sql).doesNotContain("join"));
+        assertThat(RecordingStatementInspector.statements())
+                .filteredOn(sql -> sql.contains("from authors a1_0 where a1_0.id in"))
+                .hasSize(1);
+    }
+
+    @Test
+    void export_writesEachAuthorOnce() throws Exception {
+        String body = this.mockMvc.perform(get("/books/export").param("normalized", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).hasSize(8);
+        assertThat(body.lines().filter(line -> line.startsWith("{\"author\":"))).hasSize(2);
+        assertThat(body.lines().findFirst()).hasValue("{\"author\":{\"id\":1,\"name\":\"First\",\"email\":\"first@example.com\",\"version\":0}}");
+    }
+
+    @Test
+    void authorBooks_listTheAuthorOnce() throws Exception {
+        this.mockMvc.perform(get("/authors/2/books").param("normalized", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books", hasSize(3)))
+                .andExpect(jsonPath("$.books[0].authorId", is(2)))
+                .andExpect(jsonPath("$.authors.length()", is(1)))
+                .andExpect(jsonPath("$.authors['2'].email", is("second@example.com")));
+    }
+}
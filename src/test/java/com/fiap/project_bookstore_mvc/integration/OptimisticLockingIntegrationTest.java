@@ -0,0 +1,217 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:locking;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OptimisticLockingIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        this.author = this.authorRepository.save(new Author(null, "Locking Author", "locking@example.com"));
+    }
+
+    @Test
+    void update_withAStaleVersion_isRejectedWithConflict() throws Exception {
+        Book book = this.bookRepository.save(new Book(null, "Original", "978-0000000001", this.author));
+
+        putBook(book.getId(), "First Edit", 0L)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(1)));
+
+        putBook(book.getId(), "Second Edit", 0L)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("o registro foi alterado por outra requisição; recarregue e tente novamente")));
+
+        assertThat(this.bookRepository.findById(book.getId()).orElseThrow().getTitle()).isEqualTo("First Edit");
+    }
+
+    @Test
+    void update_withoutAVersion_overwritesTheCurrentOne() throws Exception {
+        Book book = this.bookRepository.save(new Book(null, "Original", "978-0000000002", this.author));
+
+        putBook(book.getId(), "First Edit", null).andExpect(status().isOk());
+        putBook(book.getId(), "Second Edit", null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(2)));
+    }
+
+    @Test
+    void authorUpdate_withAStaleVersion_isRejectedWithConflict() throws Exception {
+        String body = """
+                {"id": %d, "name": "Renamed", "email": "locking@example.com", "version": 0}
+                """.formatted(this.author.getId());
+
+        this.mockMvc.perform(put("/authors").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(1)));
+        this.mockMvc.perform(put("/authors").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void concurrentReadModifyWrite_losesNoUpdate() throws Exception {
+        Book book = this.bookRepository.save(new Book(null, "0", "978-0000000003", this.author));
+        AtomicInteger conflicts = new AtomicInteger();
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                while (true) {
+                    JsonNode current = getBook(book.getId());
+                    int next = Integer.parseInt(current.get("title").asText()) + 1;
+                    int status = putBook(book.getId(), String.valueOf(next), current.get("version").asLong())
+                            .andReturn().getResponse().getStatus();
+                    if (status == 200) {
+                        break;
+                    }
+                    assertThat(status).isEqualTo(409);
+                    conflicts.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        Book stored = this.bookRepository.findById(book.getId()).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo(String.valueOf(THREADS * INCREMENTS_PER_THREAD));
+        assertThat(stored.getVersion()).isEqualTo((long) THREADS * INCREMENTS_PER_THREAD);
+        assertThat(conflicts.get()).isPositive();
+    }
+
+    @Test
+    void deletingAnAuthor_whileItsBooksAreWritten_leavesNoOrphans() throws Exception {
+        List<Long> bookIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bookIds.add(this.bookRepository.save(new Book(null, "Book " + i, "978-1" + i, this.author)).getId());
+        }
+        Set<Integer> statuses = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(THREADS, () -> {
+            for (Long bookId : bookIds) {
+                statuses.add(putBook(bookId, "Edited", null).andReturn().getResponse().getStatus());
+                statuses.add(this.mockMvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"title": "New", "isbn": "978-2", "authorId": %d}
+                        """.formatted(this.author.getId()))).andReturn().getResponse().getStatus());
+            }
+            return null;
+        }, () -> {
+            statuses.add(this.mockMvc.perform(delete("/authors/" + this.author.getId()))
+                    .andReturn().getResponse().getStatus());
+            return null;
+        });
+
+        assertThat(statuses).isSubsetOf(200, 201, 204, 404, 409);
+        assertThat(this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM books b LEFT JOIN authors a ON a.id = b.author_id WHERE a.id IS NULL",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    void valuesTheDatabaseRejects_areABadRequestRatherThanAConflict() throws Exception {
+        this.mockMvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"title": "%s", "isbn": "978-3", "authorId": %d}
+                        """.formatted("T".repeat(300), this.author.getId())))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(post("/books").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"title": "Fine", "isbn": "%s", "authorId": %d}
+                        """.formatted("9".repeat(300), this.author.getId())))
+                .andExpect(status().isBadRequest());
+        assertThat(this.bookRepository.count()).isZero();
+    }
+
+    private JsonNode getBook(Long id) throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/books/" + id)).andReturn();
+        return this.objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private ResultActions putBook(Long id, String title, Long version) throws Exception {
+        return this.mockMvc.perform(put("/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"id": %d, "title": "%s", "isbn": "978-0000000000", "authorId": %d, "version": %s}
+                        """.formatted(id, title, this.author.getId(), version)));
+    }
+
+    private static void runConcurrently(int threads, Callable<Void> task, Callable<?>... others) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads + others.length);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            for (Callable<?> other : others) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return other.call();
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // a deadlock shows up here as a timeout rather than a hung build
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
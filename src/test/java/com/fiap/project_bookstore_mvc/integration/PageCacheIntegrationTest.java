@@ -0,0 +1,73 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.pagecache.PageResponseCache;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pagecache;DB_CLOSE_DELAY=-1",
+        "bookstore.page-cache.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PageCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PageResponseCache cache;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        createAuthor("First Author");
+    }
+
+    @Test
+    void listPages_shouldBeServedFromTheCacheUntilTheNextWrite() throws Exception {
+        String rendered = this.mockMvc.perform(get("/authors").param("size", "5"))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andReturn().getResponse().getContentAsString();
+        long hits = this.cache.hits();
+
+        String cached = this.mockMvc.perform(get("/authors").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(cached).isEqualTo(rendered);
+        assertThat(this.cache.hits()).isEqualTo(hits + 1);
+
+        createAuthor("Second Author");
+
+        this.mockMvc.perform(get("/authors").param("size", "5"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+    }
+
+    private void createAuthor(String name) throws Exception {
+        this.mockMvc.perform(post("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\", \"email\": \"author@example.com\"}"))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,128 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.popularity.PopularityTracker;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import com.fiap.project_bookstore_mvc.suggest.CatalogSuggester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:popularity;DB_CLOSE_DELAY=-1",
+        "bookstore.popularity.flush-interval=1h",
+        "bookstore.suggest.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PopularityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PopularityTracker tracker;
+
+    @Autowired
+    private CatalogSuggester suggester;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Book dune;
+    private Book emma;
+
+    @BeforeEach
+    void setUp() {
+        this.tracker.flush();
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        Author author = this.authorRepository.save(new Author(null, "Author", "author@example.com"));
+        this.dune = this.bookRepository.save(new Book(null, "Dune", "111", author));
+        this.emma = this.bookRepository.save(new Book(null, "Emma", "222", author));
+    }
+
+    @Test
+    void popular_ranksBooksByViewsInTheWindow() throws Exception {
+        view(this.dune, 3);
+        view(this.emma, 1);
+        this.mockMvc.perform(get("/books/{id}", 999_999)).andExpect(status().isNotFound());
+
+        this.tracker.flush();
+
+        this.mockMvc.perform(get("/books/popular").param("window", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(this.dune.getId().intValue())))
+                .andExpect(jsonPath("$[0].title", is("Dune")))
+                .andExpect(jsonPath("$[0].views", is(3)))
+                .andExpect(jsonPath("$[1].title", is("Emma")));
+        this.mockMvc.perform(get("/books/popular").param("window", "all").param("limit", "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].views", is(3)));
+    }
+
+    @Test
+    void flush_addsViewsToTheStoredTotalsWithoutTouchingOtherColumns() throws Exception {
+        view(this.emma, 2);
+        this.tracker.flush();
+        view(this.emma, 1);
+        this.tracker.flush();
+
+        this.mockMvc.perform(put("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": " + this.emma.getId() + ", \"title\": \"Emma (2nd ed.)\", \"isbn\": \"222\", \"authorId\": "
+                                + this.emma.getAuthor().getId() + "}"))
+                .andExpect(status().isOk());
+
+        Long views = this.jdbcTemplate.queryForObject("SELECT views FROM books WHERE id = ?", Long.class, this.emma.getId());
+        assertThat(views).isEqualTo(3L);
+    }
+
+    @Test
+    void suggest_ranksBooksByTheirStoredViewsAfterARebuild() throws Exception {
+        this.bookRepository.save(new Book(null, "Dracula", "333", this.dune.getAuthor()));
+        view(this.dune, 2);
+        this.tracker.flush();
+
+        this.suggester.rebuild();
+
+        this.mockMvc.perform(get("/books/suggest").param("prefix", "d"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].label", is("Dune")))
+                .andExpect(jsonPath("$[1].label", is("Dracula")));
+    }
+
+    @Test
+    void popular_rejectsWindowsThatAreNotTracked() throws Exception {
+        this.mockMvc.perform(get("/books/popular").param("window", "2h"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown window: 2h, expected all or one of [1h, 1d, 7d]")));
+    }
+
+    private void view(Book book, int times) throws Exception {
+        for (int i = 0; i < times; i++) {
+            this.mockMvc.perform(get("/books/{id}", book.getId())).andExpect(status().isOk());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:profiling;DB_CLOSE_DELAY=-1",
+        "bookstore.profiling.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProfilingIntegrationTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void recording_capturesServiceAndRepositoryCalls() throws Exception {
+        this.bookRepository.deleteAll();
+        Author author = this.authorRepository.save(new Author(null, "Octavia Butler", "octavia@example.com"));
+
+        JsonNode started = this.objectMapper.readTree(this.mockMvc.perform(post("/admin/profiling/recordings")
+                        .param("threshold", "0ms"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.state", is("running")))
+                .andReturn().getResponse().getContentAsString());
+        long id = started.get("id").asLong();
+
+        this.mockMvc.perform(get("/authors/{id}", author.getId())).andExpect(status().isOk());
+
+        this.mockMvc.perform(post("/admin/profiling/recordings/{id}/stop", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("closed")));
+        byte[] jfr = this.mockMvc.perform(get("/admin/profiling/recordings/{id}/file", id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Path file = Files.write(this.directory.resolve("recording.jfr"), jfr);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("bookstore."))
+                .toList();
+        assertThat(events)
+                .anySatisfy(event -> {
+                    assertThat(event.getEventType().getName()).isEqualTo("bookstore.ServiceCall");
+                    assertThat(event.getString("component")).isEqualTo("AuthorService");
+                    assertThat(event.getString("method")).isEqualTo("findOptionalById");
+                    assertThat(event.getLong("entityId")).isEqualTo(author.getId());
+                })
+                .anySatisfy(event -> {
+                    assertThat(event.getEventType().getName()).isEqualTo("bookstore.RepositoryCall");
+                    assertThat(event.getString("component")).isEqualTo("AuthorRepository");
+                    assertThat(event.getInt("rows")).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void start_rejectsUnknownProfiles() throws Exception {
+        this.mockMvc.perform(post("/admin/profiling/recordings").param("profile", "nope"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown JFR profile: nope")));
+        this.mockMvc.perform(get("/admin/profiling/recordings/{id}/file", 999_999))
+                .andExpect(status().isNotFound());
+    }
+}
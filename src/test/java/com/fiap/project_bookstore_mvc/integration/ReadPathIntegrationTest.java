@@ -0,0 +1,90 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * With open-in-view off, every read endpoint has to load what it renders up front: the statement count of a
+ * request must not grow with the number of rows on the page.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readpath;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fiap.project_bookstore_mvc.integration.RecordingStatementInspector"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadPathIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        List<Object[]> authors = new ArrayList<>();
+        List<Object[]> books = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            authors.add(new Object[]{id, "Author " + id, "author" + id + "@example.com"});
+            for (int i = 0; i < 4; i++) {
+                books.add(new Object[]{id * 10 + i, "Title " + id + "-" + i, "978-" + id + i, id});
+            }
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, email) VALUES (?, ?, ?)", authors);
+        this.jdbcTemplate.batchUpdate("INSERT INTO books (id, title, isbn, author_id) VALUES (?, ?, ?, ?)", books);
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void openInView_shouldBeDisabled() {
+        assertThat(this.context.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void bookPages_shouldLoadAuthorsWithTheBooks() throws Exception {
+        this.mockMvc.perform(get("/books").param("size", "20").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(20)))
+                .andExpect(jsonPath("$.content[19].author.name").value("Author 5"));
+
+        assertThat(RecordingStatementInspector.statements()).hasSize(2);
+    }
+
+    @Test
+    void singleReads_shouldNotLoadLazilyWhileRendering() throws Exception {
+        this.mockMvc.perform(get("/books/32")).andExpect(jsonPath("$.author.email").value("author3@example.com"));
+        assertThat(RecordingStatementInspector.statements()).hasSize(1);
+
+        RecordingStatementInspector.clear();
+        this.mockMvc.perform(get("/authors/2/books")).andExpect(jsonPath("$", hasSize(4)));
+        assertThat(RecordingStatementInspector.statements()).hasSize(2);
+
+        RecordingStatementInspector.clear();
+        this.mockMvc.perform(get("/authors").param("size", "10").param("count", "none"))
+                .andExpect(jsonPath("$.content", hasSize(5)));
+        assertThat(RecordingStatementInspector.statements()).hasSize(1);
+    }
+}
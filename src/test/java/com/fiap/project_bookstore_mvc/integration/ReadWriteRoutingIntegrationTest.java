@@ -0,0 +1,165 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.datasource.ReadYourWritesTracker;
+import com.fiap.project_bookstore_mvc.datasource.ReplicaLagMonitor;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "bookstore.datasource.replica.enabled=true",
+        "bookstore.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "bookstore.datasource.replica.username=sa",
+        "bookstore.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+        "bookstore.datasource.replica.lag-check-interval=1h",
+        "bookstore.datasource.replica.max-lag=5s",
+        "bookstore.datasource.replica.stickiness=30s",
+        // the first detail load of a cold context can take longer than the default deadline on a slow machine
+        "bookstore.author-detail.timeout=30s"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        this.primary = new JdbcTemplate(this.primaryDataSource);
+        this.replica = new JdbcTemplate(this.replicaDataSource);
+
+        // The replica is a second H2 instance; "replication" is simulated by writing to it directly
+        this.replica.execute("CREATE TABLE IF NOT EXISTS authors (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255), version BIGINT DEFAULT 0 NOT NULL)");
+        this.replica.execute("CREATE TABLE IF NOT EXISTS books (id BIGINT PRIMARY KEY, title VARCHAR(255), isbn VARCHAR(255), author_id BIGINT NOT NULL, version BIGINT DEFAULT 0 NOT NULL)");
+        this.replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE)");
+        this.replica.execute("DELETE FROM books");
+        this.replica.execute("DELETE FROM authors");
+        this.replica.execute("DELETE FROM replica_lag");
+        this.replica.update("INSERT INTO replica_lag VALUES (0)");
+        this.lagMonitor.check();
+
+        this.primary.execute("DELETE FROM books");
+        this.primary.execute("DELETE FROM authors");
+    }
+
+    @Test
+    void readOnlyLookup_shouldBeServedByReplica() throws Exception {
+        this.replica.update("INSERT INTO authors (id, name, email) VALUES (4242, 'Replica Author', 'replica@example.com')");
+
+        this.mockMvc.perform(get("/authors/4242"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Replica Author")));
+    }
+
+    @Test
+    void write_shouldGoToPrimaryAndSetStickinessCookie() throws Exception {
+        MvcResult result = createAuthor();
+
+        assertThat(this.primary.queryForObject("SELECT COUNT(*) FROM authors", Integer.class)).isEqualTo(1);
+        assertThat(this.replica.queryForObject("SELECT COUNT(*) FROM authors", Integer.class)).isZero();
+        assertThat(result.getResponse().getCookie(ReadYourWritesTracker.COOKIE_NAME)).isNotNull();
+    }
+
+    @Test
+    void readAfterWrite_shouldStickToPrimaryForTheSession() throws Exception {
+        MvcResult result = createAuthor();
+        Cookie lastWrite = result.getResponse().getCookie(ReadYourWritesTracker.COOKIE_NAME);
+        Long id = this.primary.queryForObject("SELECT id FROM authors", Long.class);
+
+        this.mockMvc.perform(get("/authors/" + id).cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Primary Author")));
+
+        this.mockMvc.perform(get("/authors/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void readWithIncludeAfterWrite_shouldStickToPrimaryForEveryPart() throws Exception {
+        MvcResult result = createAuthor();
+        Cookie lastWrite = result.getResponse().getCookie(ReadYourWritesTracker.COOKIE_NAME);
+        Long id = this.primary.queryForObject("SELECT id FROM authors", Long.class);
+        this.primary.update("INSERT INTO books (title, isbn, author_id, version) VALUES ('Primary Book', '978-1', ?, 0)", id);
+
+        // the replica is behind but within max-lag, so only stickiness keeps these reads on the primary
+        this.mockMvc.perform(get("/authors/" + id).param("include", "books,bookCount").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Primary Author")))
+                .andExpect(jsonPath("$.books[0].title", is("Primary Book")))
+                .andExpect(jsonPath("$.bookCount", is(1)));
+
+        this.mockMvc.perform(get("/authors/" + id).param("include", "books,bookCount"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void laggingReplica_shouldFallBackToPrimary() throws Exception {
+        createAuthor();
+        Long id = this.primary.queryForObject("SELECT id FROM authors", Long.class);
+
+        this.replica.update("UPDATE replica_lag SET seconds = 60");
+        this.lagMonitor.check();
+
+        this.mockMvc.perform(get("/authors/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Primary Author")));
+    }
+
+    @Test
+    void lagCheck_shouldNotRunOnRequestThreads() throws Exception {
+        createAuthor();
+        Long id = this.primary.queryForObject("SELECT id FROM authors", Long.class);
+
+        // the scheduled check will not come round again within the test, so the verdict must not change
+        this.replica.update("UPDATE replica_lag SET seconds = 60");
+
+        this.mockMvc.perform(get("/authors/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    private MvcResult createAuthor() throws Exception {
+        return this.mockMvc.perform(post("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "name": "Primary Author",
+                                    "email": "primary@example.com"
+                                }
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn();
+    }
+}
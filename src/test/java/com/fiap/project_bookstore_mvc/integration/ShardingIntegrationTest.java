@@ -0,0 +1,318 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.dto.In.BookReassignInDTO;
+import com.fiap.project_bookstore_mvc.sharding.ShardDataSources;
+import com.fiap.project_bookstore_mvc.sharding.ShardDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "bookstore.sharding.enabled=true",
+        "bookstore.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "bookstore.sharding.shards[0].username=sa",
+        "bookstore.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "bookstore.sharding.shards[1].username=sa",
+        "bookstore.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "bookstore.sharding.shards[2].username=sa"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardDataSources shards;
+
+    @Autowired
+    private ShardDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = 0; shard < this.shards.count(); shard++) {
+            this.shards.jdbc(shard).execute("DELETE FROM books");
+            this.shards.jdbc(shard).execute("DELETE FROM authors");
+        }
+        this.shards.jdbc(0).query("SELECT author_id FROM author_shard_overrides",
+                row -> {
+                    this.directory.forget(row.getLong(1));
+                });
+    }
+
+    @Test
+    void createAuthors_shouldSpreadAcrossShardsWithBooksColocated() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(3, 2);
+
+        for (int shard = 0; shard < this.shards.count(); shard++) {
+            assertThat(count(shard, "authors")).isEqualTo(1);
+            assertThat(count(shard, "books")).isEqualTo(2);
+        }
+        for (Long authorId : authorIds) {
+            int shard = this.directory.shardOfAuthor(authorId);
+            assertThat(this.shards.jdbc(shard).queryForObject(
+                    "SELECT COUNT(*) FROM books WHERE author_id = ?", Integer.class, authorId)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void createAuthors_fromNdjson_shouldSpreadAcrossShardsWithBooksColocated() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int a = 0; a < 6; a++) {
+            lines.append("""
+                    {"name": "Author %d", "email": "author%d@example.com", "books": [{"title": "Book %d", "isbn": "978-%d"}]}
+                    """.formatted(a, a, a, a));
+        }
+
+        String body = this.mockMvc.perform(post("/authors")
+                        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                        .content(lines.toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] created = body.split("\n");
+        assertThat(created).hasSize(6);
+        for (int a = 0; a < 6; a++) {
+            JsonNode author = this.objectMapper.readTree(created[a]);
+            assertThat(author.get("name").asText()).isEqualTo("Author " + a);
+            int shard = this.directory.shardOfAuthor(author.get("id").asLong());
+            assertThat(this.shards.jdbc(shard).queryForObject("SELECT title FROM books WHERE author_id = ?",
+                    String.class, author.get("id").asLong())).isEqualTo("Book " + a);
+        }
+        for (int shard = 0; shard < this.shards.count(); shard++) {
+            assertThat(count(shard, "authors")).isEqualTo(2);
+            assertThat(count(shard, "books")).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void findBooksByAuthorId_shouldBeServedByTheAuthorsShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(3, 2);
+
+        this.mockMvc.perform(get("/authors/" + authorIds.get(1) + "/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].author.id").value(authorIds.get(1)));
+    }
+
+    @Test
+    void findAllBooks_shouldMergeShardsInIdOrderWithGlobalTotal() throws Exception {
+        createAuthorsWithBooks(3, 2);
+
+        List<Long> seen = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            JsonNode body = this.objectMapper.readTree(this.mockMvc.perform(get("/books")
+                            .param("page", String.valueOf(page))
+                            .param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements", is(6)))
+                    .andReturn().getResponse().getContentAsString());
+            body.get("content").forEach(book -> seen.add(book.get("id").asLong()));
+        }
+
+        assertThat(seen).hasSize(6).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void findBookById_shouldFindBooksOnAnyShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(3, 1);
+        Long bookId = this.shards.jdbc(this.directory.shardOfAuthor(authorIds.get(2)))
+                .queryForObject("SELECT id FROM books", Long.class);
+
+        this.mockMvc.perform(get("/books/" + bookId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.id").value(authorIds.get(2)));
+    }
+
+    @Test
+    void moveAuthor_shouldRelocateAuthorAndBooks() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(3, 2);
+        Long authorId = authorIds.getFirst();
+        int source = this.directory.shardOfAuthor(authorId);
+        int target = (source + 1) % this.shards.count();
+
+        this.mockMvc.perform(post("/admin/shards/authors/" + authorId + "/move").param("target", String.valueOf(target)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromShard", is(source)))
+                .andExpect(jsonPath("$.toShard", is(target)))
+                .andExpect(jsonPath("$.booksMoved", is(2)));
+
+        assertThat(this.directory.shardOfAuthor(authorId)).isEqualTo(target);
+        assertThat(count(source, "authors")).isZero();
+        assertThat(count(target, "books")).isEqualTo(4);
+
+        this.mockMvc.perform(get("/authors/" + authorId))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/authors/" + authorId + "/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void moveAuthor_shouldRejectUnknownShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(1, 0);
+
+        this.mockMvc.perform(post("/admin/shards/authors/" + authorIds.getFirst() + "/move").param("target", "7"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateBook_shouldFollowItsNewAuthorToAnotherShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(2, 1);
+        int source = this.directory.shardOfAuthor(authorIds.get(0));
+        int target = this.directory.shardOfAuthor(authorIds.get(1));
+        Long bookId = this.shards.jdbc(source).queryForObject("SELECT id FROM books", Long.class);
+
+        this.mockMvc.perform(put("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "id": %d,
+                                    "title": "Moved Book",
+                                    "isbn": "978-0000000000",
+                                    "authorId": %d
+                                }
+                                """.formatted(bookId, authorIds.get(1))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(bookId));
+
+        assertThat(count(source, "books")).isZero();
+        assertThat(count(target, "books")).isEqualTo(2);
+    }
+
+    @Test
+    void deleteBook_shouldRemoveItFromItsShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(3, 1);
+        int shard = this.directory.shardOfAuthor(authorIds.get(2));
+        Long bookId = this.shards.jdbc(shard).queryForObject("SELECT id FROM books", Long.class);
+
+        this.mockMvc.perform(delete("/books/" + bookId))
+                .andExpect(status().isNoContent());
+
+        assertThat(count(shard, "books")).isZero();
+        assertThat(count((shard + 1) % this.shards.count(), "books")).isEqualTo(1);
+        this.mockMvc.perform(get("/books/" + bookId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteBooks_shouldRemoveThemFromEveryShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(3, 2);
+        List<Long> bookIds = new ArrayList<>();
+        for (Long authorId : authorIds) {
+            bookIds.add(this.shards.jdbc(this.directory.shardOfAuthor(authorId)).queryForObject(
+                    "SELECT MIN(id) FROM books WHERE author_id = ?", Long.class, authorId));
+        }
+
+        this.mockMvc.perform(delete("/books").param("ids", bookIds.stream().map(String::valueOf).toArray(String[]::new)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(3)));
+
+        for (int shard = 0; shard < this.shards.count(); shard++) {
+            assertThat(count(shard, "books")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void reassignBooks_fromAuthor_shouldMoveThemToTheTargetsShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(2, 3);
+        int source = this.directory.shardOfAuthor(authorIds.get(0));
+        int target = this.directory.shardOfAuthor(authorIds.get(1));
+
+        this.mockMvc.perform(post("/books/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fromAuthorId": %d, "toAuthorId": %d}
+                                """.formatted(authorIds.get(0), authorIds.get(1))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(3)));
+
+        assertThat(count(source, "books")).isZero();
+        assertThat(count(target, "books")).isEqualTo(6);
+        this.mockMvc.perform(get("/authors/" + authorIds.get(1) + "/books"))
+                .andExpect(jsonPath("$", hasSize(6)));
+    }
+
+    @Test
+    void reassignBooks_byId_shouldMoveThemToTheTargetsShard() throws Exception {
+        List<Long> authorIds = createAuthorsWithBooks(3, 2);
+        int target = this.directory.shardOfAuthor(authorIds.get(2));
+        List<Long> bookIds = new ArrayList<>();
+        for (Long authorId : authorIds.subList(0, 2)) {
+            bookIds.addAll(this.shards.jdbc(this.directory.shardOfAuthor(authorId)).queryForList(
+                    "SELECT id FROM books WHERE author_id = ?", Long.class, authorId));
+        }
+
+        this.mockMvc.perform(post("/books/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(
+                                new BookReassignInDTO(null, bookIds, authorIds.get(2)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(4)));
+
+        assertThat(count(target, "books")).isEqualTo(6);
+        assertThat(this.shards.jdbc(target).queryForObject(
+                "SELECT COUNT(*) FROM books WHERE author_id = ? AND version = 1", Integer.class, authorIds.get(2)))
+                .isEqualTo(4);
+        for (Long authorId : authorIds.subList(0, 2)) {
+            assertThat(count(this.directory.shardOfAuthor(authorId), "books")).isZero();
+        }
+    }
+
+    private List<Long> createAuthorsWithBooks(int authors, int booksPerAuthor) throws Exception {
+        List<Long> authorIds = new ArrayList<>();
+        for (int a = 0; a < authors; a++) {
+            String response = this.mockMvc.perform(post("/authors")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {
+                                        "name": "Author %d",
+                                        "email": "author%d@example.com"
+                                    }
+                                    """.formatted(a, a)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            Long authorId = this.objectMapper.readTree(response).get("id").asLong();
+            authorIds.add(authorId);
+
+            for (int b = 0; b < booksPerAuthor; b++) {
+                this.mockMvc.perform(post("/books")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        {
+                                            "title": "Book %d-%d",
+                                            "isbn": "978-%d%d",
+                                            "authorId": %d
+                                        }
+                                        """.formatted(a, b, a, b, authorId)))
+                        .andExpect(status().isCreated());
+            }
+        }
+        return authorIds;
+    }
+
+    private int count(int shard, String table) {
+        Integer count = this.shards.jdbc(shard).queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,177 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import com.fiap.project_bookstore_mvc.snapshot.CatalogSnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1",
+        "bookstore.snapshot.enabled=true",
+        "bookstore.snapshot.directory=${java.io.tmpdir}/bookstore-snapshot-it",
+        "bookstore.snapshot.rebuild-interval=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SnapshotReadIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogSnapshotStore store;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+    }
+
+    @Test
+    void reads_shouldServeTheSameJsonAsTheJpaPath() throws Exception {
+        long authorId = createAuthor("Snapshot Author");
+        long bookId = createBook(authorId, "Snapshot Book");
+        String fromJpa = this.mockMvc.perform(get("/books/" + bookId)).andReturn().getResponse().getContentAsString();
+
+        this.store.rebuild();
+        this.bookRepository.deleteAll();
+
+        this.mockMvc.perform(get("/books/" + bookId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(fromJpa));
+        this.mockMvc.perform(get("/authors/" + authorId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Snapshot Author")));
+    }
+
+    @Test
+    void writesAfterTheSnapshot_shouldBeVisibleThroughTheOverlay() throws Exception {
+        long authorId = createAuthor("Original Name");
+        long keptId = createBook(authorId, "Kept Book");
+        long deletedId = createBook(authorId, "Deleted Book");
+        this.store.rebuild();
+
+        this.mockMvc.perform(put("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"id": %d, "name": "Renamed", "email": "author@example.com"}
+                                """.formatted(authorId)))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(delete("/books/" + deletedId)).andExpect(status().isNoContent());
+        long createdId = createBook(authorId, "New Book");
+
+        assertThat(this.store.overlaySize()).isEqualTo(3);
+        this.mockMvc.perform(get("/books/" + keptId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.name", is("Renamed")));
+        this.mockMvc.perform(get("/books/" + deletedId)).andExpect(status().isNotFound());
+        this.mockMvc.perform(get("/books/" + createdId))
+                .andExpect(jsonPath("$.title", is("New Book")));
+
+        this.store.rebuild();
+        assertThat(this.store.overlaySize()).isZero();
+        assertThat(this.store.current().bookCount()).isEqualTo(2);
+    }
+
+    @Test
+    void booksByAuthor_shouldComeFromTheIndexMergedWithTheOverlay() throws Exception {
+        long authorId = createAuthor("Indexed");
+        long otherId = createAuthor("Other");
+        long firstId = createBook(authorId, "First");
+        long movedId = createBook(authorId, "Moved Away");
+        createBook(otherId, "Not Mine");
+        String fromJpa = this.mockMvc.perform(get("/authors/" + authorId + "/books"))
+                .andReturn().getResponse().getContentAsString();
+        this.store.rebuild();
+
+        this.mockMvc.perform(get("/authors/" + authorId + "/books"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(fromJpa));
+
+        this.mockMvc.perform(put("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"id": %d, "title": "Moved Away", "isbn": "978-0000000000", "authorId": %d}
+                                """.formatted(movedId, otherId)))
+                .andExpect(status().isOk());
+        long addedId = createBook(authorId, "Added");
+
+        this.mockMvc.perform(get("/authors/" + authorId + "/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains((int) firstId, (int) addedId)));
+        this.mockMvc.perform(get("/authors/" + otherId + "/books"))
+                .andExpect(jsonPath("$[*].title").value(containsInAnyOrder("Not Mine", "Moved Away")));
+    }
+
+    @Test
+    void export_shouldStreamSnapshotAndOverlayAsNdjson() throws Exception {
+        long authorId = createAuthor("Exporter");
+        createBook(authorId, "First");
+        long secondId = createBook(authorId, "Second");
+        this.store.rebuild();
+        this.mockMvc.perform(delete("/books/" + secondId)).andExpect(status().isNoContent());
+        createBook(authorId, "Third");
+
+        String body = this.mockMvc.perform(get("/books/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines().map(line -> readTitle(line)).toList()).containsExactly("First", "Third");
+    }
+
+    private String readTitle(String json) {
+        try {
+            return this.objectMapper.readTree(json).get("title").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long createAuthor(String name) throws Exception {
+        String response = this.mockMvc.perform(post("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "%s", "email": "author@example.com"}
+                                """.formatted(name)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return this.objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private long createBook(long authorId, String title) throws Exception {
+        String response = this.mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "%s", "isbn": "978-0000000000", "authorId": %d}
+                                """.formatted(title, authorId)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return this.objectMapper.readTree(response).get("id").asLong();
+    }
+}
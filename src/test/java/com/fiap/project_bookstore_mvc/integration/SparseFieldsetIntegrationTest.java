@@ -0,0 +1,106 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fieldsets;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fiap.project_bookstore_mvc.integration.RecordingStatementInspector"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.execute("DELETE FROM books");
+        this.jdbcTemplate.execute("DELETE FROM authors");
+        this.jdbcTemplate.update("INSERT INTO authors (id, name, email) VALUES (1, 'Author', 'author@example.com')");
+        List<Object[]> books = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            books.add(new Object[]{"Title " + i, "978-" + i, 1L});
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO books (title, isbn, author_id) VALUES (?, ?, ?)", books);
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void books_readAndWriteOnlyTheRequestedFields() throws Exception {
+        this.mockMvc.perform(get("/books").param("fields", "id,title").param("sort", "title").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(5)))
+                .andExpect(jsonPath("$.content[0].title", is("Title 0")))
+                .andExpect(jsonPath("$.content[0].isbn").doesNotExist())
+                .andExpect(jsonPath("$.content[0].author").doesNotExist());
+
+        assertThat(rowQueries()).containsExactly("select b1_0.id,b1_0.title from books b1_0 where b1_0.id in (?,?,?,?,?)");
+    }
+
+    @Test
+    void books_withIdOnly_skipTheRowQuery() throws Exception {
+        this.mockMvc.perform(get("/books").param("fields", "id").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(5)))
+                .andExpect(jsonPath("$.content[0].title").doesNotExist());
+
+        assertThat(rowQueries()).isEmpty();
+    }
+
+    @Test
+    void authors_readAndWriteOnlyTheRequestedFields() throws Exception {
+        this.mockMvc.perform(get("/authors").param("fields", "name").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Author")))
+                .andExpect(jsonPath("$.content[0].email").doesNotExist());
+
+        assertThat(RecordingStatementInspector.statements())
+                .filteredOn(sql -> sql.contains("from authors a1_0 order by"))
+                .containsExactly("select a1_0.id,a1_0.name from authors a1_0 order by a1_0.id offset ? rows fetch first ? rows only");
+    }
+
+    @Test
+    void authors_withIdOnly_returnIds() throws Exception {
+        this.mockMvc.perform(get("/authors").param("fields", "id").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[0].name").doesNotExist());
+    }
+
+    @Test
+    void unknownField_isRejected() throws Exception {
+        this.mockMvc.perform(get("/authors").param("fields", "id,books"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown author field: books, expected some of [id, name, email]")));
+    }
+
+    // background jobs (suggestions, change feed) read too, so look only at the statements loading a page's rows
+    private static List<String> rowQueries() {
+        return RecordingStatementInspector.statements().stream()
+                .filter(sql -> sql.contains("where b1_0.id in"))
+                .toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.sqlbudget.SqlStats;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts how many SQL statements a request issues on the test thread:
+ * {@code SqlBudget.atMost(2, () -> mockMvc.perform(get("/books"))).andExpect(status().isOk())}.
+ */
+public final class SqlBudget {
+
+    private SqlBudget() {
+    }
+
+    public static ResultActions atMost(int statements, Request request) throws Exception {
+        SqlStats stats = SqlStats.start();
+        ResultActions result;
+        try {
+            result = request.perform();
+        } finally {
+            stats.stop();
+        }
+        assertThat(stats.statements()).as("statements issued (%s)", stats).isLessThanOrEqualTo(statements);
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface Request {
+        ResultActions perform() throws Exception;
+    }
+}
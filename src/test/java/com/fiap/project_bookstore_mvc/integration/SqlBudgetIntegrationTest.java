@@ -0,0 +1,80 @@
+package com.fiap.project_bookstore_mvc.integration;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlbudget;DB_CLOSE_DELAY=-1",
+        "bookstore.sql-budget.mode=flag",
+        "bookstore.sql-budget.server-timing=true",
+        "bookstore.sql-budget.max-statements.get[/authors/{id}/books]=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlBudgetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        this.bookRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        this.author = this.authorRepository.save(new Author(null, "Author", "author@example.com"));
+        this.bookRepository.save(new Book(null, "Book", "111", this.author));
+    }
+
+    @Test
+    void jsonResponses_carryServerTiming() throws Exception {
+        this.mockMvc.perform(get("/books/{id}", this.bookRepository.findAll().getFirst().getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", matchesPattern(
+                        "db;dur=\\d+\\.\\d{2};desc=\"1 statements, 1 rows\", mapping;dur=\\d+\\.\\d{2}, serialization;dur=\\d+\\.\\d{2}")))
+                .andExpect(header().doesNotExist("Sql-Budget-Exceeded"));
+
+        assertThat(this.meterRegistry.get("bookstore.sql.statements").tag("route", "GET /books/{id}").summary().count())
+                .isPositive();
+    }
+
+    @Test
+    void requestsOverTheirBudget_areFlagged() throws Exception {
+        double exceeded = exceeded();
+
+        this.mockMvc.perform(get("/authors/{id}/books", this.author.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Sql-Budget-Exceeded", "2/1"));
+
+        assertThat(exceeded()).isEqualTo(exceeded + 1);
+    }
+
+    private double exceeded() {
+        var counter = this.meterRegistry.find("bookstore.sql.budget.exceeded").tag("route", "GET /authors/{id}/books").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,71 @@
+package com.fiap.project_bookstore_mvc.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimitTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void tryAcquire_rejectsOnceLimitIsReached() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10, TARGET, 0.5);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInflight()).isEqualTo(2);
+    }
+
+    @Test
+    void release_growsLimitWhileFastAndSaturated() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10, TARGET, 0.5);
+
+        limit.tryAcquire();
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void release_doesNotGrowLimitWhenMostlyIdle() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 20, TARGET, 0.5);
+
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void release_backsOffWhenSlowButNeverBelowMinimum() {
+        AdaptiveLimit limit = new AdaptiveLimit(8, 3, 20, TARGET, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void release_neverGrowsPastMaximum() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 5, TARGET, 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(1);
+            limit.release(1);
+            limit.release(1);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,106 @@
+package com.fiap.project_bookstore_mvc.limiter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyBudget reads;
+    private ConcurrencyBudget writes;
+    private ConcurrencyBudget exports;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        this.reads = new ConcurrencyBudget("reads", budget(1, 503));
+        this.writes = new ConcurrencyBudget("writes", budget(1, 503));
+        this.exports = new ConcurrencyBudget("exports", budget(1, 429));
+        this.filter = new ConcurrencyLimitFilter(this.reads, this.writes, this.exports);
+    }
+
+    @Test
+    void doFilter_rejectsReadsOverBudgetWithRetryAfter() throws Exception {
+        MockHttpServletResponse rejected = whileHolding("GET", "/books", "GET", "/books/1");
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(this.reads.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_keepsSeparateBudgetsForReadsAndWrites() throws Exception {
+        MockHttpServletResponse write = whileHolding("GET", "/books", "POST", "/books");
+
+        assertThat(write.getStatus()).isEqualTo(200);
+        assertThat(this.reads.getRejected()).isZero();
+        assertThat(this.writes.getRejected()).isZero();
+    }
+
+    @Test
+    void doFilter_rejectsExportsOverBudgetWithTooManyRequests() throws Exception {
+        MockHttpServletResponse rejected = whileHolding("GET", "/books/export", "GET", "/books/export");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(this.exports.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_countsOtherPathsMentioningExportAsReads() throws Exception {
+        MockHttpServletResponse rejected = whileHolding("GET", "/books", "GET", "/books/search/export");
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(this.reads.getRejected()).isEqualTo(1);
+        assertThat(this.exports.getRejected()).isZero();
+    }
+
+    @Test
+    void doFilter_ignoresPathsOutsideTheCatalog() throws Exception {
+        MockHttpServletResponse other = whileHolding("GET", "/books", "GET", "/actuator/health");
+
+        assertThat(other.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_releasesPermitWhenRequestCompletes() throws Exception {
+        this.filter.doFilter(request("GET", "/books"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(this.reads.getLimit().getInflight()).isZero();
+    }
+
+    private MockHttpServletResponse whileHolding(String heldMethod, String heldPath,
+                                                 String method, String path) throws Exception {
+        AtomicReference<MockHttpServletResponse> second = new AtomicReference<>();
+        MockFilterChain holding = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                MockHttpServletResponse response2 = new MockHttpServletResponse();
+                try {
+                    filter.doFilter(request(method, path), response2, new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                second.set(response2);
+            }
+        };
+
+        this.filter.doFilter(request(heldMethod, heldPath), new MockHttpServletResponse(), holding);
+        return second.get();
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+
+    private static ConcurrencyLimitProperties.Budget budget(int limit, int rejectStatus) {
+        return new ConcurrencyLimitProperties.Budget(limit, limit, limit, Duration.ofSeconds(1), 0.9,
+                rejectStatus, Duration.ofSeconds(2));
+    }
+}
@@ -0,0 +1,103 @@
+package com.fiap.project_bookstore_mvc.pagecache;
+
+import com.fiap.project_bookstore_mvc.changefeed.CatalogChangeEvent;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCacheFilterTest {
+
+    private ChangeFeed feed;
+    private PageResponseCache cache;
+    private PageCacheFilter filter;
+    private AtomicInteger renders;
+    private int status;
+
+    @BeforeEach
+    void setUp() {
+        this.feed = new ChangeFeed(16, Clock.systemUTC());
+        this.cache = new PageResponseCache(2, 1024, this.feed);
+        this.filter = new PageCacheFilter(this.cache, 3, 256);
+        this.renders = new AtomicInteger();
+        this.status = 200;
+    }
+
+    @Test
+    void doFilter_servesRepeatedPagesFromTheCache() throws Exception {
+        MockHttpServletResponse first = get("/books", Map.of("page", "0", "size", "10", "authorId", "3"));
+        MockHttpServletResponse second = get("/books", Map.of("authorId", "3", "size", "10", "page", "0"));
+
+        assertThat(this.renders).hasValue(1);
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(second.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(this.cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_dropsEveryPageOnceTheCatalogChanges() throws Exception {
+        get("/books", Map.of());
+        get("/authors", Map.of());
+
+        this.feed.append(new CatalogChangeEvent(ChangeEntity.AUTHOR, ChangeType.UPDATED, 1L, null));
+        MockHttpServletResponse books = get("/books", Map.of());
+        get("/authors", Map.of());
+
+        assertThat(this.renders).hasValue(4);
+        assertThat(books.getContentAsString()).isEqualTo("{\"render\":3}");
+    }
+
+    @Test
+    void doFilter_keepsOnlyShallowSuccessfulPages() throws Exception {
+        get("/books", Map.of("page", "3"));
+        get("/books", Map.of("page", "3"));
+        get("/books/1", Map.of());
+        get("/books/1", Map.of());
+        this.status = 400;
+        get("/books", Map.of("sort", "author"));
+        get("/books", Map.of("sort", "author"));
+
+        assertThat(this.renders).hasValue(6);
+        assertThat(this.cache.size()).isZero();
+    }
+
+    @Test
+    void put_evictsTheLeastRecentlyUsedPage() {
+        long version = this.cache.version();
+        this.cache.put("a", version, MediaType.APPLICATION_JSON_VALUE, new byte[10]);
+        this.cache.put("b", version, MediaType.APPLICATION_JSON_VALUE, new byte[10]);
+        this.cache.get("a");
+        this.cache.put("c", version, MediaType.APPLICATION_JSON_VALUE, new byte[10]);
+
+        assertThat(this.cache.get("a")).isNotNull();
+        assertThat(this.cache.get("b")).isNull();
+        assertThat(this.cache.bytes()).isEqualTo(20);
+    }
+
+    private MockHttpServletResponse get(String path, Map<String, String> parameters) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        parameters.forEach(request::addParameter);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            int render = this.renders.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(this.status);
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(("{\"render\":" + render + "}").getBytes(StandardCharsets.UTF_8));
+        };
+        this.filter.doFilter(request, response, chain);
+        return response;
+    }
+}
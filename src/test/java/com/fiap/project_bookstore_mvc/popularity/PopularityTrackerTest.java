@@ -0,0 +1,50 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class PopularityTrackerTest {
+
+    private final PopularityStore store = mock(PopularityStore.class);
+    private final PopularityTracker tracker = new PopularityTracker(
+            new PopularityProperties(true, Duration.ofSeconds(10), Duration.ofMinutes(1), List.of(Duration.ofHours(1)),
+                    10, 3),
+            new ViewCounter(), this.store, Clock.systemUTC());
+
+    @Test
+    void flush_keepsViewsOfAFailedUpdateUpToTheLimitDroppingTheOldest() {
+        doThrow(new DataAccessResourceFailureException("down")).when(this.store).addViews(anyMap());
+
+        for (long bookId = 1; bookId <= 5; bookId++) {
+            this.tracker.record(bookId);
+            this.tracker.record(bookId);
+            assertThatThrownBy(this.tracker::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        }
+
+        assertThat(this.tracker.unpersistedSize()).isEqualTo(3);
+        assertThat(this.tracker.droppedViews()).isEqualTo(4);
+
+        Map<Long, Long> persisted = new HashMap<>();
+        doAnswer(invocation -> {
+            persisted.putAll(invocation.getArgument(0));
+            return null;
+        }).when(this.store).addViews(anyMap());
+        this.tracker.flush();
+
+        assertThat(persisted).isEqualTo(Map.of(3L, 2L, 4L, 2L, 5L, 2L));
+        assertThat(this.tracker.unpersistedSize()).isZero();
+    }
+}
@@ -0,0 +1,74 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowTopKTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    private SlidingWindowTopK windows;
+
+    @BeforeEach
+    void setUp() {
+        this.windows = new SlidingWindowTopK(Duration.ofMinutes(1), List.of(Duration.ofHours(1), Duration.ofHours(24)), 3);
+    }
+
+    @Test
+    void top_ranksByViewsThenId() {
+        this.windows.add(Map.of(1L, 5L, 2L, 9L, 3L, 5L, 4L, 1L), 0);
+
+        assertThat(this.windows.top(Duration.ofHours(1), 10, 0))
+                .containsExactly(new BookViews(2, 9), new BookViews(1, 5), new BookViews(3, 5));
+        assertThat(this.windows.top(Duration.ofHours(1), 1, 0)).containsExactly(new BookViews(2, 9));
+    }
+
+    @Test
+    void top_dropsViewsThatLeftTheWindow() {
+        this.windows.add(Map.of(1L, 10L), 0);
+        this.windows.add(Map.of(2L, 4L), 30 * MINUTE);
+        this.windows.add(Map.of(1L, 1L), 30 * MINUTE + 5_000);
+
+        assertThat(this.windows.top(Duration.ofHours(1), 10, 45 * MINUTE))
+                .containsExactly(new BookViews(1, 11), new BookViews(2, 4));
+        assertThat(this.windows.top(Duration.ofHours(1), 10, HOUR + MINUTE))
+                .containsExactly(new BookViews(2, 4), new BookViews(1, 1));
+        assertThat(this.windows.top(Duration.ofHours(24), 10, HOUR + MINUTE))
+                .containsExactly(new BookViews(1, 11), new BookViews(2, 4));
+        assertThat(this.windows.top(Duration.ofHours(1), 10, 2 * HOUR)).isEmpty();
+    }
+
+    @Test
+    void add_mergesViewsOfTheSameBucket() {
+        this.windows.add(Map.of(1L, 2L), 1_000);
+        this.windows.add(Map.of(1L, 3L), 59_000);
+
+        assertThat(this.windows.size()).isEqualTo(1);
+        assertThat(this.windows.top(Duration.ofHours(1), 10, 59_000)).containsExactly(new BookViews(1, 5));
+    }
+
+    @Test
+    void expire_releasesBucketsOnceTheLongestWindowIsPastThem() {
+        this.windows.add(Map.of(1L, 1L), 0);
+        this.windows.add(Map.of(1L, 1L), 2 * HOUR);
+
+        assertThat(this.windows.size()).isEqualTo(2);
+
+        this.windows.add(Map.of(), 25 * HOUR);
+
+        assertThat(this.windows.size()).isEqualTo(1);
+        assertThat(this.windows.top(Duration.ofHours(24), 10, 25 * HOUR)).containsExactly(new BookViews(1, 1));
+    }
+
+    @Test
+    void top_returnsNullForWindowsThatAreNotTracked() {
+        assertThat(this.windows.top(Duration.ofHours(2), 10, 0)).isNull();
+    }
+}
@@ -0,0 +1,74 @@
+package com.fiap.project_bookstore_mvc.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ViewCounterTest {
+
+    private final ViewCounter counter = new ViewCounter();
+
+    @Test
+    void drain_returnsTheViewsSinceTheLastDrain() {
+        this.counter.record(1);
+        this.counter.record(1);
+        this.counter.record(2);
+
+        assertThat(this.counter.drain()).isEqualTo(Map.of(1L, 2L, 2L, 1L));
+
+        this.counter.record(2);
+
+        assertThat(this.counter.drain()).isEqualTo(Map.of(2L, 1L));
+    }
+
+    @Test
+    void drain_forgetsBooksWithoutNewViews() {
+        this.counter.record(1);
+        this.counter.drain();
+
+        assertThat(this.counter.drain()).isEmpty();
+        assertThat(this.counter.size()).isZero();
+    }
+
+    @Test
+    void drain_keepsEveryViewRecordedConcurrently() throws Exception {
+        int threads = 8;
+        int viewsPerThread = 200_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < viewsPerThread; i++) {
+                        this.counter.record(i % 4);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            long total = 0;
+            // drains spaced like (much shorter) flush intervals, racing with the writers
+            while (!writers.stream().allMatch(Future::isDone)) {
+                total += sum(this.counter.drain());
+                Thread.sleep(20);
+            }
+            total += sum(this.counter.drain());
+
+            assertThat(total).isEqualTo((long) threads * viewsPerThread);
+        }
+    }
+
+    private static long sum(Map<Long, Long> views) {
+        return views.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,101 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.services.AuthorService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CallEventAspectTest {
+
+    @TempDir
+    Path directory;
+
+    private AuthorService authorService;
+    private AuthorService target;
+
+    @BeforeEach
+    void setUp() {
+        this.target = mock(AuthorService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(this.target);
+        factory.addAspect(new CallEventAspect());
+        this.authorService = factory.getProxy();
+    }
+
+    @Test
+    void serviceCall_recordsTheEntityIdAndRows() throws Exception {
+        Author author = new Author(7L, "Ursula K. Le Guin", "ursula@example.com");
+        when(this.target.findById(7L)).thenReturn(author);
+        when(this.target.findBooksByAuthorId(7L)).thenReturn(List.of(new Book(1L, "A", "1", author), new Book(2L, "B", "2", author)));
+
+        List<RecordedEvent> events = record(() -> {
+            this.authorService.findById(7L);
+            this.authorService.findBooksByAuthorId(7L);
+        });
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getEventType().getName()).isEqualTo("bookstore.ServiceCall");
+        assertThat(events.get(0).getString("component")).isEqualTo("AuthorService");
+        assertThat(events.get(0).getString("method")).isEqualTo("findById");
+        assertThat(events.get(0).getLong("entityId")).isEqualTo(7L);
+        assertThat(events.get(0).getInt("rows")).isEqualTo(1);
+        assertThat(events.get(1).getString("method")).isEqualTo("findBooksByAuthorId");
+        assertThat(events.get(1).getInt("rows")).isEqualTo(2);
+        assertThat(events.get(1).getBoolean("failed")).isFalse();
+    }
+
+    @Test
+    void serviceCall_marksFailedCalls() throws Exception {
+        when(this.target.findById(9L)).thenThrow(new EntityNotFound("Author not found"));
+
+        List<RecordedEvent> events = record(() ->
+                assertThatThrownBy(() -> this.authorService.findById(9L)).isInstanceOf(EntityNotFound.class));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getLong("entityId")).isEqualTo(9L);
+        assertThat(events.get(0).getInt("rows")).isEqualTo(-1);
+        assertThat(events.get(0).getBoolean("failed")).isTrue();
+    }
+
+    @Test
+    void serviceCall_skipsCallsUnderTheThreshold() throws Exception {
+        when(this.target.findById(7L)).thenReturn(new Author(7L));
+
+        List<RecordedEvent> events = record(Duration.ofHours(1), () -> this.authorService.findById(7L));
+
+        assertThat(events).isEmpty();
+    }
+
+    private List<RecordedEvent> record(Runnable calls) throws Exception {
+        return record(Duration.ZERO, calls);
+    }
+
+    private List<RecordedEvent> record(Duration threshold, Runnable calls) throws Exception {
+        Path file = this.directory.resolve("calls.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ServiceCallEvent.class).withThreshold(threshold);
+            recording.start();
+            calls.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("bookstore."))
+                .toList();
+    }
+}
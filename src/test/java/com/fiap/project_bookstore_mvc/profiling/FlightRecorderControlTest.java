@@ -0,0 +1,82 @@
+package com.fiap.project_bookstore_mvc.profiling;
+
+import com.fiap.project_bookstore_mvc.dto.Out.RecordingOutDTO;
+import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecorderControlTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecorderControl control;
+
+    @BeforeEach
+    void setUp() {
+        this.control = new FlightRecorderControl(new ProfilingProperties(true, this.directory, 2, Duration.ofMinutes(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.control.destroy();
+    }
+
+    @Test
+    void stop_writesARecordingFileThatCanBeDownloaded() throws Exception {
+        RecordingOutDTO started = this.control.start("default", Duration.ofMillis(1), null);
+        assertThat(started.state()).isEqualTo("running");
+        assertThat(started.profile()).isEqualTo("default");
+        assertThatThrownBy(() -> this.control.file(started.id())).isInstanceOf(InvalidRequest.class);
+
+        RecordingOutDTO stopped = this.control.stop(started.id());
+
+        assertThat(stopped.state()).isEqualTo("closed");
+        assertThat(stopped.bytes()).isPositive();
+        Path file = this.control.file(started.id());
+        assertThat(file.getParent()).isEqualTo(this.directory);
+        try (RecordingFile recording = new RecordingFile(file)) {
+            assertThat(recording.hasMoreEvents()).isTrue();
+        }
+    }
+
+    @Test
+    void start_allowsOneRunningRecordingAtATime() {
+        RecordingOutDTO started = this.control.start("default", Duration.ofMillis(1), null);
+
+        assertThatThrownBy(() -> this.control.start("profile", Duration.ofMillis(1), null))
+                .isInstanceOf(InvalidRequest.class)
+                .hasMessageContaining(String.valueOf(started.id()));
+    }
+
+    @Test
+    void start_rejectsUnknownProfiles() {
+        assertThatThrownBy(() -> this.control.start("nope", Duration.ofMillis(1), null))
+                .isInstanceOf(InvalidRequest.class)
+                .hasMessage("Unknown JFR profile: nope");
+    }
+
+    @Test
+    void start_dropsTheOldestRecordingsPastTheRetainedCount() {
+        long first = this.control.stop(this.control.start("default", Duration.ofMillis(1), null).id()).id();
+        Path firstFile = this.control.file(first);
+        this.control.stop(this.control.start("default", Duration.ofMillis(1), null).id());
+        this.control.stop(this.control.start("default", Duration.ofMillis(1), null).id());
+        this.control.start("default", Duration.ofMillis(1), null);
+
+        assertThat(this.control.findAll()).hasSize(3);
+        assertThatThrownBy(() -> this.control.find(first)).isInstanceOf(EntityNotFound.class);
+        assertThat(Files.exists(firstFile)).isFalse();
+    }
+}
@@ -2,9 +2,11 @@ package com.fiap.project_bookstore_mvc.repositories;
 
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -19,6 +21,9 @@ class BookRepositoryTest {
     @Autowired
     AuthorRepository authorRepository;
 
+    @Autowired
+    TestEntityManager entityManager;
+
     @Test
     void save_shouldPersistBookWhenValidAndReturnWhenFindById() {
         // First create and save an author
@@ -37,4 +42,20 @@ class BookRepositoryTest {
         assertThat(found.getIsbn()).isEqualTo(book.getIsbn());
         assertThat(found.getAuthor().getName()).isEqualTo(savedAuthor.getName());
     }
+
+    @Test
+    void update_shouldTrackDirtyAttributesInline() {
+        Author savedAuthor = this.authorRepository.save(new Author(null, "Test Author", "test@example.com"));
+        Book saved = this.bookRepository.save(new Book(null, "Test Book", "978-0123456789", savedAuthor));
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        Book found = this.bookRepository.findById(saved.getId()).orElseThrow();
+        assertThat(found).isInstanceOf(SelfDirtinessTracker.class);
+        assertThat(((SelfDirtinessTracker) found).$$_hibernate_hasDirtyAttributes()).isFalse();
+
+        found.setTitle("Renamed Book");
+
+        assertThat(((SelfDirtinessTracker) found).$$_hibernate_getDirtyAttributes()).containsExactly("title");
+    }
 }
@@ -1,20 +1,37 @@
 package com.fiap.project_bookstore_mvc.services;
 
+import com.fiap.project_bookstore_mvc.changefeed.CatalogChangeEvent;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeType;
+import com.fiap.project_bookstore_mvc.count.CountProperties;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.count.PageCounter;
+import com.fiap.project_bookstore_mvc.count.RowCountEstimator;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
 import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
 import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
 import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import com.fiap.project_bookstore_mvc.sharding.ShardDirectory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -25,12 +42,18 @@ class AuthorServiceImplTest {
     private AuthorService authorService;
     private AuthorRepository authorRepository;
     private BookRepository bookRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
         this.authorRepository = mock(AuthorRepository.class);
         this.bookRepository = mock(BookRepository.class);
-        this.authorService = new AuthorServiceImpl(authorRepository, bookRepository);
+        this.eventPublisher = mock(ApplicationEventPublisher.class);
+        PageCounter pageCounter = new PageCounter(new CountProperties(CountStrategy.EXACT, Duration.ofSeconds(30), 16),
+                mock(ChangeFeed.class), mock(RowCountEstimator.class), Executors.newSingleThreadExecutor(), Clock.systemUTC());
+        ObjectProvider<ShardDirectory> noSharding = mock();
+        this.authorService = new AuthorServiceImpl(authorRepository, bookRepository, eventPublisher, pageCounter,
+                mock(PlatformTransactionManager.class), noSharding);
     }
 
     @Test
@@ -60,6 +83,8 @@ class AuthorServiceImplTest {
 
         final Author result = this.authorService.saveOrUpdate(author);
         verify(this.authorRepository, times(1)).save(author);
+        verify(this.eventPublisher).publishEvent(new CatalogChangeEvent(
+                ChangeEntity.AUTHOR, ChangeType.CREATED, 2L, AuthorMapper.toOutDTO(savedAuthor)));
         assertThat(result).isSameAs(savedAuthor);
     }
 
@@ -72,6 +97,7 @@ class AuthorServiceImplTest {
 
         verify(this.authorRepository, times(1)).findById(1L);
         verify(this.authorRepository, times(1)).delete(author);
+        verify(this.eventPublisher).publishEvent(new CatalogChangeEvent(ChangeEntity.AUTHOR, ChangeType.DELETED, 1L, null));
     }
 
     @Test
@@ -105,19 +131,56 @@ class AuthorServiceImplTest {
         assertThatThrownBy(() -> this.authorService.findBooksByAuthorId(1L)).isInstanceOf(EntityNotFound.class);
     }
 
+    @Test
+    void findOptionalById_returnsEmptyWhenNotFound() {
+        when(this.authorRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThat(this.authorService.findOptionalById(1L)).isEmpty();
+    }
+
+    @Test
+    void findAllById_skipsTheQueryForNoIds() {
+        assertThat(this.authorService.findAllById(List.of())).isEmpty();
+        verifyNoInteractions(this.authorRepository);
+    }
+
+    @Test
+    void findOptionalBooksByAuthorId_returnsEmptyWithoutQueryingBooksWhenAuthorNotFound() {
+        when(this.authorRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThat(this.authorService.findOptionalBooksByAuthorId(1L)).isEmpty();
+        verify(this.bookRepository, never()).findByAuthor(any());
+    }
+
     @Test
     void findAll_returnsPagedAuthors() {
         Author author1 = new Author(1L, "Author 1", "author1@example.com");
         Author author2 = new Author(2L, "Author 2", "author2@example.com");
         List<Author> authors = Arrays.asList(author1, author2);
-        Page<Author> authorPage = new PageImpl<>(authors);
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+
+        when(this.authorRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(authors, pageable, false));
 
-        when(this.authorRepository.findAll(pageable)).thenReturn(authorPage);
+        final CountedPage<Author> result = this.authorService.findAll(0, 10, null);
+        verify(this.authorRepository, times(1)).findAllBy(any(Pageable.class));
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.content()).containsExactly(author1, author2);
+        assertThat(result.total()).isEqualTo(2L);
+        verify(this.authorRepository, never()).count();
+    }
 
-        final Page<Author> result = this.authorService.findAll(0, 10);
-        verify(this.authorRepository, times(1)).findAll(any(Pageable.class));
-        assertThat(result.getContent()).hasSize(2);
-        assertThat(result.getContent()).containsExactly(author1, author2);
+    @Test
+    void findAll_countsOnlyWhenThePageCannotTellTheTotal() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("id"));
+        Author author = new Author(1L, "Author 1", "author1@example.com");
+
+        when(this.authorRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(author), pageable, true));
+        when(this.authorRepository.count()).thenReturn(42L);
+
+        assertThat(this.authorService.findAll(0, 1, CountStrategy.EXACT).total()).isEqualTo(42L);
+        final CountedPage<Author> unCounted = this.authorService.findAll(0, 1, CountStrategy.NONE);
+        verify(this.authorRepository, times(1)).count();
+        assertThat(unCounted.total()).isNull();
+        assertThat(unCounted.hasNext()).isTrue();
     }
 }
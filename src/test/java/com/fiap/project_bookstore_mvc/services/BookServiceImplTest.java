@@ -1,19 +1,38 @@
 package com.fiap.project_bookstore_mvc.services;
 
+import com.fiap.project_bookstore_mvc.changefeed.CatalogChangeEvent;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeEntity;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeed;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeType;
+import com.fiap.project_bookstore_mvc.count.CountProperties;
+import com.fiap.project_bookstore_mvc.count.CountStrategy;
+import com.fiap.project_bookstore_mvc.count.CountedPage;
+import com.fiap.project_bookstore_mvc.count.PageCounter;
+import com.fiap.project_bookstore_mvc.count.RowCountEstimator;
+import com.fiap.project_bookstore_mvc.dto.In.BookFilterInDTO;
+import com.fiap.project_bookstore_mvc.dto.In.BookReassignInDTO;
 import com.fiap.project_bookstore_mvc.entities.Author;
 import com.fiap.project_bookstore_mvc.entities.Book;
 import com.fiap.project_bookstore_mvc.exceptions.EntityNotFound;
+import com.fiap.project_bookstore_mvc.exceptions.InvalidRequest;
+import com.fiap.project_bookstore_mvc.fieldset.BookFieldSet;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
 import com.fiap.project_bookstore_mvc.repositories.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -24,12 +43,17 @@ class BookServiceImplTest {
     private BookService bookService;
     private BookRepository bookRepository;
     private AuthorService authorService;
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
         this.bookRepository = mock(BookRepository.class);
         this.authorService = mock(AuthorService.class);
-        this.bookService = new BookServiceImpl(bookRepository, authorService);
+        this.eventPublisher = mock(ApplicationEventPublisher.class);
+        PageCounter pageCounter = new PageCounter(new CountProperties(CountStrategy.EXACT, Duration.ofSeconds(30), 16),
+                mock(ChangeFeed.class), mock(RowCountEstimator.class), Executors.newSingleThreadExecutor(), Clock.systemUTC());
+        this.bookService = new BookServiceImpl(bookRepository, authorService, eventPublisher, pageCounter,
+                mock(PlatformTransactionManager.class));
     }
 
     @Test
@@ -51,26 +75,98 @@ class BookServiceImplTest {
         assertThat(found).isSameAs(book);
     }
 
+    @Test
+    void findOptionalById_returnsEmptyWhenNotFound() {
+        when(this.bookRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThat(this.bookService.findOptionalById(1L)).isEmpty();
+    }
+
     @Test
     void saveOrUpdate_savesBookSuccessfully() {
         Author author = new Author(1L, "Test Author", "test@example.com");
         Book book = new Book(null, "New Book", "978-0987654321", author);
         Book savedBook = new Book(2L, "New Book", "978-0987654321", author);
 
-        when(this.authorService.findById(1L)).thenReturn(author);
+        when(this.authorService.lockById(1L)).thenReturn(author);
         when(this.bookRepository.save(book)).thenReturn(savedBook);
 
         final Book result = this.bookService.saveOrUpdate(book);
-        verify(this.authorService, times(1)).findById(1L);
+        verify(this.authorService, times(1)).lockById(1L);
         verify(this.bookRepository, times(1)).save(book);
+        verify(this.eventPublisher).publishEvent(new CatalogChangeEvent(
+                ChangeEntity.BOOK, ChangeType.CREATED, 2L, BookMapper.toOutDTO(savedBook)));
         assertThat(result).isSameAs(savedBook);
     }
 
+    @Test
+    void saveOrUpdate_keepingTheAuthor_doesNotLockIt() {
+        Author author = new Author(1L, "Test Author", "test@example.com");
+        author.setVersion(3L);
+        Book stored = new Book(2L, "Old Title", "978-0987654321", author);
+        stored.setVersion(5L);
+        Book edit = new Book(2L, "New Title", "978-0987654321", new Author(1L));
+
+        when(this.bookRepository.findById(2L)).thenReturn(Optional.of(stored));
+        when(this.bookRepository.save(edit)).thenReturn(edit);
+
+        this.bookService.saveOrUpdate(edit);
+        verify(this.authorService, never()).lockById(any());
+        assertThat(edit.getAuthor().getVersion()).isEqualTo(3L);
+        assertThat(edit.getVersion()).isEqualTo(5L);
+    }
+
+    @Test
+    void saveOrUpdate_movingToAnotherAuthor_locksTheNewOne() {
+        Book stored = new Book(2L, "Title", "978-0987654321", new Author(1L, "Old Author", "old@example.com"));
+        Author target = new Author(7L, "New Author", "new@example.com");
+        target.setVersion(4L);
+        Book edit = new Book(2L, "Title", "978-0987654321", new Author(7L));
+
+        when(this.bookRepository.findById(2L)).thenReturn(Optional.of(stored));
+        when(this.authorService.lockById(7L)).thenReturn(target);
+        when(this.bookRepository.save(edit)).thenReturn(edit);
+
+        this.bookService.saveOrUpdate(edit);
+        verify(this.authorService).lockById(7L);
+        assertThat(edit.getAuthor().getVersion()).isEqualTo(4L);
+    }
+
     @Test
     void delete_deletesBookSuccessfully() {
+        when(this.bookRepository.deleteByIds(List.of(1L))).thenReturn(1L);
+
+        this.bookService.delete(1L);
+
+        verify(this.bookRepository, never()).findById(any());
+        verify(this.eventPublisher).publishEvent(new CatalogChangeEvent(ChangeEntity.BOOK, ChangeType.DELETED, 1L, null));
+    }
+
+    @Test
+    void delete_publishesNothingWhenTheBookDoesNotExist() {
         this.bookService.delete(1L);
 
-        verify(this.bookRepository, times(1)).deleteById(1L);
+        verifyNoInteractions(this.eventPublisher);
+    }
+
+    @Test
+    void reassign_needsExactlyOneSource() {
+        assertThatThrownBy(() -> this.bookService.reassign(new BookReassignInDTO(1L, List.of(2L), 3L)))
+                .isInstanceOf(InvalidRequest.class)
+                .hasMessage("Give either fromAuthorId or bookIds");
+        assertThatThrownBy(() -> this.bookService.reassign(new BookReassignInDTO(null, null, 3L)))
+                .isInstanceOf(InvalidRequest.class)
+                .hasMessage("Give either fromAuthorId or bookIds");
+        verifyNoInteractions(this.bookRepository);
+    }
+
+    @Test
+    void reassign_toTheSameAuthorChangesNothing() {
+        Author author = new Author(1L, "Test Author", "test@example.com");
+        when(this.authorService.findById(1L)).thenReturn(author);
+
+        assertThat(this.bookService.reassign(new BookReassignInDTO(1L, null, 1L))).isZero();
+        verifyNoInteractions(this.bookRepository);
     }
 
     @Test
@@ -79,14 +175,49 @@ class BookServiceImplTest {
         Book book1 = new Book(1L, "Book 1", "978-0123456789", author);
         Book book2 = new Book(2L, "Book 2", "978-0987654321", author);
         List<Book> books = Arrays.asList(book1, book2);
-        Page<Book> bookPage = new PageImpl<>(books);
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+
+        when(this.bookRepository.findSlice(any(), eq(pageable), eq(BookFieldSet.ALL))).thenReturn(new SliceImpl<>(books, pageable, false));
+
+        final CountedPage<Book> result = this.bookService.findAll(new BookFilterInDTO(null, null, null), 0, 10, null, null);
+        verify(this.bookRepository, times(1)).findSlice(any(), any(Pageable.class), any(BookFieldSet.class));
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.content()).containsExactly(book1, book2);
+        assertThat(result.total()).isEqualTo(2L);
+        assertThat(result.strategy()).isEqualTo(CountStrategy.EXACT);
+    }
 
-        when(this.bookRepository.findAll(pageable)).thenReturn(bookPage);
+    @Test
+    void findAll_breaksSortTiesById() {
+        when(this.bookRepository.findSlice(any(), any(Pageable.class), any(BookFieldSet.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        this.bookService.findAll(new BookFilterInDTO(1L, null, null), 2, 20, "title,desc", CountStrategy.NONE);
+
+        verify(this.bookRepository).findSlice(any(),
+                eq(PageRequest.of(2, 20, Sort.by(Sort.Direction.DESC, "title", "id"))), eq(BookFieldSet.ALL));
+    }
+
+    @Test
+    void findAll_readsTheSortedFieldsAlongWithTheRequestedOnes() {
+        when(this.bookRepository.findSlice(any(), any(Pageable.class), any(BookFieldSet.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        this.bookService.findAll(new BookFilterInDTO(null, null, null), 0, 10, "title", CountStrategy.NONE, BookFieldSet.parse("id"));
 
-        final Page<Book> result = this.bookService.findAll(0, 10);
-        verify(this.bookRepository, times(1)).findAll(any(Pageable.class));
-        assertThat(result.getContent()).hasSize(2);
-        assertThat(result.getContent()).containsExactly(book1, book2);
+        verify(this.bookRepository).findSlice(any(), any(Pageable.class), eq(BookFieldSet.parse("id,title")));
+    }
+
+    @Test
+    void findAll_rejectsUnindexedSortAndUnboundedTitleSearch() {
+        BookFilterInDTO noFilter = new BookFilterInDTO(null, null, null);
+
+        assertThatThrownBy(() -> this.bookService.findAll(noFilter, 0, 10, "author.name", null))
+                .isInstanceOf(InvalidRequest.class);
+        assertThatThrownBy(() -> this.bookService.findAll(noFilter, 0, 10, "title,sideways", null))
+                .isInstanceOf(InvalidRequest.class);
+        assertThatThrownBy(() -> this.bookService.findAll(new BookFilterInDTO(null, null, "978"), 0, 10, "title", null))
+                .isInstanceOf(InvalidRequest.class);
+        assertThatThrownBy(() -> this.bookService.findAll(new BookFilterInDTO(null, "ring", null), 0, 10, null, null))
+                .isInstanceOf(InvalidRequest.class);
+        verifyNoInteractions(this.bookRepository);
     }
 }
@@ -0,0 +1,106 @@
+package com.fiap.project_bookstore_mvc.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.project_bookstore_mvc.changefeed.ChangeFeedSnapshot;
+import com.fiap.project_bookstore_mvc.entities.Author;
+import com.fiap.project_bookstore_mvc.entities.Book;
+import com.fiap.project_bookstore_mvc.mappers.AuthorMapper;
+import com.fiap.project_bookstore_mvc.mappers.BookMapper;
+import com.fiap.project_bookstore_mvc.repositories.AuthorRepository;
+import com.fiap.project_bookstore_mvc.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Author tolkien = new Author(3L, "J.R.R. Tolkien", "tolkien@example.com");
+    private final Author leGuin = new Author(7L, "Ursula K. Le Guin", "ursula@example.com");
+    private final Book hobbit = new Book(10L, "The Hobbit", "978-0261102217", this.tolkien);
+    private final Book earthsea = new Book(12L, "A Wizard of Earthsea", "978-0553383041", this.leGuin);
+    private final Book silmarillion = new Book(15L, "The Silmarillion \"revised\"", null, this.tolkien);
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AuthorRepository authorRepository = mock(AuthorRepository.class);
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(Long.MIN_VALUE), any(Limit.class)))
+                .thenReturn(List.of(this.tolkien, this.leGuin));
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(this.hobbit, this.earthsea))
+                .thenReturn(List.of(this.silmarillion));
+
+        Path file = this.directory.resolve("catalog.snap");
+        CatalogSnapshotWriter.write(file, 42L, 1000L, new ChangeFeedSnapshot(authorRepository, bookRepository, 2),
+                new SnapshotRenderer(this.objectMapper));
+        this.snapshot = CatalogSnapshot.open(file);
+    }
+
+    @Test
+    void open_readsHeader() {
+        assertThat(this.snapshot.sequence()).isEqualTo(42L);
+        assertThat(this.snapshot.builtAt()).isEqualTo(1000L);
+        assertThat(this.snapshot.authorCount()).isEqualTo(2);
+        assertThat(this.snapshot.bookCount()).isEqualTo(3);
+    }
+
+    @Test
+    void findAuthor_returnsRenderedJson() throws Exception {
+        int index = this.snapshot.findAuthor(7L);
+
+        assertThat(index).isEqualTo(1);
+        assertThat(text(this.snapshot.authorJson(index)))
+                .isEqualTo(this.objectMapper.writeValueAsString(AuthorMapper.toOutDTO(this.leGuin)));
+        assertThat(this.snapshot.findAuthor(5L)).isEqualTo(-1);
+    }
+
+    @Test
+    void findBook_prefixPlusAuthorMatchesControllerJson() throws Exception {
+        for (Book book : List.of(this.hobbit, this.earthsea, this.silmarillion)) {
+            int index = this.snapshot.findBook(book.getId());
+            long authorId = this.snapshot.bookAuthorId(index);
+            String json = text(this.snapshot.bookPrefix(index))
+                    + text(this.snapshot.authorJson(this.snapshot.findAuthor(authorId))) + "}";
+
+            assertThat(authorId).isEqualTo(book.getAuthor().getId());
+            assertThat(json).isEqualTo(this.objectMapper.writeValueAsString(BookMapper.toOutDTO(book)));
+        }
+        assertThat(this.snapshot.findBook(11L)).isEqualTo(-1);
+        assertThat(this.snapshot.findBook(99L)).isEqualTo(-1);
+    }
+
+    @Test
+    void open_rejectsFilesThatAreNotSnapshots() throws Exception {
+        Path other = Files.write(this.directory.resolve("other.snap"), new byte[64]);
+
+        assertThatThrownBy(() -> CatalogSnapshot.open(other))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String text(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingJsonConverterTest {
+
+    private final SqlStats stats = SqlStats.start();
+
+    @AfterEach
+    void tearDown() {
+        this.stats.stop();
+    }
+
+    @Test
+    void write_goesStraightThroughWhenNothingReportsOnIt() throws Exception {
+        MockHttpServletResponse response = write(new SqlBudgetProperties(true, SqlBudgetMode.LOG, 10, null, false));
+
+        assertThat(response.getHeader(ServerTimingJsonConverter.SERVER_TIMING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void write_addsServerTimingWhenEnabled() throws Exception {
+        MockHttpServletResponse response = write(new SqlBudgetProperties(true, SqlBudgetMode.LOG, 10, null, true));
+
+        assertThat(response.getHeader(ServerTimingJsonConverter.SERVER_TIMING)).startsWith("db;dur=");
+        assertThat(response.getContentLength()).isEqualTo(8);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    private static MockHttpServletResponse write(SqlBudgetProperties properties) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletServerHttpResponse output = new ServletServerHttpResponse(response);
+        new ServerTimingJsonConverter(new ObjectMapper(), properties)
+                .write(Map.of("id", 1), MediaType.APPLICATION_JSON, output);
+        output.flush();
+        return response;
+    }
+}
@@ -0,0 +1,75 @@
+package com.fiap.project_bookstore_mvc.sqlbudget;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatsDataSourceTest {
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1");
+        this.jdbc = new JdbcTemplate(new SqlStatsDataSource(h2));
+        this.jdbc.execute("DROP TABLE IF EXISTS items");
+        this.jdbc.execute("CREATE TABLE items (id BIGINT PRIMARY KEY)");
+        this.jdbc.batchUpdate("INSERT INTO items VALUES (?)", List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+    }
+
+    @Test
+    void countsStatementsAndRowsInsideTheScope() {
+        SqlStats stats = SqlStats.start();
+        try {
+            this.jdbc.queryForList("SELECT id FROM items", Long.class);
+            this.jdbc.update("UPDATE items SET id = id + 10 WHERE id = ?", 1);
+        } finally {
+            stats.stop();
+        }
+
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(stats.rows()).isEqualTo(3);
+        assertThat(stats.jdbcNanos()).isPositive();
+        assertThat(SqlStats.current()).isNull();
+    }
+
+    @Test
+    void nestedScopesCountTowardsTheirParents() {
+        SqlStats outer = SqlStats.start();
+        SqlStats inner;
+        try {
+            this.jdbc.queryForObject("SELECT COUNT(*) FROM items", Long.class);
+            inner = SqlStats.start();
+            try {
+                this.jdbc.queryForList("SELECT id FROM items", Long.class);
+            } finally {
+                inner.stop();
+            }
+        } finally {
+            outer.stop();
+        }
+
+        assertThat(inner.statements()).isEqualTo(1);
+        assertThat(inner.rows()).isEqualTo(3);
+        assertThat(outer.statements()).isEqualTo(2);
+        assertThat(outer.rows()).isEqualTo(4);
+    }
+
+    @Test
+    void batchesCountAsOneStatement() {
+        SqlStats stats = SqlStats.start();
+        try {
+            this.jdbc.batchUpdate("UPDATE items SET id = id WHERE id = ?", List.of(new Object[]{1}, new Object[]{2}));
+        } finally {
+            stats.stop();
+        }
+
+        assertThat(stats.statements()).isEqualTo(1);
+    }
+}
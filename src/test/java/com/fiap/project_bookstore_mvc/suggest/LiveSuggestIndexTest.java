@@ -0,0 +1,50 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveSuggestIndexTest {
+
+    private final LiveSuggestIndex index = new LiveSuggestIndex();
+
+    @Test
+    void suggest_seesChangesBeforeTheNextRebuild() {
+        this.index.replace(SuggestIndex.build(new long[]{1, 2}, new String[]{"Dune", "Dracula"}, new int[]{5, 3}, 2), 10);
+
+        this.index.put(11, 3, "Dubliners");
+        this.index.put(12, 1, "Emma");
+        this.index.remove(13, 2);
+
+        assertThat(ids(this.index.suggest("du", 10))).containsExactly(3L);
+        assertThat(this.index.suggest("EM", 10)).containsExactly(new Suggestion(1, "Emma", 5));
+        assertThat(this.index.suggest("dra", 10)).isEmpty();
+    }
+
+    @Test
+    void replace_dropsChangesTheNewIndexAlreadyHas() {
+        this.index.put(11, 3, "Dubliners");
+        this.index.put(14, 4, "Dune Messiah");
+
+        this.index.replace(SuggestIndex.build(new long[]{3}, new String[]{"Dubliners"}, new int[]{1}, 1), 12);
+
+        assertThat(this.index.pendingSize()).isEqualTo(1);
+        assertThat(ids(this.index.suggest("du", 10))).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void put_ignoresChangesOlderThanTheIndex() {
+        this.index.replace(SuggestIndex.build(new long[]{1}, new String[]{"Dune"}, new int[]{1}, 1), 10);
+
+        this.index.put(9, 1, "Emma");
+
+        assertThat(ids(this.index.suggest("dune", 10))).containsExactly(1L);
+        assertThat(this.index.suggest("", 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::id).toList();
+    }
+}
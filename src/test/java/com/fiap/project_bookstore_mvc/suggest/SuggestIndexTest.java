@@ -0,0 +1,53 @@
+package com.fiap.project_bookstore_mvc.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestIndexTest {
+
+    private final SuggestIndex index = SuggestIndex.build(
+            new long[]{1, 2, 3, 4, 5},
+            new String[]{"J. R. R. Tolkien", "José Saramago", "Joanne Rowling", "Jorge Amado", "Tolstoy"},
+            new int[]{10, 4, 7, 4, 2},
+            5);
+
+    @Test
+    void top_ranksMatchesByWeight() {
+        assertThat(ids(this.index.top(bytes("jo"), 10, id -> false))).containsExactly(3L, 4L, 2L);
+    }
+
+    @Test
+    void top_matchesLaterWordsAndFoldsAccents() {
+        assertThat(ids(this.index.top(bytes("tol"), 10, id -> false))).containsExactly(1L, 5L);
+        assertThat(ids(this.index.top(bytes(TextNormalizer.normalize("SARAM")), 10, id -> false))).containsExactly(2L);
+        assertThat(this.index.top(bytes("jose"), 1, id -> false).get(0).label()).isEqualTo("José Saramago");
+    }
+
+    @Test
+    void top_honoursLimitAndSkip() {
+        assertThat(ids(this.index.top(bytes("j"), 2, id -> false))).containsExactly(1L, 3L);
+        assertThat(ids(this.index.top(bytes("j"), 2, id -> id == 1L))).containsExactly(3L, 4L);
+        assertThat(this.index.top(bytes("x"), 10, id -> false)).isEmpty();
+    }
+
+    @Test
+    void top_returnsEachDocumentOnce() {
+        SuggestIndex repeated = SuggestIndex.build(new long[]{9}, new String[]{"Rose Rose Rose"}, new int[]{1}, 1);
+
+        assertThat(ids(repeated.top(bytes("ros"), 10, id -> false))).containsExactly(9L);
+        assertThat(repeated.weightOf(9)).isEqualTo(1);
+        assertThat(SuggestIndex.EMPTY.top(bytes("a"), 10, id -> false)).isEmpty();
+    }
+
+    private static byte[] bytes(String prefix) {
+        return prefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::id).toList();
+    }
+}